@@ -0,0 +1,108 @@
+package com.team02.spmpevaluator.service;
+
+import com.team02.spmpevaluator.entity.SectionAnalysis.IEEE1058Section;
+import com.team02.spmpevaluator.util.KeywordAutomaton;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and allocation of the keyword phase of an evaluation (section detection and scoring, no
+ * AI) on a generated SPMP. Run with the GC profiler to see bytes allocated per evaluation:
+ * <pre>
+ * ./mvnw -Pbenchmark test-compile exec:exec -Djmh.benchmarks=KeywordPhaseBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KeywordPhaseBenchmark {
+
+    private static final IEEE1058Section[] SECTIONS = IEEE1058Section.values();
+    // Section titles as the only fixed terms, so heading blocks are labelled for training
+    private static final KeywordAutomaton TITLES = KeywordAutomaton.of(
+            Arrays.stream(SECTIONS).map(section -> section.getDisplayName().toLowerCase()).toList());
+    private static final int[] TITLE_TERMS = Arrays.stream(SECTIONS).mapToInt(Enum::ordinal).toArray();
+
+    /**
+     * Paragraphs per section; 4 is a short student plan, 40 a long one.
+     */
+    @Param({"4", "40"})
+    private int paragraphs;
+
+    /**
+     * Section classifier: "off", or "trained" on 20 other generated plans.
+     */
+    @Param({"off", "trained"})
+    private String classifier;
+
+    private ComplianceEvaluationService evaluationService;
+    private String document;
+
+    @Setup
+    public void setUp() {
+        // The keyword phase touches none of the other collaborators
+        boolean trained = "trained".equals(classifier);
+        SectionClassifier sectionClassifier = new SectionClassifier(trained, 1, 0.3);
+        evaluationService = new ComplianceEvaluationService(null, null, null, null, null, null, sectionClassifier, null);
+        Random random = new Random(1058);
+        document = generateDocument(paragraphs, random);
+        for (int i = 0; trained && i < 20; i++) {
+            try (EvaluationContext context = EvaluationContext.open(generateDocument(paragraphs, random),
+                    KeywordDictionary.BUILT_IN, TITLES)) {
+                sectionClassifier.learn((long) i, "generated", sectionClassifier.sample(context, TITLE_TERMS));
+            }
+        }
+    }
+
+    @Benchmark
+    public EvaluationResult keywordEvaluation() {
+        return evaluationService.computeKeywordEvaluation(document, ScoringPlan.DEFAULT, KeywordDictionary.BUILT_IN);
+    }
+
+    private static String generateDocument(int paragraphs, Random random) {
+        List<String> filler = List.of("the", "team", "will", "deliver", "each", "week", "with", "clear", "owners",
+                "and", "documented", "results", "for", "the", "client");
+        StringBuilder text = new StringBuilder("Software Project Management Plan\r\n\r\nTable of Contents\r\n");
+        int number = 1;
+        for (IEEE1058Section section : IEEE1058Section.values()) {
+            // Leave some sections out so the plan is not perfect
+            if (random.nextInt(6) == 0) {
+                continue;
+            }
+            List<String> keywords = new ArrayList<>(KeywordDictionary.BUILT_IN.keywordsFor(section));
+            text.append(number++).append(". ").append(section.getDisplayName()).append("\r\n");
+            for (int p = 0; p < paragraphs; p++) {
+                if (p % 3 == 2) {
+                    text.append("- ").append(keywords.get(random.nextInt(keywords.size()))).append("\r\n");
+                    continue;
+                }
+                for (int w = 0; w < 60; w++) {
+                    text.append(random.nextInt(8) == 0
+                            ? keywords.get(random.nextInt(keywords.size()))
+                            : filler.get(random.nextInt(filler.size())));
+                    text.append(w % 15 == 14 ? "\r\n" : " ");
+                }
+                text.append("\r\n");
+            }
+        }
+        return text.toString();
+    }
+}
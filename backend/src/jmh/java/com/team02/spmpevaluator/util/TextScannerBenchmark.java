@@ -0,0 +1,99 @@
+package com.team02.spmpevaluator.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar against vectorized {@link TextScanner} on a large plan: splitting it into lines,
+ * checking each line for other terminators, and folding it to bytes.
+ * <pre>
+ * ./mvnw -Pbenchmark test-compile exec:exec -Djmh.benchmarks=TextScannerBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextScannerBenchmark {
+
+    @Param({"scalar", "preferred"})
+    private String scanner;
+
+    /**
+     * Characters in the document; 1M is a long SPMP, 5M an extreme one.
+     */
+    @Param({"1000000", "5000000"})
+    private int length;
+
+    private TextScanner textScanner;
+    private char[] text;
+    private byte[] folded;
+
+    @Setup
+    public void setUp() {
+        textScanner = "scalar".equals(scanner) ? TextScanner.scalar() : TextScanner.get();
+        if ("preferred".equals(scanner) && !textScanner.isVectorized()) {
+            throw new IllegalStateException("Vector API not available; run with -Pbenchmark,vector");
+        }
+        text = generateText(length, new Random(1058));
+        folded = new byte[length];
+    }
+
+    @Benchmark
+    public int lines() {
+        int lines = 0;
+        int cleanLines = 0;
+        for (int start = 0; start <= text.length; lines++) {
+            int end = textScanner.indexOf(text, start, text.length, '\n');
+            if (textScanner.indexOfLineBreak(text, start, end) == end) {
+                cleanLines++;
+            }
+            start = end + 1;
+        }
+        return lines + cleanLines;
+    }
+
+    @Benchmark
+    public byte[] foldAscii() {
+        textScanner.foldAscii(text, 0, text.length, folded, 0);
+        return folded;
+    }
+
+    // Prose lines of 40 to 120 characters, with headings and bullets, all ASCII
+    private static char[] generateText(int length, Random random) {
+        String[] words = {"The", "project", "team", "will", "deliver", "Risk", "management", "schedule",
+                "milestones", "budget", "review", "and", "of", "for", "WBS", "2.3", "Gantt"};
+        StringBuilder text = new StringBuilder(length + 128);
+        while (text.length() < length) {
+            int lineLength = 40 + random.nextInt(80);
+            int lineStart = text.length();
+            if (random.nextInt(10) == 0) {
+                text.append(random.nextInt(9) + 1).append(". ");
+            } else if (random.nextInt(10) == 0) {
+                text.append("- ");
+            }
+            while (text.length() - lineStart < lineLength) {
+                text.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            text.append('\n');
+        }
+        text.setLength(length);
+        char[] chars = new char[length];
+        text.getChars(0, length, chars, 0);
+        return chars;
+    }
+}
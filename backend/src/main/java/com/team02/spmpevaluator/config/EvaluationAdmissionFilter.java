@@ -0,0 +1,84 @@
+package com.team02.spmpevaluator.config;
+
+import com.team02.spmpevaluator.service.EvaluationAdmissionService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Runs evaluation requests through {@link EvaluationAdmissionService}.
+ * Registered after the security filter chain, so the caller is already authenticated.
+ * Students get interactive priority; professors and admins, who grade in bulk, get bulk priority.
+ * Rejected requests get 429 (per-user rate limit) or 503 (overloaded) with a Retry-After header.
+ */
+@Component
+public class EvaluationAdmissionFilter extends OncePerRequestFilter {
+
+    private static final Pattern EVALUATION_PATH = Pattern.compile(
+            "^/api/documents/\\d+/(re-)?evaluate$|^/api/parser/feedback/\\d+/(generate-mock|analyze)$");
+
+    private final EvaluationAdmissionService admissionService;
+
+    public EvaluationAdmissionFilter(EvaluationAdmissionService admissionService) {
+        this.admissionService = admissionService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !EVALUATION_PATH.matcher(request.getRequestURI()).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        EvaluationAdmissionService.Ticket ticket;
+        try {
+            ticket = admissionService.admit(authentication.getName(), priorityOf(authentication));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+
+        try (ticket) {
+            if (!ticket.isAdmitted()) {
+                reject(response, ticket);
+                return;
+            }
+            chain.doFilter(request, response);
+        }
+    }
+
+    private static EvaluationAdmissionService.Priority priorityOf(Authentication authentication) {
+        boolean student = authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_STUDENT".equals(authority.getAuthority()));
+        return student ? EvaluationAdmissionService.Priority.INTERACTIVE : EvaluationAdmissionService.Priority.BULK;
+    }
+
+    private static void reject(HttpServletResponse response, EvaluationAdmissionService.Ticket ticket)
+            throws IOException {
+        boolean rateLimited = ticket.getRejection() == EvaluationAdmissionService.Rejection.RATE_LIMITED;
+        response.setStatus(rateLimited ? HttpStatus.TOO_MANY_REQUESTS.value() : HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(ticket.getRetryAfterSeconds()));
+        response.setContentType("text/plain");
+        response.getWriter().write(rateLimited
+                ? "Too many evaluation requests. Please try again in " + ticket.getRetryAfterSeconds() + " seconds."
+                : "The evaluation service is busy. Please try again in " + ticket.getRetryAfterSeconds() + " seconds.");
+    }
+}
@@ -0,0 +1,26 @@
+package com.team02.spmpevaluator.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewFilter;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Pattern;
+
+/**
+ * Open-in-view for every request except document evaluation.
+ * With open-in-view the request keeps its database connection from the first query until the
+ * response is written, which for an evaluation means for the whole of parsing and the AI calls.
+ * Evaluation endpoints load what they need in short transactions instead. Registering this
+ * filter replaces Spring Boot's default open-in-view interceptor.
+ */
+@Component
+public class EvaluationOpenInViewFilter extends OpenEntityManagerInViewFilter {
+
+    private static final Pattern EVALUATION_PATH = Pattern.compile(
+            "^/api/documents/\\d+/(re-)?evaluate$|^/api/parser/feedback/\\d+/generate-mock$");
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return "POST".equals(request.getMethod()) && EVALUATION_PATH.matcher(request.getRequestURI()).matches();
+    }
+}
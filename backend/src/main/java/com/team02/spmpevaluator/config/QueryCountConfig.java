@@ -0,0 +1,18 @@
+package com.team02.spmpevaluator.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers {@link QueryCountInspector} with Hibernate so every prepared statement is counted.
+ */
+@Configuration
+public class QueryCountConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountCustomizer() {
+        return properties -> properties.put("hibernate.session_factory.statement_inspector",
+                new QueryCountInspector());
+    }
+}
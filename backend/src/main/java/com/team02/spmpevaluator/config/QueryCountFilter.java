@@ -0,0 +1,73 @@
+package com.team02.spmpevaluator.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts the SQL statements executed while serving each request.
+ * The count is logged and recorded in the {@code http.server.requests.sql} summary, tagged by
+ * the matched URI pattern, so endpoints that issue one query per row show up quickly.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    static final String METRIC_NAME = "http.server.requests.sql";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.query-count.warn-threshold:20}")
+    private int warnThreshold;
+
+    public QueryCountFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryCountInspector.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int count = QueryCountInspector.stop();
+            String uri = resolveUri(request);
+
+            DistributionSummary.builder(METRIC_NAME)
+                    .description("SQL statements executed per HTTP request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(count);
+
+            if (count > warnThreshold) {
+                log.warn("{} {} executed {} SQL statements (threshold {})",
+                        request.getMethod(), uri, count, warnThreshold);
+            } else {
+                log.debug("{} {} executed {} SQL statements", request.getMethod(), uri, count);
+            }
+        }
+    }
+
+    /**
+     * Use the matched handler pattern so path variables don't explode metric cardinality.
+     */
+    private String resolveUri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNMATCHED";
+    }
+}
@@ -0,0 +1,46 @@
+package com.team02.spmpevaluator.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector that counts SQL statements prepared on the current thread.
+ * The count is opened and closed per HTTP request by {@link QueryCountFilter} and can also be
+ * used directly by tests to assert query budgets.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNTER = new ThreadLocal<>();
+
+    /**
+     * Start counting statements on the current thread, discarding any previous count.
+     */
+    public static void start() {
+        COUNTER.set(new int[1]);
+    }
+
+    /**
+     * Number of statements prepared since {@link #start()}, or 0 when counting is not active.
+     */
+    public static int current() {
+        int[] counter = COUNTER.get();
+        return counter == null ? 0 : counter[0];
+    }
+
+    /**
+     * Stop counting on the current thread and return the final count.
+     */
+    public static int stop() {
+        int count = current();
+        COUNTER.remove();
+        return count;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] counter = COUNTER.get();
+        if (counter != null) {
+            counter[0]++;
+        }
+        return sql;
+    }
+}
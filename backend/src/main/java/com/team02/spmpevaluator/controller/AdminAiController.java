@@ -0,0 +1,83 @@
+package com.team02.spmpevaluator.controller;
+
+import com.team02.spmpevaluator.service.AiModelRouter;
+import com.team02.spmpevaluator.service.AiUsageService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Controller for AI provider diagnostics and usage reporting (admin only).
+ */
+@RestController
+@RequestMapping("/api/admin/ai")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class AdminAiController {
+
+    private final AiModelRouter modelRouter;
+    private final AiUsageService usageService;
+
+    /**
+     * Routing statistics for each configured model: circuit state, rolling p50/p95 latency,
+     * error rate and request counts. Models are listed in pool order; {@code routingOrder}
+     * is the order the next request would try them in.
+     */
+    @GetMapping("/models")
+    public ResponseEntity<?> getModelStats() {
+        Map<String, Object> report = new HashMap<>();
+        report.put("models", modelRouter.getStats());
+        report.put("routingOrder", modelRouter.candidates());
+        report.put("generatedAt", LocalDateTime.now().toString());
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * AI usage rollup (calls, failures, tokens, cost, latency) between two dates, inclusive.
+     * Defaults to the last 30 days grouped by day; {@code groupBy} may be day, model or professor.
+     */
+    @GetMapping("/usage")
+    public ResponseEntity<?> getUsage(@RequestParam(defaultValue = "day") String groupBy,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        AiUsageService.GroupBy grouping;
+        try {
+            grouping = AiUsageService.GroupBy.valueOf(groupBy.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("groupBy must be one of: day, model, professor");
+        }
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().body("from must not be after to");
+        }
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("groupBy", grouping.name().toLowerCase(Locale.ROOT));
+        report.put("from", start.toString());
+        report.put("to", end.toString());
+        report.put("rows", usageService.rollup(grouping, start, end));
+        report.put("pendingRecords", usageService.getPendingCount());
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Every AI call recorded for one document, oldest first.
+     */
+    @GetMapping("/usage/documents/{documentId}")
+    public ResponseEntity<?> getDocumentUsage(@PathVariable Long documentId) {
+        return ResponseEntity.ok(usageService.getDocumentUsage(documentId));
+    }
+}
@@ -0,0 +1,83 @@
+package com.team02.spmpevaluator.controller;
+
+import com.team02.spmpevaluator.entity.SectionAnalysis;
+import com.team02.spmpevaluator.service.KeywordDictionary;
+import com.team02.spmpevaluator.service.KeywordDictionaryService;
+import com.team02.spmpevaluator.service.KeywordResweepService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Controller for the IEEE 1058 section keyword dictionary and its background re-sweep (admin only).
+ */
+@RestController
+@RequestMapping("/api/admin/keyword-dictionary")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class AdminKeywordDictionaryController {
+
+    private final KeywordDictionaryService dictionaryService;
+    private final KeywordResweepService resweepService;
+
+    /**
+     * Current dictionary version, the keywords of every section and the re-sweep progress.
+     */
+    @GetMapping
+    public ResponseEntity<?> getDictionary() {
+        return ResponseEntity.ok(report(dictionaryService.current()));
+    }
+
+    /**
+     * Replaces the keywords of one section. A change bumps the dictionary version and starts a
+     * background re-sweep of the stored scores once it commits.
+     */
+    @PutMapping("/sections/{section}")
+    public ResponseEntity<?> updateSection(@PathVariable String section,
+                                           @RequestBody Map<String, List<String>> request,
+                                           Authentication authentication) {
+        SectionAnalysis.IEEE1058Section sectionName;
+        try {
+            sectionName = SectionAnalysis.IEEE1058Section.valueOf(section.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Unknown section: " + section);
+        }
+        try {
+            KeywordDictionary updated = dictionaryService.updateKeywords(sectionName, request.get("keywords"),
+                    authentication.getName());
+            return ResponseEntity.ok(report(updated));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Re-sweeps scores computed with an older dictionary, e.g. after an interrupted sweep.
+     */
+    @PostMapping("/sweep")
+    public ResponseEntity<?> startSweep() {
+        resweepService.requestSweep(dictionaryService.current().getVersion());
+        return ResponseEntity.accepted().body(resweepService.getStatus());
+    }
+
+    private Map<String, Object> report(KeywordDictionary dictionary) {
+        Map<String, Object> report = new HashMap<>();
+        report.put("version", dictionary.getVersion());
+        report.put("sections", dictionary.getKeywords());
+        report.put("sweep", resweepService.getStatus());
+        return report;
+    }
+}
@@ -9,6 +9,8 @@ import com.team02.spmpevaluator.service.ComplianceHistoryService;
 import com.team02.spmpevaluator.repository.ComplianceScoreRepository;
 import com.team02.spmpevaluator.service.AuditLogService;
 import com.team02.spmpevaluator.service.ComplianceEvaluationService;
+import com.team02.spmpevaluator.service.EvaluationProgressService;
+import com.team02.spmpevaluator.service.EvaluationSingleFlight;
 import com.team02.spmpevaluator.service.ReportExportService;
 import com.team02.spmpevaluator.service.SPMPDocumentService;
 import com.team02.spmpevaluator.service.UserService;
@@ -17,13 +19,16 @@ import com.team02.spmpevaluator.entity.ComplianceScoreHistory;
 import com.team02.spmpevaluator.util.DocumentParser;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
 import java.util.List;
@@ -47,6 +52,8 @@ public class DocumentController {
     private final ComplianceScoreRepository complianceScoreRepository;
     private final ComplianceHistoryService complianceHistoryService;
     private final ReportExportService reportExportService;
+    private final EvaluationProgressService progressService;
+    private final EvaluationSingleFlight evaluationSingleFlight;
 
     /**
      * Upload an SPMP document.
@@ -79,21 +86,24 @@ public class DocumentController {
      * Evaluate an uploaded document against IEEE 1058 standard.
      */
     @PostMapping("/{documentId}/evaluate")
-    @Transactional
     public ResponseEntity<?> evaluateDocument(@PathVariable Long documentId) {
         try {
             // Get document
             SPMPDocument document = documentService.getDocumentById(documentId)
                     .orElseThrow(() -> new IllegalArgumentException("Document not found"));
 
-            // Extract text content
-            String documentContent = documentService.getDocumentContent(documentId);
+            // Concurrent requests for the same document share one evaluation
+            var complianceScore = evaluationSingleFlight.evaluate(document, () -> {
+                // Extract text content
+                String documentContent = documentService.getDocumentContent(documentId);
 
-            // Evaluate (first time only - no archiving)
-            var complianceScore = evaluationService.evaluateDocument(document, documentContent);
+                // Evaluate (first time only - no archiving)
+                ComplianceScore score = evaluationService.evaluateDocument(document, documentContent);
 
-            // Update document status
-            documentService.updateDocumentEvaluation(documentId, "", true);
+                // Update document status
+                documentService.updateDocumentEvaluation(documentId, "", true);
+                return score;
+            });
 
             // Return report
             ComplianceReportDTO report = evaluationService.convertToDTO(
@@ -103,16 +113,49 @@ public class DocumentController {
             );
             return ResponseEntity.ok(report);
         } catch (IllegalArgumentException e) {
+            progressService.fail(documentId, e.getMessage());
             return ResponseEntity.badRequest().body("Evaluation failed: " + e.getMessage());
         } catch (IOException e) {
+            progressService.fail(documentId, e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Failed to process document: " + e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            progressService.fail(documentId, "Score was changed concurrently");
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Evaluation conflict: the score was changed by another request, please retry");
         } catch (Exception e) {
+            progressService.fail(documentId, e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Evaluation error: " + e.getMessage());
         }
     }
 
+    /**
+     * Stream evaluation progress for a document as server-sent events.
+     * Subscribe before starting (re-)evaluation to receive AI section findings while they are
+     * generated, followed by a "completed" or "failed" event.
+     */
+    @GetMapping(value = "/{documentId}/evaluation-progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvaluationProgress(@PathVariable Long documentId) {
+        SPMPDocument document = documentService.getDocumentById(documentId).orElse(null);
+        if (document == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        User currentUser = userService.findByUsername(getAuthenticatedUsername()).orElse(null);
+        if (currentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (currentUser.getRole() == Role.STUDENT &&
+            !document.getUploadedBy().getId().equals(currentUser.getId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(progressService.subscribe(documentId));
+    }
+
     /**
      * Get my documents (current user's uploads).
      */
@@ -383,6 +426,9 @@ public class DocumentController {
             return ResponseEntity.ok(document);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body("Override failed: " + e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Override conflict: the score was changed by another request, please retry");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Failed to override score: " + e.getMessage());
@@ -393,28 +439,33 @@ public class DocumentController {
      * Re-evaluate a document even if it was already evaluated.
      */
     @PostMapping("/{documentId}/re-evaluate")
-    @Transactional
     public ResponseEntity<?> reEvaluateDocument(@PathVariable Long documentId) {
         try {
             // Get document
             SPMPDocument document = documentService.getDocumentById(documentId)
                     .orElseThrow(() -> new IllegalArgumentException("Document not found"));
 
-            // Archive existing score BEFORE loading it into the evaluation service
-            ComplianceScore existingScore = complianceScoreRepository.findByDocumentIdWithDocument(documentId).orElse(null);
-            if (existingScore != null) {
-                // Create history entry from the existing score (without fetching section analyses)
-                complianceHistoryService.archiveScore(existingScore, "RE_EVALUATION", getCurrentUserId());
-            }
+            Long currentUserId = getCurrentUserId();
+
+            // Concurrent requests for the same document share one evaluation (and one archive entry)
+            var complianceScore = evaluationSingleFlight.evaluate(document, () -> {
+                // Archive existing score BEFORE loading it into the evaluation service
+                ComplianceScore existingScore = complianceScoreRepository.findByDocumentIdWithDocument(documentId).orElse(null);
+                if (existingScore != null) {
+                    // Create history entry from the existing score (without fetching section analyses)
+                    complianceHistoryService.archiveScore(existingScore, "RE_EVALUATION", currentUserId);
+                }
 
-            // Extract text content
-            String documentContent = documentService.getDocumentContent(documentId);
+                // Extract text content
+                String documentContent = documentService.getDocumentContent(documentId);
 
-            // Re-evaluate (this will clear old section analyses and create new ones)
-            var complianceScore = evaluationService.evaluateDocument(document, documentContent);
+                // Re-evaluate (this will clear old section analyses and create new ones)
+                ComplianceScore score = evaluationService.evaluateDocument(document, documentContent);
 
-            // Update document status
-            documentService.updateDocumentEvaluation(documentId, "", true);
+                // Update document status
+                documentService.updateDocumentEvaluation(documentId, "", true);
+                return score;
+            });
 
             // Return report
             ComplianceReportDTO report = evaluationService.convertToDTO(
@@ -424,11 +475,18 @@ public class DocumentController {
             );
             return ResponseEntity.ok(report);
         } catch (IllegalArgumentException e) {
+            progressService.fail(documentId, e.getMessage());
             return ResponseEntity.badRequest().body("Re-evaluation failed: " + e.getMessage());
         } catch (IOException e) {
+            progressService.fail(documentId, e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Failed to process document: " + e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            progressService.fail(documentId, "Score was changed concurrently");
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Re-evaluation conflict: the score was changed by another request, please retry");
         } catch (Exception e) {
+            progressService.fail(documentId, e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Re-evaluation error: " + e.getMessage());
         }
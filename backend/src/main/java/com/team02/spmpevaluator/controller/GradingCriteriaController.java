@@ -2,9 +2,11 @@ package com.team02.spmpevaluator.controller;
 
 import com.team02.spmpevaluator.dto.ErrorResponse;
 import com.team02.spmpevaluator.dto.GradingCriteriaDTO;
+import com.team02.spmpevaluator.dto.WhatIfRescoringDTO;
 import com.team02.spmpevaluator.entity.User;
 import com.team02.spmpevaluator.service.GradingCriteriaService;
 import com.team02.spmpevaluator.service.UserService;
+import com.team02.spmpevaluator.service.WhatIfRescoringService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -27,6 +29,7 @@ public class GradingCriteriaController {
 
     private final GradingCriteriaService gradingCriteriaService;
     private final UserService userService;
+    private final WhatIfRescoringService whatIfRescoringService;
 
     /**
      * Create a new grading criteria.
@@ -212,6 +215,34 @@ public class GradingCriteriaController {
         }
     }
 
+    /**
+     * Preview candidate weights against the evaluated documents of the professor's students.
+     * Overall scores are recomputed from the stored section scores, without re-evaluating.
+     * 
+     * @param dto Candidate weights (a name is only required to commit)
+     * @param commit Save and activate the candidate and write the new scores back instead of only previewing them
+     * @param authentication Current user authentication
+     * @return New scores, compliance changes and score distribution
+     */
+    @PostMapping("/what-if")
+    @PreAuthorize("hasRole('PROFESSOR')")
+    public ResponseEntity<?> whatIfRescore(
+            @RequestBody GradingCriteriaDTO dto,
+            @RequestParam(defaultValue = "false") boolean commit,
+            Authentication authentication) {
+        try {
+            Long professorId = getCurrentUserId(authentication);
+            WhatIfRescoringDTO result = whatIfRescoringService.rescore(professorId, dto, commit);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse(e.getMessage(), 400));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Failed to rescore documents: " + e.getMessage(), 500));
+        }
+    }
+
     /**
      * Helper method to get current user ID from authentication.
      */
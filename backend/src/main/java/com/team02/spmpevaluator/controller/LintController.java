@@ -0,0 +1,46 @@
+package com.team02.spmpevaluator.controller;
+
+import com.team02.spmpevaluator.dto.ErrorResponse;
+import com.team02.spmpevaluator.dto.SectionLintRequest;
+import com.team02.spmpevaluator.service.ComplianceEvaluationService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Live checks of section drafts while they are written, for any signed-in user.
+ * Nothing is uploaded, parsed, stored or sent to the AI.
+ */
+@RestController
+@RequestMapping("/api/lint")
+public class LintController {
+
+    private final ComplianceEvaluationService evaluationService;
+    private final int maxChars;
+
+    public LintController(ComplianceEvaluationService evaluationService,
+                          @Value("${app.lint.max-chars:50000}") int maxChars) {
+        this.evaluationService = evaluationService;
+        this.maxChars = maxChars;
+    }
+
+    /**
+     * Keyword coverage, missing subclauses and projected score of a draft as the given section.
+     *
+     * @param request Target section and the draft text
+     * @return Coverage and score of the draft, or 413 if the text is longer than a section should be
+     */
+    @PostMapping("/section")
+    public ResponseEntity<?> lintSection(@Valid @RequestBody SectionLintRequest request) {
+        if (request.getText().length() > maxChars) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(new ErrorResponse("Section text exceeds " + maxChars + " characters", 413));
+        }
+        return ResponseEntity.ok(evaluationService.lintSection(request.getSection(), request.getText()));
+    }
+}
@@ -189,6 +189,28 @@ public class ParserController {
         }
     }
 
+    /**
+     * Queue an AI analysis of a document and return the PENDING feedback entry.
+     * Poll GET /feedback/{id} until the status is COMPLETED or FAILED.
+     */
+    @PostMapping("/feedback/{documentId}/analyze")
+    @PreAuthorize("hasRole('PROFESSOR')")
+    public ResponseEntity<?> analyzeDocument(@PathVariable Long documentId) {
+        try {
+            SPMPDocument document = documentRepository.findById(documentId)
+                    .orElseThrow(() -> new RuntimeException("Document not found"));
+
+            ParserConfiguration config = parserConfigurationService.getDefaultConfiguration()
+                    .orElseThrow(() -> new RuntimeException("No default configuration found"));
+
+            ParserFeedback feedback = parserFeedbackService.submitAnalysis(document, config);
+
+            return ResponseEntity.accepted().body(convertToFeedbackDTO(feedback));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Failed to queue analysis: " + e.getMessage());
+        }
+    }
+
     /**
      * Get feedback for a specific document
      */
@@ -0,0 +1,22 @@
+package com.team02.spmpevaluator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Aggregated AI usage for one group (a day, a model or a professor).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiUsageRollupDTO {
+    private String key;
+    private Long calls;
+    private Long failures;
+    private Long promptTokens;
+    private Long completionTokens;
+    private Double cost;
+    private Double averageLatencyMs;
+    private Long maxLatencyMs;
+}
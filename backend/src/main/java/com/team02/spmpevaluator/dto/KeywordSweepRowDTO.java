@@ -0,0 +1,21 @@
+package com.team02.spmpevaluator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A stored compliance score due for a keyword re-sweep, with what is needed to rescore it
+ * without loading the entities.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeywordSweepRowDTO {
+    private Long scoreId;
+    private Long version;
+    private Long documentId;
+    private Long studentId;
+    private Double overallScore;
+    private Integer sectionsFound;
+}
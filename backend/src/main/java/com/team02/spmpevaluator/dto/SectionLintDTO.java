@@ -0,0 +1,30 @@
+package com.team02.spmpevaluator.dto;
+
+import com.team02.spmpevaluator.entity.SectionAnalysis.IEEE1058Section;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Keyword coverage and projected score of a section draft, as a full evaluation would score the
+ * text if it were the whole section. Coverages and the score are percentages.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SectionLintDTO {
+    private IEEE1058Section section;
+    private boolean present;
+    private double projectedScore;
+    private double keywordCoverage;
+    private double subclauseCoverage;
+    private List<String> matchedKeywords;
+    private List<String> missingKeywords;
+    private List<String> missingSubclauses;
+    private String findings;
+    private String recommendations;
+    private long keywordDictionaryVersion;
+    private long elapsedMicros;
+}
@@ -0,0 +1,23 @@
+package com.team02.spmpevaluator.dto;
+
+import com.team02.spmpevaluator.entity.SectionAnalysis.IEEE1058Section;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Draft text of one section to check against the IEEE 1058 section it is meant to cover.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SectionLintRequest {
+
+    @NotNull(message = "Section is required")
+    private IEEE1058Section section;
+
+    @NotBlank(message = "Text is required")
+    private String text;
+}
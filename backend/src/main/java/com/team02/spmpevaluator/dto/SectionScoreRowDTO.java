@@ -0,0 +1,24 @@
+package com.team02.spmpevaluator.dto;
+
+import com.team02.spmpevaluator.entity.SectionAnalysis;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One stored section score together with the compliance score it belongs to.
+ * Projection row used to rescore evaluations without loading the entities.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SectionScoreRowDTO {
+    private Long scoreId;
+    private Long version;
+    private Long documentId;
+    private String fileName;
+    private Double overallScore;
+    private boolean compliant;
+    private SectionAnalysis.IEEE1058Section section;
+    private Double sectionScore;
+}
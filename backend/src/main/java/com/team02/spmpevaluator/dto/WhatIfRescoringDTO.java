@@ -0,0 +1,44 @@
+package com.team02.spmpevaluator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of rescoring a professor's evaluated documents with candidate section weights.
+ * The distribution counts new overall scores in ten buckets of 10 points (the last includes 100).
+ * When committed, criteriaId is the grading criteria the candidate was saved and activated as.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WhatIfRescoringDTO {
+    private int documentsScored;
+    private int becameCompliant;
+    private int becameNonCompliant;
+    private double averageScore;
+    private double medianScore;
+    private double minScore;
+    private double maxScore;
+    private int[] distribution;
+    private List<DocumentScore> documents;
+    private boolean committed;
+    private Long criteriaId;
+    private int updated;
+    private int skippedStale;
+    private long elapsedMillis;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DocumentScore {
+        private Long documentId;
+        private String fileName;
+        private double currentScore;
+        private double newScore;
+        private boolean currentlyCompliant;
+        private boolean compliant;
+    }
+}
@@ -0,0 +1,55 @@
+package com.team02.spmpevaluator.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted AI response, keyed by a hash of model, prompt template version and prompt content.
+ * Back tier of the AI response cache; survives restarts so unchanged re-uploads skip the AI call.
+ */
+@Entity
+@Table(name = "ai_response_cache", indexes = {
+        @Index(name = "idx_ai_cache_expires", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiResponseCacheEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cache_key", nullable = false, unique = true, length = 64)
+    private String cacheKey;
+
+    @Column(nullable = false)
+    private String model;
+
+    @Column(name = "prompt_version", nullable = false, length = 64)
+    private String promptVersion;
+
+    @Column(columnDefinition = "LONGTEXT", nullable = false)
+    private String response;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.isBefore(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,92 @@
+package com.team02.spmpevaluator.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One AI provider call in the usage ledger: model, token counts reported by the provider,
+ * latency, outcome and the document/section it served.
+ * The document is referenced by id only so usage history survives document deletion.
+ */
+@Entity
+@Table(name = "ai_usage_records", indexes = {
+        @Index(name = "idx_ai_usage_date", columnList = "usage_date"),
+        @Index(name = "idx_ai_usage_document", columnList = "document_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiUsageRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String model;
+
+    /**
+     * Feature that made the call, e.g. section-enrichment or parser-feedback
+     */
+    @Column(nullable = false, length = 64)
+    private String operation;
+
+    @Column(name = "document_id")
+    private Long documentId;
+
+    @Column(length = 64)
+    private String section;
+
+    @Column(name = "prompt_tokens")
+    private Integer promptTokens;
+
+    @Column(name = "completion_tokens")
+    private Integer completionTokens;
+
+    @Column(name = "total_tokens")
+    private Integer totalTokens;
+
+    /**
+     * Provider-reported cost in credits, when usage accounting returns it
+     */
+    private Double cost;
+
+    @Column(name = "latency_ms", nullable = false)
+    private long latencyMs;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Outcome outcome;
+
+    @Column(name = "http_status")
+    private Integer httpStatus;
+
+    @Column(name = "usage_date", nullable = false)
+    private LocalDate usageDate;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (usageDate == null) {
+            usageDate = createdAt.toLocalDate();
+        }
+    }
+
+    public enum Outcome {
+        SUCCESS,
+        HTTP_ERROR,
+        TRANSPORT_ERROR,
+        /** Hedged duplicate abandoned once the other request answered. */
+        CANCELLED
+    }
+}
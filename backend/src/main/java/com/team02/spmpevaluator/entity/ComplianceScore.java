@@ -67,6 +67,16 @@ public class ComplianceScore {
     @Column(name = "reviewed_at")
     private LocalDateTime reviewedAt;
 
+    @Column(name = "keyword_dictionary_version")
+    private Long keywordDictionaryVersion; // Section keyword dictionary used; null for scores from before the dictionary
+
+    @Column(name = "keyword_match_edits")
+    private Integer keywordMatchEdits; // Keyword edit budget used; null for scores matched exactly before it was recorded
+
+    @Version
+    @Column(nullable = false)
+    private Long version; // Optimistic lock: concurrent writers fail instead of overwriting each other
+
     @PrePersist
     protected void onCreate() {
         evaluatedAt = LocalDateTime.now();
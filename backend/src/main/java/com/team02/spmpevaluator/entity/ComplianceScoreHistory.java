@@ -65,7 +65,7 @@ public class ComplianceScoreHistory {
     private Integer versionNumber;
 
     @Column(name = "source", length = 32)
-    private String source; // AI_EVALUATION, RE_EVALUATION, OVERRIDE
+    private String source; // AI_EVALUATION, RE_EVALUATION, OVERRIDE, WHAT_IF_RESCORE
 
     @PrePersist
     protected void onCreate() {
@@ -0,0 +1,51 @@
+package com.team02.spmpevaluator.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keywords used to detect one IEEE 1058 section. Together the entries form the keyword
+ * dictionary; its version is the highest entry version, bumped on every change.
+ */
+@Entity
+@Table(name = "keyword_dictionary_entries")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeywordDictionaryEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 50)
+    @Enumerated(EnumType.STRING)
+    private SectionAnalysis.IEEE1058Section sectionName;
+
+    /**
+     * Keywords as a JSON array of lower-case strings, e.g. ["risk", "risk management"]
+     */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String keywords;
+
+    /**
+     * Dictionary version in which these keywords last changed
+     */
+    @Column(nullable = false)
+    private Long version;
+
+    private String updatedBy;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,21 @@
+package com.team02.spmpevaluator.repository;
+
+import com.team02.spmpevaluator.entity.AiResponseCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface AiResponseCacheRepository extends JpaRepository<AiResponseCacheEntry, Long> {
+
+    Optional<AiResponseCacheEntry> findByCacheKey(String cacheKey);
+
+    @Modifying
+    @Query("DELETE FROM AiResponseCacheEntry e WHERE e.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
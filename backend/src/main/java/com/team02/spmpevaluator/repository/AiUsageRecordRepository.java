@@ -0,0 +1,49 @@
+package com.team02.spmpevaluator.repository;
+
+import com.team02.spmpevaluator.dto.AiUsageRollupDTO;
+import com.team02.spmpevaluator.entity.AiUsageRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AiUsageRecordRepository extends JpaRepository<AiUsageRecord, Long> {
+
+    List<AiUsageRecord> findByDocumentIdOrderByCreatedAtAsc(Long documentId);
+
+    @Query("SELECT new com.team02.spmpevaluator.dto.AiUsageRollupDTO(str(u.usageDate), COUNT(u), " +
+            "SUM(CASE WHEN u.outcome = :success THEN 0 ELSE 1 END), SUM(u.promptTokens), SUM(u.completionTokens), " +
+            "SUM(u.cost), AVG(u.latencyMs), MAX(u.latencyMs)) " +
+            "FROM AiUsageRecord u WHERE u.usageDate BETWEEN :from AND :to " +
+            "GROUP BY u.usageDate ORDER BY u.usageDate")
+    List<AiUsageRollupDTO> rollupByDay(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                       @Param("success") AiUsageRecord.Outcome success);
+
+    @Query("SELECT new com.team02.spmpevaluator.dto.AiUsageRollupDTO(u.model, COUNT(u), " +
+            "SUM(CASE WHEN u.outcome = :success THEN 0 ELSE 1 END), SUM(u.promptTokens), SUM(u.completionTokens), " +
+            "SUM(u.cost), AVG(u.latencyMs), MAX(u.latencyMs)) " +
+            "FROM AiUsageRecord u WHERE u.usageDate BETWEEN :from AND :to " +
+            "GROUP BY u.model ORDER BY COUNT(u) DESC")
+    List<AiUsageRollupDTO> rollupByModel(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                         @Param("success") AiUsageRecord.Outcome success);
+
+    /**
+     * Usage attributed to professors through their assigned students' documents. Calls without a
+     * document, or for students without a professor, are not included.
+     */
+    @Query("SELECT new com.team02.spmpevaluator.dto.AiUsageRollupDTO(p.username, COUNT(u), " +
+            "SUM(CASE WHEN u.outcome = :success THEN 0 ELSE 1 END), SUM(u.promptTokens), SUM(u.completionTokens), " +
+            "SUM(u.cost), AVG(u.latencyMs), MAX(u.latencyMs)) " +
+            "FROM AiUsageRecord u " +
+            "JOIN SPMPDocument d ON d.id = u.documentId " +
+            "JOIN StudentProfessorAssignment a ON a.student = d.uploadedBy " +
+            "JOIN a.professor p " +
+            "WHERE u.usageDate BETWEEN :from AND :to " +
+            "GROUP BY p.username ORDER BY COUNT(u) DESC")
+    List<AiUsageRollupDTO> rollupByProfessor(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                             @Param("success") AiUsageRecord.Outcome success);
+}
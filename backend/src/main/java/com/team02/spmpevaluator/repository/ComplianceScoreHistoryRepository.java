@@ -2,8 +2,11 @@ package com.team02.spmpevaluator.repository;
 
 import com.team02.spmpevaluator.entity.ComplianceScoreHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -11,6 +14,13 @@ public interface ComplianceScoreHistoryRepository extends JpaRepository<Complian
     List<ComplianceScoreHistory> findByDocumentIdOrderByRecordedAtDesc(Long documentId);
 
     int countByDocumentId(Long documentId);
+
+    /**
+     * Document id and history count of each given document that has any history.
+     */
+    @Query("SELECT h.document.id, COUNT(h) FROM ComplianceScoreHistory h " +
+            "WHERE h.document.id IN :documentIds GROUP BY h.document.id")
+    List<Object[]> countByDocumentIds(@Param("documentIds") Collection<Long> documentIds);
     
     void deleteByDocumentId(Long documentId);
 }
@@ -1,12 +1,15 @@
 package com.team02.spmpevaluator.repository;
 
+import com.team02.spmpevaluator.dto.KeywordSweepRowDTO;
 import com.team02.spmpevaluator.entity.ComplianceScore;
 import com.team02.spmpevaluator.entity.SPMPDocument;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -23,4 +26,28 @@ public interface ComplianceScoreRepository extends JpaRepository<ComplianceScore
     
     @Query("SELECT cs FROM ComplianceScore cs LEFT JOIN FETCH cs.sectionAnalyses LEFT JOIN FETCH cs.document WHERE cs.document.id = :documentId")
     Optional<ComplianceScore> findByDocumentIdWithSectionAnalyses(@Param("documentId") Long documentId);
+
+    /**
+     * Next scores after the cursor that were computed with an older keyword dictionary or matched
+     * with another keyword edit budget, in id order.
+     */
+    @Query("SELECT new com.team02.spmpevaluator.dto.KeywordSweepRowDTO(cs.id, cs.version, d.id, d.uploadedBy.id, " +
+            "cs.overallScore, cs.sectionsFound) " +
+            "FROM ComplianceScore cs JOIN cs.document d " +
+            "WHERE cs.id > :afterId AND (COALESCE(cs.keywordDictionaryVersion, 0) < :dictionaryVersion " +
+            "OR COALESCE(cs.keywordMatchEdits, 0) <> :maxEdits) " +
+            "ORDER BY cs.id")
+    List<KeywordSweepRowDTO> findKeywordSweepBatch(@Param("afterId") Long afterId,
+                                                   @Param("dictionaryVersion") Long dictionaryVersion,
+                                                   @Param("maxEdits") Integer maxEdits,
+                                                   Pageable pageable);
+
+    /**
+     * Whether any score is stale for the given dictionary version and keyword edit budget.
+     */
+    @Query("SELECT COUNT(cs) > 0 FROM ComplianceScore cs " +
+            "WHERE COALESCE(cs.keywordDictionaryVersion, 0) < :dictionaryVersion " +
+            "OR COALESCE(cs.keywordMatchEdits, 0) <> :maxEdits")
+    boolean existsKeywordStale(@Param("dictionaryVersion") Long dictionaryVersion,
+                               @Param("maxEdits") Integer maxEdits);
 }
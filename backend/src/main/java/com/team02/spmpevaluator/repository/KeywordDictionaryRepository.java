@@ -0,0 +1,21 @@
+package com.team02.spmpevaluator.repository;
+
+import com.team02.spmpevaluator.entity.KeywordDictionaryEntry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface KeywordDictionaryRepository extends JpaRepository<KeywordDictionaryEntry, Long> {
+
+    /**
+     * All entries, locked so concurrent dictionary changes get distinct versions.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM KeywordDictionaryEntry e")
+    List<KeywordDictionaryEntry> findAllForUpdate();
+}
@@ -1,6 +1,7 @@
 package com.team02.spmpevaluator.repository;
 
 import com.team02.spmpevaluator.entity.SPMPDocument;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -18,7 +19,9 @@ public interface SPMPDocumentRepository extends JpaRepository<SPMPDocument, Long
 
     /**
      * Find all documents uploaded by a specific user.
+     * Uploader and compliance score are fetched in the same query so listings don't issue one query per row.
      */
+    @EntityGraph(attributePaths = {"uploadedBy", "complianceScore"})
     List<SPMPDocument> findByUploadedBy_Id(Long userId);
     
     /**
@@ -29,11 +32,13 @@ public interface SPMPDocumentRepository extends JpaRepository<SPMPDocument, Long
     /**
      * Find documents by evaluation status.
      */
+    @EntityGraph(attributePaths = {"uploadedBy", "complianceScore"})
     List<SPMPDocument> findByEvaluated(boolean evaluated);
 
     /**
      * Find documents by user and evaluation status.
      */
+    @EntityGraph(attributePaths = {"uploadedBy", "complianceScore"})
     List<SPMPDocument> findByUploadedBy_IdAndEvaluated(Long userId, boolean evaluated);
 
     /**
@@ -44,9 +49,9 @@ public interface SPMPDocumentRepository extends JpaRepository<SPMPDocument, Long
     Optional<SPMPDocument> findByIdWithUploadedBy(@Param("id") Long id);
 
     /**
-     * Find all documents with uploadedBy relationship eagerly loaded.
+     * Find all documents with uploadedBy and complianceScore relationships eagerly loaded.
      */
-    @Query("SELECT DISTINCT d FROM SPMPDocument d LEFT JOIN FETCH d.uploadedBy")
+    @Query("SELECT DISTINCT d FROM SPMPDocument d LEFT JOIN FETCH d.uploadedBy LEFT JOIN FETCH d.complianceScore")
     List<SPMPDocument> findAllWithUploadedBy();
 
     /**
@@ -4,8 +4,11 @@ import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.team02.spmpevaluator.dto.SectionScoreRowDTO;
 import com.team02.spmpevaluator.entity.SectionAnalysis;
 
 @Repository
@@ -14,4 +17,16 @@ public interface SectionAnalysisRepository extends JpaRepository<SectionAnalysis
     
     @Modifying
     void deleteByComplianceScoreId(Long complianceScoreId);
+
+    /**
+     * Section scores of every evaluated document uploaded by a student of the professor,
+     * ordered so the rows of one compliance score are adjacent.
+     */
+    @Query("SELECT new com.team02.spmpevaluator.dto.SectionScoreRowDTO(cs.id, cs.version, d.id, d.fileName, " +
+            "cs.overallScore, cs.compliant, sa.sectionName, sa.sectionScore) " +
+            "FROM SectionAnalysis sa JOIN sa.complianceScore cs JOIN cs.document d " +
+            "WHERE d.uploadedBy.id IN (SELECT spa.student.id FROM StudentProfessorAssignment spa " +
+            "WHERE spa.professor.id = :professorId) " +
+            "ORDER BY cs.id")
+    List<SectionScoreRowDTO> findSectionScoresByProfessorId(@Param("professorId") Long professorId);
 }
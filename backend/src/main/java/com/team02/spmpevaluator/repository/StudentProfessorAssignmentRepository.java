@@ -2,6 +2,7 @@ package com.team02.spmpevaluator.repository;
 
 import com.team02.spmpevaluator.entity.StudentProfessorAssignment;
 import com.team02.spmpevaluator.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,9 +13,15 @@ import java.util.Optional;
 
 @Repository
 public interface StudentProfessorAssignmentRepository extends JpaRepository<StudentProfessorAssignment, Long> {
-    
+
+    @Override
+    @EntityGraph(attributePaths = {"student", "professor", "assignedBy"})
+    List<StudentProfessorAssignment> findAll();
+
+    @EntityGraph(attributePaths = {"student", "professor", "assignedBy"})
     List<StudentProfessorAssignment> findByProfessor_Id(Long professorId);
     
+    @EntityGraph(attributePaths = {"student", "professor", "assignedBy"})
     List<StudentProfessorAssignment> findByStudent_Id(Long studentId);
     
     Optional<StudentProfessorAssignment> findByStudent_IdAndProfessor_Id(Long studentId, Long professorId);
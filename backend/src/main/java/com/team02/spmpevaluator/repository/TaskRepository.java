@@ -1,6 +1,7 @@
 package com.team02.spmpevaluator.repository;
 
 import com.team02.spmpevaluator.entity.Task;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -9,9 +10,13 @@ import java.util.List;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
+    @EntityGraph(attributePaths = {"assignedTo", "createdBy"})
     List<Task> findByAssignedTo_Id(Long userId);
+    @EntityGraph(attributePaths = {"assignedTo", "createdBy"})
     List<Task> findByCreatedBy_Id(Long userId);
+    @EntityGraph(attributePaths = {"assignedTo", "createdBy"})
     List<Task> findByAssignedTo_IdAndCompletedFalse(Long userId);
+    @EntityGraph(attributePaths = {"assignedTo", "createdBy"})
     List<Task> findByStatus(Task.TaskStatus status);
     List<Task> findByDeadlineBeforeAndCompletedFalse(LocalDate deadline);
     void deleteByAssignedToId(Long userId);
@@ -15,9 +15,19 @@ import org.springframework.stereotype.Service;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
+    /**
+     * Loads user details, serving repeat lookups from {@link UserDetailsCache}.
+     * Missing and disabled accounts are never cached.
+     */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        CustomUserDetails cached = userDetailsCache.getIfPresent(username);
+        if (cached != null) {
+            return cached;
+        }
+
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> {
                     log.warn("User not found with username: {}", username);
@@ -29,6 +39,8 @@ public class CustomUserDetailsService implements UserDetailsService {
             throw new UsernameNotFoundException("User account is disabled: " + username);
         }
 
-        return new CustomUserDetails(user);
+        CustomUserDetails userDetails = new CustomUserDetails(user);
+        userDetailsCache.put(username, userDetails);
+        return userDetails;
     }
 }
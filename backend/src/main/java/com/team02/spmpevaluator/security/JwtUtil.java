@@ -1,15 +1,20 @@
 package com.team02.spmpevaluator.security;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.function.Function;
 
@@ -23,6 +28,15 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}")
     private long expirationTime;
 
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize = 10000;
+
+    /**
+     * Signing key, parser and verified-claims cache derived from the current secret.
+     * Rebuilt (dropping every cached token) whenever the secret changes.
+     */
+    private volatile KeyState keyState;
+
     /**
      * Extract username from JWT token.
      */
@@ -47,13 +61,54 @@ public class JwtUtil {
 
     /**
      * Extract all claims from JWT token.
+     * The signature is verified once per token; later calls are served from a cache keyed by
+     * the token's SHA-256 hash until the token expires.
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        KeyState state = currentKeyState();
+        String cacheKey = Hashing.sha256().hashString(token, StandardCharsets.UTF_8).toString();
+
+        Claims cached = state.verifiedClaims.getIfPresent(cacheKey);
+        if (cached != null) {
+            Date expiration = cached.getExpiration();
+            if (expiration == null || expiration.after(new Date())) {
+                return cached;
+            }
+            // Expired: drop it and let the parser raise the usual ExpiredJwtException
+            state.verifiedClaims.invalidate(cacheKey);
+        }
+
+        Claims claims = state.parser.parseClaimsJws(token).getBody();
+        state.verifiedClaims.put(cacheKey, claims);
+        return claims;
+    }
+
+    /**
+     * Returns the key state for the configured secret, rebuilding it if the secret has rotated.
+     */
+    private KeyState currentKeyState() {
+        KeyState state = keyState;
+        if (state == null || !state.secret.equals(secret)) {
+            synchronized (this) {
+                state = keyState;
+                if (state == null || !state.secret.equals(secret)) {
+                    if (state != null) {
+                        log.info("JWT signing key changed, clearing verified token cache");
+                    }
+                    state = new KeyState(secret, expirationTime, claimsCacheMaxSize);
+                    keyState = state;
+                }
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Number of verified tokens currently cached.
+     */
+    long cachedTokenCount() {
+        KeyState state = keyState;
+        return state == null ? 0 : state.verifiedClaims.size();
     }
 
     /**
@@ -79,7 +134,7 @@ public class JwtUtil {
                 .setSubject(username)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .signWith(currentKeyState().signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -95,4 +150,22 @@ public class JwtUtil {
             return false;
         }
     }
+
+    private static final class KeyState {
+        private final String secret;
+        private final Key signingKey;
+        private final JwtParser parser;
+        private final Cache<String, Claims> verifiedClaims;
+
+        private KeyState(String secret, long expirationTime, long maxSize) {
+            this.secret = secret;
+            this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+            this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+            // No token outlives the configured expiration, so neither should its cache entry
+            this.verifiedClaims = CacheBuilder.newBuilder()
+                    .maximumSize(maxSize)
+                    .expireAfterWrite(Duration.ofMillis(Math.max(expirationTime, 1)))
+                    .build();
+        }
+    }
 }
@@ -0,0 +1,90 @@
+package com.team02.spmpevaluator.security;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.team02.spmpevaluator.service.UserAccountChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Bounded, TTL-based cache of {@link CustomUserDetails} keyed by username.
+ * Sits in front of the users table so authenticated requests don't hit the database on every call.
+ * Entries are evicted as soon as an account change commits, and hit/miss statistics are exported
+ * as {@code cache.*} metrics with {@code cache=userDetails}.
+ */
+@Component
+@Slf4j
+public class UserDetailsCache implements MeterBinder {
+
+    private final Cache<String, CustomUserDetails> cache;
+
+    public UserDetailsCache(@Value("${app.security.user-cache.max-size:1000}") long maxSize,
+                            @Value("${app.security.user-cache.ttl:PT5M}") Duration ttl) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached details for the username, or null if absent or expired.
+     */
+    public CustomUserDetails getIfPresent(String username) {
+        return cache.getIfPresent(username);
+    }
+
+    public void put(String username, CustomUserDetails userDetails) {
+        cache.put(username, userDetails);
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+
+    /**
+     * Evicts every entry belonging to the given user id.
+     * The cache is keyed by username, so this scans the (bounded) entry set.
+     */
+    public void invalidateUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        cache.asMap().values().removeIf(details -> userId.equals(details.getUser().getId()));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Runs after the account change commits so a concurrent request can't re-cache the old state.
+     * Falls back to immediate execution when no transaction is active.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        log.debug("Evicting cached user details for user {}", event.userId());
+        invalidateUser(event.userId());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        GuavaCacheMetrics.monitor(registry, cache, "userDetails");
+    }
+}
@@ -0,0 +1,201 @@
+package com.team02.spmpevaluator.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker guarding calls to the AI provider.
+ * <p>
+ * CLOSED: calls flow normally. The breaker opens after {@code failureThreshold} consecutive failures,
+ * or when the p95 latency of the last {@code windowSize} calls exceeds {@code slowCallThreshold}.
+ * OPEN: calls are rejected immediately so evaluation falls back to keyword findings without waiting
+ * out timeouts. After {@code openDuration} one probe call is let through (HALF_OPEN); its outcome
+ * closes or re-opens the breaker.
+ * <p>
+ * {@link AiModelRouter} keeps one breaker per model, so an unhealthy model is skipped while the
+ * others keep serving, and binds each breaker's meters tagged with its model.
+ */
+@Slf4j
+public class AiCircuitBreaker implements MeterBinder {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long slowCallThresholdNanos;
+    private final long openDurationNanos;
+    private final int minimumCalls;
+    private final long[] latencies;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+    private int latencyCount;
+    private int latencyIndex;
+    private long rejectedCalls;
+    private Counter rejectedCounter;
+
+    public AiCircuitBreaker(int failureThreshold, Duration slowCallThreshold, Duration openDuration, int windowSize) {
+        this(failureThreshold, slowCallThreshold, openDuration, windowSize, System::nanoTime);
+    }
+
+    AiCircuitBreaker(int failureThreshold, Duration slowCallThreshold, Duration openDuration,
+                     int windowSize, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.slowCallThresholdNanos = slowCallThreshold.toNanos();
+        this.openDurationNanos = openDuration.toNanos();
+        this.latencies = new long[windowSize];
+        this.minimumCalls = Math.max(1, windowSize / 2);
+        this.clock = clock;
+    }
+
+    /**
+     * Ask to make a call. Returns false when the breaker is open (or a half-open probe is already
+     * running); the caller must then skip the call. Every permitted call must be followed by
+     * {@link #onSuccess}, {@link #onFailure} or {@link #onIgnored}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openDurationNanos) {
+            transitionTo(State.HALF_OPEN);
+        }
+        boolean permitted = switch (state) {
+            case CLOSED -> true;
+            case HALF_OPEN -> !probeInFlight;
+            case OPEN -> false;
+        };
+        if (!permitted) {
+            rejectedCalls++;
+            if (rejectedCounter != null) {
+                rejectedCounter.increment();
+            }
+            return false;
+        }
+        if (state == State.HALF_OPEN) {
+            probeInFlight = true;
+        }
+        return true;
+    }
+
+    /**
+     * Whether a call would currently be permitted, without claiming the half-open probe.
+     */
+    public synchronized boolean isCallPermitted() {
+        return switch (state) {
+            case CLOSED -> true;
+            case HALF_OPEN -> !probeInFlight;
+            case OPEN -> clock.getAsLong() - openedAt >= openDurationNanos;
+        };
+    }
+
+    public synchronized void onSuccess(long latencyNanos) {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.CLOSED);
+            return;
+        }
+        consecutiveFailures = 0;
+        recordLatency(latencyNanos);
+        if (latencyCount >= minimumCalls && percentile95() > slowCallThresholdNanos) {
+            log.warn("AI latency p95 {} ms exceeds {} ms, opening circuit",
+                    percentile95() / 1_000_000, slowCallThresholdNanos / 1_000_000);
+            transitionTo(State.OPEN);
+        }
+    }
+
+    public synchronized void onFailure(long latencyNanos) {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        recordLatency(latencyNanos);
+        if (++consecutiveFailures >= failureThreshold) {
+            log.warn("{} consecutive AI call failures, opening circuit", consecutiveFailures);
+            transitionTo(State.OPEN);
+        }
+    }
+
+    /**
+     * End a permitted call whose outcome says nothing about the provider's health, such as a
+     * rejected request. The breaker state is unchanged; a half-open probe slot is handed back.
+     */
+    public synchronized void onIgnored() {
+        probeInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized long getRejectedCalls() {
+        return rejectedCalls;
+    }
+
+    /**
+     * p95 of the recorded latency window in nanoseconds, or 0 when empty.
+     */
+    public synchronized long percentile95() {
+        if (latencyCount == 0) {
+            return 0;
+        }
+        long[] window = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(window);
+        int index = (int) Math.ceil(0.95 * latencyCount) - 1;
+        return window[Math.max(0, index)];
+    }
+
+    private void recordLatency(long latencyNanos) {
+        latencies[latencyIndex] = latencyNanos;
+        latencyIndex = (latencyIndex + 1) % latencies.length;
+        latencyCount = Math.min(latencyCount + 1, latencies.length);
+    }
+
+    private void transitionTo(State newState) {
+        if (state != newState) {
+            log.info("AI circuit breaker {} -> {}", state, newState);
+        }
+        state = newState;
+        probeInFlight = false;
+        consecutiveFailures = 0;
+        if (newState == State.OPEN) {
+            openedAt = clock.getAsLong();
+        }
+        if (newState != State.HALF_OPEN) {
+            // Start each closed/open period with a fresh latency window
+            latencyCount = 0;
+            latencyIndex = 0;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindTo(registry, Tags.empty());
+    }
+
+    /**
+     * Register this breaker's meters with the given tags, e.g. the model it guards.
+     */
+    public void bindTo(MeterRegistry registry, Iterable<Tag> tags) {
+        Gauge.builder("ai.circuit.state", this, breaker -> breaker.getState().ordinal())
+                .description("AI circuit breaker state (0=closed, 1=open, 2=half-open)")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("ai.circuit.latency.p95", this, breaker -> breaker.percentile95() / 1_000_000.0)
+                .description("p95 latency of recent AI calls in milliseconds")
+                .baseUnit("milliseconds")
+                .tags(tags)
+                .register(registry);
+        rejectedCounter = Counter.builder("ai.circuit.rejected")
+                .description("AI calls rejected while the circuit was open")
+                .tags(tags)
+                .register(registry);
+    }
+}
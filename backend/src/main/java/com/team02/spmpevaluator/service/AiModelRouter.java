@@ -0,0 +1,244 @@
+package com.team02.spmpevaluator.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Routes AI requests across an ordered pool of models ({@code openrouter.models}).
+ * <p>
+ * Each model keeps a rolling window of call latencies and outcomes plus its own
+ * {@link AiCircuitBreaker}. Requests go to the healthy model with the lowest error-adjusted
+ * p50 latency; callers fail over to the next candidate when a model fails. Models without
+ * recent samples (never tried, or idle longer than {@code openrouter.routing.stale-after})
+ * are tried first in pool order so the router notices when a slow model recovers.
+ */
+@Component
+@Slf4j
+public class AiModelRouter implements MeterBinder {
+
+    /**
+     * Snapshot of one model's routing statistics.
+     */
+    public record ModelStats(String model, AiCircuitBreaker.State state, double p50Millis, double p95Millis,
+                             double errorRate, long requests, long failures, int samples) {}
+
+    private final Map<String, ModelState> pool = new LinkedHashMap<>();
+    private final long staleAfterNanos;
+    private final LongSupplier clock;
+
+    @Autowired
+    public AiModelRouter(@Value("${openrouter.models:}") List<String> models,
+                         @Value("${openrouter.model:nvidia/nemotron-nano-12b-v2-vl:free}") String defaultModel,
+                         @Value("${openrouter.circuit-breaker.failure-threshold:3}") int failureThreshold,
+                         @Value("${openrouter.circuit-breaker.slow-call-threshold:PT8S}") Duration slowCallThreshold,
+                         @Value("${openrouter.circuit-breaker.open-duration:PT30S}") Duration openDuration,
+                         @Value("${openrouter.circuit-breaker.window-size:20}") int windowSize,
+                         @Value("${openrouter.routing.stale-after:PT5M}") Duration staleAfter) {
+        this(models.stream().anyMatch(m -> m != null && !m.isBlank()) ? models : List.of(defaultModel),
+                failureThreshold, slowCallThreshold, openDuration, windowSize, staleAfter, System::nanoTime);
+    }
+
+    AiModelRouter(List<String> models, int failureThreshold, Duration slowCallThreshold, Duration openDuration,
+                  int windowSize, Duration staleAfter, LongSupplier clock) {
+        for (String model : models) {
+            if (model != null && !model.isBlank()) {
+                String name = model.trim();
+                pool.putIfAbsent(name, new ModelState(name,
+                        new AiCircuitBreaker(failureThreshold, slowCallThreshold, openDuration, windowSize, clock),
+                        windowSize));
+            }
+        }
+        if (pool.isEmpty()) {
+            throw new IllegalArgumentException("At least one AI model must be configured");
+        }
+        this.staleAfterNanos = staleAfter.toNanos();
+        this.clock = clock;
+        log.info("AI model pool: {}", pool.keySet());
+    }
+
+    /**
+     * Healthy models in the order they should be tried for the next request.
+     * Empty when every model's circuit is open.
+     */
+    public List<String> candidates() {
+        long now = clock.getAsLong();
+        return pool.values().stream()
+                .filter(state -> state.breaker.isCallPermitted())
+                .sorted(Comparator.comparingDouble(state -> state.routingCost(now, staleAfterNanos)))
+                .map(state -> state.model)
+                .toList();
+    }
+
+    /**
+     * Claim a call slot on the model's circuit breaker. Every permitted call must be followed by
+     * {@link #onSuccess}, {@link #onFailure} or {@link #onIgnored}.
+     */
+    public boolean tryAcquire(String model) {
+        ModelState state = pool.get(model);
+        return state != null && state.breaker.tryAcquire();
+    }
+
+    public void onSuccess(String model, long latencyNanos) {
+        ModelState state = pool.get(model);
+        if (state != null) {
+            state.breaker.onSuccess(latencyNanos);
+            state.record(latencyNanos, false, clock.getAsLong());
+        }
+    }
+
+    public void onFailure(String model, long latencyNanos) {
+        ModelState state = pool.get(model);
+        if (state != null) {
+            state.breaker.onFailure(latencyNanos);
+            state.record(latencyNanos, true, clock.getAsLong());
+        }
+    }
+
+    /**
+     * End a permitted call whose outcome says nothing about the model's health, without
+     * recording a sample.
+     */
+    public void onIgnored(String model) {
+        ModelState state = pool.get(model);
+        if (state != null) {
+            state.breaker.onIgnored();
+        }
+    }
+
+    /**
+     * Whether at least one model would currently accept a call.
+     */
+    public boolean isAnyAvailable() {
+        return pool.values().stream().anyMatch(state -> state.breaker.isCallPermitted());
+    }
+
+    /**
+     * First model of the configured pool.
+     */
+    public String primaryModel() {
+        return pool.keySet().iterator().next();
+    }
+
+    public List<String> getModels() {
+        return List.copyOf(pool.keySet());
+    }
+
+    /**
+     * Per-model statistics in pool order.
+     */
+    public List<ModelStats> getStats() {
+        List<ModelStats> stats = new ArrayList<>();
+        for (ModelState state : pool.values()) {
+            stats.add(state.snapshot());
+        }
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (ModelState state : pool.values()) {
+            Gauge.builder("ai.model.latency", state, s -> s.percentile(0.5) / 1_000_000.0)
+                    .description("Rolling AI call latency per model in milliseconds")
+                    .baseUnit("milliseconds")
+                    .tag("model", state.model).tag("quantile", "0.5")
+                    .register(registry);
+            Gauge.builder("ai.model.latency", state, s -> s.percentile(0.95) / 1_000_000.0)
+                    .description("Rolling AI call latency per model in milliseconds")
+                    .baseUnit("milliseconds")
+                    .tag("model", state.model).tag("quantile", "0.95")
+                    .register(registry);
+            Gauge.builder("ai.model.error.rate", state, ModelState::errorRate)
+                    .description("Rolling AI call error rate per model")
+                    .tag("model", state.model)
+                    .register(registry);
+            state.breaker.bindTo(registry, Tags.of("model", state.model));
+        }
+    }
+
+    /**
+     * Rolling window of latencies and outcomes for one model.
+     */
+    static final class ModelState {
+        private final String model;
+        private final AiCircuitBreaker breaker;
+        private final long[] latencies;
+        private final boolean[] failed;
+        private int count;
+        private int index;
+        private long requests;
+        private long failures;
+        private long lastSampleAt;
+
+        ModelState(String model, AiCircuitBreaker breaker, int windowSize) {
+            this.model = model;
+            this.breaker = breaker;
+            this.latencies = new long[windowSize];
+            this.failed = new boolean[windowSize];
+        }
+
+        synchronized void record(long latencyNanos, boolean failure, long now) {
+            latencies[index] = latencyNanos;
+            failed[index] = failure;
+            index = (index + 1) % latencies.length;
+            count = Math.min(count + 1, latencies.length);
+            requests++;
+            if (failure) {
+                failures++;
+            }
+            lastSampleAt = now;
+        }
+
+        synchronized double percentile(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            long[] window = Arrays.copyOf(latencies, count);
+            Arrays.sort(window);
+            int i = (int) Math.ceil(quantile * count) - 1;
+            return window[Math.max(0, i)];
+        }
+
+        synchronized double errorRate() {
+            if (count == 0) {
+                return 0;
+            }
+            int errors = 0;
+            for (int i = 0; i < count; i++) {
+                if (failed[i]) {
+                    errors++;
+                }
+            }
+            return errors / (double) count;
+        }
+
+        /**
+         * Lower is better. Unsampled or stale models return a negative cost so they are probed first.
+         */
+        synchronized double routingCost(long now, long staleAfterNanos) {
+            if (count == 0 || now - lastSampleAt > staleAfterNanos) {
+                return -1;
+            }
+            return percentile(0.5) / Math.max(0.05, 1.0 - errorRate());
+        }
+
+        synchronized ModelStats snapshot() {
+            return new ModelStats(model, breaker.getState(), percentile(0.5) / 1_000_000.0,
+                    percentile(0.95) / 1_000_000.0, errorRate(), requests, failures, count);
+        }
+    }
+}
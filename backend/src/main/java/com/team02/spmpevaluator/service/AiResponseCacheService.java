@@ -0,0 +1,161 @@
+package com.team02.spmpevaluator.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.team02.spmpevaluator.entity.AiResponseCacheEntry;
+import com.team02.spmpevaluator.repository.AiResponseCacheRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Two-tier cache for AI responses.
+ * The front tier is a bounded in-memory cache; the back tier is the {@code ai_response_cache} table
+ * with a TTL, so unchanged documents skip the AI call even after a restart. Keys hash the model,
+ * the prompt template version and the prompt itself, so changing any of them misses naturally.
+ * <p>
+ * Database writes run in their own transaction and never fail the caller: losing a cache write
+ * only costs a future AI call.
+ */
+@Service
+@Slf4j
+public class AiResponseCacheService implements MeterBinder {
+
+    private final AiResponseCacheRepository repository;
+    private final TransactionTemplate requiresNew;
+    private final Duration ttl;
+    private final Cache<String, String> memory;
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder databaseHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired
+    public AiResponseCacheService(AiResponseCacheRepository repository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.ai-cache.memory-max-size:2000}") long memoryMaxSize,
+                                  @Value("${app.ai-cache.ttl:P30D}") Duration ttl) {
+        this.repository = repository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = ttl;
+        this.memory = CacheBuilder.newBuilder()
+                .maximumSize(memoryMaxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Build the cache key for a prompt sent to a model.
+     */
+    public static String cacheKey(String model, String promptVersion, String prompt) {
+        String promptHash = Hashing.sha256().hashString(prompt, StandardCharsets.UTF_8).toString();
+        return Hashing.sha256()
+                .hashString(model + '\u0000' + promptVersion + '\u0000' + promptHash, StandardCharsets.UTF_8)
+                .toString();
+    }
+
+    /**
+     * Look up a cached response, checking memory first and then the database.
+     */
+    public Optional<String> get(String cacheKey) {
+        String cached = memory.getIfPresent(cacheKey);
+        if (cached != null) {
+            memoryHits.increment();
+            return Optional.of(cached);
+        }
+
+        try {
+            Optional<AiResponseCacheEntry> entry = repository.findByCacheKey(cacheKey);
+            if (entry.isPresent() && !entry.get().isExpired()) {
+                databaseHits.increment();
+                memory.put(cacheKey, entry.get().getResponse());
+                return Optional.of(entry.get().getResponse());
+            }
+            if (entry.isPresent()) {
+                purgeExpired();
+            }
+        } catch (RuntimeException e) {
+            log.warn("AI response cache lookup failed: {}", e.getMessage());
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Store a response in both tiers, replacing any existing entry for the key.
+     */
+    public void put(String cacheKey, String model, String promptVersion, String response) {
+        memory.put(cacheKey, response);
+        try {
+            requiresNew.executeWithoutResult(status -> {
+                AiResponseCacheEntry entry = repository.findByCacheKey(cacheKey)
+                        .orElseGet(AiResponseCacheEntry::new);
+                entry.setCacheKey(cacheKey);
+                entry.setModel(model);
+                entry.setPromptVersion(promptVersion);
+                entry.setResponse(response);
+                entry.setExpiresAt(LocalDateTime.now().plus(ttl));
+                repository.save(entry);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to persist AI response cache entry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Remove expired rows from the database tier.
+     */
+    public int purgeExpired() {
+        try {
+            Integer removed = requiresNew.execute(status -> repository.deleteExpired(LocalDateTime.now()));
+            return removed != null ? removed : 0;
+        } catch (RuntimeException e) {
+            log.warn("Failed to purge expired AI response cache entries: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    public long getMemoryHits() {
+        return memoryHits.sum();
+    }
+
+    public long getDatabaseHits() {
+        return databaseHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("ai.cache.requests", memoryHits, LongAdder::sum)
+                .description("AI response cache lookups")
+                .tag("result", "hit").tag("tier", "memory")
+                .register(registry);
+        FunctionCounter.builder("ai.cache.requests", databaseHits, LongAdder::sum)
+                .description("AI response cache lookups")
+                .tag("result", "hit").tag("tier", "database")
+                .register(registry);
+        FunctionCounter.builder("ai.cache.requests", misses, LongAdder::sum)
+                .description("AI response cache lookups")
+                .tag("result", "miss").tag("tier", "none")
+                .register(registry);
+    }
+}
@@ -0,0 +1,55 @@
+package com.team02.spmpevaluator.service;
+
+/**
+ * Attribution for AI calls made on the current thread: the feature making them and the
+ * document/section they serve. {@link OpenRouterService} reads it when a call starts, so the
+ * usage record is attributed correctly even when the call completes on another thread.
+ * <pre>
+ * try (AiUsageContext.Scope ignored = AiUsageContext.open("section-enrichment", documentId, null)) {
+ *     openRouterService.complete(prompt);
+ * }
+ * </pre>
+ */
+public final class AiUsageContext {
+
+    public record Attribution(String operation, Long documentId, String section) {}
+
+    private static final ThreadLocal<Attribution> CURRENT = new ThreadLocal<>();
+
+    private AiUsageContext() {
+    }
+
+    /**
+     * Attribute AI calls on this thread until the returned scope is closed. Scopes nest; closing
+     * one restores the enclosing attribution.
+     */
+    public static Scope open(String operation, Long documentId, String section) {
+        Attribution previous = CURRENT.get();
+        CURRENT.set(new Attribution(operation, documentId, section));
+        return new Scope(previous);
+    }
+
+    /**
+     * Attribution of the current thread, or null outside any scope.
+     */
+    public static Attribution current() {
+        return CURRENT.get();
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final Attribution previous;
+
+        private Scope(Attribution previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.team02.spmpevaluator.service;
+
+import com.team02.spmpevaluator.dto.AiUsageRollupDTO;
+import com.team02.spmpevaluator.entity.AiUsageRecord;
+import com.team02.spmpevaluator.repository.AiUsageRecordRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AI usage ledger. {@link #record} only enqueues, so AI calls never wait on the database;
+ * a background thread writes queued records in batches every flush interval, or sooner when a
+ * batch fills up. When the queue is full or a write fails, records are dropped and counted
+ * rather than slowing down evaluations.
+ */
+@Service
+@Slf4j
+public class AiUsageService implements MeterBinder {
+
+    public enum GroupBy { DAY, MODEL, PROFESSOR }
+
+    private final AiUsageRecordRepository repository;
+    private final TransactionTemplate requiresNew;
+    private final BlockingQueue<AiUsageRecord> pending;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private ScheduledExecutorService flusher;
+
+    @Autowired
+    public AiUsageService(AiUsageRecordRepository repository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${app.ai-usage.queue-capacity:10000}") int queueCapacity,
+                          @Value("${app.ai-usage.batch-size:100}") int batchSize,
+                          @Value("${app.ai-usage.flush-interval:PT5S}") Duration flushInterval) {
+        this.repository = repository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.pending = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+    }
+
+    @PostConstruct
+    void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ai-usage-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        flush();
+    }
+
+    /**
+     * Queue a usage record for writing. Never blocks and never throws.
+     */
+    public void record(AiUsageRecord usage) {
+        if (usage.getCreatedAt() == null) {
+            usage.setCreatedAt(LocalDateTime.now());
+        }
+        if (usage.getUsageDate() == null) {
+            usage.setUsageDate(usage.getCreatedAt().toLocalDate());
+        }
+        if (!pending.offer(usage)) {
+            dropped.increment();
+            log.debug("AI usage queue full, dropping record for model {}", usage.getModel());
+            return;
+        }
+        if (pending.size() >= batchSize && flusher != null && flushScheduled.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushScheduled.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    /**
+     * Write every queued record, one transaction per batch.
+     *
+     * @return number of records written
+     */
+    public synchronized int flush() {
+        int total = 0;
+        while (true) {
+            List<AiUsageRecord> batch = new ArrayList<>(batchSize);
+            if (pending.drainTo(batch, batchSize) == 0) {
+                return total;
+            }
+            try {
+                requiresNew.executeWithoutResult(status -> repository.saveAll(batch));
+                written.add(batch.size());
+                total += batch.size();
+            } catch (RuntimeException e) {
+                dropped.add(batch.size());
+                log.warn("Failed to write {} AI usage records: {}", batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Usage between two dates (inclusive) grouped by day, model or professor.
+     */
+    public List<AiUsageRollupDTO> rollup(GroupBy groupBy, LocalDate from, LocalDate to) {
+        return switch (groupBy) {
+            case DAY -> repository.rollupByDay(from, to, AiUsageRecord.Outcome.SUCCESS);
+            case MODEL -> repository.rollupByModel(from, to, AiUsageRecord.Outcome.SUCCESS);
+            case PROFESSOR -> repository.rollupByProfessor(from, to, AiUsageRecord.Outcome.SUCCESS);
+        };
+    }
+
+    /**
+     * Every recorded call for a document, oldest first.
+     */
+    public List<AiUsageRecord> getDocumentUsage(Long documentId) {
+        return repository.findByDocumentIdOrderByCreatedAtAsc(documentId);
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("AI usage flush failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ai.usage.pending", pending, BlockingQueue::size)
+                .description("AI usage records waiting to be written")
+                .register(registry);
+        FunctionCounter.builder("ai.usage.records", written, LongAdder::sum)
+                .description("AI usage records by ledger write result")
+                .tag("result", "written")
+                .register(registry);
+        FunctionCounter.builder("ai.usage.records", dropped, LongAdder::sum)
+                .description("AI usage records by ledger write result")
+                .tag("result", "dropped")
+                .register(registry);
+    }
+}
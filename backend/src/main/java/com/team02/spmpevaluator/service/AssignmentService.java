@@ -6,6 +6,7 @@ import com.team02.spmpevaluator.entity.User;
 import com.team02.spmpevaluator.repository.StudentProfessorAssignmentRepository;
 import com.team02.spmpevaluator.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +23,7 @@ public class AssignmentService {
     
     private final StudentProfessorAssignmentRepository assignmentRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public StudentProfessorAssignment assignStudentToProfessor(Long studentId, Long professorId, Long adminId, String notes) {
         User student = userRepository.findById(studentId)
@@ -52,7 +54,9 @@ public class AssignmentService {
         assignment.setAssignedBy(admin);
         assignment.setNotes(notes);
 
-        return assignmentRepository.save(assignment);
+        StudentProfessorAssignment saved = assignmentRepository.save(assignment);
+        eventPublisher.publishEvent(new StudentAssignmentChangedEvent(studentId));
+        return saved;
     }
 
     public List<StudentProfessorAssignment> getAssignmentsByProfessor(Long professorId) {
@@ -68,7 +72,11 @@ public class AssignmentService {
     }
 
     public void removeAssignment(Long assignmentId) {
+        Long studentId = assignmentRepository.findById(assignmentId)
+                .map(assignment -> assignment.getStudent().getId())
+                .orElse(null);
         assignmentRepository.deleteById(assignmentId);
+        eventPublisher.publishEvent(new StudentAssignmentChangedEvent(studentId));
     }
 
     public List<StudentProfessorAssignment> getAllAssignments() {
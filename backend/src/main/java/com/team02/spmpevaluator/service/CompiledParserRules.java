@@ -0,0 +1,215 @@
+package com.team02.spmpevaluator.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team02.spmpevaluator.entity.ParserConfiguration;
+import com.team02.spmpevaluator.util.KeywordAutomaton;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable matcher compiled from a {@link ParserConfiguration}.
+ * <p>
+ * The clause mappings are turned into one {@link KeywordAutomaton} over the keywords of all
+ * clauses plus one heading pattern per clause, so matching a document is a single keyword pass
+ * and one regex search per clause. Custom rules are parsed but carry no matching logic; they
+ * are kept so reports can list them.
+ */
+public final class CompiledParserRules {
+
+    /**
+     * Share of a clause's keywords that must occur for it to count as detected without a heading,
+     * the same bar the evaluation engine uses for sections.
+     */
+    static final double DETECTION_COVERAGE = 40.0;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public record Clause(String clauseId, String clauseName, int weight, List<String> keywords) {}
+
+    public record Rule(String ruleId, String description, String criteria, String severity) {}
+
+    public record ClauseMatch(Clause clause, int matchedKeywords, boolean headingFound, double coverage) {
+        public boolean detected() {
+            return coverage >= DETECTION_COVERAGE || (headingFound && matchedKeywords > 0);
+        }
+    }
+
+    /**
+     * Per-clause results in configuration order; the score is the detected share of the total
+     * clause weight (0-100).
+     */
+    public record MatchResult(List<ClauseMatch> clauses, double weightedScore) {
+        public List<String> detectedClauses() {
+            return clauses.stream().filter(ClauseMatch::detected).map(match -> match.clause().clauseName()).toList();
+        }
+
+        public List<String> missingClauses() {
+            return clauses.stream().filter(match -> !match.detected())
+                    .map(match -> match.clause().clauseName()).toList();
+        }
+    }
+
+    private final Long configurationId;
+    private final LocalDateTime configurationVersion;
+    private final List<Clause> clauses;
+    private final List<Rule> rules;
+    private final KeywordAutomaton automaton;
+    // Clause index of each automaton keyword
+    private final int[] keywordClause;
+    private final Pattern[] headingPatterns;
+
+    private CompiledParserRules(Long configurationId, LocalDateTime configurationVersion,
+                                List<Clause> clauses, List<Rule> rules) {
+        this.configurationId = configurationId;
+        this.configurationVersion = configurationVersion;
+        this.clauses = clauses;
+        this.rules = rules;
+
+        List<String> keywords = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        this.headingPatterns = new Pattern[clauses.size()];
+        for (int c = 0; c < clauses.size(); c++) {
+            for (String keyword : clauses.get(c).keywords()) {
+                keywords.add(keyword);
+                owners.add(c);
+            }
+            headingPatterns[c] = headingPattern(clauses.get(c));
+        }
+        this.automaton = KeywordAutomaton.of(keywords);
+        this.keywordClause = owners.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Compiles a configuration.
+     *
+     * @throws IllegalArgumentException if the clause mappings or custom rules are not valid JSON arrays
+     */
+    public static CompiledParserRules compile(ParserConfiguration configuration) {
+        return compile(configuration.getId(), configuration.getUpdatedAt(),
+                configuration.getClauseMappings(), configuration.getCustomRules());
+    }
+
+    static CompiledParserRules compile(Long configurationId, LocalDateTime configurationVersion,
+                                       String clauseMappings, String customRules) {
+        List<Clause> clauses = new ArrayList<>();
+        for (JsonNode node : readArray(clauseMappings, "clause mappings")) {
+            List<String> keywords = new ArrayList<>();
+            node.path("keywords").forEach(keyword -> {
+                if (!keyword.asText().isBlank()) {
+                    keywords.add(keyword.asText().trim());
+                }
+            });
+            clauses.add(new Clause(node.path("clauseId").asText(""), node.path("clauseName").asText(""),
+                    node.path("weight").asInt(0), List.copyOf(keywords)));
+        }
+
+        List<Rule> rules = new ArrayList<>();
+        for (JsonNode node : readArray(customRules, "custom rules")) {
+            rules.add(new Rule(node.path("ruleId").asText(""), node.path("description").asText(""),
+                    node.path("criteria").asText(""), node.path("severity").asText("")));
+        }
+
+        return new CompiledParserRules(configurationId, configurationVersion, List.copyOf(clauses), List.copyOf(rules));
+    }
+
+    /**
+     * Whether these rules were compiled from the current state of the configuration.
+     */
+    public boolean isCompiledFrom(ParserConfiguration configuration) {
+        return configuration != null
+                && configuration.getId() != null
+                && configuration.getId().equals(configurationId)
+                && Objects.equals(configuration.getUpdatedAt(), configurationVersion);
+    }
+
+    public Long getConfigurationId() {
+        return configurationId;
+    }
+
+    public LocalDateTime getConfigurationVersion() {
+        return configurationVersion;
+    }
+
+    public List<Clause> getClauses() {
+        return clauses;
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Matches every clause against the text in one keyword pass.
+     */
+    public MatchResult match(CharSequence text) {
+        boolean[] matched = automaton.matchedKeywords(text);
+        int[] matchedPerClause = new int[clauses.size()];
+        for (int k = 0; k < matched.length; k++) {
+            if (matched[k]) {
+                matchedPerClause[keywordClause[k]]++;
+            }
+        }
+
+        List<ClauseMatch> results = new ArrayList<>(clauses.size());
+        int totalWeight = 0;
+        int detectedWeight = 0;
+        for (int c = 0; c < clauses.size(); c++) {
+            Clause clause = clauses.get(c);
+            int keywordCount = clause.keywords().size();
+            double coverage = keywordCount == 0 ? 0.0 : matchedPerClause[c] * 100.0 / keywordCount;
+            boolean headingFound = headingPatterns[c] != null && headingPatterns[c].matcher(text).find();
+            ClauseMatch match = new ClauseMatch(clause, matchedPerClause[c], headingFound, coverage);
+            results.add(match);
+
+            totalWeight += clause.weight();
+            if (match.detected()) {
+                detectedWeight += clause.weight();
+            }
+        }
+
+        double weightedScore = totalWeight == 0 ? 0.0 : detectedWeight * 100.0 / totalWeight;
+        return new MatchResult(results, weightedScore);
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledParserRules{configurationId=" + configurationId + ", clauses=" + clauses.size()
+                + ", keywords=" + automaton.size() + ", rules=" + rules.size() + "}";
+    }
+
+    /**
+     * A line that is the clause heading, e.g. "5.2 Work Plan", "Section 5.2. Work Plan" or "Work Plan:".
+     */
+    private static Pattern headingPattern(Clause clause) {
+        if (clause.clauseName().isBlank()) {
+            return null;
+        }
+        String name = Pattern.quote(clause.clauseName().trim());
+        String numbered = clause.clauseId().isBlank()
+                ? ""
+                : "(?:section[ \\t]+)?" + Pattern.quote(clause.clauseId().trim()) + "\\.?[ \\t]+";
+        return Pattern.compile("^[ \\t]*" + (numbered.isEmpty() ? "" : "(?:" + numbered + ")?") + name + "[ \\t]*:?[ \\t]*$",
+                Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.MULTILINE);
+    }
+
+    private static JsonNode readArray(String json, String label) {
+        if (json == null || json.isBlank()) {
+            return OBJECT_MAPPER.createArrayNode();
+        }
+        try {
+            JsonNode node = OBJECT_MAPPER.readTree(json);
+            if (!node.isArray()) {
+                throw new IllegalArgumentException("Invalid " + label + ": expected a JSON array");
+            }
+            return node;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid " + label + ": " + e.getOriginalMessage(), e);
+        }
+    }
+}
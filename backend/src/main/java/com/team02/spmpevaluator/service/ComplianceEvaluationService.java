@@ -1,13 +1,21 @@
 package com.team02.spmpevaluator.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.team02.spmpevaluator.dto.ComplianceReportDTO;
 import com.team02.spmpevaluator.dto.SectionAnalysisDTO;
+import com.team02.spmpevaluator.dto.SectionLintDTO;
 import com.team02.spmpevaluator.entity.*;
 import com.team02.spmpevaluator.repository.ComplianceScoreRepository;
-import com.team02.spmpevaluator.util.IEEE1058StandardConstants;
-import lombok.RequiredArgsConstructor;
+import com.team02.spmpevaluator.util.ExcerptSelector;
+import com.team02.spmpevaluator.util.FoldedText;
+import com.team02.spmpevaluator.util.FuzzyKeywordMatcher;
+import com.team02.spmpevaluator.util.KeywordAutomaton;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.stream.Collectors;
@@ -16,119 +24,381 @@ import java.util.*;
 /**
  * Service for evaluating SPMP documents against IEEE 1058 standard.
  * Performs compliance checking, section detection, and scoring.
+ * <p>
+ * An evaluation runs in two phases: {@link #computeEvaluation} does section detection, scoring
+ * and AI enrichment without touching the database, and {@link #persistEvaluation} upserts the
+ * result in one short write transaction. Section keywords come from the current
+ * {@link KeywordDictionary}; {@link #computeKeywordEvaluation} re-runs only the keyword phase.
+ * Every committed evaluation also trains the {@link SectionClassifier}, once per uploaded input,
+ * from a sample taken in the compute phase, and its block assignments count as presence evidence.
  */
 @Service
-@RequiredArgsConstructor
-@Transactional
 public class ComplianceEvaluationService {
 
     private final ComplianceScoreRepository complianceScoreRepository;
     private final OpenRouterService openRouterService; // AI-enhanced findings via Nemotron
+    private final AiResponseCacheService aiResponseCache;
+    private final EvaluationProgressService progressService;
+    private final ScoringPlanService scoringPlanService;
+    private final KeywordDictionaryService keywordDictionaryService;
+    private final SectionClassifier sectionClassifier;
+    private final TransactionTemplate writeTransaction;
+
+    public ComplianceEvaluationService(ComplianceScoreRepository complianceScoreRepository,
+                                       OpenRouterService openRouterService,
+                                       AiResponseCacheService aiResponseCache,
+                                       EvaluationProgressService progressService,
+                                       ScoringPlanService scoringPlanService,
+                                       KeywordDictionaryService keywordDictionaryService,
+                                       SectionClassifier sectionClassifier,
+                                       PlatformTransactionManager transactionManager) {
+        this.complianceScoreRepository = complianceScoreRepository;
+        this.openRouterService = openRouterService;
+        this.aiResponseCache = aiResponseCache;
+        this.progressService = progressService;
+        this.scoringPlanService = scoringPlanService;
+        this.keywordDictionaryService = keywordDictionaryService;
+        this.sectionClassifier = sectionClassifier;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Version of the section enrichment prompt template. Bump when the prompt changes so cached
+     * AI responses produced by the old template are no longer used.
+     */
+    static final String ENRICHMENT_PROMPT_VERSION = "section-enrichment-v1";
 
-    private static final Map<SectionAnalysis.IEEE1058Section, Integer> SECTION_WEIGHTS = Map.ofEntries(
-            Map.entry(SectionAnalysis.IEEE1058Section.OVERVIEW, 10),
-            Map.entry(SectionAnalysis.IEEE1058Section.DOCUMENTATION_PLAN, 8),
-            Map.entry(SectionAnalysis.IEEE1058Section.MASTER_SCHEDULE, 10),
-            Map.entry(SectionAnalysis.IEEE1058Section.ORGANIZATION, 12),
-            Map.entry(SectionAnalysis.IEEE1058Section.STANDARDS_PRACTICES, 10),
-            Map.entry(SectionAnalysis.IEEE1058Section.RISK_MANAGEMENT, 10),
-            Map.entry(SectionAnalysis.IEEE1058Section.STAFF_ORGANIZATION, 8),
-            Map.entry(SectionAnalysis.IEEE1058Section.BUDGET_RESOURCE, 10),
-            Map.entry(SectionAnalysis.IEEE1058Section.REVIEWS_AUDITS, 7),
-            Map.entry(SectionAnalysis.IEEE1058Section.PROBLEM_RESOLUTION, 5),
-            Map.entry(SectionAnalysis.IEEE1058Section.CHANGE_MANAGEMENT, 5),
-            Map.entry(SectionAnalysis.IEEE1058Section.GLOSSARY_APPENDIX, 5)
-    );
+    /**
+     * Version of the batched enrichment prompt template (all sections in one request).
+     */
+    static final String BATCH_ENRICHMENT_PROMPT_VERSION = "section-enrichment-batch-v1";
+
+    /**
+     * Send all present sections to the AI in one request instead of one request per section.
+     */
+    @Value("${openrouter.enrichment.batched:true}")
+    private boolean batchedEnrichment = true;
+
+    /**
+     * Stream the batched AI reply and forward findings as they arrive when someone is
+     * watching the evaluation progress channel.
+     */
+    @Value("${openrouter.streaming.enabled:true}")
+    private boolean streamingEnrichment = true;
+
+    /**
+     * Token budget for the document excerpt sent with each section.
+     */
+    @Value("${openrouter.prompt.section-token-budget:150}")
+    private int sectionExcerptTokenBudget = 150;
+
+    /**
+     * Edits allowed when matching section keywords, so typos, inflections and hyphenated line
+     * breaks still count; 0 matches keywords exactly.
+     */
+    private int keywordMaxEdits = 0;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
 
     private record SubclauseDefinition(String id, String title, Set<String> keywords, int weight) {}
 
     private static final Map<SectionAnalysis.IEEE1058Section, List<SubclauseDefinition>> SUBCLAUSE_DEFINITIONS =
             buildSubclauseDefinitions();
 
+    private static final SectionAnalysis.IEEE1058Section[] SECTIONS = SectionAnalysis.IEEE1058Section.values();
+
+    private static final ScanTerms SCAN_TERMS = new ScanTerms();
+
+    /**
+     * The fixed terms the keyword phase looks for besides the dictionary keywords, compiled into
+     * one automaton and addressed by term id: section titles and title words (first, so they are
+     * tracked per line), subclause keywords and the table-of-contents markers.
+     */
+    private static final class ScanTerms {
+        final int[] title = new int[SECTIONS.length];
+        final int[][] titleWords = new int[SECTIONS.length][];
+        final int[][][] subclauseKeywords = new int[SECTIONS.length][][];
+        final String[][] subclauseLabels = new String[SECTIONS.length][];
+        final int contents;
+        final int index;
+        final KeywordAutomaton automaton;
+
+        ScanTerms() {
+            Map<String, Integer> ids = new LinkedHashMap<>();
+            for (SectionAnalysis.IEEE1058Section section : SECTIONS) {
+                String sectionTitle = section.getDisplayName().toLowerCase();
+                title[section.ordinal()] = id(ids, sectionTitle);
+                titleWords[section.ordinal()] = Arrays.stream(sectionTitle.split("\\s+"))
+                        .mapToInt(word -> id(ids, word))
+                        .toArray();
+            }
+            if (ids.size() > EvaluationContext.LINE_TERMS) {
+                throw new IllegalStateException("Too many section title terms: " + ids.size());
+            }
+            for (SectionAnalysis.IEEE1058Section section : SECTIONS) {
+                List<SubclauseDefinition> definitions =
+                        SUBCLAUSE_DEFINITIONS.getOrDefault(section, Collections.emptyList());
+                subclauseKeywords[section.ordinal()] = definitions.stream()
+                        .map(def -> def.keywords().stream().mapToInt(kw -> id(ids, kw.toLowerCase())).toArray())
+                        .toArray(int[][]::new);
+                subclauseLabels[section.ordinal()] = definitions.stream()
+                        .map(def -> def.id() + " " + def.title())
+                        .toArray(String[]::new);
+            }
+            // "contents" also covers "table of contents"
+            contents = id(ids, "contents");
+            index = id(ids, "index");
+            automaton = KeywordAutomaton.of(ids.keySet());
+        }
+
+        private static int id(Map<String, Integer> ids, String term) {
+            return ids.computeIfAbsent(term, t -> ids.size());
+        }
+    }
+
     /**
      * Evaluates a document's compliance with IEEE 1058 standard.
      * Returns a detailed compliance report with section analysis and scoring.
-     * Uses WEIGHTED SCORING to ensure IEEE 1058 compliance integrity.
+     * Uses WEIGHTED SCORING to ensure IEEE 1058 compliance integrity, with the section weights of
+     * the active grading criteria of the student's professor when there are any.
+     * Must not be called inside a transaction, or the connection is held during the AI calls.
      */
     public ComplianceScore evaluateDocument(SPMPDocument document, String documentContent) {
-        String normalizedContent = documentContent.toLowerCase();
+        ScoringPlan plan = scoringPlanService.planFor(document);
+        String inputVersion = EvaluationSingleFlight.inputVersion(document);
+        boolean learn = sectionClassifier.needsLearning(document.getId(), inputVersion);
+        Computed computed = compute(document.getId(), documentContent, plan, learn);
+        EvaluationResult result = computed.result();
+        ComplianceScore complianceScore = persistEvaluation(document, result);
+
+        progressService.complete(document.getId(), Map.of(
+                "overallScore", result.overallScore(),
+                "sectionsFound", result.sectionsFound()));
+
+        // Only a committed evaluation teaches the classifier
+        if (learn) {
+            sectionClassifier.learn(document.getId(), inputVersion, computed.sample());
+        }
+        return complianceScore;
+    }
 
-        // Analyze each IEEE 1058 section
-        List<SectionAnalysis> sectionAnalyses = new ArrayList<>();
-        int sectionsFound = 0;
+    /**
+     * Compute phase: section detection, scoring and AI enrichment. Reads no entities and
+     * writes nothing, so it may take as long as the AI needs without holding a connection.
+     * Scores with the default IEEE 1058 section weights.
+     */
+    public EvaluationResult computeEvaluation(Long documentId, String documentContent) {
+        return computeEvaluation(documentId, documentContent, ScoringPlan.DEFAULT);
+    }
+
+    /**
+     * Compute phase using the section weights and compliance threshold of the given plan.
+     */
+    public EvaluationResult computeEvaluation(Long documentId, String documentContent, ScoringPlan plan) {
+        return compute(documentId, documentContent, plan, false).result();
+    }
+
+    /**
+     * Compute phase that can also sample the document for the section classifier from the same
+     * context, so learning does not scan the text a second time.
+     */
+    private Computed compute(Long documentId, String documentContent, ScoringPlan plan, boolean sample) {
+        KeywordDictionary dictionary = keywordDictionaryService.current();
+        try (EvaluationContext context = EvaluationContext.open(documentContent, dictionary, SCAN_TERMS.automaton,
+                keywordMaxEdits)) {
+            List<SectionAnalysis> sectionAnalyses = analyzeSections(context, plan, dictionary);
+            SectionClassifier.Sample classifierSample =
+                    sample ? sectionClassifier.sample(context, SCAN_TERMS.title) : null;
+
+            // PHASE 2: Enhance present sections with Nemotron AI (optional, non-blocking)
+            enhanceFindingsWithAi(sectionAnalyses, documentContent, documentId);
+
+            return new Computed(toResult(sectionAnalyses, context, plan, dictionary), classifierSample);
+        }
+    }
+
+    private record Computed(EvaluationResult result, SectionClassifier.Sample sample) {}
+
+    /**
+     * Keyword phase only: section detection and scoring with the given dictionary, no AI calls.
+     * Findings are the keyword-based ones.
+     */
+    public EvaluationResult computeKeywordEvaluation(String documentContent, ScoringPlan plan,
+                                                    KeywordDictionary dictionary) {
+        try (EvaluationContext context = EvaluationContext.open(documentContent, dictionary, SCAN_TERMS.automaton,
+                keywordMaxEdits)) {
+            return toResult(analyzeSections(context, plan, dictionary), context, plan, dictionary);
+        }
+    }
 
-        for (SectionAnalysis.IEEE1058Section section : SectionAnalysis.IEEE1058Section.values()) {
-            SectionAnalysis analysis = analyzeSectionPresence(section, normalizedContent, documentContent);
-            sectionAnalyses.add(analysis);
-            if (analysis.isPresent()) {
+    /**
+     * Checked at startup, so an out-of-range budget fails there rather than on every evaluation.
+     */
+    @Value("${app.keyword-matching.max-edits:0}")
+    void setKeywordMaxEdits(int keywordMaxEdits) {
+        if (keywordMaxEdits < 0 || keywordMaxEdits > FuzzyKeywordMatcher.MAX_EDITS) {
+            throw new IllegalArgumentException("app.keyword-matching.max-edits must be between 0 and "
+                    + FuzzyKeywordMatcher.MAX_EDITS + ": " + keywordMaxEdits);
+        }
+        this.keywordMaxEdits = keywordMaxEdits;
+    }
+
+    /**
+     * Edit budget section keywords are currently matched with; scores record it next to the
+     * dictionary version, so a score matched with another budget is stale.
+     */
+    public int getKeywordMaxEdits() {
+        return keywordMaxEdits;
+    }
+
+    /**
+     * Keyword phase for one section's draft: the score the text would get as that section, with
+     * the current dictionary and the same matching as a full evaluation. Stores nothing, trains
+     * nothing and calls no AI, so it is cheap enough to run on every edit.
+     */
+    public SectionLintDTO lintSection(SectionAnalysis.IEEE1058Section section, String sectionText) {
+        long started = System.nanoTime();
+        KeywordDictionary dictionary = keywordDictionaryService.current();
+        int keywordPool = dictionary.keywordsFor(section).size();
+        try (EvaluationContext context = EvaluationContext.open(sectionText, dictionary, SCAN_TERMS.automaton,
+                keywordMaxEdits)) {
+            sectionClassifier.classify(context);
+            analyzeSectionPresence(context, section, ScoringPlan.DEFAULT, keywordPool);
+            SectionAnalysis analysis = toSectionAnalysis(context, section, keywordPool);
+
+            int s = section.ordinal();
+            List<String> matchedKeywords = new ArrayList<>();
+            List<String> missingKeywords = new ArrayList<>();
+            KeywordAutomaton keywords = dictionary.automaton();
+            for (int k = 0; k < keywords.size(); k++) {
+                if (dictionary.sectionOf(k) == s) {
+                    (context.keywordFound(k) ? matchedKeywords : missingKeywords).add(keywords.keyword(k));
+                }
+            }
+            double keywordCoverage = keywordPool == 0 ? 0.0 : (context.matchedKeywords[s] / (double) keywordPool) * 100.0;
+
+            return new SectionLintDTO(
+                    section,
+                    analysis.isPresent(),
+                    analysis.getSectionScore(),
+                    keywordCoverage,
+                    context.subclauseCoverage[s],
+                    matchedKeywords,
+                    missingKeywords,
+                    parseMissingSubclauses(analysis.getMissingSubclauses()),
+                    analysis.getFindings(),
+                    analysis.getRecommendations(),
+                    dictionary.getVersion(),
+                    (System.nanoTime() - started) / 1_000);
+        }
+    }
+
+    /**
+     * Analyzes each IEEE 1058 section into the context's per-section arrays, then builds the
+     * section entities from them.
+     */
+    private List<SectionAnalysis> analyzeSections(EvaluationContext context, ScoringPlan plan,
+                                                  KeywordDictionary dictionary) {
+        sectionClassifier.classify(context);
+        for (SectionAnalysis.IEEE1058Section section : SECTIONS) {
+            analyzeSectionPresence(context, section, plan, dictionary.keywordsFor(section).size());
+        }
+
+        List<SectionAnalysis> sectionAnalyses = new ArrayList<>(SECTIONS.length);
+        for (SectionAnalysis.IEEE1058Section section : SECTIONS) {
+            sectionAnalyses.add(toSectionAnalysis(context, section, dictionary.keywordsFor(section).size()));
+        }
+        return sectionAnalyses;
+    }
+
+    private EvaluationResult toResult(List<SectionAnalysis> sectionAnalyses, EvaluationContext context,
+                                      ScoringPlan plan, KeywordDictionary dictionary) {
+        int sectionsFound = 0;
+        for (boolean present : context.present) {
+            if (present) {
                 sectionsFound++;
             }
         }
 
         // CRITICAL FIX: Calculate weighted overall score from section scores
         // Each section contributes its score * weight to the final score
-        double overallScore = calculateWeightedOverallScore(sectionAnalyses);
-        
+        double overallScore = calculateWeightedOverallScore(context);
+
         // Calculate diagnostic scores (for backward compatibility, not used in final score)
         double completenessScore = calculateCompletenessScore(sectionsFound);
-        double structureScore = calculateStructureScore(documentContent);
-
-        // Reuse existing compliance score to support re-evaluation
-        ComplianceScore complianceScore = complianceScoreRepository.findByDocument(document)
-                .orElseGet(() -> {
-                    ComplianceScore newScore = new ComplianceScore();
-                    newScore.setSectionAnalyses(new ArrayList<>());
-                    return newScore;
-                });
-
-        // Clear previous section analyses (orphanRemoval will delete them)
-        complianceScore.getSectionAnalyses().clear();
-
-        complianceScore.setDocument(document);
-        complianceScore.setOverallScore(overallScore);
-        complianceScore.setStructureScore(structureScore);
-        complianceScore.setCompletenessScore(completenessScore);
-        complianceScore.setSectionsFound(sectionsFound);
-        complianceScore.setTotalSectionsRequired(SectionAnalysis.IEEE1058Section.values().length);
-        complianceScore.setCompliant(overallScore >= (IEEE1058StandardConstants.MINIMUM_COMPLIANCE_THRESHOLD * 100));
-        complianceScore.setSummary(generateSummary(overallScore, sectionsFound, documentContent.length()));
-        complianceScore.setEvaluatedAt(LocalDateTime.now());
-
-        // Add new section analyses to the collection
-        for (SectionAnalysis analysis : sectionAnalyses) {
-            analysis.setComplianceScore(complianceScore);
-            complianceScore.getSectionAnalyses().add(analysis);
-        }
-
-        // Save compliance score (cascade will save section analyses)
-        complianceScore = complianceScoreRepository.save(complianceScore);
-        
-        return complianceScore;
+        double structureScore = calculateStructureScore(context);
+
+        return new EvaluationResult(
+                overallScore,
+                structureScore,
+                completenessScore,
+                sectionsFound,
+                SECTIONS.length,
+                plan.isCompliant(overallScore),
+                generateSummary(overallScore, sectionsFound, context.length()),
+                sectionAnalyses.stream().map(EvaluationResult.SectionResult::from).toList(),
+                dictionary.getVersion(),
+                keywordMaxEdits);
+    }
+
+    /**
+     * Persist phase: upsert the document's compliance score and replace its section analyses
+     * in a single short transaction.
+     */
+    public ComplianceScore persistEvaluation(SPMPDocument document, EvaluationResult result) {
+        return writeTransaction.execute(status -> {
+            // Reuse existing compliance score to support re-evaluation
+            ComplianceScore complianceScore = complianceScoreRepository.findByDocument(document)
+                    .orElseGet(() -> {
+                        ComplianceScore newScore = new ComplianceScore();
+                        newScore.setSectionAnalyses(new ArrayList<>());
+                        return newScore;
+                    });
+
+            // Clear previous section analyses (orphanRemoval will delete them)
+            complianceScore.getSectionAnalyses().clear();
+
+            complianceScore.setDocument(document);
+            complianceScore.setOverallScore(result.overallScore());
+            complianceScore.setStructureScore(result.structureScore());
+            complianceScore.setCompletenessScore(result.completenessScore());
+            complianceScore.setSectionsFound(result.sectionsFound());
+            complianceScore.setTotalSectionsRequired(result.totalSectionsRequired());
+            complianceScore.setCompliant(result.compliant());
+            complianceScore.setSummary(result.summary());
+            complianceScore.setKeywordDictionaryVersion(result.keywordDictionaryVersion());
+            complianceScore.setKeywordMatchEdits(result.keywordMaxEdits());
+            complianceScore.setEvaluatedAt(LocalDateTime.now());
+
+            // Add new section analyses to the collection
+            for (EvaluationResult.SectionResult section : result.sections()) {
+                complianceScore.getSectionAnalyses().add(section.toEntity(complianceScore));
+            }
+
+            // Save compliance score (cascade will save section analyses)
+            return complianceScoreRepository.save(complianceScore);
+        });
     }
 
     /**
      * Analyzes whether a specific IEEE 1058 section is present in the document.
      * CRITICAL FIX: Now requires BOTH keywords AND sufficient content length to prevent false positives.
+     * Results go into the context's arrays at the section's ordinal.
      */
-    private SectionAnalysis analyzeSectionPresence(SectionAnalysis.IEEE1058Section section, String normalizedContent, String originalContent) {
-        SectionAnalysis analysis = new SectionAnalysis();
-        analysis.setSectionName(section);
-
-        Set<String> keywords = getKeywordsForSection(section);
-        int matchedKeywords = (int) keywords.stream()
-                .filter(kw -> normalizedContent.contains(kw.toLowerCase()))
-                .count();
+    private void analyzeSectionPresence(EvaluationContext context, SectionAnalysis.IEEE1058Section section,
+                                        ScoringPlan plan, int keywordPool) {
+        int s = section.ordinal();
+        int matchedKeywords = context.matchedKeywords[s];
 
         // CRITICAL FIX: Check if section has dedicated heading/structure
-        boolean hasSectionHeading = detectSectionHeading(section, originalContent);
-        
-        // CRITICAL FIX: Extract section content for analysis
-        String sectionContent = extractSectionContent(section, originalContent);
-        int sectionContentLength = sectionContent.length();
+        boolean hasSectionHeading = detectSectionHeading(context, section);
+
+        // CRITICAL FIX: Measure the section content for analysis
+        int sectionContentLength = sectionContentLength(context, section);
 
-        double primaryCoverage = keywords.isEmpty() ? 0.0 : (matchedKeywords / (double) keywords.size()) * 100.0;
+        double primaryCoverage = keywordPool == 0 ? 0.0 : (matchedKeywords / (double) keywordPool) * 100.0;
 
-        SubclauseResult subclauseResult = evaluateSubclauses(section, normalizedContent, originalContent);
+        evaluateSubclauses(context, section);
         
         // BALANCED FIX: Section is present if it has reasonable keyword coverage OR structural evidence
         // This prevents false negatives for well-written SPMPs that use different heading formats
@@ -136,51 +406,57 @@ public class ComplianceEvaluationService {
         //   - Good keyword match (40%+ coverage)
         //   - Section heading detected with some keywords
         //   - Subclause evidence with keywords
+        //   - An outline block the section classifier assigns to the section, with keywords
         boolean hasGoodKeywordCoverage = primaryCoverage >= 40.0;
         boolean hasStructuralEvidence = hasSectionHeading && matchedKeywords >= 1;
-        boolean hasSubclauseEvidence = !subclauseResult.missingSubclauses().isEmpty() && matchedKeywords >= 1;
+        boolean hasSubclauseEvidence = context.missingSubclauses[s] != 0 && matchedKeywords >= 1;
+        boolean hasClassifiedBlock = context.classifiedBlocks[s] > 0 && matchedKeywords >= 1;
         
-        boolean sectionPresent = hasGoodKeywordCoverage || hasStructuralEvidence || hasSubclauseEvidence;
+        boolean sectionPresent = hasGoodKeywordCoverage || hasStructuralEvidence || hasSubclauseEvidence
+                || hasClassifiedBlock;
 
-        double combinedCoverage = SUBCLAUSE_DEFINITIONS.getOrDefault(section, Collections.emptyList()).isEmpty()
+        double combinedCoverage = SCAN_TERMS.subclauseKeywords[s].length == 0
                 ? primaryCoverage
-                : (primaryCoverage * 0.5) + (subclauseResult.coveragePct() * 0.5);
+                : (primaryCoverage * 0.5) + (context.subclauseCoverage[s] * 0.5);
 
         // CRITICAL FIX: Apply length-based penalty to coverage
         double lengthPenalty = calculateLengthPenalty(sectionContentLength, getMinimumSectionLength(section));
         combinedCoverage = combinedCoverage * lengthPenalty;
 
         // CRITICAL FIX: Section score now properly penalizes missing/incomplete sections
-        double sectionScore = computeSectionScore(combinedCoverage, sectionPresent, matchedKeywords, keywords.size());
+        context.present[s] = sectionPresent;
+        context.coverage[s] = combinedCoverage;
+        context.score[s] = computeSectionScore(combinedCoverage, sectionPresent, matchedKeywords, keywordPool);
+        context.weight[s] = plan.weightOf(section);
+        if (context.evidenceLine[s] < 0) {
+            context.evidenceLine[s] = context.firstKeywordLine[s];
+        }
+    }
 
+    /**
+     * Builds the section entity from the context's arrays; the only allocation of the keyword phase.
+     */
+    private SectionAnalysis toSectionAnalysis(EvaluationContext context, SectionAnalysis.IEEE1058Section section,
+                                              int keywordPool) {
+        int s = section.ordinal();
+        boolean sectionPresent = context.present[s];
+        double combinedCoverage = context.coverage[s];
+        String missingSubclauses = missingSubclauses(section, context.missingSubclauses[s]);
+
+        SectionAnalysis analysis = new SectionAnalysis();
+        analysis.setSectionName(section);
         analysis.setPresent(sectionPresent);
-        analysis.setSectionScore(sectionScore);
+        analysis.setSectionScore(context.score[s]);
         analysis.setCoverage(combinedCoverage);
-        analysis.setSeverity(resolveSeverity(sectionPresent, combinedCoverage, subclauseResult.missingSubclauses()));
-        analysis.setEvidenceSnippet(Optional.ofNullable(subclauseResult.evidenceSnippet())
-                .orElseGet(() -> extractEvidenceSnippet(originalContent, keywords)));
-        analysis.setMissingSubclauses(String.join(", ", subclauseResult.missingSubclauses()));
-        analysis.setSectionWeight(SECTION_WEIGHTS.getOrDefault(section, 0));
+        analysis.setSeverity(resolveSeverity(sectionPresent, combinedCoverage, !missingSubclauses.isEmpty()));
+        analysis.setEvidenceSnippet(context.evidenceLine[s] < 0 ? null : context.snippet(context.evidenceLine[s]));
+        analysis.setMissingSubclauses(missingSubclauses);
+        analysis.setSectionWeight(context.weight[s]);
 
-        String findings = buildFindings(section, sectionPresent, matchedKeywords, keywords.size(), combinedCoverage,
-                subclauseResult);
-        String recommendations = buildRecommendations(section, sectionPresent, combinedCoverage, subclauseResult);
-
-        // PHASE 2: Enhance with Nemotron AI for better findings and recommendations (optional, non-blocking)
-        try {
-            if (sectionPresent && openRouterService.isConfigured()) {
-                EnhancedAnalysis aiEnhanced = enhanceWithNemotron(section, findings, recommendations, 
-                                                                   subclauseResult, originalContent);
-                findings = aiEnhanced.aiFindings();
-                recommendations = aiEnhanced.aiRecommendations();
-            }
-        } catch (Exception e) {
-            // Fallback to keyword-based findings if AI service unavailable
-            // This ensures the system remains resilient
-        }
-
-        analysis.setFindings(findings);
-        analysis.setRecommendations(recommendations);
+        // Keyword-based findings; present sections are refined by the AI pass in computeEvaluation
+        analysis.setFindings(buildFindings(section, sectionPresent, context.matchedKeywords[s], keywordPool,
+                combinedCoverage, missingSubclauses));
+        analysis.setRecommendations(buildRecommendations(section, sectionPresent, combinedCoverage, missingSubclauses));
 
         return analysis;
     }
@@ -242,13 +518,13 @@ public class ComplianceEvaluationService {
      * This ensures high-weight sections (Organization=12%, Risk=10%) impact the score
      * significantly more than low-weight sections (Glossary=5%, Problem Resolution=5%).
      */
-    private double calculateWeightedOverallScore(List<SectionAnalysis> sectionAnalyses) {
+    private double calculateWeightedOverallScore(EvaluationContext context) {
         double totalWeightedScore = 0.0;
         int totalWeight = 0;
         
-        for (SectionAnalysis analysis : sectionAnalyses) {
-            int sectionWeight = analysis.getSectionWeight();
-            double sectionScore = analysis.getSectionScore();
+        for (int s = 0; s < SECTIONS.length; s++) {
+            int sectionWeight = context.weight[s];
+            double sectionScore = context.score[s];
             
             // Each section contributes: (score / 100) * weight
             // Example: 98% score with 10 weight = 0.98 * 10 = 9.8 points
@@ -259,7 +535,7 @@ public class ComplianceEvaluationService {
         // Validate weights sum to 100 (fail-safe check)
         if (totalWeight != 100) {
             throw new IllegalStateException(
-                String.format("Section weights must sum to 100, but got %d. Check SECTION_WEIGHTS configuration.", totalWeight)
+                String.format("Section weights must sum to 100, but got %d. Check the scoring plan.", totalWeight)
             );
         }
         
@@ -267,32 +543,12 @@ public class ComplianceEvaluationService {
         return totalWeightedScore;
     }
 
-    /**
-     * Maps section enum to its associated keywords.
-     */
-    private Set<String> getKeywordsForSection(SectionAnalysis.IEEE1058Section section) {
-        return switch (section) {
-            case OVERVIEW -> IEEE1058StandardConstants.OVERVIEW_KEYWORDS;
-            case DOCUMENTATION_PLAN -> IEEE1058StandardConstants.DOCUMENTATION_PLAN_KEYWORDS;
-            case MASTER_SCHEDULE -> IEEE1058StandardConstants.MASTER_SCHEDULE_KEYWORDS;
-            case ORGANIZATION -> IEEE1058StandardConstants.ORGANIZATION_KEYWORDS;
-            case STANDARDS_PRACTICES -> IEEE1058StandardConstants.STANDARDS_PRACTICES_KEYWORDS;
-            case RISK_MANAGEMENT -> IEEE1058StandardConstants.RISK_MANAGEMENT_KEYWORDS;
-            case STAFF_ORGANIZATION -> IEEE1058StandardConstants.STAFF_ORGANIZATION_KEYWORDS;
-            case BUDGET_RESOURCE -> IEEE1058StandardConstants.BUDGET_RESOURCE_KEYWORDS;
-            case REVIEWS_AUDITS -> IEEE1058StandardConstants.REVIEWS_AUDITS_KEYWORDS;
-            case PROBLEM_RESOLUTION -> IEEE1058StandardConstants.PROBLEM_RESOLUTION_KEYWORDS;
-            case CHANGE_MANAGEMENT -> IEEE1058StandardConstants.CHANGE_MANAGEMENT_KEYWORDS;
-            case GLOSSARY_APPENDIX -> IEEE1058StandardConstants.GLOSSARY_APPENDIX_KEYWORDS;
-        };
-    }
-
     /**
      * CRITICAL FIX: Calculates completeness score with weighted penalties.
      * Missing critical sections (high weight) cause larger score reductions.
      */
     private double calculateCompletenessScore(int sectionsFound) {
-        int totalSections = SectionAnalysis.IEEE1058Section.values().length;
+        int totalSections = SECTIONS.length;
         
         // Base completeness ratio
         double baseScore = (sectionsFound / (double) totalSections) * 100.0;
@@ -313,31 +569,33 @@ public class ComplianceEvaluationService {
      * Calculates structure score based on document characteristics.
      * Checks for proper formatting, length, and organization.
      */
-    private double calculateStructureScore(String content) {
+    private double calculateStructureScore(EvaluationContext context) {
         double score = 0.0;
         int maxScore = 100;
 
         // Check minimum length (5000+ characters recommended)
-        if (content.length() >= 5000) {
+        if (context.length() >= 5000) {
             score += 20;
-        } else if (content.length() >= 3000) {
+        } else if (context.length() >= 3000) {
             score += 10;
         }
 
-        // Check for headings/sections (usually capitalized lines)
-        long headingCount = Arrays.stream(content.split("\n"))
-                .filter(line -> line.matches("^[A-Z].*"))
-                .count();
+        // Check for headings/sections (usually capitalized lines) and numbered lists or structure
+        int headingCount = 0;
+        int bulletPoints = 0;
+        for (int line = 0; line < context.lineCount(); line++) {
+            if (context.hasFlag(line, EvaluationContext.CAPITALIZED)) {
+                headingCount++;
+            }
+            if (context.hasFlag(line, EvaluationContext.LIST_ITEM)) {
+                bulletPoints++;
+            }
+        }
         if (headingCount >= 10) {
             score += 30;
         } else if (headingCount >= 5) {
             score += 15;
         }
-
-        // Check for numbered lists or structure
-        long bulletPoints = Arrays.stream(content.split("\n"))
-                .filter(line -> line.matches("^\\s*[•\\-\\*].*") || line.matches("^\\s*\\d+\\..*"))
-                .count();
         if (bulletPoints >= 20) {
             score += 30;
         } else if (bulletPoints >= 10) {
@@ -345,10 +603,7 @@ public class ComplianceEvaluationService {
         }
 
         // Check for proper table of contents indicators
-        String lowerContent = content.toLowerCase();
-        if (lowerContent.contains("table of contents") ||
-            lowerContent.contains("contents") ||
-            lowerContent.contains("index")) {
+        if (context.termFound(SCAN_TERMS.contents) || context.termFound(SCAN_TERMS.index)) {
             score += 20;
         }
 
@@ -363,7 +618,7 @@ public class ComplianceEvaluationService {
         summary.append("Compliance Evaluation Summary:\n");
         summary.append("Overall Compliance Score: ").append(Math.round(overallScore)).append("%\n");
         summary.append("Sections Found: ").append(sectionsFound).append("/")
-                .append(SectionAnalysis.IEEE1058Section.values().length).append("\n");
+                .append(SECTIONS.length).append("\n");
         summary.append("Document Length: ").append(contentLength).append(" characters\n");
 
         if (overallScore >= 90) {
@@ -433,32 +688,61 @@ public class ComplianceEvaluationService {
                 .collect(Collectors.toList());
     }
 
-    private SubclauseResult evaluateSubclauses(SectionAnalysis.IEEE1058Section section, String normalizedContent, String originalContent) {
-        List<SubclauseDefinition> definitions = SUBCLAUSE_DEFINITIONS.getOrDefault(section, Collections.emptyList());
-        if (definitions.isEmpty()) {
-            return new SubclauseResult(0.0, Collections.emptyList(), null);
+    /**
+     * Subclause coverage, missing subclauses and the first line with subclause evidence, from the
+     * fixed terms found while indexing.
+     */
+    private void evaluateSubclauses(EvaluationContext context, SectionAnalysis.IEEE1058Section section) {
+        int s = section.ordinal();
+        int[][] definitions = SCAN_TERMS.subclauseKeywords[s];
+        if (definitions.length == 0) {
+            return;
         }
 
         double totalCoverage = 0.0;
-        List<String> missing = new ArrayList<>();
-        String evidenceSnippet = null;
-
-        for (SubclauseDefinition def : definitions) {
-            int matchedKeywords = (int) def.keywords().stream()
-                    .filter(kw -> normalizedContent.contains(kw.toLowerCase()))
-                    .count();
-            double coveragePct = def.keywords().isEmpty() ? 0.0 : (matchedKeywords / (double) def.keywords().size()) * 100.0;
+        for (int d = 0; d < definitions.length; d++) {
+            int matchedKeywords = 0;
+            int firstLine = -1;
+            for (int term : definitions[d]) {
+                if (context.termFound(term)) {
+                    matchedKeywords++;
+                }
+                int line = context.termFirstLine(term);
+                if (line >= 0 && (firstLine < 0 || line < firstLine)) {
+                    firstLine = line;
+                }
+            }
+            double coveragePct = definitions[d].length == 0 ? 0.0 : (matchedKeywords / (double) definitions[d].length) * 100.0;
             totalCoverage += coveragePct;
 
             if (matchedKeywords == 0) {
-                missing.add(def.id() + " " + def.title());
-            } else if (evidenceSnippet == null) {
-                evidenceSnippet = extractEvidenceSnippet(originalContent, def.keywords());
+                context.missingSubclauses[s] |= 1 << d;
+            } else if (context.evidenceLine[s] < 0) {
+                context.evidenceLine[s] = firstLine;
             }
         }
 
-        double avgCoverage = totalCoverage / definitions.size();
-        return new SubclauseResult(avgCoverage, missing, evidenceSnippet);
+        context.subclauseCoverage[s] = totalCoverage / definitions.length;
+    }
+
+    /**
+     * Comma-separated labels of the subclauses in the mask, empty if there are none.
+     */
+    private String missingSubclauses(SectionAnalysis.IEEE1058Section section, int mask) {
+        if (mask == 0) {
+            return "";
+        }
+        String[] labels = SCAN_TERMS.subclauseLabels[section.ordinal()];
+        StringBuilder missing = new StringBuilder();
+        for (int d = 0; d < labels.length; d++) {
+            if ((mask & 1 << d) != 0) {
+                if (missing.length() > 0) {
+                    missing.append(", ");
+                }
+                missing.append(labels[d]);
+            }
+        }
+        return missing.toString();
     }
 
     private String buildFindings(SectionAnalysis.IEEE1058Section section,
@@ -466,7 +750,7 @@ public class ComplianceEvaluationService {
                                  int matchedKeywords,
                                  int keywordPool,
                                  double combinedCoverage,
-                                 SubclauseResult subclauseResult) {
+                                 String missingSubclauses) {
         if (!present) {
             return "Section '" + section.getDisplayName() + "' not detected in the document.";
         }
@@ -475,9 +759,9 @@ public class ComplianceEvaluationService {
         findings.append("Section '").append(section.getDisplayName()).append("' detected. ");
         findings.append(String.format("Coverage: %.0f%% of keywords matched (%d/%d). ", combinedCoverage, matchedKeywords, keywordPool));
 
-        if (!subclauseResult.missingSubclauses().isEmpty()) {
+        if (!missingSubclauses.isEmpty()) {
             findings.append("Missing subclauses: ");
-            findings.append(String.join(", ", subclauseResult.missingSubclauses()));
+            findings.append(missingSubclauses);
             findings.append(".");
         } else {
             findings.append("All mapped subclauses detected.");
@@ -488,14 +772,14 @@ public class ComplianceEvaluationService {
     private String buildRecommendations(SectionAnalysis.IEEE1058Section section,
                                         boolean present,
                                         double coverage,
-                                        SubclauseResult subclauseResult) {
+                                        String missingSubclauses) {
         if (!present) {
             return "Add a dedicated '" + section.getDisplayName() + "' section. Include the key subclauses: " +
-                    String.join(", ", listSubclauseTitles(section)) + ".";
+                    String.join(", ", SCAN_TERMS.subclauseLabels[section.ordinal()]) + ".";
         }
 
-        if (!subclauseResult.missingSubclauses().isEmpty()) {
-            return "Address missing subclauses: " + String.join(", ", subclauseResult.missingSubclauses()) +
+        if (!missingSubclauses.isEmpty()) {
+            return "Address missing subclauses: " + missingSubclauses +
                     ". Provide concrete details aligned with IEEE 1058 expectations.";
         }
 
@@ -507,11 +791,11 @@ public class ComplianceEvaluationService {
         return "Section is present. Consider tightening clarity, cross-references, and evidence of execution.";
     }
 
-    private String resolveSeverity(boolean present, double coverage, List<String> missingSubclauses) {
+    private String resolveSeverity(boolean present, double coverage, boolean missingSubclauses) {
         if (!present) {
             return "HIGH";
         }
-        if (!missingSubclauses.isEmpty()) {
+        if (missingSubclauses) {
             return "HIGH";
         }
         if (coverage < 60) {
@@ -523,26 +807,6 @@ public class ComplianceEvaluationService {
         return "INFO";
     }
 
-    private List<String> listSubclauseTitles(SectionAnalysis.IEEE1058Section section) {
-        return SUBCLAUSE_DEFINITIONS.getOrDefault(section, Collections.emptyList()).stream()
-                .map(def -> def.id() + " " + def.title())
-                .toList();
-    }
-
-    private String extractEvidenceSnippet(String originalContent, Set<String> keywords) {
-        if (originalContent == null || originalContent.isBlank() || keywords.isEmpty()) {
-            return null;
-        }
-        for (String line : originalContent.split("\n")) {
-            String lower = line.toLowerCase();
-            if (keywords.stream().anyMatch(lower::contains)) {
-                String trimmed = line.trim();
-                return trimmed.length() > 240 ? trimmed.substring(0, 240) + "..." : trimmed;
-            }
-        }
-        return null;
-    }
-
     private String sectionSpecificTip(SectionAnalysis.IEEE1058Section section) {
         return switch (section) {
             case RISK_MANAGEMENT -> "Include risk register with probability/impact, owners, and mitigation actions.";
@@ -641,50 +905,36 @@ public class ComplianceEvaluationService {
      * IMPROVED: Detects if a section has a proper heading/structure in the document.
      * Now recognizes multiple heading formats used in real SPMP documents.
      */
-    private boolean detectSectionHeading(SectionAnalysis.IEEE1058Section section, String content) {
-        String sectionTitle = section.getDisplayName().toLowerCase();
-        String[] titleWords = sectionTitle.split("\\s+");
-        String[] lines = content.split("\n");
-        
-        for (String line : lines) {
-            String trimmedLine = line.trim().toLowerCase();
-            
+    private boolean detectSectionHeading(EvaluationContext context, SectionAnalysis.IEEE1058Section section) {
+        int s = section.ordinal();
+        int sectionTitle = SCAN_TERMS.title[s];
+        int[] titleWords = SCAN_TERMS.titleWords[s];
+
+        for (int line = 0; line < context.lineCount(); line++) {
             // Skip very long lines (likely not headings)
-            if (trimmedLine.length() > 200) {
+            if (context.trimmedLength(line) > 200) {
                 continue;
             }
             
             // Check for exact section title
-            if (trimmedLine.contains(sectionTitle)) {
+            if (context.lineHasTerm(line, sectionTitle)) {
                 return true;
             }
             
             // Check for partial title match (e.g., "risk management" in "5.3.7 Risk management plan")
-            int matchedWords = 0;
-            for (String word : titleWords) {
-                if (trimmedLine.contains(word)) {
-                    matchedWords++;
-                }
-            }
+            int matchedWords = context.countLineTerms(line, titleWords);
             if (matchedWords >= Math.max(1, titleWords.length - 1)) {
                 return true;
             }
             
             // Check for numbered headings (e.g., "1. Overview", "5.3.7 Risk management")
-            if (trimmedLine.matches("^\\d+(\\.\\d+)*\\s+.*")) {
-                for (String word : titleWords) {
-                    if (trimmedLine.contains(word)) {
-                        return true;
-                    }
-                }
+            if (matchedWords > 0 && context.hasFlag(line, EvaluationContext.NUMBERED_HEADING)) {
+                return true;
             }
             
             // Check for headings with primary section keywords
-            Set<String> keywords = getKeywordsForSection(section);
-            for (String keyword : keywords) {
-                if (keyword.length() >= 4 && trimmedLine.contains(keyword.toLowerCase()) && trimmedLine.length() < 150) {
-                    return true;
-                }
+            if (context.lineHasHeadingKeyword(line, s) && context.trimmedLength(line) < 150) {
+                return true;
             }
         }
         
@@ -692,107 +942,76 @@ public class ComplianceEvaluationService {
     }
 
     /**
-     * IMPROVED: Extracts content belonging to a specific section.
+     * IMPROVED: Measures the content belonging to a specific section, as the number of characters
+     * of its lines including line breaks.
      * More flexible to handle various document formats and nested sections.
      */
-    private String extractSectionContent(SectionAnalysis.IEEE1058Section section, String content) {
-        String sectionTitle = section.getDisplayName().toLowerCase();
-        String[] titleWords = sectionTitle.split("\\s+");
-        String[] lines = content.split("\n");
-        StringBuilder sectionContent = new StringBuilder();
+    private int sectionContentLength(EvaluationContext context, SectionAnalysis.IEEE1058Section section) {
+        int s = section.ordinal();
+        int sectionTitle = SCAN_TERMS.title[s];
+        int[] titleWords = SCAN_TERMS.titleWords[s];
+        int sectionContentLength = 0;
         boolean inSection = false;
         int consecutiveEmptyLines = 0;
         int contentLinesFound = 0;
         
-        for (String line : lines) {
-            String trimmedLine = line.trim();
-            String lowerLine = trimmedLine.toLowerCase();
-            
+        for (int line = 0; line < context.lineCount(); line++) {
+            boolean matchesKeyword = context.lineHasKeyword(line, s);
+
             // Start capturing when section heading found (more flexible matching)
             if (!inSection) {
-                boolean matchesTitle = lowerLine.contains(sectionTitle);
+                boolean matchesTitle = context.lineHasTerm(line, sectionTitle);
                 
                 // Check if line contains most title words
-                int matchedWords = 0;
-                for (String word : titleWords) {
-                    if (lowerLine.contains(word)) {
-                        matchedWords++;
-                    }
-                }
+                int matchedWords = context.countLineTerms(line, titleWords);
                 boolean matchesPartialTitle = matchedWords >= Math.max(1, titleWords.length - 1);
                 
-                if (matchesTitle || matchesPartialTitle || matchesAnySectionKeyword(section, lowerLine)) {
+                if (matchesTitle || matchesPartialTitle || matchesKeyword) {
                     inSection = true;
-                    continue;
                 }
+                continue;
             }
             
             // Capture content while in section
-            if (inSection) {
-                // Stop if we hit a major section heading (but be less aggressive)
-                if (looksLikeSectionHeading(lowerLine) && !matchesAnySectionKeyword(section, lowerLine)) {
-                    // Allow some subsection headings, but stop at major section changes
-                    if (trimmedLine.matches("^\\d+\\.?\\s+[A-Z].*") || trimmedLine.matches("^[A-Z][A-Z\\s]{10,}$")) {
-                        consecutiveEmptyLines++;
-                        if (consecutiveEmptyLines > 1 || contentLinesFound > 10) {
-                            break;
-                        }
-                    }
+            // Stop if we hit a major section heading like "4. Organization" (but be less aggressive)
+            if (context.hasFlag(line, EvaluationContext.NUMBERED_TITLE) && !matchesKeyword) {
+                // Allow some subsection headings, but stop at major section changes
+                consecutiveEmptyLines++;
+                if (consecutiveEmptyLines > 1 || contentLinesFound > 10) {
+                    break;
                 }
-                
-                if (trimmedLine.isEmpty()) {
-                    consecutiveEmptyLines++;
-                    // Stop after many empty lines (end of section)
-                    if (consecutiveEmptyLines > 3 && contentLinesFound > 5) {
-                        break;
-                    }
-                } else {
-                    consecutiveEmptyLines = 0;
-                    contentLinesFound++;
+            }
+            
+            if (context.trimmedLength(line) == 0) {
+                consecutiveEmptyLines++;
+                // Stop after many empty lines (end of section)
+                if (consecutiveEmptyLines > 3 && contentLinesFound > 5) {
+                    break;
                 }
-                
-                sectionContent.append(line).append("\n");
+            } else {
+                consecutiveEmptyLines = 0;
+                contentLinesFound++;
             }
+            
+            sectionContentLength += context.lineLength(line) + 1;
         }
         
         // If we didn't find content by heading, search by keywords
-        if (sectionContent.length() < 100) {
-            Set<String> keywords = getKeywordsForSection(section);
-            StringBuilder fallbackContent = new StringBuilder();
+        if (sectionContentLength < 100) {
+            int fallbackLength = 0;
             
-            for (String line : lines) {
-                String lowerLine = line.toLowerCase();
-                for (String keyword : keywords) {
-                    if (lowerLine.contains(keyword.toLowerCase())) {
-                        fallbackContent.append(line).append("\n");
-                        break;
-                    }
+            for (int line = 0; line < context.lineCount(); line++) {
+                if (context.lineHasKeyword(line, s)) {
+                    fallbackLength += context.lineLength(line) + 1;
                 }
             }
             
-            if (fallbackContent.length() > sectionContent.length()) {
-                return fallbackContent.toString();
+            if (fallbackLength > sectionContentLength) {
+                return fallbackLength;
             }
         }
         
-        return sectionContent.toString();
-    }
-
-    /**
-     * Helper: Checks if a line looks like a section heading.
-     */
-    private boolean looksLikeSectionHeading(String line) {
-        return line.matches("^\\d+(\\.\\d*)?\\s+.*") ||  // Numbered heading
-               line.matches("^[A-Z][A-Z\\s]+$") ||        // All caps heading
-               line.length() < 60 && line.matches("^[A-Z].*");  // Short capitalized line
-    }
-
-    /**
-     * Helper: Checks if line matches any keyword for the section.
-     */
-    private boolean matchesAnySectionKeyword(SectionAnalysis.IEEE1058Section section, String line) {
-        Set<String> keywords = getKeywordsForSection(section);
-        return keywords.stream().anyMatch(kw -> line.contains(kw.toLowerCase()));
+        return sectionContentLength;
     }
 
     /**
@@ -844,10 +1063,154 @@ public class ComplianceEvaluationService {
         }
     }
 
-    private record SubclauseResult(double coveragePct, List<String> missingSubclauses, String evidenceSnippet) {}
-
     private record EnhancedAnalysis(String aiFindings, String aiRecommendations) {}
 
+    /**
+     * PHASE 2: Replace keyword findings of present sections with AI findings.
+     * In batched mode every present section goes into one request; sections the batch
+     * does not answer (or all of them, if the reply cannot be parsed) fall back to one
+     * call per section. Any AI failure leaves the keyword-based findings in place.
+     */
+    private void enhanceFindingsWithAi(List<SectionAnalysis> sectionAnalyses, String documentContent, Long documentId) {
+        List<SectionAnalysis> presentSections = sectionAnalyses.stream()
+                .filter(SectionAnalysis::isPresent)
+                .toList();
+        if (presentSections.isEmpty() || !openRouterService.isAvailable()) {
+            return;
+        }
+        // Folded once here; every section's excerpt is picked from slices of this copy
+        FoldedText foldedContent = FoldedText.of(documentContent);
+
+        Map<SectionAnalysis.IEEE1058Section, EnhancedAnalysis> batched = Collections.emptyMap();
+        if (batchedEnrichment) {
+            try (AiUsageContext.Scope ignored = AiUsageContext.open("batch-enrichment", documentId, null)) {
+                batched = enhanceBatchWithNemotron(presentSections, documentContent, foldedContent, documentId);
+            }
+        }
+
+        for (SectionAnalysis analysis : presentSections) {
+            EnhancedAnalysis aiEnhanced = batched.get(analysis.getSectionName());
+            if (aiEnhanced == null) {
+                try (AiUsageContext.Scope ignored = AiUsageContext.open("section-enrichment", documentId,
+                        analysis.getSectionName().name())) {
+                    aiEnhanced = enhanceWithNemotron(analysis.getSectionName(), analysis.getFindings(),
+                            analysis.getRecommendations(), documentContent, foldedContent);
+                }
+            }
+            analysis.setFindings(aiEnhanced.aiFindings());
+            analysis.setRecommendations(aiEnhanced.aiRecommendations());
+        }
+    }
+
+    /**
+     * Enhance all present sections with a single Nemotron request.
+     * The model answers with a JSON object keyed by section; only sections with both
+     * findings and recommendations are returned. Returns an empty map on any failure.
+     */
+    private Map<SectionAnalysis.IEEE1058Section, EnhancedAnalysis> enhanceBatchWithNemotron(
+            List<SectionAnalysis> presentSections, String documentContent, FoldedText foldedContent,
+            Long documentId) {
+        try {
+            StringBuilder sections = new StringBuilder();
+            for (SectionAnalysis analysis : presentSections) {
+                SectionAnalysis.IEEE1058Section section = analysis.getSectionName();
+                String excerpt = sectionExcerpt(section, documentContent, foldedContent);
+                sections.append("### ").append(section.name()).append(" (").append(section.getDisplayName()).append(")\n")
+                        .append("Current Keyword-Based Analysis: ").append(analysis.getFindings()).append("\n")
+                        .append("Document Excerpt:\n")
+                        .append(excerpt).append("\n\n");
+            }
+
+            String batchPrompt = String.format(
+                    """
+                    You are an IEEE 1058 SPMP compliance expert. Analyze each section of an SPMP document below.
+                    
+                    For every section provide:
+                    - findings: What's the actual quality of this section? Does it adequately cover IEEE 1058 requirements?
+                    - recommendations: Specific, actionable improvements needed.
+                    
+                    Keep each concise (2-3 sentences). Be critical but fair.
+                    
+                    Respond ONLY with a JSON object keyed by the section id after ###, no markdown:
+                    {"SECTION_ID": {"findings": "...", "recommendations": "..."}}
+                    
+                    %s""",
+                    sections
+            );
+
+            String model = openRouterService.getModel();
+            String cacheKey = AiResponseCacheService.cacheKey(model, BATCH_ENRICHMENT_PROMPT_VERSION, batchPrompt);
+            Optional<String> cachedResponse = aiResponseCache.get(cacheKey);
+            if (cachedResponse.isPresent()) {
+                return parseBatchResponse(cachedResponse.get(), presentSections);
+            }
+
+            String aiResponse = streamingEnrichment && progressService.hasSubscribers(documentId)
+                    ? streamBatchWithProgress(batchPrompt, documentId)
+                    : openRouterService.complete(batchPrompt);
+            Map<SectionAnalysis.IEEE1058Section, EnhancedAnalysis> parsed = parseBatchResponse(aiResponse, presentSections);
+            // The key names the preferred model; an answer from a failover model is not stored under it
+            if (!parsed.isEmpty() && model.equals(openRouterService.getAnsweringModel())) {
+                aiResponseCache.put(cacheKey, model, BATCH_ENRICHMENT_PROMPT_VERSION, aiResponse);
+            }
+            return parsed;
+        } catch (Exception e) {
+            // Caller falls back to per-section requests
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Send the batched prompt as a streaming request, publishing each section's findings and
+     * recommendations to the progress channel while the model is still writing them.
+     */
+    private String streamBatchWithProgress(String batchPrompt, Long documentId) {
+        StreamingFindingsParser parser = new StreamingFindingsParser(new StreamingFindingsParser.Listener() {
+            @Override
+            public void onPartial(String section, String field, String textSoFar) {
+                progressService.publish(documentId, EvaluationProgressService.EVENT_SECTION,
+                        new EvaluationProgressService.SectionProgress(section, field, textSoFar, false));
+            }
+
+            @Override
+            public void onFieldComplete(String section, String field, String text) {
+                progressService.publish(documentId, EvaluationProgressService.EVENT_SECTION,
+                        new EvaluationProgressService.SectionProgress(section, field, text, true));
+            }
+        });
+        return openRouterService.completeStreaming(batchPrompt, parser::feed);
+    }
+
+    /**
+     * Parse the batched JSON reply, tolerating markdown code fences around it.
+     */
+    private Map<SectionAnalysis.IEEE1058Section, EnhancedAnalysis> parseBatchResponse(
+            String response, List<SectionAnalysis> presentSections) {
+        try {
+            String cleanResponse = response.trim();
+            int start = cleanResponse.indexOf('{');
+            int end = cleanResponse.lastIndexOf('}');
+            if (start < 0 || end <= start) {
+                return Collections.emptyMap();
+            }
+            JsonNode root = objectMapper.readTree(cleanResponse.substring(start, end + 1));
+
+            Map<SectionAnalysis.IEEE1058Section, EnhancedAnalysis> result =
+                    new EnumMap<>(SectionAnalysis.IEEE1058Section.class);
+            for (SectionAnalysis analysis : presentSections) {
+                JsonNode node = root.path(analysis.getSectionName().name());
+                String aiFindings = node.path("findings").asText("").trim();
+                String aiRecommendations = node.path("recommendations").asText("").trim();
+                if (!aiFindings.isEmpty() && !aiRecommendations.isEmpty()) {
+                    result.put(analysis.getSectionName(), new EnhancedAnalysis(aiFindings, aiRecommendations));
+                }
+            }
+            return result;
+        } catch (Exception e) {
+            return Collections.emptyMap();
+        }
+    }
+
     /**
      * PHASE 2: Enhance section findings with Nemotron AI model.
      * Provides semantic understanding beyond keyword matching.
@@ -856,8 +1219,8 @@ public class ComplianceEvaluationService {
     private EnhancedAnalysis enhanceWithNemotron(SectionAnalysis.IEEE1058Section section,
                                                   String keywordFindings,
                                                   String keywordRecommendations,
-                                                  SubclauseResult subclauseResult,
-                                                  String sectionContent) {
+                                                  String documentContent,
+                                                  FoldedText foldedContent) {
         try {
             // Prepare prompt for Nemotron to analyze section quality
             String enhancementPrompt = String.format(
@@ -882,9 +1245,19 @@ public class ComplianceEvaluationService {
                     """,
                     section.getDisplayName(),
                     keywordFindings,
-                    sectionContent.substring(0, Math.min(500, sectionContent.length()))
+                    sectionExcerpt(section, documentContent, foldedContent)
             );
 
+            // Unchanged excerpts (e.g. re-uploads of the same file) reuse the earlier AI answer
+            String model = openRouterService.getModel();
+            String cacheKey = AiResponseCacheService.cacheKey(model, ENRICHMENT_PROMPT_VERSION, enhancementPrompt);
+            Optional<String> cachedResponse = aiResponseCache.get(cacheKey);
+            if (cachedResponse.isPresent()) {
+                Map<String, Object> cached = Map.of("summary", cachedResponse.get());
+                return new EnhancedAnalysis(extractFromAIResponse(cached, "FINDINGS"),
+                        extractFromAIResponse(cached, "RECOMMENDATIONS"));
+            }
+
             // Call Nemotron via OpenRouter
             Map<String, Object> aiResponse = openRouterService.analyzeDocument(enhancementPrompt);
             
@@ -892,6 +1265,14 @@ public class ComplianceEvaluationService {
             String aiFindings = extractFromAIResponse(aiResponse, "FINDINGS");
             String aiRecommendations = extractFromAIResponse(aiResponse, "RECOMMENDATIONS");
 
+            // Only genuine answers from the keyed model are cached; fallbacks below are recomputed every time
+            if (aiFindings != null && !aiFindings.isEmpty()
+                    && aiRecommendations != null && !aiRecommendations.isEmpty()
+                    && model.equals(openRouterService.getAnsweringModel())) {
+                aiResponseCache.put(cacheKey, model, ENRICHMENT_PROMPT_VERSION,
+                        "FINDINGS: " + aiFindings + "\nRECOMMENDATIONS: " + aiRecommendations);
+            }
+
             // Fallback to keyword-based if parsing fails
             if (aiFindings == null || aiFindings.isEmpty()) {
                 aiFindings = keywordFindings;
@@ -907,6 +1288,20 @@ public class ComplianceEvaluationService {
         }
     }
 
+    /**
+     * Pick the parts of the document most relevant to a section for an AI prompt,
+     * ranked by the section's keyword and subclause keyword hits.
+     */
+    private String sectionExcerpt(SectionAnalysis.IEEE1058Section section, String documentContent,
+                                  FoldedText foldedContent) {
+        Set<String> terms = new LinkedHashSet<>(keywordDictionaryService.current().keywordsFor(section));
+        terms.add(section.getDisplayName());
+        for (SubclauseDefinition subclause : SUBCLAUSE_DEFINITIONS.getOrDefault(section, Collections.emptyList())) {
+            terms.addAll(subclause.keywords());
+        }
+        return ExcerptSelector.select(documentContent, foldedContent, terms, sectionExcerptTokenBudget);
+    }
+
     /**
      * Extract specific field from Nemotron AI response.
      */
@@ -944,6 +1339,7 @@ public class ComplianceEvaluationService {
     /**
      * Get all compliance evaluations (admin function).
      */
+    @Transactional(readOnly = true)
     public List<ComplianceScore> getAllEvaluations() {
         return complianceScoreRepository.findAll();
     }
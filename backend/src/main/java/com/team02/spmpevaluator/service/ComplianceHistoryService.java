@@ -5,18 +5,29 @@ import com.team02.spmpevaluator.entity.ComplianceScoreHistory;
 import com.team02.spmpevaluator.entity.SPMPDocument;
 import com.team02.spmpevaluator.repository.ComplianceScoreHistoryRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class ComplianceHistoryService {
 
+    private static final String INSERT_HISTORY_SQL =
+            "INSERT INTO compliance_score_history (document_id, overall_score, structure_score, completeness_score, " +
+            "sections_found, total_sections_required, is_compliant, professor_override, professor_notes, summary, " +
+            "evaluated_at, recorded_at, recorded_by_user_id, version_number, source) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
     private final ComplianceScoreHistoryRepository historyRepository;
+    private final JdbcTemplate jdbcTemplate;
 
     /**
      * Archive the current compliance score before re-evaluation or override.
@@ -47,6 +58,33 @@ public class ComplianceHistoryService {
         historyRepository.save(history);
     }
 
+    /**
+     * Archives many scores at once: the version numbers come from one grouped count and the
+     * history rows are written as one batched insert.
+     */
+    public void archiveScores(List<ComplianceScore> currentScores, String source, Long recordedByUserId) {
+        if (currentScores.isEmpty()) {
+            return;
+        }
+
+        List<Long> documentIds = currentScores.stream().map(score -> score.getDocument().getId()).toList();
+        Map<Long, Integer> versions = new HashMap<>();
+        for (Object[] row : historyRepository.countByDocumentIds(documentIds)) {
+            versions.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+
+        LocalDateTime recordedAt = LocalDateTime.now();
+        List<Object[]> inserts = new ArrayList<>(currentScores.size());
+        for (ComplianceScore score : currentScores) {
+            int version = versions.merge(score.getDocument().getId(), 1, Integer::sum);
+            inserts.add(new Object[]{score.getDocument().getId(), score.getOverallScore(), score.getStructureScore(),
+                    score.getCompletenessScore(), score.getSectionsFound(), score.getTotalSectionsRequired(),
+                    score.isCompliant(), score.getProfessorOverride(), score.getProfessorNotes(), score.getSummary(),
+                    score.getEvaluatedAt(), recordedAt, recordedByUserId, version, source});
+        }
+        jdbcTemplate.batchUpdate(INSERT_HISTORY_SQL, inserts);
+    }
+
     public List<ComplianceScoreHistory> getHistoryForDocument(Long documentId) {
         return historyRepository.findByDocumentIdOrderByRecordedAtDesc(documentId);
     }
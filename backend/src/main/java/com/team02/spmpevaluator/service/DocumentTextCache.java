@@ -0,0 +1,68 @@
+package com.team02.spmpevaluator.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.team02.spmpevaluator.entity.SPMPDocument;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Extracted text of recently read documents, so re-evaluations and keyword re-sweeps don't
+ * parse the same PDF or DOCX again.
+ * <p>
+ * Entries are keyed by document and remember the stored file they were extracted from; text of
+ * a replaced file is never returned. The cache is bounded by the total number of characters held.
+ */
+@Service
+public class DocumentTextCache implements MeterBinder {
+
+    private record Entry(String inputVersion, String text) {}
+
+    private final Cache<Long, Entry> texts;
+
+    public DocumentTextCache(@Value("${app.document-text-cache.max-chars:20000000}") long maxChars,
+                             @Value("${app.document-text-cache.ttl:PT1H}") Duration ttl) {
+        this.texts = CacheBuilder.newBuilder()
+                .maximumWeight(maxChars)
+                .weigher((Long documentId, Entry entry) -> entry.text().length())
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Cached text of the document's current file.
+     */
+    public Optional<String> get(SPMPDocument document) {
+        Entry entry = document.getId() == null ? null : texts.getIfPresent(document.getId());
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (!entry.inputVersion().equals(EvaluationSingleFlight.inputVersion(document))) {
+            texts.invalidate(document.getId());
+            return Optional.empty();
+        }
+        return Optional.of(entry.text());
+    }
+
+    public void put(SPMPDocument document, String text) {
+        if (document.getId() != null && text != null) {
+            texts.put(document.getId(), new Entry(EvaluationSingleFlight.inputVersion(document), text));
+        }
+    }
+
+    public void evict(Long documentId) {
+        texts.invalidate(documentId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        GuavaCacheMetrics.monitor(registry, texts, "documentTexts");
+    }
+}
@@ -0,0 +1,383 @@
+package com.team02.spmpevaluator.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control for evaluation requests (evaluate, re-evaluate, parser feedback).
+ * <ul>
+ *   <li>Each user has a token bucket, so one user cannot flood the AI quota.</li>
+ *   <li>At most {@code maxConcurrent} evaluations run at once; the rest wait in one bounded
+ *       queue per {@link Priority}. Freed slots go to interactive and bulk waiters in a weighted
+ *       round robin, so professor bulk grading neither starves nor is starved by students.</li>
+ *   <li>Requests are shed with a retry hint when the user is out of tokens, the queue is full
+ *       or the wait times out.</li>
+ * </ul>
+ * Limits come from system settings (see {@link #SETTING_MAX_CONCURRENT} and friends), falling back
+ * to {@code app.admission.*} properties, and are re-read every {@code settings-refresh}.
+ */
+@Service
+@Slf4j
+public class EvaluationAdmissionService implements MeterBinder {
+
+    public static final String SETTING_MAX_CONCURRENT = "EVALUATION_MAX_CONCURRENT";
+    public static final String SETTING_QUEUE_CAPACITY = "EVALUATION_QUEUE_CAPACITY";
+    public static final String SETTING_QUEUE_TIMEOUT_SECONDS = "EVALUATION_QUEUE_TIMEOUT_SECONDS";
+    public static final String SETTING_USER_BURST = "EVALUATION_USER_BURST";
+    public static final String SETTING_USER_REFILL_PER_MINUTE = "EVALUATION_USER_REFILL_PER_MINUTE";
+    public static final String SETTING_INTERACTIVE_WEIGHT = "EVALUATION_INTERACTIVE_WEIGHT";
+
+    public enum Priority { INTERACTIVE, BULK }
+
+    public enum Rejection { RATE_LIMITED, QUEUE_FULL, QUEUE_TIMEOUT }
+
+    /**
+     * Effective limits. {@code queueCapacity} applies to each priority class separately.
+     */
+    public record Limits(int maxConcurrent, int queueCapacity, Duration queueTimeout,
+                         int userBurst, int userRefillPerMinute, int interactiveWeight) {}
+
+    private final SystemSettingService settingService;
+    private final Limits defaults;
+    private final long settingsRefreshNanos;
+    private final LongSupplier clock;
+    private final Cache<String, TokenBucket> buckets;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Priority, Deque<Waiter>> queues = new EnumMap<>(Priority.class);
+    private final Map<Rejection, LongAdder> rejections = new EnumMap<>(Rejection.class);
+    private final LongAdder admitted = new LongAdder();
+    private int active;
+    private int interactiveStreak;
+    private double averageHoldNanos;
+
+    private volatile Limits limits;
+    private volatile long limitsLoadedAt;
+
+    @Autowired
+    public EvaluationAdmissionService(SystemSettingService settingService,
+                                      @Value("${app.admission.max-concurrent:4}") int maxConcurrent,
+                                      @Value("${app.admission.queue-capacity:20}") int queueCapacity,
+                                      @Value("${app.admission.queue-timeout:PT30S}") Duration queueTimeout,
+                                      @Value("${app.admission.user-burst:10}") int userBurst,
+                                      @Value("${app.admission.user-refill-per-minute:2}") int userRefillPerMinute,
+                                      @Value("${app.admission.interactive-weight:2}") int interactiveWeight,
+                                      @Value("${app.admission.settings-refresh:PT30S}") Duration settingsRefresh) {
+        this(settingService, new Limits(maxConcurrent, queueCapacity, queueTimeout, userBurst, userRefillPerMinute,
+                interactiveWeight), settingsRefresh, System::nanoTime);
+    }
+
+    EvaluationAdmissionService(SystemSettingService settingService, Limits defaults, Duration settingsRefresh,
+                               LongSupplier clock) {
+        this.settingService = settingService;
+        this.defaults = defaults;
+        this.settingsRefreshNanos = settingsRefresh.toNanos();
+        this.clock = clock;
+        this.buckets = CacheBuilder.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterAccess(Duration.ofHours(1))
+                .build();
+        for (Priority priority : Priority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+        }
+        for (Rejection rejection : Rejection.values()) {
+            rejections.put(rejection, new LongAdder());
+        }
+    }
+
+    /**
+     * Admit a request from the given user, waiting in its priority queue for a free slot if
+     * needed. The returned ticket must be closed when the evaluation finishes; closing a
+     * rejected ticket is a no-op.
+     */
+    public Ticket admit(String userKey, Priority priority) throws InterruptedException {
+        Limits current = getLimits();
+
+        long tokenWaitNanos = bucketFor(userKey).tryConsume(current, clock.getAsLong());
+        if (tokenWaitNanos > 0) {
+            return reject(Rejection.RATE_LIMITED, Duration.ofNanos(tokenWaitNanos));
+        }
+
+        lock.lock();
+        try {
+            if (active < current.maxConcurrent() && queuedCount() == 0) {
+                active++;
+                return grant();
+            }
+            Deque<Waiter> queue = queues.get(priority);
+            if (queue.size() >= current.queueCapacity()) {
+                return reject(Rejection.QUEUE_FULL, estimatedWait(current));
+            }
+
+            Waiter waiter = new Waiter(lock.newCondition());
+            queue.addLast(waiter);
+            long remaining = current.queueTimeout().toNanos();
+            try {
+                while (!waiter.granted) {
+                    if (remaining <= 0) {
+                        queue.remove(waiter);
+                        return reject(Rejection.QUEUE_TIMEOUT, estimatedWait(current));
+                    }
+                    remaining = waiter.ready.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                if (waiter.granted) {
+                    release(clock.getAsLong());
+                } else {
+                    queue.remove(waiter);
+                }
+                throw e;
+            }
+            return grant();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Current limits, re-read from system settings at most once per refresh interval.
+     */
+    public Limits getLimits() {
+        long now = clock.getAsLong();
+        Limits current = limits;
+        if (current == null || now - limitsLoadedAt >= settingsRefreshNanos) {
+            current = loadLimits();
+            limits = current;
+            limitsLoadedAt = now;
+        }
+        return current;
+    }
+
+    public int getActiveCount() {
+        lock.lock();
+        try {
+            return active;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueuedCount(Priority priority) {
+        lock.lock();
+        try {
+            return queues.get(priority).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRejectedCount(Rejection rejection) {
+        return rejections.get(rejection).sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("evaluation.admission.active", this, EvaluationAdmissionService::getActiveCount)
+                .description("Evaluations currently running")
+                .register(registry);
+        for (Priority priority : Priority.values()) {
+            Gauge.builder("evaluation.admission.queued", this, service -> service.getQueuedCount(priority))
+                    .description("Evaluations waiting for a slot")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(registry);
+        }
+        FunctionCounter.builder("evaluation.admission.requests", admitted, LongAdder::sum)
+                .tag("result", "admitted")
+                .register(registry);
+        for (Rejection rejection : Rejection.values()) {
+            FunctionCounter.builder("evaluation.admission.requests", rejections.get(rejection), LongAdder::sum)
+                    .tag("result", rejection.name().toLowerCase())
+                    .register(registry);
+        }
+    }
+
+    private Limits loadLimits() {
+        try {
+            int timeoutSeconds = settingService.getIntegerSetting(SETTING_QUEUE_TIMEOUT_SECONDS, -1);
+            return new Limits(
+                    Math.max(1, settingService.getIntegerSetting(SETTING_MAX_CONCURRENT, defaults.maxConcurrent())),
+                    Math.max(0, settingService.getIntegerSetting(SETTING_QUEUE_CAPACITY, defaults.queueCapacity())),
+                    timeoutSeconds < 0 ? defaults.queueTimeout() : Duration.ofSeconds(timeoutSeconds),
+                    Math.max(1, settingService.getIntegerSetting(SETTING_USER_BURST, defaults.userBurst())),
+                    Math.max(1, settingService.getIntegerSetting(SETTING_USER_REFILL_PER_MINUTE,
+                            defaults.userRefillPerMinute())),
+                    Math.max(1, settingService.getIntegerSetting(SETTING_INTERACTIVE_WEIGHT,
+                            defaults.interactiveWeight())));
+        } catch (Exception e) {
+            log.warn("Could not read admission settings, using defaults: {}", e.getMessage());
+            return defaults;
+        }
+    }
+
+    private TokenBucket bucketFor(String userKey) {
+        try {
+            return buckets.get(userKey, TokenBucket::new);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Ticket grant() {
+        admitted.increment();
+        return new Ticket(this, clock.getAsLong(), null, Duration.ZERO);
+    }
+
+    private Ticket reject(Rejection rejection, Duration retryAfter) {
+        rejections.get(rejection).increment();
+        log.debug("Evaluation request rejected: {} (retry after {})", rejection, retryAfter);
+        return new Ticket(null, 0, rejection, retryAfter);
+    }
+
+    private void release(long admittedAt) {
+        Limits current = getLimits();
+        lock.lock();
+        try {
+            active--;
+            long held = clock.getAsLong() - admittedAt;
+            averageHoldNanos = averageHoldNanos == 0 ? held : averageHoldNanos * 0.8 + held * 0.2;
+            dispatch(current);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hand free slots to waiters: up to {@code interactiveWeight} interactive waiters for every
+     * bulk waiter while both queues are non-empty.
+     */
+    private void dispatch(Limits current) {
+        Deque<Waiter> interactive = queues.get(Priority.INTERACTIVE);
+        Deque<Waiter> bulk = queues.get(Priority.BULK);
+        while (active < current.maxConcurrent() && (!interactive.isEmpty() || !bulk.isEmpty())) {
+            boolean takeInteractive = !interactive.isEmpty()
+                    && (bulk.isEmpty() || interactiveStreak < current.interactiveWeight());
+            Waiter next;
+            if (takeInteractive) {
+                next = interactive.pollFirst();
+                interactiveStreak++;
+            } else {
+                next = bulk.pollFirst();
+                interactiveStreak = 0;
+            }
+            next.granted = true;
+            active++;
+            next.ready.signal();
+        }
+    }
+
+    private int queuedCount() {
+        int queued = 0;
+        for (Deque<Waiter> queue : queues.values()) {
+            queued += queue.size();
+        }
+        return queued;
+    }
+
+    /**
+     * Rough time until a new request could start: queued work spread over the slots, using the
+     * recent average evaluation time (one second when nothing has finished yet).
+     */
+    private Duration estimatedWait(Limits current) {
+        double hold = averageHoldNanos > 0 ? averageHoldNanos : TimeUnit.SECONDS.toNanos(1);
+        double waves = (queuedCount() + 1) / (double) current.maxConcurrent();
+        return Duration.ofNanos((long) Math.ceil(hold * waves));
+    }
+
+    /**
+     * Outcome of an admission attempt. Admitted tickets hold a slot until closed.
+     */
+    public static final class Ticket implements AutoCloseable {
+        private final EvaluationAdmissionService owner;
+        private final long admittedAt;
+        private final Rejection rejection;
+        private final Duration retryAfter;
+        private boolean closed;
+
+        private Ticket(EvaluationAdmissionService owner, long admittedAt, Rejection rejection, Duration retryAfter) {
+            this.owner = owner;
+            this.admittedAt = admittedAt;
+            this.rejection = rejection;
+            this.retryAfter = retryAfter;
+        }
+
+        public boolean isAdmitted() {
+            return rejection == null;
+        }
+
+        public Rejection getRejection() {
+            return rejection;
+        }
+
+        /**
+         * Suggested wait before retrying a rejected request, rounded up to whole seconds.
+         */
+        public long getRetryAfterSeconds() {
+            return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!closed && owner != null) {
+                closed = true;
+                owner.release(admittedAt);
+            }
+        }
+    }
+
+    private static final class Waiter {
+        private final Condition ready;
+        private boolean granted;
+
+        private Waiter(Condition ready) {
+            this.ready = ready;
+        }
+    }
+
+    /**
+     * Refills continuously at {@code userRefillPerMinute} up to {@code userBurst} tokens.
+     */
+    private static final class TokenBucket {
+        private double tokens = -1;
+        private long lastRefill;
+
+        /**
+         * Take one token.
+         *
+         * @return 0 if a token was taken, otherwise nanoseconds until one becomes available
+         */
+        synchronized long tryConsume(Limits limits, long now) {
+            double perNano = limits.userRefillPerMinute() / (double) TimeUnit.MINUTES.toNanos(1);
+            if (tokens < 0) {
+                tokens = limits.userBurst();
+            } else {
+                tokens = Math.min(limits.userBurst(), tokens + (now - lastRefill) * perNano);
+            }
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / perNano);
+        }
+    }
+}
@@ -0,0 +1,495 @@
+package com.team02.spmpevaluator.service;
+
+import com.team02.spmpevaluator.entity.SectionAnalysis.IEEE1058Section;
+import com.team02.spmpevaluator.util.FuzzyKeywordMatcher;
+import com.team02.spmpevaluator.util.KeywordAutomaton;
+import com.team02.spmpevaluator.util.TextScanner;
+
+import java.util.Arrays;
+
+/**
+ * Reusable scratch state for the keyword phase of an evaluation.
+ * <p>
+ * Opening a context indexes the document once: one pass to find the lines and classify them
+ * (numbered heading, bullet, ...), and one automaton pass each for the dictionary keywords and the
+ * caller's fixed terms. With an edit budget, a {@link FuzzyKeywordMatcher} pass adds the keywords
+ * found with typos, inflections or hyphenated line breaks. Every later per-line question of the
+ * scoring is an array lookup. Lines are found and classified on a reused char buffer with
+ * {@link TextScanner}, vectorized when the JVM allows it; keywords are matched on the original
+ * {@link CharSequence}. There is no lower-cased copy, no split arrays and no substring until an
+ * evidence snippet is cut. Per-section results are kept in primitive arrays indexed by
+ * {@link IEEE1058Section#ordinal()}.
+ * <p>
+ * Each thread keeps one context and reuses its arrays, so a steady-state evaluation only
+ * allocates its output. A context is not thread-safe; open it in try-with-resources.
+ * <pre>
+ * try (EvaluationContext context = EvaluationContext.open(content, dictionary, terms)) {
+ *     ...
+ * }
+ * </pre>
+ */
+final class EvaluationContext implements AutoCloseable {
+
+    static final int SECTIONS = IEEE1058Section.values().length;
+
+    /**
+     * Fixed terms with a lower index are also tracked per line, see {@link #lineHasTerm}.
+     */
+    static final int LINE_TERMS = Long.SIZE;
+
+    // Line classes, matched on the trimmed line unless noted
+    /** {@code ^\d+(\.\d+)*\s+.*} */
+    static final int NUMBERED_HEADING = 1;
+    /** {@code ^\d+\.?\s+[A-Z].*} */
+    static final int NUMBERED_TITLE = 1 << 1;
+    /** {@code ^[A-Z].*} on the untrimmed line */
+    static final int CAPITALIZED = 1 << 2;
+    /** {@code ^\s*[•\-\*].*} or {@code ^\s*\d+\..*} on the untrimmed line */
+    static final int LIST_ITEM = 1 << 3;
+
+    private static final int SNIPPET_LENGTH = 240;
+    private static final int INITIAL_LINES = 256;
+    // Arrays grown past this by one large document are dropped again on close
+    private static final int RETAINED_LINES = 1 << 16;
+    private static final int INITIAL_CHARS = 1 << 14;
+    private static final int RETAINED_CHARS = 1 << 20;
+
+    private static final TextScanner SCANNER = TextScanner.get();
+
+    private static final ThreadLocal<EvaluationContext> CONTEXTS = ThreadLocal.withInitial(EvaluationContext::new);
+
+    private CharSequence text;
+    // Copy of the text for the line scans, valid up to text.length()
+    private char[] chars = new char[INITIAL_CHARS];
+    private KeywordDictionary dictionary;
+    private KeywordAutomaton terms;
+
+    // Lines as String.split("\n") returns them: without the '\n', trailing empty lines dropped
+    private int lineCount;
+    private int[] lineStart;
+    private int[] lineEnd;
+    private int[] trimmedStart;
+    private int[] trimmedEnd;
+    private int[] lineFlags;
+    // Bit s: a keyword of section s lies inside the line / one of at least 4 characters does
+    private int[] lineSections;
+    private int[] lineHeadingSections;
+    private long[] lineTerms;
+
+    private boolean[] keywordMatched = new boolean[0];
+    private boolean[] termMatched = new boolean[0];
+    private int[] termFirstLine = new int[0];
+    private int scanLine;
+
+    private final KeywordAutomaton.MatchListener keywordListener = this::onKeywordMatch;
+    private final FuzzyKeywordMatcher.MatchListener fuzzyKeywordListener = this::recordKeyword;
+    private final KeywordAutomaton.MatchListener termListener = this::onTermMatch;
+
+    // Per-section state, indexed by section ordinal
+    final int[] matchedKeywords = new int[SECTIONS];
+    final int[] firstKeywordLine = new int[SECTIONS];
+    final double[] subclauseCoverage = new double[SECTIONS];
+    /** Bit d: subclause d of the section has no keyword in the document. */
+    final int[] missingSubclauses = new int[SECTIONS];
+    final int[] evidenceLine = new int[SECTIONS];
+    final boolean[] present = new boolean[SECTIONS];
+    final double[] coverage = new double[SECTIONS];
+    /** Outline blocks {@link SectionClassifier} assigned to the section. */
+    final int[] classifiedBlocks = new int[SECTIONS];
+    final double[] score = new double[SECTIONS];
+    final int[] weight = new int[SECTIONS];
+
+    EvaluationContext() {
+        allocateLines(INITIAL_LINES);
+    }
+
+    /**
+     * Indexes the text in this thread's context. A context already open on this thread (an
+     * evaluation inside an evaluation) is left alone and a fresh one is used instead.
+     */
+    static EvaluationContext open(CharSequence text, KeywordDictionary dictionary, KeywordAutomaton terms) {
+        return open(text, dictionary, terms, 0);
+    }
+
+    /**
+     * Like {@link #open(CharSequence, KeywordDictionary, KeywordAutomaton)}, also matching
+     * dictionary keywords with up to {@code keywordMaxEdits} edits; 0 matches them exactly.
+     */
+    static EvaluationContext open(CharSequence text, KeywordDictionary dictionary, KeywordAutomaton terms,
+                                  int keywordMaxEdits) {
+        EvaluationContext context = CONTEXTS.get();
+        if (context.text != null) {
+            context = new EvaluationContext();
+        }
+        context.index(text, dictionary, terms, keywordMaxEdits);
+        return context;
+    }
+
+    /**
+     * Releases the text; the arrays stay for the next evaluation on this thread.
+     */
+    @Override
+    public void close() {
+        text = null;
+        dictionary = null;
+        terms = null;
+        if (lineStart.length > RETAINED_LINES) {
+            allocateLines(INITIAL_LINES);
+        }
+        if (chars.length > RETAINED_CHARS) {
+            chars = new char[INITIAL_CHARS];
+        }
+    }
+
+    void index(CharSequence text, KeywordDictionary dictionary, KeywordAutomaton terms, int keywordMaxEdits) {
+        this.text = text;
+        this.dictionary = dictionary;
+        this.terms = terms;
+        indexLines();
+
+        Arrays.fill(matchedKeywords, 0);
+        Arrays.fill(firstKeywordLine, -1);
+        Arrays.fill(subclauseCoverage, 0.0);
+        Arrays.fill(missingSubclauses, 0);
+        Arrays.fill(evidenceLine, -1);
+        Arrays.fill(present, false);
+        Arrays.fill(coverage, 0.0);
+        Arrays.fill(classifiedBlocks, 0);
+        Arrays.fill(score, 0.0);
+        Arrays.fill(weight, 0);
+
+        KeywordAutomaton keywords = dictionary.automaton();
+        if (keywordMatched.length < keywords.size()) {
+            keywordMatched = new boolean[keywords.size()];
+        } else {
+            Arrays.fill(keywordMatched, false);
+        }
+        scanLine = 0;
+        keywords.scan(text, keywordListener);
+        if (keywordMaxEdits > 0) {
+            scanLine = 0;
+            dictionary.fuzzyMatcher(keywordMaxEdits).scan(text, fuzzyKeywordListener);
+        }
+
+        if (termMatched.length < terms.size()) {
+            termMatched = new boolean[terms.size()];
+            termFirstLine = new int[terms.size()];
+        } else {
+            Arrays.fill(termMatched, false);
+        }
+        Arrays.fill(termFirstLine, -1);
+        scanLine = 0;
+        terms.scan(text, termListener);
+    }
+
+    int length() {
+        return text.length();
+    }
+
+    int lineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Offset of the line's first character.
+     */
+    int lineStart(int line) {
+        return lineStart[line];
+    }
+
+    /**
+     * Offset just past the line, before its '\n'.
+     */
+    int lineEnd(int line) {
+        return lineEnd[line];
+    }
+
+    char charAt(int offset) {
+        return chars[offset];
+    }
+
+    /**
+     * Length of the line as split, including a trailing '\r'.
+     */
+    int lineLength(int line) {
+        return lineEnd[line] - lineStart[line];
+    }
+
+    int trimmedLength(int line) {
+        return trimmedEnd[line] - trimmedStart[line];
+    }
+
+    boolean hasFlag(int line, int flag) {
+        return (lineFlags[line] & flag) != 0;
+    }
+
+    /**
+     * Whether a dictionary keyword of the section occurs inside the line.
+     */
+    boolean lineHasKeyword(int line, int section) {
+        return (lineSections[line] & 1 << section) != 0;
+    }
+
+    /**
+     * Whether a dictionary keyword of the section with at least 4 characters occurs inside the line.
+     */
+    boolean lineHasHeadingKeyword(int line, int section) {
+        return (lineHeadingSections[line] & 1 << section) != 0;
+    }
+
+    /**
+     * Whether a fixed term below {@link #LINE_TERMS} occurs inside the line.
+     */
+    boolean lineHasTerm(int line, int term) {
+        return (lineTerms[line] & 1L << term) != 0;
+    }
+
+    /**
+     * How many of the fixed terms occur inside the line; a term listed twice counts twice.
+     */
+    int countLineTerms(int line, int[] terms) {
+        long mask = lineTerms[line];
+        int count = 0;
+        for (int term : terms) {
+            if ((mask & 1L << term) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Whether a dictionary keyword, by automaton index, occurs anywhere in the text.
+     */
+    boolean keywordFound(int keyword) {
+        return keywordMatched[keyword];
+    }
+
+    /**
+     * Whether a fixed term occurs anywhere in the text.
+     */
+    boolean termFound(int term) {
+        return termMatched[term];
+    }
+
+    /**
+     * First line a fixed term occurs inside, or -1.
+     */
+    int termFirstLine(int term) {
+        return termFirstLine[term];
+    }
+
+    /**
+     * The trimmed line, cut to {@value #SNIPPET_LENGTH} characters.
+     */
+    String snippet(int line) {
+        int start = trimmedStart[line];
+        int end = trimmedEnd[line];
+        if (end - start > SNIPPET_LENGTH) {
+            return text.subSequence(start, start + SNIPPET_LENGTH) + "...";
+        }
+        return text.subSequence(start, end).toString();
+    }
+
+    private void onKeywordMatch(int keyword, int end) {
+        recordKeyword(keyword, end - dictionary.automaton().keyword(keyword).length(), end);
+    }
+
+    // Fuzzy occurrences come from a second pass, so the first line of a section is the smaller of both
+    private void recordKeyword(int keyword, int start, int end) {
+        int section = dictionary.sectionOf(keyword);
+        if (!keywordMatched[keyword]) {
+            keywordMatched[keyword] = true;
+            matchedKeywords[section]++;
+        }
+        int line = lineOf(start, end);
+        if (line >= 0) {
+            lineSections[line] |= 1 << section;
+            if (dictionary.automaton().keyword(keyword).length() >= 4) {
+                lineHeadingSections[line] |= 1 << section;
+            }
+            if (firstKeywordLine[section] < 0 || line < firstKeywordLine[section]) {
+                firstKeywordLine[section] = line;
+            }
+        }
+    }
+
+    private void onTermMatch(int term, int end) {
+        termMatched[term] = true;
+        int line = lineOf(end - terms.keyword(term).length(), end);
+        if (line >= 0) {
+            if (term < LINE_TERMS) {
+                lineTerms[line] |= 1L << term;
+            }
+            if (termFirstLine[term] < 0) {
+                termFirstLine[term] = line;
+            }
+        }
+    }
+
+    /**
+     * Line holding the whole occurrence {@code [start, end)}, or -1 if it spans a line break.
+     * Matches of one pass arrive in text order, so the line cursor only moves forward.
+     */
+    private int lineOf(int start, int end) {
+        while (scanLine < lineCount && end > lineEnd[scanLine]) {
+            scanLine++;
+        }
+        if (scanLine == lineCount || start < lineStart[scanLine]) {
+            return -1;
+        }
+        return scanLine;
+    }
+
+    private void indexLines() {
+        int length = text.length();
+        copyText(length);
+        lineCount = 0;
+        for (int start = 0; start <= length; ) {
+            int end = SCANNER.indexOf(chars, start, length, '\n');
+            addLine(start, end);
+            start = end + 1;
+        }
+        while (lineCount > 0 && lineEnd[lineCount - 1] == lineStart[lineCount - 1]) {
+            lineCount--;
+        }
+        Arrays.fill(lineSections, 0, lineCount, 0);
+        Arrays.fill(lineHeadingSections, 0, lineCount, 0);
+        Arrays.fill(lineTerms, 0, lineCount, 0L);
+    }
+
+    private void copyText(int length) {
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        if (text instanceof String string) {
+            string.getChars(0, length, chars, 0);
+        } else {
+            for (int i = 0; i < length; i++) {
+                chars[i] = text.charAt(i);
+            }
+        }
+    }
+
+    private void addLine(int start, int end) {
+        if (lineCount == lineStart.length) {
+            growLines();
+        }
+        int trimStart = start;
+        int trimEnd = end;
+        while (trimStart < trimEnd && chars[trimStart] <= ' ') {
+            trimStart++;
+        }
+        while (trimEnd > trimStart && chars[trimEnd - 1] <= ' ') {
+            trimEnd--;
+        }
+        lineStart[lineCount] = start;
+        lineEnd[lineCount] = end;
+        trimmedStart[lineCount] = trimStart;
+        trimmedEnd[lineCount] = trimEnd;
+        lineFlags[lineCount] = classify(start, end, trimStart, trimEnd);
+        lineCount++;
+    }
+
+    /**
+     * Hand-written equivalents of the line patterns; {@code .} in them stops at line terminators.
+     */
+    private int classify(int start, int end, int trimStart, int trimEnd) {
+        int flags = 0;
+        int digitsEnd = skipDigits(trimStart, trimEnd);
+        if (digitsEnd > trimStart) {
+            int i = digitsEnd;
+            while (i + 1 < trimEnd && chars[i] == '.' && isDigit(chars[i + 1])) {
+                i = skipDigits(i + 1, trimEnd);
+            }
+            if (spacesThenRestOfLine(i, trimEnd)) {
+                flags |= NUMBERED_HEADING;
+            }
+            i = digitsEnd < trimEnd && chars[digitsEnd] == '.' ? digitsEnd + 1 : digitsEnd;
+            int titleStart = skipSpaces(i, trimEnd);
+            if (titleStart > i && titleStart < trimEnd && isUpper(chars[titleStart])
+                    && restOfLine(titleStart + 1, trimEnd)) {
+                flags |= NUMBERED_TITLE;
+            }
+        }
+
+        if (start < end && isUpper(chars[start]) && restOfLine(start + 1, end)) {
+            flags |= CAPITALIZED;
+        }
+        int itemStart = skipSpaces(start, end);
+        if (itemStart < end) {
+            char c = chars[itemStart];
+            if ((c == '\u2022' || c == '-' || c == '*') && restOfLine(itemStart + 1, end)) {
+                flags |= LIST_ITEM;
+            } else {
+                int number = skipDigits(itemStart, end);
+                if (number > itemStart && number < end && chars[number] == '.' && restOfLine(number + 1, end)) {
+                    flags |= LIST_ITEM;
+                }
+            }
+        }
+        return flags;
+    }
+
+    private boolean spacesThenRestOfLine(int from, int end) {
+        int i = skipSpaces(from, end);
+        return i > from && restOfLine(i, end);
+    }
+
+    // Lines hold no '\n', so only the other terminators can end the match early
+    private boolean restOfLine(int from, int end) {
+        return SCANNER.indexOfLineBreak(chars, from, end) == end;
+    }
+
+    private int skipDigits(int from, int end) {
+        int i = from;
+        while (i < end && isDigit(chars[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    // The regex \s class
+    private int skipSpaces(int from, int end) {
+        int i = from;
+        while (i < end) {
+            char c = chars[i];
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\u000B' && c != '\f' && c != '\r') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isUpper(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private void allocateLines(int capacity) {
+        lineStart = new int[capacity];
+        lineEnd = new int[capacity];
+        trimmedStart = new int[capacity];
+        trimmedEnd = new int[capacity];
+        lineFlags = new int[capacity];
+        lineSections = new int[capacity];
+        lineHeadingSections = new int[capacity];
+        lineTerms = new long[capacity];
+    }
+
+    private void growLines() {
+        int capacity = lineStart.length * 2;
+        lineStart = Arrays.copyOf(lineStart, capacity);
+        lineEnd = Arrays.copyOf(lineEnd, capacity);
+        trimmedStart = Arrays.copyOf(trimmedStart, capacity);
+        trimmedEnd = Arrays.copyOf(trimmedEnd, capacity);
+        lineFlags = Arrays.copyOf(lineFlags, capacity);
+        lineSections = Arrays.copyOf(lineSections, capacity);
+        lineHeadingSections = Arrays.copyOf(lineHeadingSections, capacity);
+        lineTerms = Arrays.copyOf(lineTerms, capacity);
+    }
+}
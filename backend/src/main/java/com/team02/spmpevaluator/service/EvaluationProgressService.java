@@ -0,0 +1,135 @@
+package com.team02.spmpevaluator.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Evaluation progress channel: pushes server-sent events to clients watching a document
+ * while it is evaluated, e.g. AI findings for each section as they are generated.
+ * Subscriptions are in-memory and per instance.
+ */
+@Service
+@Slf4j
+public class EvaluationProgressService {
+
+    public static final String EVENT_SECTION = "section";
+    public static final String EVENT_COMPLETED = "completed";
+    public static final String EVENT_FAILED = "failed";
+
+    /**
+     * Partial or final AI text for one field of a section.
+     */
+    public record SectionProgress(String section, String field, String text, boolean done) {}
+
+    private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final long timeoutMillis;
+
+    @Autowired
+    public EvaluationProgressService(@Value("${app.evaluation-progress.timeout:PT5M}") Duration timeout) {
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * Open a progress stream for a document. The stream ends when the evaluation completes or
+     * fails, or after the configured timeout.
+     */
+    public SseEmitter subscribe(Long documentId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        List<SseEmitter> documentEmitters = emitters.computeIfAbsent(documentId, id -> new CopyOnWriteArrayList<>());
+        documentEmitters.add(emitter);
+        Runnable remove = () -> removeEmitter(documentId, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        return emitter;
+    }
+
+    /**
+     * Whether anyone is watching the document; lets producers skip work nobody will see.
+     */
+    public boolean hasSubscribers(Long documentId) {
+        List<SseEmitter> documentEmitters = documentId != null ? emitters.get(documentId) : null;
+        return documentEmitters != null && !documentEmitters.isEmpty();
+    }
+
+    /**
+     * Send an event to every subscriber of the document. Subscribers that cannot be written to
+     * are dropped.
+     */
+    public void publish(Long documentId, String eventName, Object data) {
+        List<SseEmitter> documentEmitters = documentId != null ? emitters.get(documentId) : null;
+        if (documentEmitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : documentEmitters) {
+            try {
+                emitter.send(SseEmitter.event().name(eventName).data(data));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping progress subscriber for document {}: {}", documentId, e.getMessage());
+                removeEmitter(documentId, emitter);
+            }
+        }
+    }
+
+    /**
+     * Send the final event and close the document's streams. Inside a transaction this waits for
+     * the commit, so clients that reload the report on this event see the saved result.
+     */
+    public void complete(Long documentId, Object data) {
+        finish(documentId, EVENT_COMPLETED, data);
+    }
+
+    /**
+     * Report a failed evaluation and close the document's streams.
+     */
+    public void fail(Long documentId, String message) {
+        finish(documentId, EVENT_FAILED, Map.of("message", message != null ? message : "Evaluation failed"));
+    }
+
+    private void finish(Long documentId, String eventName, Object data) {
+        if (!hasSubscribers(documentId)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        sendAndClose(documentId, eventName, data);
+                    } else {
+                        sendAndClose(documentId, EVENT_FAILED, Map.of("message", "Evaluation was not saved"));
+                    }
+                }
+            });
+        } else {
+            sendAndClose(documentId, eventName, data);
+        }
+    }
+
+    private void sendAndClose(Long documentId, String eventName, Object data) {
+        publish(documentId, eventName, data);
+        List<SseEmitter> documentEmitters = emitters.remove(documentId);
+        if (documentEmitters != null) {
+            documentEmitters.forEach(SseEmitter::complete);
+        }
+    }
+
+    private void removeEmitter(Long documentId, SseEmitter emitter) {
+        emitters.computeIfPresent(documentId, (id, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+    }
+}
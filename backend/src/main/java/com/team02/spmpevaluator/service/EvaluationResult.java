@@ -0,0 +1,72 @@
+package com.team02.spmpevaluator.service;
+
+import com.team02.spmpevaluator.entity.ComplianceScore;
+import com.team02.spmpevaluator.entity.SectionAnalysis;
+
+import java.util.List;
+
+/**
+ * Immutable outcome of the compute phase of an evaluation. Produced without touching the
+ * database so parsing and AI latency never hold a connection; written to
+ * {@link ComplianceScore} and its {@link SectionAnalysis} rows in one short transaction.
+ * {@code keywordDictionaryVersion} is the {@link KeywordDictionary} version the sections were detected with,
+ * {@code keywordMaxEdits} the keyword edit budget they were matched with.
+ */
+public record EvaluationResult(double overallScore,
+                               double structureScore,
+                               double completenessScore,
+                               int sectionsFound,
+                               int totalSectionsRequired,
+                               boolean compliant,
+                               String summary,
+                               List<SectionResult> sections,
+                               long keywordDictionaryVersion,
+                               int keywordMaxEdits) {
+
+    public EvaluationResult {
+        sections = List.copyOf(sections);
+    }
+
+    /**
+     * Scores and findings for one IEEE 1058 section.
+     */
+    public record SectionResult(SectionAnalysis.IEEE1058Section section,
+                                boolean present,
+                                double sectionScore,
+                                String findings,
+                                String recommendations,
+                                Integer pageNumber,
+                                Double coverage,
+                                String severity,
+                                String evidenceSnippet,
+                                String missingSubclauses,
+                                Integer sectionWeight) {
+
+        static SectionResult from(SectionAnalysis analysis) {
+            return new SectionResult(analysis.getSectionName(), analysis.isPresent(), analysis.getSectionScore(),
+                    analysis.getFindings(), analysis.getRecommendations(), analysis.getPageNumber(),
+                    analysis.getCoverage(), analysis.getSeverity(), analysis.getEvidenceSnippet(),
+                    analysis.getMissingSubclauses(), analysis.getSectionWeight());
+        }
+
+        /**
+         * New, unsaved section analysis row attached to the given score.
+         */
+        SectionAnalysis toEntity(ComplianceScore complianceScore) {
+            SectionAnalysis analysis = new SectionAnalysis();
+            analysis.setComplianceScore(complianceScore);
+            analysis.setSectionName(section);
+            analysis.setPresent(present);
+            analysis.setSectionScore(sectionScore);
+            analysis.setFindings(findings);
+            analysis.setRecommendations(recommendations);
+            analysis.setPageNumber(pageNumber);
+            analysis.setCoverage(coverage);
+            analysis.setSeverity(severity);
+            analysis.setEvidenceSnippet(evidenceSnippet);
+            analysis.setMissingSubclauses(missingSubclauses);
+            analysis.setSectionWeight(sectionWeight);
+            return analysis;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.team02.spmpevaluator.service;
+
+import com.team02.spmpevaluator.entity.ComplianceScore;
+import com.team02.spmpevaluator.entity.SPMPDocument;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collapses concurrent evaluations of the same document into one computation.
+ * <p>
+ * The first request for a document and input version runs the evaluation; requests that
+ * arrive while it is running wait for it and receive the same {@link ComplianceScore} (or the
+ * same failure) instead of repeating text extraction and the AI calls. The input version is
+ * the stored file, so an evaluation started after the document was replaced is never merged
+ * with one for the previous file.
+ */
+@Slf4j
+@Service
+public class EvaluationSingleFlight implements MeterBinder {
+
+    /**
+     * An evaluation run by the leading request.
+     */
+    @FunctionalInterface
+    public interface EvaluationTask {
+        ComplianceScore run() throws IOException;
+    }
+
+    private record Key(Long documentId, String inputVersion) {}
+
+    private final ConcurrentMap<Key, CompletableFuture<ComplianceScore>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong led = new AtomicLong();
+    private final AtomicLong joined = new AtomicLong();
+
+    /**
+     * Runs the task, or joins an identical evaluation that is already running.
+     */
+    public ComplianceScore evaluate(SPMPDocument document, EvaluationTask task) throws IOException {
+        Key key = new Key(document.getId(), inputVersion(document));
+        CompletableFuture<ComplianceScore> flight = new CompletableFuture<>();
+        CompletableFuture<ComplianceScore> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            joined.incrementAndGet();
+            log.debug("Joining in-flight evaluation of document {}", document.getId());
+            return await(running);
+        }
+
+        led.incrementAndGet();
+        try {
+            ComplianceScore score = task.run();
+            flight.complete(score);
+            return score;
+        } catch (IOException | RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    public boolean isInFlight(Long documentId) {
+        return inFlight.keySet().stream().anyMatch(key -> key.documentId().equals(documentId));
+    }
+
+    public long getJoinedCount() {
+        return joined.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("evaluation.singleflight.active", inFlight, ConcurrentMap::size)
+                .description("Evaluations currently running")
+                .register(registry);
+        FunctionCounter.builder("evaluation.singleflight.requests", led, AtomicLong::get)
+                .description("Evaluation requests by whether they ran or joined a running evaluation")
+                .tag("result", "led")
+                .register(registry);
+        FunctionCounter.builder("evaluation.singleflight.requests", joined, AtomicLong::get)
+                .description("Evaluation requests by whether they ran or joined a running evaluation")
+                .tag("result", "joined")
+                .register(registry);
+    }
+
+    /**
+     * Identifies the evaluated input: replacing a document stores the new upload under a new path.
+     */
+    static String inputVersion(SPMPDocument document) {
+        return document.getFileUrl() + "#" + document.getFileSize();
+    }
+
+    private static ComplianceScore await(CompletableFuture<ComplianceScore> running) throws IOException {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.team02.spmpevaluator.service;
+
+/**
+ * Published by {@link GradingCriteriaService} whenever a professor's grading criteria are created,
+ * changed, activated or deleted, so the professor's cached {@link ScoringPlan} can be dropped.
+ */
+public record GradingCriteriaChangedEvent(Long professorId) {
+}
@@ -6,6 +6,7 @@ import com.team02.spmpevaluator.entity.User;
 import com.team02.spmpevaluator.repository.GradingCriteriaRepository;
 import com.team02.spmpevaluator.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,6 +26,7 @@ public class GradingCriteriaService {
 
     private final GradingCriteriaRepository gradingCriteriaRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     /**
@@ -61,6 +63,7 @@ public class GradingCriteriaService {
         }
 
         GradingCriteria saved = gradingCriteriaRepository.save(criteria);
+        eventPublisher.publishEvent(new GradingCriteriaChangedEvent(professorId));
         return convertToDTO(saved);
     }
 
@@ -104,6 +107,7 @@ public class GradingCriteriaService {
         criteria.setActive(dto.isActive());
 
         GradingCriteria saved = gradingCriteriaRepository.save(criteria);
+        eventPublisher.publishEvent(new GradingCriteriaChangedEvent(professorId));
         return convertToDTO(saved);
     }
 
@@ -123,6 +127,7 @@ public class GradingCriteriaService {
         }
 
         gradingCriteriaRepository.delete(criteria);
+        eventPublisher.publishEvent(new GradingCriteriaChangedEvent(professorId));
     }
 
     /**
@@ -182,6 +187,7 @@ public class GradingCriteriaService {
         criteria.setActive(true);
         
         GradingCriteria saved = gradingCriteriaRepository.save(criteria);
+        eventPublisher.publishEvent(new GradingCriteriaChangedEvent(professorId));
         return convertToDTO(saved);
     }
 
@@ -0,0 +1,164 @@
+package com.team02.spmpevaluator.service;
+
+import com.team02.spmpevaluator.entity.SectionAnalysis.IEEE1058Section;
+import com.team02.spmpevaluator.util.FuzzyKeywordMatcher;
+import com.team02.spmpevaluator.util.IEEE1058StandardConstants;
+import com.team02.spmpevaluator.util.KeywordAutomaton;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, versioned set of section keywords compiled for matching.
+ * <p>
+ * The keywords of all sections go into one {@link KeywordAutomaton}, so counting the matched
+ * keywords of every section is a single pass over the document. An evaluation takes one
+ * snapshot and uses it throughout, so a dictionary change never mixes two versions in one score.
+ */
+public final class KeywordDictionary {
+
+    private static final IEEE1058Section[] SECTIONS = IEEE1058Section.values();
+
+    /**
+     * The keywords shipped in {@link IEEE1058StandardConstants}, used until the dictionary is first changed.
+     */
+    public static final KeywordDictionary BUILT_IN = of(0L, builtInKeywords());
+
+    private final long version;
+    private final Map<IEEE1058Section, Set<String>> keywords;
+    private final KeywordAutomaton automaton;
+    // Section ordinal of each automaton keyword
+    private final int[] keywordSection;
+    // Built on first use of fuzzy matching, with the automaton's keyword indexes
+    private volatile FuzzyKeywordMatcher fuzzyMatcher;
+
+    private KeywordDictionary(long version, Map<IEEE1058Section, Set<String>> keywords) {
+        this.version = version;
+        this.keywords = keywords;
+
+        List<String> all = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        keywords.forEach((section, sectionKeywords) -> sectionKeywords.forEach(keyword -> {
+            all.add(keyword);
+            owners.add(section.ordinal());
+        }));
+        this.automaton = KeywordAutomaton.of(all);
+        this.keywordSection = owners.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Compiles a dictionary. Keywords are trimmed and lower-cased, blanks and duplicates are
+     * dropped; sections without keywords never match.
+     */
+    public static KeywordDictionary of(long version, Map<IEEE1058Section, ? extends Collection<String>> keywords) {
+        Map<IEEE1058Section, Set<String>> normalized = new EnumMap<>(IEEE1058Section.class);
+        for (IEEE1058Section section : SECTIONS) {
+            normalized.put(section, Collections.unmodifiableSet(normalize(keywords.get(section))));
+        }
+        return new KeywordDictionary(version, Collections.unmodifiableMap(normalized));
+    }
+
+    /**
+     * Trimmed, lower-cased keywords in their original order without blanks or duplicates.
+     */
+    static Set<String> normalize(Collection<String> keywords) {
+        Set<String> normalized = new LinkedHashSet<>();
+        if (keywords != null) {
+            for (String keyword : keywords) {
+                if (keyword != null && !keyword.isBlank()) {
+                    normalized.add(keyword.trim().toLowerCase());
+                }
+            }
+        }
+        return normalized;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Set<String> keywordsFor(IEEE1058Section section) {
+        return keywords.get(section);
+    }
+
+    public Map<IEEE1058Section, Set<String>> getKeywords() {
+        return keywords;
+    }
+
+    /**
+     * Number of distinct keywords of each section found in the text, indexed by section ordinal.
+     */
+    public int[] matchedKeywordCounts(CharSequence text) {
+        boolean[] matched = automaton.matchedKeywords(text);
+        int[] counts = new int[SECTIONS.length];
+        for (int k = 0; k < matched.length; k++) {
+            if (matched[k]) {
+                counts[keywordSection[k]]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * The compiled keywords of all sections; see {@link #sectionOf} for the owner of each.
+     */
+    KeywordAutomaton automaton() {
+        return automaton;
+    }
+
+    /**
+     * The same keywords matched with up to {@code maxEdits} typos or inflections, under the
+     * automaton's keyword indexes. Built on first use and kept while the budget stays the same.
+     */
+    FuzzyKeywordMatcher fuzzyMatcher(int maxEdits) {
+        FuzzyKeywordMatcher matcher = fuzzyMatcher;
+        if (matcher == null || matcher.maxEdits() != maxEdits) {
+            List<String> all = new ArrayList<>(automaton.size());
+            for (int k = 0; k < automaton.size(); k++) {
+                all.add(automaton.keyword(k));
+            }
+            matcher = FuzzyKeywordMatcher.of(all, maxEdits);
+            fuzzyMatcher = matcher;
+        }
+        return matcher;
+    }
+
+    /**
+     * Section ordinal of an automaton keyword.
+     */
+    int sectionOf(int keyword) {
+        return keywordSection[keyword];
+    }
+
+    @Override
+    public String toString() {
+        return "KeywordDictionary{version=" + version + ", keywords=" + automaton.size() + "}";
+    }
+
+    private static Map<IEEE1058Section, Set<String>> builtInKeywords() {
+        Map<IEEE1058Section, Set<String>> keywords = new EnumMap<>(IEEE1058Section.class);
+        for (IEEE1058Section section : SECTIONS) {
+            keywords.put(section, switch (section) {
+                case OVERVIEW -> IEEE1058StandardConstants.OVERVIEW_KEYWORDS;
+                case DOCUMENTATION_PLAN -> IEEE1058StandardConstants.DOCUMENTATION_PLAN_KEYWORDS;
+                case MASTER_SCHEDULE -> IEEE1058StandardConstants.MASTER_SCHEDULE_KEYWORDS;
+                case ORGANIZATION -> IEEE1058StandardConstants.ORGANIZATION_KEYWORDS;
+                case STANDARDS_PRACTICES -> IEEE1058StandardConstants.STANDARDS_PRACTICES_KEYWORDS;
+                case RISK_MANAGEMENT -> IEEE1058StandardConstants.RISK_MANAGEMENT_KEYWORDS;
+                case STAFF_ORGANIZATION -> IEEE1058StandardConstants.STAFF_ORGANIZATION_KEYWORDS;
+                case BUDGET_RESOURCE -> IEEE1058StandardConstants.BUDGET_RESOURCE_KEYWORDS;
+                case REVIEWS_AUDITS -> IEEE1058StandardConstants.REVIEWS_AUDITS_KEYWORDS;
+                case PROBLEM_RESOLUTION -> IEEE1058StandardConstants.PROBLEM_RESOLUTION_KEYWORDS;
+                case CHANGE_MANAGEMENT -> IEEE1058StandardConstants.CHANGE_MANAGEMENT_KEYWORDS;
+                case GLOSSARY_APPENDIX -> IEEE1058StandardConstants.GLOSSARY_APPENDIX_KEYWORDS;
+            });
+        }
+        return keywords;
+    }
+}
@@ -0,0 +1,8 @@
+package com.team02.spmpevaluator.service;
+
+/**
+ * Published by {@link KeywordDictionaryService} when section keywords change, so the compiled
+ * dictionary is reloaded and stored scores are re-swept with the new version.
+ */
+public record KeywordDictionaryChangedEvent(long version) {
+}
@@ -0,0 +1,174 @@
+package com.team02.spmpevaluator.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team02.spmpevaluator.entity.KeywordDictionaryEntry;
+import com.team02.spmpevaluator.entity.SectionAnalysis.IEEE1058Section;
+import com.team02.spmpevaluator.repository.KeywordDictionaryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stores the section keyword dictionary and holds its compiled {@link KeywordDictionary}.
+ * <p>
+ * Until the first change the built-in keywords of {@code IEEE1058StandardConstants} are used
+ * (version 0). Every change bumps the dictionary version and publishes a
+ * {@link KeywordDictionaryChangedEvent}; once it commits the stored keywords are recompiled and
+ * swapped in atomically, so readers never wait on a lock.
+ */
+@Service
+@Slf4j
+public class KeywordDictionaryService implements MeterBinder {
+
+    private static final TypeReference<List<String>> KEYWORD_LIST = new TypeReference<>() {};
+
+    private final KeywordDictionaryRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicReference<KeywordDictionary> active = new AtomicReference<>();
+
+    public KeywordDictionaryService(KeywordDictionaryRepository repository,
+                                    ApplicationEventPublisher eventPublisher) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * The dictionary evaluations use; loaded on first use.
+     */
+    public KeywordDictionary current() {
+        KeywordDictionary dictionary = active.get();
+        return dictionary != null ? dictionary : reload();
+    }
+
+    /**
+     * Replaces the keywords of one section. Returns the dictionary as of this change; it becomes
+     * {@link #current()} once the transaction commits. Unchanged keywords keep the version.
+     *
+     * @throws IllegalArgumentException if no keyword is given
+     */
+    @Transactional
+    public KeywordDictionary updateKeywords(IEEE1058Section section, Collection<String> keywords, String updatedBy) {
+        Set<String> normalized = KeywordDictionary.normalize(keywords);
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("At least one keyword is required");
+        }
+
+        List<KeywordDictionaryEntry> entries = repository.findAllForUpdate();
+        KeywordDictionary stored = entries.isEmpty() ? KeywordDictionary.BUILT_IN : compile(entries);
+        if (stored.keywordsFor(section).equals(normalized)) {
+            return stored;
+        }
+        long version = stored.getVersion() + 1;
+
+        // The first change also stores the built-in keywords of the other sections
+        Map<IEEE1058Section, KeywordDictionaryEntry> bySection = new EnumMap<>(IEEE1058Section.class);
+        entries.forEach(entry -> bySection.put(entry.getSectionName(), entry));
+        List<KeywordDictionaryEntry> changed = new ArrayList<>();
+        for (IEEE1058Section each : IEEE1058Section.values()) {
+            KeywordDictionaryEntry entry = bySection.get(each);
+            if (entry != null && each != section) {
+                continue;
+            }
+            if (entry == null) {
+                entry = new KeywordDictionaryEntry();
+                entry.setSectionName(each);
+                bySection.put(each, entry);
+            }
+            entry.setKeywords(toJson(each == section ? normalized : stored.keywordsFor(each)));
+            entry.setVersion(version);
+            entry.setUpdatedBy(updatedBy);
+            changed.add(entry);
+        }
+        repository.saveAll(changed);
+
+        log.info("Keyword dictionary version {}: {} keywords changed by {}", version, section, updatedBy);
+        eventPublisher.publishEvent(new KeywordDictionaryChangedEvent(version));
+        return compile(new ArrayList<>(bySection.values()));
+    }
+
+    /**
+     * Runs after the change commits so the reload sees it. Falls back to immediate execution
+     * when no transaction is active.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onKeywordDictionaryChanged(KeywordDictionaryChangedEvent event) {
+        if (current().getVersion() < event.version()) {
+            reload();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("keyword.dictionary.version", this, service -> service.current().getVersion())
+                .description("Version of the section keyword dictionary in use")
+                .register(registry);
+    }
+
+    /**
+     * Recompiles the stored dictionary. Synchronized so concurrent reloads compile once; an
+     * unreadable store keeps the previous dictionary.
+     */
+    synchronized KeywordDictionary reload() {
+        KeywordDictionary previous = active.get();
+        List<KeywordDictionaryEntry> entries = repository.findAll();
+
+        KeywordDictionary compiled;
+        try {
+            compiled = entries.isEmpty() ? KeywordDictionary.BUILT_IN : compile(entries);
+        } catch (IllegalArgumentException e) {
+            log.warn("Stored keyword dictionary cannot be read, keeping the previous keywords: {}", e.getMessage());
+            compiled = previous != null ? previous : KeywordDictionary.BUILT_IN;
+        }
+        if (compiled != previous) {
+            active.set(compiled);
+            log.info("Active keyword dictionary: {}", compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Sections without a stored entry keep their built-in keywords.
+     */
+    private KeywordDictionary compile(List<KeywordDictionaryEntry> entries) {
+        Map<IEEE1058Section, Collection<String>> keywords = new EnumMap<>(KeywordDictionary.BUILT_IN.getKeywords());
+        long version = 0;
+        for (KeywordDictionaryEntry entry : entries) {
+            keywords.put(entry.getSectionName(), fromJson(entry));
+            version = Math.max(version, entry.getVersion());
+        }
+        return KeywordDictionary.of(version, keywords);
+    }
+
+    private List<String> fromJson(KeywordDictionaryEntry entry) {
+        try {
+            return objectMapper.readValue(entry.getKeywords(), KEYWORD_LIST);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid keywords for " + entry.getSectionName() + ": "
+                    + e.getOriginalMessage(), e);
+        }
+    }
+
+    private String toJson(Set<String> keywords) {
+        try {
+            return objectMapper.writeValueAsString(keywords);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize keywords", e);
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package com.team02.spmpevaluator.service;
+
+import com.team02.spmpevaluator.dto.KeywordSweepRowDTO;
+import com.team02.spmpevaluator.repository.ComplianceScoreRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rescores stored evaluations in the background after the keyword dictionary changes, or after
+ * a restart with another keyword edit budget ({@code app.keyword-matching.max-edits}).
+ * <p>
+ * A single worker walks compliance scores in id order with a cursor, picking up only scores
+ * computed with an older dictionary or matched with another edit budget. Each one is rescored by
+ * the keyword phase alone, from the cached extracted text and without AI calls, and batches are
+ * written with JDBC updates guarded by the score version; a score re-evaluated in the meantime is
+ * skipped. A score counts as unchanged only when its overall result and every stored section match;
+ * otherwise only the sections that differ are rewritten. AI findings are kept, except for sections
+ * whose presence changed. The worker waits while any evaluation is running or queued and pauses
+ * between batches, so interactive evaluations keep the CPU and database.
+ */
+@Service
+@Slf4j
+public class KeywordResweepService implements MeterBinder {
+
+    public record SweepStatus(long targetVersion, long completedVersion, boolean running, long cursor,
+                              long updated, long unchanged, long skipped, long failed) {}
+
+    private static final String UPDATE_SCORE_SQL =
+            "UPDATE compliance_scores SET overall_score = ?, completeness_score = ?, sections_found = ?, " +
+            "is_compliant = ?, summary = ?, keyword_dictionary_version = ?, keyword_match_edits = ?, " +
+            "version = version + 1 " +
+            "WHERE id = ? AND version = ?";
+    // Findings are only replaced (non-null) for sections whose presence changed
+    private static final String UPDATE_SECTION_SQL =
+            "UPDATE section_analyses SET present = ?, section_score = ?, coverage = ?, severity = ?, " +
+            "evidence_snippet = ?, missing_subclauses = ?, section_weight = ?, " +
+            "findings = COALESCE(?, findings), recommendations = COALESCE(?, recommendations) " +
+            "WHERE compliance_score_id = ? AND section_name = ?";
+    // Unchanged scores only record that they are current; no version bump, so concurrent writers are unaffected
+    private static final String STAMP_SQL =
+            "UPDATE compliance_scores SET keyword_dictionary_version = ?, keyword_match_edits = ? " +
+            "WHERE id = ? AND version = ?";
+    private static final String STORED_SECTIONS_SQL =
+            "SELECT compliance_score_id, section_name, present, section_score, coverage, missing_subclauses " +
+            "FROM section_analyses WHERE compliance_score_id IN (%s)";
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * Keyword-phase fields of a stored section analysis.
+     */
+    record StoredSection(long scoreId, String section, boolean present, Double sectionScore, Double coverage,
+                         String missingSubclauses) {
+
+        boolean matches(EvaluationResult.SectionResult result) {
+            return present == result.present()
+                    && sectionScore != null && Math.abs(sectionScore - result.sectionScore()) < EPSILON
+                    && (coverage == null ? result.coverage() == null
+                        : result.coverage() != null && Math.abs(coverage - result.coverage()) < EPSILON)
+                    && Objects.equals(missingSubclauses, result.missingSubclauses());
+        }
+    }
+
+    private final KeywordDictionaryService dictionaryService;
+    private final ComplianceEvaluationService evaluationService;
+    private final ComplianceScoreRepository complianceScoreRepository;
+    private final SPMPDocumentService documentService;
+    private final ScoringPlanService scoringPlanService;
+    private final EvaluationAdmissionService admissionService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate writeTransaction;
+    private final int batchSize;
+    private final Duration batchPause;
+    private final Duration idleCheck;
+
+    private final AtomicLong targetVersion = new AtomicLong();
+    // -1 until the first sweep since startup, so the running dictionary can be swept to as well
+    private final AtomicLong completedVersion = new AtomicLong(-1);
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong cursor = new AtomicLong();
+    private final AtomicLong updated = new AtomicLong();
+    private final AtomicLong unchanged = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile boolean stopped;
+
+    private Executor worker;
+
+    @Autowired
+    public KeywordResweepService(KeywordDictionaryService dictionaryService,
+                                 ComplianceEvaluationService evaluationService,
+                                 ComplianceScoreRepository complianceScoreRepository,
+                                 SPMPDocumentService documentService,
+                                 ScoringPlanService scoringPlanService,
+                                 EvaluationAdmissionService admissionService,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.keyword-sweep.batch-size:20}") int batchSize,
+                                 @Value("${app.keyword-sweep.batch-pause:PT2S}") Duration batchPause,
+                                 @Value("${app.keyword-sweep.idle-check:PT1S}") Duration idleCheck) {
+        this(dictionaryService, evaluationService, complianceScoreRepository, documentService, scoringPlanService,
+                admissionService, jdbcTemplate, transactionManager, batchSize, batchPause, idleCheck, null);
+    }
+
+    KeywordResweepService(KeywordDictionaryService dictionaryService,
+                          ComplianceEvaluationService evaluationService,
+                          ComplianceScoreRepository complianceScoreRepository,
+                          SPMPDocumentService documentService,
+                          ScoringPlanService scoringPlanService,
+                          EvaluationAdmissionService admissionService,
+                          JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          int batchSize, Duration batchPause, Duration idleCheck,
+                          Executor worker) {
+        this.dictionaryService = dictionaryService;
+        this.evaluationService = evaluationService;
+        this.complianceScoreRepository = complianceScoreRepository;
+        this.documentService = documentService;
+        this.scoringPlanService = scoringPlanService;
+        this.admissionService = admissionService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.batchPause = batchPause;
+        this.idleCheck = idleCheck;
+        this.worker = worker;
+    }
+
+    @PostConstruct
+    void start() {
+        if (worker == null) {
+            worker = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "keyword-resweep");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        stopped = true;
+        if (worker instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs after the dictionary change commits. Falls back to immediate execution when no
+     * transaction is active.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onKeywordDictionaryChanged(KeywordDictionaryChangedEvent event) {
+        requestSweep(event.version());
+    }
+
+    /**
+     * Scores left stale by a sweep that did not finish, or by a changed keyword edit budget, are
+     * swept once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void sweepStaleScores() {
+        long version = dictionaryService.current().getVersion();
+        if (complianceScoreRepository.existsKeywordStale(version, evaluationService.getKeywordMaxEdits())) {
+            requestSweep(version);
+        }
+    }
+
+    /**
+     * Starts a sweep to the given dictionary version unless one is running; a running sweep
+     * restarts from the first score when it sees the newer version.
+     */
+    public void requestSweep(long version) {
+        targetVersion.accumulateAndGet(version, Math::max);
+        if (running.compareAndSet(false, true)) {
+            worker.execute(this::runSweeps);
+        }
+    }
+
+    public SweepStatus getStatus() {
+        return new SweepStatus(targetVersion.get(), completedVersion.get(), running.get(), cursor.get(),
+                updated.get(), unchanged.get(), skipped.get(), failed.get());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("keyword.sweep.running", running, flag -> flag.get() ? 1 : 0)
+                .description("Whether a keyword re-sweep is running")
+                .register(registry);
+        registerOutcome(registry, updated, "updated");
+        registerOutcome(registry, unchanged, "unchanged");
+        registerOutcome(registry, skipped, "skipped");
+        registerOutcome(registry, failed, "failed");
+    }
+
+    private void registerOutcome(MeterRegistry registry, AtomicLong counter, String result) {
+        FunctionCounter.builder("keyword.sweep.scores", counter, AtomicLong::get)
+                .description("Stored scores processed by keyword re-sweeps")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private void runSweeps() {
+        boolean finished = false;
+        try {
+            while (!stopped && completedVersion.get() < targetVersion.get()) {
+                sweep(targetVersion.get());
+            }
+            finished = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // Not retried here; the next dictionary change or a manual request starts over
+            log.error("Keyword re-sweep failed after score {}", cursor.get(), e);
+        } finally {
+            running.set(false);
+        }
+        // A request that arrived while the worker was finishing would otherwise be lost
+        if (finished && !stopped && completedVersion.get() < targetVersion.get()
+                && running.compareAndSet(false, true)) {
+            worker.execute(this::runSweeps);
+        }
+    }
+
+    /**
+     * One pass over the stale scores; returns early when a newer version is requested.
+     */
+    void sweep(long version) throws InterruptedException {
+        KeywordDictionary dictionary = dictionaryService.current();
+        if (dictionary.getVersion() < version) {
+            dictionary = dictionaryService.reload();
+        }
+        int maxEdits = evaluationService.getKeywordMaxEdits();
+        log.info("Keyword re-sweep to dictionary version {} with edit budget {} started", dictionary.getVersion(),
+                maxEdits);
+        cursor.set(0);
+
+        while (!stopped) {
+            if (targetVersion.get() > version) {
+                log.info("Keyword dictionary changed again, restarting the re-sweep");
+                return;
+            }
+            awaitIdle();
+            List<KeywordSweepRowDTO> batch = complianceScoreRepository.findKeywordSweepBatch(cursor.get(),
+                    dictionary.getVersion(), maxEdits, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            sweepBatch(batch, dictionary);
+            cursor.set(batch.get(batch.size() - 1).getScoreId());
+            Thread.sleep(batchPause.toMillis());
+        }
+        if (stopped) {
+            return;
+        }
+        completedVersion.accumulateAndGet(version, Math::max);
+        log.info("Keyword re-sweep to dictionary version {} finished: {} updated, {} unchanged, {} skipped, {} failed",
+                dictionary.getVersion(), updated.get(), unchanged.get(), skipped.get(), failed.get());
+    }
+
+    /**
+     * Waits while interactive or bulk evaluations are running or queued.
+     */
+    private void awaitIdle() throws InterruptedException {
+        while (!stopped && (admissionService.getActiveCount() > 0
+                || admissionService.getQueuedCount(EvaluationAdmissionService.Priority.INTERACTIVE) > 0
+                || admissionService.getQueuedCount(EvaluationAdmissionService.Priority.BULK) > 0)) {
+            Thread.sleep(idleCheck.toMillis());
+        }
+    }
+
+    private void sweepBatch(List<KeywordSweepRowDTO> batch, KeywordDictionary dictionary) {
+        List<KeywordSweepRowDTO> changedRows = new ArrayList<>();
+        List<EvaluationResult> changedResults = new ArrayList<>();
+        List<Object[]> stamps = new ArrayList<>();
+        Map<Long, Map<String, StoredSection>> stored = storedSections(batch);
+
+        for (KeywordSweepRowDTO row : batch) {
+            EvaluationResult result;
+            try {
+                String content = documentService.getDocumentContent(row.getDocumentId());
+                result = evaluationService.computeKeywordEvaluation(content,
+                        scoringPlanService.planForStudent(row.getStudentId()), dictionary);
+            } catch (IOException | RuntimeException e) {
+                failed.incrementAndGet();
+                log.warn("Keyword re-sweep could not rescore document {}: {}", row.getDocumentId(), e.getMessage());
+                continue;
+            }
+            if (isUnchanged(row, result, stored.getOrDefault(row.getScoreId(), Map.of()))) {
+                stamps.add(new Object[]{dictionary.getVersion(), result.keywordMaxEdits(), row.getScoreId(),
+                        row.getVersion()});
+            } else {
+                changedRows.add(row);
+                changedResults.add(result);
+            }
+        }
+
+        writeTransaction.executeWithoutResult(status -> {
+            if (!stamps.isEmpty()) {
+                count(jdbcTemplate.batchUpdate(STAMP_SQL, stamps), unchanged);
+            }
+            if (!changedRows.isEmpty()) {
+                writeChanged(changedRows, changedResults, stored, dictionary);
+            }
+        });
+    }
+
+    private void writeChanged(List<KeywordSweepRowDTO> rows, List<EvaluationResult> results,
+                              Map<Long, Map<String, StoredSection>> stored, KeywordDictionary dictionary) {
+        List<Object[]> scoreUpdates = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            EvaluationResult result = results.get(i);
+            scoreUpdates.add(new Object[]{result.overallScore(), result.completenessScore(), result.sectionsFound(),
+                    result.compliant(), result.summary(), dictionary.getVersion(), result.keywordMaxEdits(),
+                    rows.get(i).getScoreId(), rows.get(i).getVersion()});
+        }
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_SCORE_SQL, scoreUpdates);
+
+        List<Object[]> sectionUpdates = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            // 0 means the score was re-evaluated or overridden meanwhile; drivers may report success without a row count
+            if (counts[i] == 0) {
+                skipped.incrementAndGet();
+                continue;
+            }
+            updated.incrementAndGet();
+            Long scoreId = rows.get(i).getScoreId();
+            Map<String, StoredSection> previous = stored.getOrDefault(scoreId, Map.of());
+            for (EvaluationResult.SectionResult section : results.get(i).sections()) {
+                StoredSection before = previous.get(section.section().name());
+                if (before != null && before.matches(section)) {
+                    continue;
+                }
+                boolean presenceChanged = before == null || section.present() != before.present();
+                sectionUpdates.add(new Object[]{section.present(), section.sectionScore(), section.coverage(),
+                        section.severity(), section.evidenceSnippet(), section.missingSubclauses(),
+                        section.sectionWeight(),
+                        presenceChanged ? section.findings() : null,
+                        presenceChanged ? section.recommendations() : null,
+                        scoreId, section.section().name()});
+            }
+        }
+        if (!sectionUpdates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SECTION_SQL, sectionUpdates);
+        }
+    }
+
+    /**
+     * Stored sections per score and section name, read in one query.
+     */
+    private Map<Long, Map<String, StoredSection>> storedSections(List<KeywordSweepRowDTO> rows) {
+        String placeholders = String.join(", ", Collections.nCopies(rows.size(), "?"));
+        Object[] scoreIds = rows.stream().map(KeywordSweepRowDTO::getScoreId).toArray();
+        List<StoredSection> sections = jdbcTemplate.query(String.format(STORED_SECTIONS_SQL, placeholders),
+                (resultSet, rowNum) -> new StoredSection(resultSet.getLong(1), resultSet.getString(2),
+                        resultSet.getBoolean(3), resultSet.getObject(4, Double.class),
+                        resultSet.getObject(5, Double.class), resultSet.getString(6)),
+                scoreIds);
+        Map<Long, Map<String, StoredSection>> stored = new HashMap<>();
+        for (StoredSection section : sections) {
+            stored.computeIfAbsent(section.scoreId(), id -> new HashMap<>()).put(section.section(), section);
+        }
+        return stored;
+    }
+
+    private static boolean isUnchanged(KeywordSweepRowDTO row, EvaluationResult result,
+                                       Map<String, StoredSection> stored) {
+        if (row.getOverallScore() == null
+                || Math.abs(row.getOverallScore() - result.overallScore()) >= EPSILON
+                || row.getSectionsFound() == null
+                || row.getSectionsFound() != result.sectionsFound()) {
+            return false;
+        }
+        for (EvaluationResult.SectionResult section : result.sections()) {
+            StoredSection before = stored.get(section.section().name());
+            if (before == null || !before.matches(section)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void count(int[] counts, AtomicLong current) {
+        for (int count : counts) {
+            (count == 0 ? skipped : current).incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.team02.spmpevaluator.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * HTTP transport for the OpenRouter API.
+ * Built on the JDK {@link HttpClient}, which keeps connections alive and pools them per host and
+ * negotiates HTTP/2 where the server supports it. Requests are non-blocking; the number of
+ * in-flight requests per host is capped and excess requests wait in a FIFO queue without holding
+ * a thread. The request timeout runs from the moment a request is queued, so a request that
+ * cannot get a slot in time fails with a {@link TimeoutException} instead of waiting indefinitely.
+ */
+@Component
+public class OpenRouterHttpClient {
+
+    // HttpRequest rejects a zero timeout; a slot granted at the deadline gets this much
+    private static final long MIN_REMAINING_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final HttpClient httpClient;
+    private final int maxConnectionsPerHost;
+    private final Duration requestTimeout;
+    private final Map<String, HostLimiter> limiters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public OpenRouterHttpClient(@Value("${openrouter.http.max-connections-per-host:8}") int maxConnectionsPerHost,
+                                @Value("${openrouter.http.connect-timeout:PT10S}") Duration connectTimeout,
+                                @Value("${openrouter.http.request-timeout:PT10S}") Duration requestTimeout) {
+        this(HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_2)
+                        .connectTimeout(connectTimeout)
+                        .executor(newDaemonExecutor())
+                        .build(),
+                maxConnectionsPerHost, requestTimeout);
+    }
+
+    OpenRouterHttpClient(HttpClient httpClient, int maxConnectionsPerHost, Duration requestTimeout) {
+        if (maxConnectionsPerHost < 1) {
+            throw new IllegalArgumentException("maxConnectionsPerHost must be at least 1");
+        }
+        this.httpClient = httpClient;
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * POST a JSON body without blocking the caller.
+     * The future completes with the response for any HTTP status; it completes exceptionally
+     * only on transport errors or timeouts. Cancelling it abandons the request: a queued call
+     * leaves the queue and a running exchange is aborted, freeing its slot for the next caller.
+     */
+    public CompletableFuture<HttpResponse<String>> postJsonAsync(String url, Map<String, String> headers, String jsonBody) {
+        URI uri = URI.create(url);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(jsonBody));
+        headers.forEach(builder::header);
+        return send(uri, builder, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * POST a JSON body and hand each line of a successful (200) response to {@code onLine} as it
+     * arrives, e.g. for server-sent event streams. The connection slot is held until the body has
+     * been fully read. The future completes once the stream ends; for a 200 response its body is
+     * empty, for any other status it holds the full error body and {@code onLine} is not called.
+     */
+    public CompletableFuture<HttpResponse<String>> postJsonStreamAsync(String url, Map<String, String> headers,
+                                                                       String jsonBody, Consumer<String> onLine) {
+        URI uri = URI.create(url);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .header("Accept", "text/event-stream")
+                .POST(HttpRequest.BodyPublishers.ofString(jsonBody));
+        headers.forEach(builder::header);
+
+        HttpResponse.BodyHandler<String> handler = responseInfo -> responseInfo.statusCode() == 200
+                ? HttpResponse.BodySubscribers.fromLineSubscriber(new LineSubscriber(onLine),
+                        LineSubscriber::finish, StandardCharsets.UTF_8, null)
+                : HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8);
+        return send(uri, builder, handler);
+    }
+
+    /**
+     * Wait for a slot on the host and send the request with whatever is left of the request
+     * timeout, so time spent queued counts against it. Cancelling the returned future cancels
+     * the wait or the exchange, whichever is in progress.
+     */
+    private <T> CompletableFuture<HttpResponse<T>> send(URI uri, HttpRequest.Builder builder,
+                                                        HttpResponse.BodyHandler<T> handler) {
+        long deadline = System.nanoTime() + requestTimeout.toNanos();
+        HostLimiter limiter = limiters.computeIfAbsent(hostKey(uri), key -> new HostLimiter(maxConnectionsPerHost));
+        CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+        CompletableFuture<Void> slot = limiter.acquire(requestTimeout);
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                slot.cancel(false);
+            }
+        });
+        slot.whenComplete((ignored, slotError) -> {
+            if (slotError != null) {
+                result.completeExceptionally(slotError);
+                return;
+            }
+            if (result.isDone()) {
+                // Cancelled just as the slot was granted
+                limiter.release();
+                return;
+            }
+            CompletableFuture<HttpResponse<T>> exchange;
+            try {
+                HttpRequest request = builder.timeout(remaining(deadline)).build();
+                exchange = httpClient.sendAsync(request, handler);
+            } catch (RuntimeException e) {
+                limiter.release();
+                result.completeExceptionally(e);
+                return;
+            }
+            exchange.whenComplete((response, error) -> {
+                limiter.release();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(response);
+                }
+            });
+            result.whenComplete((response, error) -> {
+                if (result.isCancelled()) {
+                    exchange.cancel(true);
+                }
+            });
+        });
+        return result;
+    }
+
+    private static Duration remaining(long deadline) {
+        return Duration.ofNanos(Math.max(deadline - System.nanoTime(), MIN_REMAINING_NANOS));
+    }
+
+    /**
+     * Blocking variant of {@link #postJsonAsync}.
+     */
+    public HttpResponse<String> postJson(String url, Map<String, String> headers, String jsonBody) {
+        try {
+            return postJsonAsync(url, headers, jsonBody).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new RuntimeException("HTTP request to " + url + " failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Requests currently running against the given URL's host.
+     */
+    public int inFlight(String url) {
+        HostLimiter limiter = limiters.get(hostKey(URI.create(url)));
+        return limiter == null ? 0 : limiter.inFlight();
+    }
+
+    /**
+     * Requests waiting for a free slot on the given URL's host.
+     */
+    public int queued(String url) {
+        HostLimiter limiter = limiters.get(hostKey(URI.create(url)));
+        return limiter == null ? 0 : limiter.queued();
+    }
+
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    private static String hostKey(URI uri) {
+        return uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+    }
+
+    private static ExecutorService newDaemonExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "openrouter-http-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Forwards response lines to a consumer. A line the consumer rejects is skipped so one
+     * malformed event does not abort the rest of the stream.
+     */
+    static final class LineSubscriber implements Flow.Subscriber<String> {
+        private final Consumer<String> onLine;
+
+        LineSubscriber(Consumer<String> onLine) {
+            this.onLine = onLine;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            try {
+                onLine.accept(line);
+            } catch (RuntimeException e) {
+                // Skip the line, keep reading
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            // Surfaces through the response future
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        String finish() {
+            return "";
+        }
+    }
+
+    /**
+     * Non-blocking counting semaphore. A released permit is handed directly to the oldest waiter
+     * that is still waiting; waiters that time out or are cancelled leave the queue.
+     */
+    static final class HostLimiter {
+        private final int maxPermits;
+        private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+        private int inFlight;
+
+        HostLimiter(int maxPermits) {
+            this.maxPermits = maxPermits;
+        }
+
+        /**
+         * Take a permit, or queue for one. The returned future fails with a
+         * {@link TimeoutException} if no permit is handed over within {@code timeout}.
+         */
+        CompletableFuture<Void> acquire(Duration timeout) {
+            CompletableFuture<Void> waiter;
+            synchronized (this) {
+                if (inFlight < maxPermits) {
+                    inFlight++;
+                    return CompletableFuture.completedFuture(null);
+                }
+                waiter = new CompletableFuture<>();
+                waiters.addLast(waiter);
+            }
+            waiter.whenComplete((ignored, error) -> {
+                if (waiter.isCancelled()) {
+                    remove(waiter);
+                }
+            });
+            // Leave the queue before failing so a release never hands the permit to a timed-out waiter
+            CompletableFuture.delayedExecutor(timeout.toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+                if (remove(waiter)) {
+                    waiter.completeExceptionally(new TimeoutException("No connection slot free within " + timeout));
+                }
+            });
+            return waiter;
+        }
+
+        void release() {
+            while (true) {
+                CompletableFuture<Void> next;
+                synchronized (this) {
+                    next = waiters.pollFirst();
+                    if (next == null) {
+                        inFlight--;
+                        return;
+                    }
+                }
+                // Completed outside the lock; the permit moves to the waiter so inFlight is unchanged.
+                // A cancelled waiter refuses it and the next one is tried.
+                if (next.complete(null)) {
+                    return;
+                }
+            }
+        }
+
+        private synchronized boolean remove(CompletableFuture<Void> waiter) {
+            return waiters.remove(waiter);
+        }
+
+        synchronized int inFlight() {
+            return inFlight;
+        }
+
+        synchronized int queued() {
+            return waiters.size();
+        }
+    }
+}
@@ -2,22 +2,40 @@ package com.team02.spmpevaluator.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team02.spmpevaluator.entity.AiUsageRecord;
+import com.team02.spmpevaluator.util.ExcerptSelector;
+import com.team02.spmpevaluator.util.IEEE1058StandardConstants;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service for integrating with OpenRouter AI API.
  * Uses nvidia/nemotron-nano-12b-v2-vl:free model which supports multimodal analysis (text + images).
  * Provides IEEE 1058 compliance analysis for SPMP documents including visual elements.
+ * Requests are routed across the configured model pool by {@link AiModelRouter}.
  */
 @Service
 @Slf4j
@@ -29,18 +47,77 @@ public class OpenRouterService {
     @Value("${openrouter.api.url:https://openrouter.ai/api/v1/chat/completions}")
     private String apiUrl;
 
-    @Value("${openrouter.model:nvidia/nemotron-nano-12b-v2-vl:free}")
-    private String model;
+    @Value("${openrouter.retry.max-retries:2}")
+    private int maxRetries = 2;
 
-    private final RestTemplate restTemplate;
+    @Value("${openrouter.retry.base-delay:PT0.5S}")
+    private Duration retryBaseDelay = Duration.ofMillis(500);
+
+    /** Upper bound for backoff; a Retry-After longer than this is not waited for. */
+    @Value("${openrouter.retry.max-delay:PT5S}")
+    private Duration retryMaxDelay = Duration.ofSeconds(5);
+
+    @Value("${openrouter.hedge.enabled:false}")
+    private boolean hedgingEnabled;
+
+    @Value("${openrouter.hedge.delay:PT3S}")
+    private Duration hedgeDelay = Duration.ofSeconds(3);
+
+    /** Token budget for document content in the full-document analysis prompt. */
+    @Value("${openrouter.prompt.document-token-budget:1500}")
+    private int documentTokenBudget = 1500;
+
+    static final String DEFAULT_MODEL = "nvidia/nemotron-nano-12b-v2-vl:free";
+
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(429, 500, 502, 503, 504);
+
+    /** Section keywords used to rank document passages for the analysis prompt. */
+    private static final Set<String> IEEE1058_TERMS = Stream.of(
+                    IEEE1058StandardConstants.OVERVIEW_KEYWORDS,
+                    IEEE1058StandardConstants.DOCUMENTATION_PLAN_KEYWORDS,
+                    IEEE1058StandardConstants.MASTER_SCHEDULE_KEYWORDS,
+                    IEEE1058StandardConstants.ORGANIZATION_KEYWORDS,
+                    IEEE1058StandardConstants.STANDARDS_PRACTICES_KEYWORDS,
+                    IEEE1058StandardConstants.RISK_MANAGEMENT_KEYWORDS,
+                    IEEE1058StandardConstants.STAFF_ORGANIZATION_KEYWORDS,
+                    IEEE1058StandardConstants.BUDGET_RESOURCE_KEYWORDS,
+                    IEEE1058StandardConstants.REVIEWS_AUDITS_KEYWORDS,
+                    IEEE1058StandardConstants.PROBLEM_RESOLUTION_KEYWORDS,
+                    IEEE1058StandardConstants.CHANGE_MANAGEMENT_KEYWORDS,
+                    IEEE1058StandardConstants.GLOSSARY_APPENDIX_KEYWORDS)
+            .flatMap(Set::stream)
+            .collect(Collectors.toUnmodifiableSet());
+
+    /** A provider response together with the pool model that produced it. */
+    private record ModelResponse(String model, HttpResponse<String> response) {}
+
+    /** Model that answered the last blocking call on each thread; see {@link #getAnsweringModel()}. */
+    private static final ThreadLocal<String> ANSWERING_MODEL = new ThreadLocal<>();
+
+    private final OpenRouterHttpClient httpClient;
+    private final AiModelRouter modelRouter;
+    private final AiUsageService usageService;
     private final ObjectMapper objectMapper;
 
     public OpenRouterService() {
-        // Configure RestTemplate with 10-second timeout to prevent hanging
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(10000); // 10 seconds connection timeout
-        factory.setReadTimeout(10000);    // 10 seconds read timeout
-        this.restTemplate = new RestTemplate(factory);
+        // Standalone defaults: 10-second timeouts to prevent hanging, 8 concurrent requests per host
+        this(new OpenRouterHttpClient(8, Duration.ofSeconds(10), Duration.ofSeconds(10)),
+             new AiModelRouter(List.of(DEFAULT_MODEL), 3, Duration.ofSeconds(8), Duration.ofSeconds(30), 20,
+                     Duration.ofMinutes(5), System::nanoTime));
+    }
+
+    OpenRouterService(OpenRouterHttpClient httpClient, AiModelRouter modelRouter) {
+        this(httpClient, modelRouter, null);
+    }
+
+    /**
+     * @param usageService usage ledger; null disables usage recording
+     */
+    @Autowired
+    public OpenRouterService(OpenRouterHttpClient httpClient, AiModelRouter modelRouter, AiUsageService usageService) {
+        this.httpClient = httpClient;
+        this.modelRouter = modelRouter;
+        this.usageService = usageService;
         this.objectMapper = new ObjectMapper();
     }
 
@@ -49,6 +126,7 @@ public class OpenRouterService {
      * Returns structured feedback including detected clauses, missing clauses, and recommendations.
      */
     public Map<String, Object> analyzeDocument(String documentContent) {
+        ANSWERING_MODEL.remove();
         if (apiKey == null || apiKey.isEmpty()) {
             log.warn("OpenRouter API key not configured, returning mock analysis");
             return getMockAnalysis();
@@ -56,7 +134,7 @@ public class OpenRouterService {
 
         try {
             String prompt = buildAnalysisPrompt(documentContent);
-            String response = callOpenRouterAPI(prompt);
+            String response = callOpenRouterAPI(prompt, "analysis");
             return parseAnalysisResponse(response);
         } catch (Exception e) {
             log.error("AI analysis failed: {}", e.getMessage(), e);
@@ -64,6 +142,24 @@ public class OpenRouterService {
         }
     }
 
+    /**
+     * Non-blocking variant of {@link #analyzeDocument(String)}.
+     * Completes with the mock analysis instead of failing when the AI call fails.
+     */
+    public CompletableFuture<Map<String, Object>> analyzeDocumentAsync(String documentContent) {
+        if (apiKey == null || apiKey.isEmpty()) {
+            log.warn("OpenRouter API key not configured, returning mock analysis");
+            return CompletableFuture.completedFuture(getMockAnalysis());
+        }
+
+        return callOpenRouterAPIAsync(buildAnalysisPrompt(documentContent), null, "analysis")
+                .thenApply(this::parseAnalysisResponse)
+                .exceptionally(e -> {
+                    log.error("AI analysis failed: {}", unwrap(e).getMessage());
+                    return getMockAnalysis();
+                });
+    }
+
     /**
      * Analyze SPMP document with embedded images (diagrams, flowcharts, architecture diagrams).
      * Uses nvidia/nemotron-nano-12b-v2-vl:free model which supports multimodal analysis.
@@ -73,6 +169,7 @@ public class OpenRouterService {
      * @return Structured compliance analysis including image insights
      */
     public Map<String, Object> analyzeDocumentWithImages(String documentContent, List<String> imageBase64List) {
+        ANSWERING_MODEL.remove();
         if (apiKey == null || apiKey.isEmpty()) {
             log.warn("OpenRouter API key not configured, returning mock analysis");
             return getMockAnalysis();
@@ -80,7 +177,7 @@ public class OpenRouterService {
 
         try {
             String prompt = buildAnalysisPrompt(documentContent);
-            String response = callOpenRouterAPIWithImages(prompt, imageBase64List);
+            String response = callOpenRouterAPIWithImages(prompt, imageBase64List, "analysis");
             return parseAnalysisResponse(response);
         } catch (Exception e) {
             log.error("Multimodal AI analysis failed: {}", e.getMessage(), e);
@@ -93,27 +190,155 @@ public class OpenRouterService {
      * Generate detailed feedback for a specific section.
      */
     public String generateSectionFeedback(String sectionName, String sectionContent) {
+        ANSWERING_MODEL.remove();
         if (apiKey == null || apiKey.isEmpty()) {
             return "Section '" + sectionName + "' requires review. Please ensure it follows IEEE 1058 guidelines.";
         }
 
         try {
             String prompt = buildSectionPrompt(sectionName, sectionContent);
-            return callOpenRouterAPI(prompt);
+            return callOpenRouterAPI(prompt, "section-feedback");
         } catch (Exception e) {
             log.error("Section feedback generation failed: {}", e.getMessage());
             return "Unable to generate feedback for section '" + sectionName + "'.";
         }
     }
 
+    /**
+     * Non-blocking variant of {@link #generateSectionFeedback(String, String)}.
+     */
+    public CompletableFuture<String> generateSectionFeedbackAsync(String sectionName, String sectionContent) {
+        if (apiKey == null || apiKey.isEmpty()) {
+            return CompletableFuture.completedFuture(
+                    "Section '" + sectionName + "' requires review. Please ensure it follows IEEE 1058 guidelines.");
+        }
+
+        return callOpenRouterAPIAsync(buildSectionPrompt(sectionName, sectionContent), null, "section-feedback")
+                .exceptionally(e -> {
+                    log.error("Section feedback generation failed: {}", unwrap(e).getMessage());
+                    return "Unable to generate feedback for section '" + sectionName + "'.";
+                });
+    }
+
+    /**
+     * Send a caller-built prompt as-is and return the raw model reply.
+     * Unlike {@link #analyzeDocument(String)} there is no mock fallback: failures are thrown
+     * so the caller can decide how to degrade.
+     */
+    public String complete(String prompt) {
+        ANSWERING_MODEL.remove();
+        if (apiKey == null || apiKey.isEmpty()) {
+            throw new IllegalStateException("OpenRouter API key not configured");
+        }
+        return callOpenRouterAPI(prompt, "completion");
+    }
+
+    /**
+     * Streaming variant of {@link #complete(String)}: asks the provider for an incremental
+     * (server-sent events) response and passes each text delta to {@code onDelta} as it arrives.
+     * Returns the full reply once the stream ends. Models are tried in routing order until one
+     * accepts the stream; there is no retry, hedging or failover once text has been forwarded.
+     */
+    public String completeStreaming(String prompt, Consumer<String> onDelta) {
+        if (apiKey == null || apiKey.isEmpty()) {
+            throw new IllegalStateException("OpenRouter API key not configured");
+        }
+
+        ANSWERING_MODEL.remove();
+        AiUsageContext.Attribution attribution = attribution("completion-stream");
+        RuntimeException lastFailure = new RuntimeException("AI circuit breaker is open");
+        for (String candidate : modelRouter.candidates()) {
+            if (!modelRouter.tryAcquire(candidate)) {
+                continue;
+            }
+
+            StringBuilder fullText = new StringBuilder();
+            JsonNode[] usage = new JsonNode[1];
+            long start = System.nanoTime();
+            HttpResponse<String> response;
+            try {
+                Map<String, Object> requestBody = buildRequestBody(candidate, prompt, null);
+                requestBody.put("stream", true);
+                String jsonBody = objectMapper.writeValueAsString(requestBody);
+
+                log.info("Calling OpenRouter API (streaming) with model: {}", candidate);
+                response = httpClient.postJsonStreamAsync(apiUrl, requestHeaders(), jsonBody, line -> {
+                    JsonNode event = parseStreamEvent(line);
+                    if (event == null) {
+                        return;
+                    }
+                    if (event.path("usage").isObject()) {
+                        // Usage accounting arrives in the final event
+                        usage[0] = event.path("usage");
+                    }
+                    String delta = streamDelta(event);
+                    if (delta != null && !delta.isEmpty()) {
+                        fullText.append(delta);
+                        onDelta.accept(delta);
+                    }
+                }).join();
+            } catch (Exception e) {
+                long latency = System.nanoTime() - start;
+                Throwable cause = unwrap(e);
+                recordOutcome(candidate, latency, cause, null);
+                recordUsage(candidate, attribution, latency, null, usage[0], cause);
+                lastFailure = new RuntimeException("AI service unavailable: " + cause.getMessage(), cause);
+                if (fullText.length() > 0) {
+                    throw lastFailure;
+                }
+                continue;
+            }
+
+            long latency = System.nanoTime() - start;
+            recordUsage(candidate, attribution, latency, response, usage[0], null);
+            recordOutcome(candidate, latency, null, response);
+            if (response.statusCode() != 200) {
+                lastFailure = new RuntimeException("OpenRouter returned HTTP " + response.statusCode());
+                log.warn("Model {} rejected streaming request (HTTP {})", candidate, response.statusCode());
+                continue;
+            }
+            ANSWERING_MODEL.set(candidate);
+            return fullText.toString();
+        }
+        throw lastFailure;
+    }
+
+    /**
+     * Text delta carried by one server-sent event line, or null for comments, keep-alives,
+     * the terminating {@code [DONE]} marker and events without content.
+     */
+    String extractStreamDelta(String line) {
+        JsonNode event = parseStreamEvent(line);
+        return event != null ? streamDelta(event) : null;
+    }
+
+    private JsonNode parseStreamEvent(String line) {
+        if (line == null || !line.startsWith("data:")) {
+            return null;
+        }
+        String payload = line.substring(5).trim();
+        if (payload.isEmpty() || "[DONE]".equals(payload)) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(payload);
+        } catch (Exception e) {
+            log.debug("Skipping malformed stream event: {}", payload);
+            return null;
+        }
+    }
+
+    private static String streamDelta(JsonNode event) {
+        JsonNode delta = event.path("choices").path(0).path("delta").path("content");
+        return delta.isTextual() ? delta.asText() : null;
+    }
+
     /**
      * Build the analysis prompt for IEEE 1058 compliance checking.
      */
     private String buildAnalysisPrompt(String documentContent) {
-        // Truncate content if too long (API limits)
-        String truncatedContent = documentContent.length() > 8000 
-            ? documentContent.substring(0, 8000) + "...[truncated]" 
-            : documentContent;
+        // Keep the passages with the most IEEE 1058 evidence instead of just the first pages (API limits)
+        String truncatedContent = ExcerptSelector.select(documentContent, IEEE1058_TERMS, documentTokenBudget);
 
         return """
             You are an expert in IEEE 1058 Software Project Management Plan (SPMP) standards.
@@ -172,8 +397,8 @@ public class OpenRouterService {
      * @param prompt Text prompt for analysis
      * @return AI response
      */
-    private String callOpenRouterAPI(String prompt) {
-        return callOpenRouterAPIWithImages(prompt, null);
+    private String callOpenRouterAPI(String prompt, String operation) {
+        return callOpenRouterAPIWithImages(prompt, null, operation);
     }
 
     /**
@@ -184,80 +409,383 @@ public class OpenRouterService {
      * @param imageBase64List Optional list of base64-encoded images
      * @return AI response including image analysis
      */
-    private String callOpenRouterAPIWithImages(String prompt, List<String> imageBase64List) {
+    private String callOpenRouterAPIWithImages(String prompt, List<String> imageBase64List, String operation) {
+        ANSWERING_MODEL.remove();
+        try {
+            ModelResponse answer = sendAsync(prompt, imageBase64List, operation).join();
+            String content = extractMessageContent(answer.response());
+            ANSWERING_MODEL.set(answer.model());
+            return content;
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            log.error("OpenRouter API call failed: {}", cause.getMessage(), cause);
+            throw new RuntimeException("AI service unavailable: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Send a chat completion request without blocking the calling thread.
+     *
+     * @param prompt Text prompt for analysis
+     * @param imageBase64List Optional list of base64-encoded images
+     * @param operation Usage ledger operation, used when no {@link AiUsageContext} is open
+     * @return Future completing with the model's message content
+     */
+    private CompletableFuture<String> callOpenRouterAPIAsync(String prompt, List<String> imageBase64List,
+                                                             String operation) {
+        return sendAsync(prompt, imageBase64List, operation)
+                .thenApply(answer -> extractMessageContent(answer.response()));
+    }
+
+    /**
+     * Send a chat completion request through the model pool, completing with the final response
+     * and the model that produced it.
+     */
+    private CompletableFuture<ModelResponse> sendAsync(String prompt, List<String> imageBase64List, String operation) {
         if (apiKey == null || apiKey.isEmpty()) {
-            throw new RuntimeException("OpenRouter API key not configured");
+            return CompletableFuture.failedFuture(new RuntimeException("OpenRouter API key not configured"));
         }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.set("Authorization", "Bearer " + apiKey);
-        headers.set("HTTP-Referer", "http://localhost:8080");
-        headers.set("X-Title", "SPMP Evaluator");
+        log.info("Calling OpenRouter API (images: {})", imageBase64List != null ? imageBase64List.size() : 0);
+
+        Function<String, String> bodyForModel = candidate -> {
+            try {
+                return objectMapper.writeValueAsString(buildRequestBody(candidate, prompt, imageBase64List));
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not serialize request body", e);
+            }
+        };
+        // Captured here: the retries and failovers below may run on HTTP client threads
+        AiUsageContext.Attribution attribution = attribution(operation);
+        return sendWithRetry(bodyForModel, attribution, 0);
+    }
 
+    /**
+     * Send one round through the model pool, retrying transient failures (transport errors, 429
+     * and 5xx) with jittered exponential backoff once every healthy model has failed. A Retry-After
+     * header is honoured when it fits within the maximum retry delay.
+     */
+    private CompletableFuture<ModelResponse> sendWithRetry(Function<String, String> bodyForModel,
+                                                           AiUsageContext.Attribution attribution, int attempt) {
+        List<String> candidates = modelRouter.candidates();
+        if (candidates.isEmpty()) {
+            return CompletableFuture.failedFuture(new RuntimeException("AI circuit breaker is open"));
+        }
+
+        return sendWithFailover(bodyForModel, attribution, candidates, 0).handle((answer, error) -> {
+            Throwable cause = error != null ? unwrap(error) : null;
+            HttpResponse<String> response = answer != null ? answer.response() : null;
+            boolean retryable = cause != null
+                    ? cause instanceof IOException
+                    : RETRYABLE_STATUSES.contains(response.statusCode());
+            long delayMillis = retryable && attempt < maxRetries ? retryDelayMillis(response, attempt) : -1;
+            if (delayMillis < 0) {
+                return cause != null
+                        ? CompletableFuture.<ModelResponse>failedFuture(cause)
+                        : CompletableFuture.completedFuture(answer);
+            }
+
+            log.warn("OpenRouter attempt {} failed ({}), retrying in {} ms", attempt + 1,
+                    cause != null ? cause.getMessage() : "HTTP " + response.statusCode(), delayMillis);
+            return CompletableFuture.runAsync(() -> { },
+                            CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS))
+                    .thenCompose(ignored -> sendWithRetry(bodyForModel, attribution, attempt + 1));
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * Try {@code candidates} from {@code index} on, moving straight to the next model when one
+     * fails transiently. Each call's outcome and latency feed that model's routing statistics
+     * and the usage ledger. Completes with the last response (or error) when no candidate succeeds.
+     */
+    private CompletableFuture<ModelResponse> sendWithFailover(Function<String, String> bodyForModel,
+                                                              AiUsageContext.Attribution attribution,
+                                                              List<String> candidates, int index) {
+        String candidate = candidates.get(index);
+        boolean hasNext = index + 1 < candidates.size();
+        if (!modelRouter.tryAcquire(candidate)) {
+            return hasNext
+                    ? sendWithFailover(bodyForModel, attribution, candidates, index + 1)
+                    : CompletableFuture.failedFuture(new RuntimeException("AI circuit breaker is open"));
+        }
+
+        String jsonBody;
         try {
-            // Build message content
-            List<Map<String, Object>> contentList = new ArrayList<>();
-
-            // Add text content
-            Map<String, Object> textContent = new HashMap<>();
-            textContent.put("type", "text");
-            textContent.put("text", prompt);
-            contentList.add(textContent);
-
-            // Add images if provided
-            if (imageBase64List != null && !imageBase64List.isEmpty()) {
-                for (String imageBase64 : imageBase64List) {
-                    if (imageBase64 != null && !imageBase64.isEmpty()) {
-                        Map<String, Object> imageContent = new HashMap<>();
-                        imageContent.put("type", "image_url");
-                        
-                        Map<String, String> imageUrl = new HashMap<>();
-                        // Format: data:image/png;base64,...
-                        imageUrl.put("url", "data:image/png;base64," + imageBase64);
-                        imageContent.put("image_url", imageUrl);
-                        
-                        contentList.add(imageContent);
-                    }
+            jsonBody = bodyForModel.apply(candidate);
+        } catch (Exception e) {
+            // Our serialization failed; the model was never asked
+            modelRouter.onIgnored(candidate);
+            return CompletableFuture.failedFuture(e);
+        }
+
+        long start = System.nanoTime();
+        return sendHedged(candidate, attribution, jsonBody).handle((response, error) -> {
+            long latency = System.nanoTime() - start;
+            Throwable cause = error != null ? unwrap(error) : null;
+            recordOutcome(candidate, latency, cause, response);
+
+            boolean retryable = cause != null
+                    ? cause instanceof IOException
+                    : RETRYABLE_STATUSES.contains(response.statusCode());
+            if (retryable && hasNext) {
+                log.warn("Model {} failed ({}), failing over to {}", candidate,
+                        cause != null ? cause.getMessage() : "HTTP " + response.statusCode(),
+                        candidates.get(index + 1));
+                return sendWithFailover(bodyForModel, attribution, candidates, index + 1);
+            }
+            return cause != null
+                    ? CompletableFuture.<ModelResponse>failedFuture(cause)
+                    : CompletableFuture.completedFuture(new ModelResponse(candidate, response));
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * Feed one call's outcome to the model's routing statistics and circuit breaker. Only
+     * transport errors, throttling (429) and server errors (5xx) count against the model; other
+     * failures, such as a 400 for a malformed request or a local queue timeout, say nothing
+     * about its health and only release the call's permit.
+     */
+    private void recordOutcome(String model, long latencyNanos, Throwable cause, HttpResponse<String> response) {
+        if (cause == null && response.statusCode() == 200) {
+            modelRouter.onSuccess(model, latencyNanos);
+        } else if (cause != null ? cause instanceof IOException : isModelFailureStatus(response.statusCode())) {
+            modelRouter.onFailure(model, latencyNanos);
+        } else {
+            modelRouter.onIgnored(model);
+        }
+    }
+
+    private static boolean isModelFailureStatus(int status) {
+        return status == 429 || status >= 500;
+    }
+
+    /**
+     * Full-jitter exponential backoff, raised to the server's Retry-After when present.
+     * Returns -1 when the server asks for a longer wait than we are willing to spend.
+     */
+    long retryDelayMillis(HttpResponse<String> response, int attempt) {
+        long cap = Math.min(retryMaxDelay.toMillis(), retryBaseDelay.toMillis() << Math.min(attempt, 20));
+        long jittered = ThreadLocalRandom.current().nextLong(cap + 1);
+
+        if (response != null) {
+            Long retryAfterSeconds = response.headers().firstValue("Retry-After")
+                    .map(value -> {
+                        try {
+                            return Long.parseLong(value.trim());
+                        } catch (NumberFormatException e) {
+                            return null;
+                        }
+                    })
+                    .orElse(null);
+            if (retryAfterSeconds != null) {
+                long retryAfterMillis = TimeUnit.SECONDS.toMillis(retryAfterSeconds);
+                if (retryAfterMillis > retryMaxDelay.toMillis()) {
+                    return -1;
                 }
+                return Math.max(retryAfterMillis, jittered);
             }
+        }
+        return jittered;
+    }
 
-            // Build request body
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("model", model);
-            requestBody.put("messages", List.of(
-                Map.of("role", "user", "content", contentList)
-            ));
-            requestBody.put("temperature", 0.3);
-            requestBody.put("max_tokens", 2000);
-
-            String jsonBody = objectMapper.writeValueAsString(requestBody);
-            HttpEntity<String> entity = new HttpEntity<>(jsonBody, headers);
-
-            log.info("Calling OpenRouter API with model: {} (images: {})", 
-                     model, 
-                     imageBase64List != null ? imageBase64List.size() : 0);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                apiUrl, HttpMethod.POST, entity, String.class
-            );
-
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                JsonNode root = objectMapper.readTree(response.getBody());
-                JsonNode choices = root.path("choices");
-                if (choices.isArray() && choices.size() > 0) {
-                    String content = choices.get(0).path("message").path("content").asText();
-                    log.info("AI response received successfully from model: {}", model);
-                    return content;
+    /**
+     * Send the request and, when hedging is enabled, fire a duplicate if no response has arrived
+     * after the hedge delay. The first successful response wins and the other request is
+     * cancelled, releasing its connection slot. Each request sent is a separate usage record.
+     */
+    private CompletableFuture<HttpResponse<String>> sendHedged(String model, AiUsageContext.Attribution attribution,
+                                                               String jsonBody) {
+        CompletableFuture<HttpResponse<String>> primary = httpClient.postJsonAsync(apiUrl, requestHeaders(), jsonBody);
+        CompletableFuture<HttpResponse<String>> recordedPrimary = recorded(model, attribution, primary);
+        if (!hedgingEnabled) {
+            return recordedPrimary;
+        }
+
+        CompletableFuture<HttpResponse<String>> result = new CompletableFuture<>();
+        List<CompletableFuture<HttpResponse<String>>> requests = new CopyOnWriteArrayList<>(List.of(primary));
+        result.whenComplete((response, error) -> requests.forEach(request -> request.cancel(true)));
+        AtomicInteger pending = new AtomicInteger(1);
+        BiConsumer<HttpResponse<String>, Throwable> onComplete = (response, error) -> {
+            if (error == null && response.statusCode() == 200) {
+                result.complete(response);
+            } else if (pending.decrementAndGet() == 0) {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(response);
+                }
+            }
+        };
+
+        CompletableFuture.delayedExecutor(hedgeDelay.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            pending.incrementAndGet();
+            log.info("No OpenRouter response after {} ms, sending hedged request", hedgeDelay.toMillis());
+            CompletableFuture<HttpResponse<String>> hedge = httpClient.postJsonAsync(apiUrl, requestHeaders(), jsonBody);
+            requests.add(hedge);
+            if (result.isDone()) {
+                hedge.cancel(true);
+            }
+            recorded(model, attribution, hedge).whenComplete(onComplete);
+        });
+        recordedPrimary.whenComplete(onComplete);
+        return result;
+    }
+
+    /**
+     * Add a sent request to the usage ledger when it completes, including when it is cancelled as
+     * the losing half of a hedged pair. The returned future completes once the record is written.
+     */
+    private CompletableFuture<HttpResponse<String>> recorded(String model, AiUsageContext.Attribution attribution,
+                                                             CompletableFuture<HttpResponse<String>> request) {
+        long start = System.nanoTime();
+        return request.whenComplete((response, error) -> recordUsage(model, attribution, System.nanoTime() - start,
+                response, response != null ? usageNode(response.body()) : null, error));
+    }
+
+    /**
+     * Build the chat completion request body with text and optional images.
+     */
+    private Map<String, Object> buildRequestBody(String model, String prompt, List<String> imageBase64List) {
+        // Build message content
+        List<Map<String, Object>> contentList = new ArrayList<>();
+
+        // Add text content
+        Map<String, Object> textContent = new HashMap<>();
+        textContent.put("type", "text");
+        textContent.put("text", prompt);
+        contentList.add(textContent);
+
+        // Add images if provided
+        if (imageBase64List != null && !imageBase64List.isEmpty()) {
+            for (String imageBase64 : imageBase64List) {
+                if (imageBase64 != null && !imageBase64.isEmpty()) {
+                    Map<String, Object> imageContent = new HashMap<>();
+                    imageContent.put("type", "image_url");
+
+                    Map<String, String> imageUrl = new HashMap<>();
+                    // Format: data:image/png;base64,...
+                    imageUrl.put("url", "data:image/png;base64," + imageBase64);
+                    imageContent.put("image_url", imageUrl);
+
+                    contentList.add(imageContent);
                 }
             }
-            throw new RuntimeException("Invalid API response");
+        }
+
+        // Build request body
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", model);
+        requestBody.put("messages", List.of(
+            Map.of("role", "user", "content", contentList)
+        ));
+        requestBody.put("temperature", 0.3);
+        requestBody.put("max_tokens", 2000);
+        // Ask OpenRouter to report token counts and cost in the response for the usage ledger
+        requestBody.put("usage", Map.of("include", true));
+        return requestBody;
+    }
+
+    private Map<String, String> requestHeaders() {
+        return Map.of(
+                "Authorization", "Bearer " + apiKey,
+                "HTTP-Referer", "http://localhost:8080",
+                "X-Title", "SPMP Evaluator");
+    }
+
+    /**
+     * Pull the first choice's message content out of a chat completion response.
+     */
+    private String extractMessageContent(HttpResponse<String> response) {
+        if (response.statusCode() != 200 || response.body() == null) {
+            throw new RuntimeException("OpenRouter returned HTTP " + response.statusCode());
+        }
+        try {
+            JsonNode root = objectMapper.readTree(response.body());
+            JsonNode choices = root.path("choices");
+            if (choices.isArray() && choices.size() > 0) {
+                String content = choices.get(0).path("message").path("content").asText();
+                log.info("AI response received successfully from model: {}", root.path("model").asText("unknown"));
+                return content;
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid API response: " + e.getMessage(), e);
+        }
+        throw new RuntimeException("Invalid API response");
+    }
+
+    private static AiUsageContext.Attribution attribution(String defaultOperation) {
+        AiUsageContext.Attribution current = AiUsageContext.current();
+        if (current == null) {
+            return new AiUsageContext.Attribution(defaultOperation, null, null);
+        }
+        return current.operation() != null
+                ? current
+                : new AiUsageContext.Attribution(defaultOperation, current.documentId(), current.section());
+    }
+
+    /**
+     * The {@code usage} block of a chat completion response, or null when absent or unparseable.
+     */
+    private JsonNode usageNode(String responseBody) {
+        if (responseBody == null || usageService == null) {
+            return null;
+        }
+        try {
+            JsonNode usage = objectMapper.readTree(responseBody).path("usage");
+            return usage.isObject() ? usage : null;
         } catch (Exception e) {
-            log.error("OpenRouter API call failed: {}", e.getMessage(), e);
-            throw new RuntimeException("AI service unavailable: " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Add one provider call to the usage ledger. Never fails the call being recorded.
+     */
+    private void recordUsage(String model, AiUsageContext.Attribution attribution, long latencyNanos,
+                             HttpResponse<String> response, JsonNode usage, Throwable error) {
+        if (usageService == null) {
+            return;
+        }
+        try {
+            AiUsageRecord usageRecord = new AiUsageRecord();
+            usageRecord.setModel(model);
+            usageRecord.setOperation(attribution.operation());
+            usageRecord.setDocumentId(attribution.documentId());
+            usageRecord.setSection(attribution.section());
+            usageRecord.setLatencyMs(TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+            if (unwrap(error) instanceof CancellationException) {
+                usageRecord.setOutcome(AiUsageRecord.Outcome.CANCELLED);
+            } else if (error != null || response == null) {
+                usageRecord.setOutcome(AiUsageRecord.Outcome.TRANSPORT_ERROR);
+            } else {
+                usageRecord.setHttpStatus(response.statusCode());
+                usageRecord.setOutcome(response.statusCode() == 200
+                        ? AiUsageRecord.Outcome.SUCCESS
+                        : AiUsageRecord.Outcome.HTTP_ERROR);
+            }
+            if (usage != null) {
+                usageRecord.setPromptTokens(intOrNull(usage.path("prompt_tokens")));
+                usageRecord.setCompletionTokens(intOrNull(usage.path("completion_tokens")));
+                usageRecord.setTotalTokens(intOrNull(usage.path("total_tokens")));
+                usageRecord.setCost(usage.path("cost").isNumber() ? usage.path("cost").asDouble() : null);
+            }
+            usageService.record(usageRecord);
+        } catch (RuntimeException e) {
+            log.debug("Could not record AI usage: {}", e.getMessage());
         }
     }
 
+    private static Integer intOrNull(JsonNode node) {
+        return node.isNumber() ? node.asInt() : null;
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return (e instanceof CompletionException && e.getCause() != null) ? e.getCause() : e;
+    }
+
     /**
      * Parse the AI response into structured data.
      */
@@ -319,4 +847,30 @@ public class OpenRouterService {
     public boolean isConfigured() {
         return apiKey != null && !apiKey.isEmpty();
     }
+
+    /**
+     * Preferred model of the pool. Cached responses are keyed by it, so reordering the pool
+     * invalidates them while routing between pool members does not.
+     */
+    public String getModel() {
+        return modelRouter.primaryModel();
+    }
+
+    /**
+     * Model that answered the last blocking call ({@link #complete}, {@link #completeStreaming},
+     * {@link #analyzeDocument} and the other synchronous methods) made on the current thread, or
+     * null when that call failed or fell back to a mock answer. After a failover this differs from
+     * {@link #getModel()}, so callers caching under the preferred model can skip such answers.
+     */
+    public String getAnsweringModel() {
+        return ANSWERING_MODEL.get();
+    }
+
+    /**
+     * Check if AI calls are worth attempting right now: configured and at least one model's
+     * circuit breaker is not open. Callers should fall back to keyword-based results when this is false.
+     */
+    public boolean isAvailable() {
+        return isConfigured() && modelRouter.isAnyAvailable();
+    }
 }
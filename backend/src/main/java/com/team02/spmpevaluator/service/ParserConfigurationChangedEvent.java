@@ -0,0 +1,8 @@
+package com.team02.spmpevaluator.service;
+
+/**
+ * Published by {@link ParserConfigurationService} when a configuration is updated or made the
+ * default, so {@link ParserRuleEngine} can recompile the active rules.
+ */
+public record ParserConfigurationChangedEvent(Long configurationId) {
+}
@@ -4,6 +4,7 @@ import com.team02.spmpevaluator.entity.ParserConfiguration;
 import com.team02.spmpevaluator.entity.User;
 import com.team02.spmpevaluator.repository.ParserConfigurationRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,13 +13,47 @@ import java.util.Optional;
 
 /**
  * Service for managing parser configurations including IEEE 1058 clause mappings
- * and custom evaluation rules.
+ * and custom evaluation rules. Changes that can affect compiled rules publish a
+ * {@link ParserConfigurationChangedEvent} so {@link ParserRuleEngine} recompiles or drops them.
  */
 @Service
 @RequiredArgsConstructor
 public class ParserConfigurationService {
 
+    /**
+     * Default IEEE 1058 clause mappings as JSON string
+     */
+    static final String DEFAULT_CLAUSE_MAPPINGS = """
+            [
+                {"clauseId": "1", "clauseName": "Overview", "weight": 10, "keywords": ["overview", "introduction", "purpose"]},
+                {"clauseId": "1.1", "clauseName": "Project Overview", "weight": 5, "keywords": ["project overview", "summary"]},
+                {"clauseId": "1.2", "clauseName": "Project Deliverables", "weight": 5, "keywords": ["deliverables", "outputs", "products"]},
+                {"clauseId": "2", "clauseName": "References", "weight": 5, "keywords": ["references", "bibliography", "citations"]},
+                {"clauseId": "3", "clauseName": "Definitions", "weight": 5, "keywords": ["definitions", "terminology", "glossary"]},
+                {"clauseId": "4", "clauseName": "Project Organization", "weight": 15, "keywords": ["organization", "structure", "roles", "responsibilities"]},
+                {"clauseId": "5", "clauseName": "Managerial Process Plans", "weight": 20, "keywords": ["management", "planning", "processes"]},
+                {"clauseId": "5.1", "clauseName": "Project Startup Plan", "weight": 5, "keywords": ["startup", "initiation", "kickoff"]},
+                {"clauseId": "5.2", "clauseName": "Work Plan", "weight": 10, "keywords": ["work plan", "schedule", "timeline", "milestones"]},
+                {"clauseId": "5.3", "clauseName": "Control Plan", "weight": 5, "keywords": ["control", "monitoring", "tracking"]},
+                {"clauseId": "6", "clauseName": "Technical Process Plans", "weight": 20, "keywords": ["technical", "development", "methodology"]},
+                {"clauseId": "7", "clauseName": "Supporting Process Plans", "weight": 15, "keywords": ["supporting", "quality", "configuration", "documentation"]},
+                {"clauseId": "8", "clauseName": "Additional Plans", "weight": 5, "keywords": ["additional", "appendices", "supplements"]}
+            ]
+            """;
+
+    /**
+     * Default custom evaluation rules as JSON string
+     */
+    static final String DEFAULT_CUSTOM_RULES = """
+            [
+                {"ruleId": "R1", "description": "Check clause completeness", "criteria": "All required clauses must be present", "severity": "high"},
+                {"ruleId": "R2", "description": "Verify section depth", "criteria": "Key sections must have detailed sub-sections", "severity": "medium"},
+                {"ruleId": "R3", "description": "Check formatting consistency", "criteria": "Document formatting should follow IEEE standards", "severity": "low"}
+            ]
+            """;
+
     private final ParserConfigurationRepository parserConfigurationRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Create a new parser configuration
@@ -32,7 +67,11 @@ public class ParserConfigurationService {
             unsetAllDefaults();
         }
         
-        return parserConfigurationRepository.save(configuration);
+        ParserConfiguration saved = parserConfigurationRepository.save(configuration);
+        if (Boolean.TRUE.equals(saved.getIsDefault())) {
+            eventPublisher.publishEvent(new ParserConfigurationChangedEvent(saved.getId()));
+        }
+        return saved;
     }
 
     /**
@@ -55,7 +94,9 @@ public class ParserConfigurationService {
         }
         existing.setIsDefault(updatedConfig.getIsDefault());
         
-        return parserConfigurationRepository.save(existing);
+        ParserConfiguration saved = parserConfigurationRepository.save(existing);
+        eventPublisher.publishEvent(new ParserConfigurationChangedEvent(saved.getId()));
+        return saved;
     }
 
     /**
@@ -99,6 +140,7 @@ public class ParserConfigurationService {
         }
         
         parserConfigurationRepository.deleteById(id);
+        eventPublisher.publishEvent(new ParserConfigurationChangedEvent(id));
     }
 
     /**
@@ -111,7 +153,9 @@ public class ParserConfigurationService {
         
         unsetAllDefaults();
         config.setIsDefault(true);
-        return parserConfigurationRepository.save(config);
+        ParserConfiguration saved = parserConfigurationRepository.save(config);
+        eventPublisher.publishEvent(new ParserConfigurationChangedEvent(saved.getId()));
+        return saved;
     }
 
     /**
@@ -127,13 +171,15 @@ public class ParserConfigurationService {
         ParserConfiguration defaultConfig = new ParserConfiguration();
         defaultConfig.setName("IEEE 1058 Standard Configuration");
         defaultConfig.setDescription("Default configuration based on IEEE 1058-1998 standard for SPMP documents");
-        defaultConfig.setClauseMappings(getDefaultClauseMappings());
-        defaultConfig.setCustomRules(getDefaultCustomRules());
+        defaultConfig.setClauseMappings(DEFAULT_CLAUSE_MAPPINGS);
+        defaultConfig.setCustomRules(DEFAULT_CUSTOM_RULES);
         defaultConfig.setIsActive(true);
         defaultConfig.setIsDefault(true);
         defaultConfig.setCreatedBy(createdBy);
 
-        return parserConfigurationRepository.save(defaultConfig);
+        ParserConfiguration saved = parserConfigurationRepository.save(defaultConfig);
+        eventPublisher.publishEvent(new ParserConfigurationChangedEvent(saved.getId()));
+        return saved;
     }
 
     /**
@@ -146,40 +192,4 @@ public class ParserConfigurationService {
             parserConfigurationRepository.save(config);
         });
     }
-
-    /**
-     * Get default IEEE 1058 clause mappings as JSON string
-     */
-    private String getDefaultClauseMappings() {
-        return """
-                [
-                    {"clauseId": "1", "clauseName": "Overview", "weight": 10, "keywords": ["overview", "introduction", "purpose"]},
-                    {"clauseId": "1.1", "clauseName": "Project Overview", "weight": 5, "keywords": ["project overview", "summary"]},
-                    {"clauseId": "1.2", "clauseName": "Project Deliverables", "weight": 5, "keywords": ["deliverables", "outputs", "products"]},
-                    {"clauseId": "2", "clauseName": "References", "weight": 5, "keywords": ["references", "bibliography", "citations"]},
-                    {"clauseId": "3", "clauseName": "Definitions", "weight": 5, "keywords": ["definitions", "terminology", "glossary"]},
-                    {"clauseId": "4", "clauseName": "Project Organization", "weight": 15, "keywords": ["organization", "structure", "roles", "responsibilities"]},
-                    {"clauseId": "5", "clauseName": "Managerial Process Plans", "weight": 20, "keywords": ["management", "planning", "processes"]},
-                    {"clauseId": "5.1", "clauseName": "Project Startup Plan", "weight": 5, "keywords": ["startup", "initiation", "kickoff"]},
-                    {"clauseId": "5.2", "clauseName": "Work Plan", "weight": 10, "keywords": ["work plan", "schedule", "timeline", "milestones"]},
-                    {"clauseId": "5.3", "clauseName": "Control Plan", "weight": 5, "keywords": ["control", "monitoring", "tracking"]},
-                    {"clauseId": "6", "clauseName": "Technical Process Plans", "weight": 20, "keywords": ["technical", "development", "methodology"]},
-                    {"clauseId": "7", "clauseName": "Supporting Process Plans", "weight": 15, "keywords": ["supporting", "quality", "configuration", "documentation"]},
-                    {"clauseId": "8", "clauseName": "Additional Plans", "weight": 5, "keywords": ["additional", "appendices", "supplements"]}
-                ]
-                """;
-    }
-
-    /**
-     * Get default custom evaluation rules as JSON string
-     */
-    private String getDefaultCustomRules() {
-        return """
-                [
-                    {"ruleId": "R1", "description": "Check clause completeness", "criteria": "All required clauses must be present", "severity": "high"},
-                    {"ruleId": "R2", "description": "Verify section depth", "criteria": "Key sections must have detailed sub-sections", "severity": "medium"},
-                    {"ruleId": "R3", "description": "Check formatting consistency", "criteria": "Document formatting should follow IEEE standards", "severity": "low"}
-                ]
-                """;
-    }
 }
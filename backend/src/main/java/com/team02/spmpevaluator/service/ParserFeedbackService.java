@@ -6,30 +6,94 @@ import com.team02.spmpevaluator.entity.ParserConfiguration;
 import com.team02.spmpevaluator.entity.ParserFeedback;
 import com.team02.spmpevaluator.repository.ParserFeedbackRepository;
 import com.team02.spmpevaluator.util.DocumentParser;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service for managing parser feedback and AI-based document analysis.
  * Integrates with OpenRouter AI for IEEE 1058 compliance analysis.
+ * <p>
+ * Text extraction and the AI call run outside any database transaction; only the final
+ * save is transactional, so a pooled connection is held for milliseconds instead of for the
+ * whole AI round trip. {@link #submitAnalysis} runs the analysis on a dedicated bounded
+ * executor and tracks progress in {@link ParserFeedback.FeedbackStatus}. Detected and missing
+ * clauses come from the configuration's compiled rules whenever it maps any clauses; the AI
+ * supplies the score, recommendations and summary.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ParserFeedbackService {
 
     private final ParserFeedbackRepository parserFeedbackRepository;
     private final OpenRouterService openRouterService;
     private final DocumentParser documentParser;
+    private final ParserRuleEngine parserRuleEngine;
+    private final Executor analysisExecutor;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    @Autowired
+    public ParserFeedbackService(ParserFeedbackRepository parserFeedbackRepository,
+                                 OpenRouterService openRouterService,
+                                 DocumentParser documentParser,
+                                 ParserRuleEngine parserRuleEngine,
+                                 @Value("${app.parser-feedback.threads:2}") int threads,
+                                 @Value("${app.parser-feedback.queue-capacity:50}") int queueCapacity) {
+        this(parserFeedbackRepository, openRouterService, documentParser, parserRuleEngine,
+                newAnalysisExecutor(threads, queueCapacity));
+    }
+
+    ParserFeedbackService(ParserFeedbackRepository parserFeedbackRepository,
+                          OpenRouterService openRouterService,
+                          DocumentParser documentParser,
+                          ParserRuleEngine parserRuleEngine,
+                          Executor analysisExecutor) {
+        this.parserFeedbackRepository = parserFeedbackRepository;
+        this.openRouterService = openRouterService;
+        this.documentParser = documentParser;
+        this.parserRuleEngine = parserRuleEngine;
+        this.analysisExecutor = analysisExecutor;
+    }
+
+    /**
+     * Analyses still pending or in progress when the server stopped will never finish.
+     */
+    @PostConstruct
+    void failInterruptedAnalyses() {
+        for (ParserFeedback.FeedbackStatus status : List.of(ParserFeedback.FeedbackStatus.PENDING,
+                ParserFeedback.FeedbackStatus.IN_PROGRESS)) {
+            for (ParserFeedback feedback : parserFeedbackRepository.findByStatus(status)) {
+                feedback.setStatus(ParserFeedback.FeedbackStatus.FAILED);
+                feedback.setErrorMessage("Analysis interrupted by a server restart");
+                parserFeedbackRepository.save(feedback);
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (analysisExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
     /**
      * Create a new parser feedback entry (for future AI integration)
      */
@@ -49,7 +113,6 @@ public class ParserFeedbackService {
      * Generate mock feedback for demonstration purposes
      * TODO: Replace with actual AI parser integration
      */
-    @Transactional
     public ParserFeedback generateMockFeedback(SPMPDocument document, ParserConfiguration config) {
         // Actually analyze with AI now!
         return analyzeDocumentWithAI(document, config);
@@ -58,35 +121,108 @@ public class ParserFeedbackService {
     /**
      * Analyze document using OpenRouter AI service for IEEE 1058 compliance.
      * Falls back to mock data if AI service is unavailable.
+     * Not transactional: the analysis runs first and only the result is saved.
      */
-    @Transactional
     public ParserFeedback analyzeDocumentWithAI(SPMPDocument document, ParserConfiguration config) {
         ParserFeedback feedback = new ParserFeedback();
         feedback.setDocument(document);
         feedback.setParserConfiguration(config);
+        analyze(feedback, document);
+        return parserFeedbackRepository.save(feedback);
+    }
+
+    /**
+     * Queue an AI analysis and return immediately with a PENDING feedback entry. The entry
+     * moves to IN_PROGRESS when a worker picks it up and to COMPLETED or FAILED when done.
+     * When the queue is full the entry is saved as FAILED straight away.
+     */
+    public ParserFeedback submitAnalysis(SPMPDocument document, ParserConfiguration config) {
+        ParserFeedback feedback = new ParserFeedback();
+        feedback.setDocument(document);
+        feedback.setParserConfiguration(config);
+        feedback.setComplianceScore(0.0);
+        feedback.setStatus(ParserFeedback.FeedbackStatus.PENDING);
         feedback.setAnalyzedAt(LocalDateTime.now());
+        ParserFeedback pending = parserFeedbackRepository.save(feedback);
+
+        try {
+            analysisExecutor.execute(() -> runAnalysis(pending.getId(), document));
+        } catch (RejectedExecutionException e) {
+            log.warn("Parser feedback queue is full, rejecting analysis of document {}", document.getId());
+            pending.setStatus(ParserFeedback.FeedbackStatus.FAILED);
+            pending.setErrorMessage("Analysis queue is full, please try again later");
+            return parserFeedbackRepository.save(pending);
+        }
+        return pending;
+    }
+
+    private void runAnalysis(Long feedbackId, SPMPDocument document) {
+        try {
+            Optional<ParserFeedback> queued = parserFeedbackRepository.findById(feedbackId);
+            if (queued.isEmpty()) {
+                log.debug("Parser feedback {} was deleted before analysis started", feedbackId);
+                return;
+            }
+            ParserFeedback feedback = queued.get();
+            feedback.setStatus(ParserFeedback.FeedbackStatus.IN_PROGRESS);
+            feedback = parserFeedbackRepository.save(feedback);
+            analyze(feedback, document);
+            parserFeedbackRepository.save(feedback);
+        } catch (Exception e) {
+            log.error("Failed to store parser feedback {}: {}", feedbackId, e.getMessage(), e);
+            markFailed(feedbackId, "Analysis could not be stored: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Move an entry the worker could not finish to FAILED, so it does not stay IN_PROGRESS
+     * until the next restart.
+     */
+    private void markFailed(Long feedbackId, String errorMessage) {
+        try {
+            updateStatus(feedbackId, ParserFeedback.FeedbackStatus.FAILED, errorMessage);
+        } catch (Exception e) {
+            log.error("Failed to mark parser feedback {} as failed: {}", feedbackId, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Fill in the feedback from text extraction and the AI analysis. Touches no database state.
+     */
+    private void analyze(ParserFeedback feedback, SPMPDocument document) {
+        feedback.setAnalyzedAt(LocalDateTime.now());
+        String documentContent = null;
+        CompiledParserRules.MatchResult configuredClauses = null;
         
         try {
             // Extract document content
             String filePath = document.getFileUrl();
-            String documentContent = documentParser.extractTextFromFile(filePath);
+            documentContent = documentParser.extractTextFromFile(filePath);
             
             if (documentContent == null || documentContent.trim().isEmpty()) {
                 feedback.setStatus(ParserFeedback.FeedbackStatus.FAILED);
                 feedback.setErrorMessage("Could not extract text from document");
                 feedback.setParserVersion("1.0.0-ERROR");
-                return parserFeedbackRepository.save(feedback);
+                return;
             }
             
+            configuredClauses = matchConfiguredClauses(feedback.getParserConfiguration(), documentContent);
             log.info("Analyzing document with AI: {} ({} chars)", document.getFileName(), documentContent.length());
             
             // Call AI service
-            Map<String, Object> analysis = openRouterService.analyzeDocument(documentContent);
+            Map<String, Object> analysis;
+            try (AiUsageContext.Scope ignored = AiUsageContext.open("parser-feedback", document.getId(), null)) {
+                analysis = openRouterService.analyzeDocument(documentContent);
+            }
             
             // Map AI response to feedback entity
             feedback.setComplianceScore(parseDouble(analysis.get("complianceScore"), 65.0));
-            feedback.setDetectedClauses(toJson(analysis.get("detectedClauses")));
-            feedback.setMissingClauses(toJson(analysis.get("missingClauses")));
+            if (configuredClauses != null) {
+                setClauses(feedback, configuredClauses);
+            } else {
+                feedback.setDetectedClauses(toJson(analysis.get("detectedClauses")));
+                feedback.setMissingClauses(toJson(analysis.get("missingClauses")));
+            }
             feedback.setRecommendations(toJson(analysis.get("recommendations")));
             feedback.setAnalysisReport(String.valueOf(analysis.getOrDefault("summary", "Analysis completed")));
             feedback.setStatus(ParserFeedback.FeedbackStatus.COMPLETED);
@@ -98,15 +234,70 @@ public class ParserFeedbackService {
             log.error("AI analysis failed: {}", e.getMessage(), e);
             // Fallback to basic analysis
             feedback.setComplianceScore(50.0);
-            feedback.setDetectedClauses(getMockDetectedClauses());
-            feedback.setMissingClauses(getMockMissingClauses());
+            if (configuredClauses != null) {
+                setClauses(feedback, configuredClauses);
+            } else {
+                feedback.setDetectedClauses(getMockDetectedClauses());
+                feedback.setMissingClauses(getMockMissingClauses());
+            }
             feedback.setRecommendations(getMockRecommendations());
             feedback.setAnalysisReport("Analysis encountered an error: " + e.getMessage());
             feedback.setStatus(ParserFeedback.FeedbackStatus.COMPLETED);
             feedback.setParserVersion("1.0.0-FALLBACK");
         }
-        
-        return parserFeedbackRepository.save(feedback);
+    }
+
+    /**
+     * Clauses of the configuration (the default one when none is given) matched against the
+     * text, or null when the configuration maps no clauses.
+     */
+    private CompiledParserRules.MatchResult matchConfiguredClauses(ParserConfiguration configuration, String text) {
+        CompiledParserRules rules = parserRuleEngine.rulesFor(configuration);
+        return rules.getClauses().isEmpty() ? null : rules.match(text);
+    }
+
+    /**
+     * Store matched clauses in the same shape as the AI's clause lists.
+     */
+    private void setClauses(ParserFeedback feedback, CompiledParserRules.MatchResult result) {
+        List<Map<String, Object>> detected = result.clauses().stream()
+                .filter(CompiledParserRules.ClauseMatch::detected)
+                .map(match -> {
+                    Map<String, Object> clause = clauseFields(match);
+                    clause.put("score", Math.round(match.coverage()));
+                    clause.put("found", true);
+                    return clause;
+                })
+                .toList();
+        List<Map<String, Object>> missing = result.clauses().stream()
+                .filter(match -> !match.detected())
+                .map(match -> {
+                    Map<String, Object> clause = clauseFields(match);
+                    clause.put("severity", match.matchedKeywords() == 0 && !match.headingFound() ? "high" : "medium");
+                    clause.put("reason", (match.headingFound() ? "Heading found but only " : "No heading and ")
+                            + match.matchedKeywords() + " of " + match.clause().keywords().size() + " keywords found");
+                    return clause;
+                })
+                .toList();
+        feedback.setDetectedClauses(toJson(detected));
+        feedback.setMissingClauses(toJson(missing));
+    }
+
+    private static Map<String, Object> clauseFields(CompiledParserRules.ClauseMatch match) {
+        Map<String, Object> clause = new LinkedHashMap<>();
+        clause.put("clauseId", match.clause().clauseId());
+        clause.put("clauseName", match.clause().clauseName());
+        return clause;
+    }
+
+    private static ExecutorService newAnalysisExecutor(int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "parser-feedback-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
     }
 
     /**
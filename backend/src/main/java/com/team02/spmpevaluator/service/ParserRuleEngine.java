@@ -0,0 +1,145 @@
+package com.team02.spmpevaluator.service;
+
+import com.team02.spmpevaluator.entity.ParserConfiguration;
+import com.team02.spmpevaluator.repository.ParserConfigurationRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the compiled rules of the default {@link ParserConfiguration} and of any other
+ * configuration a document is parsed with.
+ * <p>
+ * Readers get the current {@link CompiledParserRules} from an atomic reference, so matching never
+ * compiles anything or waits on a lock. The rules are recompiled only after a configuration
+ * change commits, and only when the default configuration (or its update time) actually changed;
+ * the new rules are swapped in atomically. Without a default configuration the built-in IEEE 1058
+ * mappings are used. Other configurations are compiled on first use and cached by id until they
+ * change or are deleted.
+ */
+@Service
+@Slf4j
+public class ParserRuleEngine implements MeterBinder {
+
+    private static final CompiledParserRules BUILT_IN = CompiledParserRules.compile(null, null,
+            ParserConfigurationService.DEFAULT_CLAUSE_MAPPINGS, ParserConfigurationService.DEFAULT_CUSTOM_RULES);
+
+    private final ParserConfigurationRepository parserConfigurationRepository;
+    private final AtomicReference<CompiledParserRules> active = new AtomicReference<>();
+    private final Map<Long, CompiledParserRules> compiledById = new ConcurrentHashMap<>();
+    private final AtomicLong compilations = new AtomicLong();
+
+    public ParserRuleEngine(ParserConfigurationRepository parserConfigurationRepository) {
+        this.parserConfigurationRepository = parserConfigurationRepository;
+    }
+
+    /**
+     * Rules of the default configuration; loaded on first use.
+     */
+    public CompiledParserRules current() {
+        CompiledParserRules rules = active.get();
+        return rules != null ? rules : reload();
+    }
+
+    /**
+     * Rules for a specific configuration. The default configuration is served from the compiled
+     * rules; any other configuration is served from the cache while its id and update time
+     * match, and compiled otherwise. A configuration whose mappings cannot be parsed falls back
+     * to the default rules.
+     */
+    public CompiledParserRules rulesFor(ParserConfiguration configuration) {
+        CompiledParserRules rules = current();
+        if (configuration == null || rules.isCompiledFrom(configuration)) {
+            return rules;
+        }
+        if (configuration.getId() == null) {
+            CompiledParserRules compiled = compileOrNull(configuration);
+            return compiled != null ? compiled : rules;
+        }
+        CompiledParserRules cached = compiledById.get(configuration.getId());
+        if (cached != null && cached.isCompiledFrom(configuration)) {
+            return cached;
+        }
+        CompiledParserRules compiled = compiledById.compute(configuration.getId(), (id, previous) ->
+                previous != null && previous.isCompiledFrom(configuration) ? previous : compileOrNull(configuration));
+        return compiled != null ? compiled : rules;
+    }
+
+    /**
+     * Runs after the change commits so the reload sees it. Falls back to immediate execution
+     * when no transaction is active.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onParserConfigurationChanged(ParserConfigurationChangedEvent event) {
+        log.debug("Parser configuration {} changed, checking the default rules", event.configurationId());
+        compiledById.remove(event.configurationId());
+        reload();
+    }
+
+    /**
+     * Number of rule compilations since startup.
+     */
+    public long getCompilationCount() {
+        return compilations.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("parser.rules.compilations", compilations, AtomicLong::get)
+                .description("Parser configurations compiled into matchers")
+                .register(registry);
+    }
+
+    private CompiledParserRules compileOrNull(ParserConfiguration configuration) {
+        try {
+            compilations.incrementAndGet();
+            return CompiledParserRules.compile(configuration);
+        } catch (IllegalArgumentException e) {
+            log.warn("Parser configuration {} cannot be compiled, using the default rules: {}",
+                    configuration.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Recompiles when the default configuration differs from the compiled one. Synchronized so
+     * concurrent reloads compile once; readers never take the lock.
+     */
+    synchronized CompiledParserRules reload() {
+        CompiledParserRules previous = active.get();
+        Optional<ParserConfiguration> configuration = parserConfigurationRepository.findByIsDefaultTrue();
+
+        if (configuration.isEmpty()) {
+            if (previous != BUILT_IN) {
+                log.info("No default parser configuration, using the built-in IEEE 1058 rules");
+                active.set(BUILT_IN);
+            }
+            return BUILT_IN;
+        }
+        if (previous != null && previous.isCompiledFrom(configuration.get())) {
+            return previous;
+        }
+
+        CompiledParserRules compiled;
+        try {
+            compilations.incrementAndGet();
+            compiled = CompiledParserRules.compile(configuration.get());
+        } catch (IllegalArgumentException e) {
+            log.warn("Default parser configuration {} cannot be compiled, keeping the previous rules: {}",
+                    configuration.get().getId(), e.getMessage());
+            compiled = previous != null ? previous : BUILT_IN;
+        }
+        active.set(compiled);
+        log.info("Active parser rules: {}", compiled);
+        return compiled;
+    }
+}
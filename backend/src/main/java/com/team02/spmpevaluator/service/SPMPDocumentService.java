@@ -10,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -34,6 +35,8 @@ public class SPMPDocumentService {
     private final NotificationService notificationService;
     private final ComplianceHistoryService complianceHistoryService;
     private final com.team02.spmpevaluator.repository.ComplianceScoreHistoryRepository historyRepository;
+    private final DocumentTextCache textCache;
+    private final SectionClassifier sectionClassifier;
     private static final String UPLOAD_DIR = "uploads/documents/";
     private static final long MAX_FILE_SIZE = 50 * 1024 * 1024; // 50MB
 
@@ -149,6 +152,8 @@ public class SPMPDocumentService {
         
         // Delete file from system
         Files.deleteIfExists(Paths.get(document.getFileUrl()));
+        textCache.evict(documentId);
+        sectionClassifier.forget(documentId);
 
         // Delete from database (cascade will handle ComplianceScore and SectionAnalyses)
         repository.delete(document);
@@ -170,21 +175,32 @@ public class SPMPDocumentService {
     /**
      * Gets file content as string (for processing).
      * Uses DocumentParser to properly extract text from PDF/DOCX files.
+     * Runs outside any transaction so parsing a large file never holds a connection.
+     * Extracted text is cached per stored file, so repeat reads skip parsing.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public String getDocumentContent(Long documentId) throws IOException {
         SPMPDocument document = repository.findByIdWithUploadedBy(documentId)
                 .orElseThrow(() -> new IllegalArgumentException("Document not found"));
 
+        Optional<String> cached = textCache.get(document);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
         String filePath = document.getFileUrl();
         String fileName = document.getFileName().toLowerCase();
-        
+        String content;
+
         // Use DocumentParser for PDF and DOCX files
         if (fileName.endsWith(".pdf") || fileName.endsWith(".docx")) {
-            return documentParser.extractTextFromFile(filePath);
+            content = documentParser.extractTextFromFile(filePath);
+        } else {
+            // Fallback to raw read for plain text files
+            content = Files.readString(Paths.get(filePath));
         }
-        
-        // Fallback to raw read for plain text files
-        return Files.readString(Paths.get(filePath));
+        textCache.put(document, content);
+        return content;
     }
 
     /**
@@ -223,6 +239,7 @@ public class SPMPDocumentService {
 
         // Delete old file
         Files.deleteIfExists(Paths.get(existingDoc.getFileUrl()));
+        textCache.evict(documentId);
 
         // Generate unique filename for new file
         String fileName = UUID.randomUUID() + "_" + originalFileName;
@@ -254,7 +271,7 @@ public class SPMPDocumentService {
      * Professors can view all student submissions.
      */
     public List<SPMPDocument> getAllSubmissions(String status, Long studentId) {
-        List<SPMPDocument> allDocs = repository.findAll();
+        List<SPMPDocument> allDocs = repository.findAllWithUploadedBy();
 
         return allDocs.stream()
                 .filter(doc -> {
@@ -0,0 +1,209 @@
+package com.team02.spmpevaluator.service;
+
+import com.team02.spmpevaluator.entity.GradingCriteria;
+import com.team02.spmpevaluator.entity.SectionAnalysis.IEEE1058Section;
+import com.team02.spmpevaluator.util.IEEE1058StandardConstants;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Immutable, precompiled weights used to score an evaluation.
+ * <p>
+ * Section weights are held in an array indexed by {@link IEEE1058Section#ordinal()} and always
+ * sum to 100. {@link #DEFAULT} carries the built-in IEEE 1058 weights; {@link #compile} turns a
+ * professor's {@link GradingCriteria} into a plan by spreading each criteria category over the
+ * sections it covers, in proportion to the default weights of those sections.
+ */
+public final class ScoringPlan {
+
+    private static final IEEE1058Section[] SECTIONS = IEEE1058Section.values();
+
+    private static final Map<IEEE1058Section, Integer> DEFAULT_WEIGHTS = Map.ofEntries(
+            Map.entry(IEEE1058Section.OVERVIEW, 10),
+            Map.entry(IEEE1058Section.DOCUMENTATION_PLAN, 8),
+            Map.entry(IEEE1058Section.MASTER_SCHEDULE, 10),
+            Map.entry(IEEE1058Section.ORGANIZATION, 12),
+            Map.entry(IEEE1058Section.STANDARDS_PRACTICES, 10),
+            Map.entry(IEEE1058Section.RISK_MANAGEMENT, 10),
+            Map.entry(IEEE1058Section.STAFF_ORGANIZATION, 8),
+            Map.entry(IEEE1058Section.BUDGET_RESOURCE, 10),
+            Map.entry(IEEE1058Section.REVIEWS_AUDITS, 7),
+            Map.entry(IEEE1058Section.PROBLEM_RESOLUTION, 5),
+            Map.entry(IEEE1058Section.CHANGE_MANAGEMENT, 5),
+            Map.entry(IEEE1058Section.GLOSSARY_APPENDIX, 5)
+    );
+
+    /**
+     * A GradingCriteria weight and the evaluated sections it covers.
+     */
+    private record Category(Function<GradingCriteria, Integer> weight, List<IEEE1058Section> sections) {}
+
+    private static final List<Category> CATEGORIES = List.of(
+            new Category(GradingCriteria::getOverviewWeight, List.of(IEEE1058Section.OVERVIEW)),
+            new Category(GradingCriteria::getReferencesWeight, List.of(IEEE1058Section.GLOSSARY_APPENDIX)),
+            new Category(GradingCriteria::getDefinitionsWeight, List.of(IEEE1058Section.GLOSSARY_APPENDIX)),
+            new Category(GradingCriteria::getOrganizationWeight,
+                    List.of(IEEE1058Section.ORGANIZATION, IEEE1058Section.STAFF_ORGANIZATION)),
+            new Category(GradingCriteria::getManagerialProcessWeight,
+                    List.of(IEEE1058Section.MASTER_SCHEDULE, IEEE1058Section.BUDGET_RESOURCE)),
+            new Category(GradingCriteria::getTechnicalProcessWeight,
+                    List.of(IEEE1058Section.STANDARDS_PRACTICES)),
+            new Category(GradingCriteria::getSupportingProcessWeight,
+                    List.of(IEEE1058Section.DOCUMENTATION_PLAN, IEEE1058Section.REVIEWS_AUDITS,
+                            IEEE1058Section.PROBLEM_RESOLUTION, IEEE1058Section.CHANGE_MANAGEMENT)),
+            new Category(GradingCriteria::getAdditionalPlansWeight, List.of(IEEE1058Section.RISK_MANAGEMENT))
+    );
+
+    private static final double DEFAULT_COMPLIANCE_THRESHOLD =
+            IEEE1058StandardConstants.MINIMUM_COMPLIANCE_THRESHOLD * 100;
+
+    public static final ScoringPlan DEFAULT = new ScoringPlan(null, null, defaultWeights(),
+            DEFAULT_COMPLIANCE_THRESHOLD);
+
+    private final Long criteriaId;
+    private final LocalDateTime criteriaVersion;
+    private final int[] weights;
+    private final double complianceThreshold;
+
+    private ScoringPlan(Long criteriaId, LocalDateTime criteriaVersion, int[] weights, double complianceThreshold) {
+        this.criteriaId = criteriaId;
+        this.criteriaVersion = criteriaVersion;
+        this.weights = weights;
+        this.complianceThreshold = complianceThreshold;
+    }
+
+    /**
+     * Compiles grading criteria into a plan. Criteria whose weights do not sum to 100 cannot be
+     * scored and fall back to {@link #DEFAULT}.
+     */
+    public static ScoringPlan compile(GradingCriteria criteria) {
+        if (!criteria.isValidWeights()) {
+            return DEFAULT;
+        }
+
+        double[] exact = new double[SECTIONS.length];
+        for (Category category : CATEGORIES) {
+            int categoryWeight = category.weight().apply(criteria);
+            int baseWeight = category.sections().stream().mapToInt(DEFAULT_WEIGHTS::get).sum();
+            for (IEEE1058Section section : category.sections()) {
+                exact[section.ordinal()] += categoryWeight * DEFAULT_WEIGHTS.get(section) / (double) baseWeight;
+            }
+        }
+
+        return new ScoringPlan(criteria.getId(), criteria.getUpdatedAt(), roundToTotal(exact, 100),
+                DEFAULT_COMPLIANCE_THRESHOLD);
+    }
+
+    /**
+     * Id of the compiled criteria, or null for the default plan.
+     */
+    public Long getCriteriaId() {
+        return criteriaId;
+    }
+
+    /**
+     * Last update time of the compiled criteria, or null for the default plan.
+     */
+    public LocalDateTime getCriteriaVersion() {
+        return criteriaVersion;
+    }
+
+    public boolean isDefault() {
+        return criteriaId == null;
+    }
+
+    public int weightOf(IEEE1058Section section) {
+        return weights[section.ordinal()];
+    }
+
+    /**
+     * Copy of the weights, indexed by section ordinal.
+     */
+    public int[] getWeights() {
+        return weights.clone();
+    }
+
+    public double getComplianceThreshold() {
+        return complianceThreshold;
+    }
+
+    /**
+     * Weighted overall score (0-100) for section scores indexed by section ordinal.
+     */
+    public double overallScore(double[] sectionScores) {
+        double total = 0.0;
+        for (int i = 0; i < weights.length; i++) {
+            total += sectionScores[i] * weights[i];
+        }
+        return total / 100.0;
+    }
+
+    /**
+     * Weighted overall scores for a row-major matrix holding one row of section scores (indexed
+     * by section ordinal) per evaluation.
+     */
+    public double[] overallScores(double[] sectionScoreMatrix, int rows) {
+        int stride = weights.length;
+        double[] factors = new double[stride];
+        for (int i = 0; i < stride; i++) {
+            factors[i] = weights[i] / 100.0;
+        }
+
+        double[] scores = new double[rows];
+        for (int row = 0, base = 0; row < rows; row++, base += stride) {
+            double total = 0.0;
+            for (int i = 0; i < stride; i++) {
+                total += sectionScoreMatrix[base + i] * factors[i];
+            }
+            scores[row] = total;
+        }
+        return scores;
+    }
+
+    public boolean isCompliant(double overallScore) {
+        return overallScore >= complianceThreshold;
+    }
+
+    @Override
+    public String toString() {
+        return "ScoringPlan{criteriaId=" + criteriaId + ", weights=" + Arrays.toString(weights) + "}";
+    }
+
+    private static int[] defaultWeights() {
+        int[] weights = new int[SECTIONS.length];
+        for (IEEE1058Section section : SECTIONS) {
+            weights[section.ordinal()] = DEFAULT_WEIGHTS.get(section);
+        }
+        return weights;
+    }
+
+    /**
+     * Largest-remainder rounding, so the integer weights still add up to the criteria total.
+     */
+    private static int[] roundToTotal(double[] exact, int total) {
+        int[] rounded = new int[exact.length];
+        int assigned = 0;
+        for (int i = 0; i < exact.length; i++) {
+            rounded[i] = (int) Math.floor(exact[i]);
+            assigned += rounded[i];
+        }
+        while (assigned < total) {
+            int largest = 0;
+            double largestRemainder = -1.0;
+            for (int i = 0; i < exact.length; i++) {
+                double remainder = exact[i] - rounded[i];
+                if (remainder > largestRemainder) {
+                    largest = i;
+                    largestRemainder = remainder;
+                }
+            }
+            rounded[largest]++;
+            assigned++;
+        }
+        return rounded;
+    }
+}
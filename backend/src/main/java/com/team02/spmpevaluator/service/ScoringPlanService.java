@@ -0,0 +1,128 @@
+package com.team02.spmpevaluator.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.team02.spmpevaluator.entity.SPMPDocument;
+import com.team02.spmpevaluator.entity.User;
+import com.team02.spmpevaluator.repository.GradingCriteriaRepository;
+import com.team02.spmpevaluator.repository.StudentProfessorAssignmentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Resolves the {@link ScoringPlan} for an evaluation: the active grading criteria of the
+ * student's assigned professor, or {@link ScoringPlan#DEFAULT} when there is none.
+ * <p>
+ * Compiled plans are cached per professor and each student's professor is cached per student,
+ * so repeat evaluations run no queries. Entries are evicted as soon as a criteria or assignment
+ * change commits; the TTL only bounds staleness for changes made outside the services.
+ */
+@Service
+@Slf4j
+public class ScoringPlanService implements MeterBinder {
+
+    private final StudentProfessorAssignmentRepository assignmentRepository;
+    private final GradingCriteriaRepository gradingCriteriaRepository;
+    private final Cache<Long, Optional<Long>> professorByStudent;
+    private final Cache<Long, ScoringPlan> planByProfessor;
+
+    public ScoringPlanService(StudentProfessorAssignmentRepository assignmentRepository,
+                              GradingCriteriaRepository gradingCriteriaRepository,
+                              @Value("${app.scoring-plan.cache-max-size:1000}") long maxSize,
+                              @Value("${app.scoring-plan.cache-ttl:PT10M}") Duration ttl) {
+        this.assignmentRepository = assignmentRepository;
+        this.gradingCriteriaRepository = gradingCriteriaRepository;
+        this.professorByStudent = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.planByProfessor = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Plan for scoring a document, based on the professor its uploader is assigned to.
+     */
+    public ScoringPlan planFor(SPMPDocument document) {
+        User student = document.getUploadedBy();
+        return student == null ? ScoringPlan.DEFAULT : planForStudent(student.getId());
+    }
+
+    public ScoringPlan planForStudent(Long studentId) {
+        if (studentId == null) {
+            return ScoringPlan.DEFAULT;
+        }
+        Optional<Long> professorId = load(professorByStudent, studentId,
+                () -> assignmentRepository.findProfessorByStudentId(studentId).map(User::getId));
+        return professorId.map(this::planForProfessor).orElse(ScoringPlan.DEFAULT);
+    }
+
+    public ScoringPlan planForProfessor(Long professorId) {
+        return load(planByProfessor, professorId,
+                () -> gradingCriteriaRepository.findActiveCriteriaByProfessorId(professorId)
+                        .map(ScoringPlan::compile)
+                        .orElse(ScoringPlan.DEFAULT));
+    }
+
+    /**
+     * Runs after the criteria change commits so a concurrent evaluation can't re-cache the old plan.
+     * Falls back to immediate execution when no transaction is active.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGradingCriteriaChanged(GradingCriteriaChangedEvent event) {
+        log.debug("Evicting cached scoring plan for professor {}", event.professorId());
+        planByProfessor.invalidate(event.professorId());
+    }
+
+    /**
+     * A null student id means the affected student is unknown, so every assignment is dropped.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentAssignmentChanged(StudentAssignmentChangedEvent event) {
+        if (event.studentId() == null) {
+            professorByStudent.invalidateAll();
+        } else {
+            professorByStudent.invalidate(event.studentId());
+        }
+    }
+
+    /**
+     * A deleted user drops their assignments; this scans the (bounded) student entries for
+     * students of the user.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        Optional<Long> userId = Optional.ofNullable(event.userId());
+        userId.ifPresent(professorByStudent::invalidate);
+        userId.ifPresent(planByProfessor::invalidate);
+        professorByStudent.asMap().values().removeIf(userId::equals);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        GuavaCacheMetrics.monitor(registry, planByProfessor, "scoringPlans");
+        GuavaCacheMetrics.monitor(registry, professorByStudent, "studentProfessors");
+    }
+
+    private static <K, V> V load(Cache<K, V> cache, K key, Callable<V> loader) {
+        try {
+            return cache.get(key, loader);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to resolve scoring plan", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package com.team02.spmpevaluator.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statistical second opinion on section presence, learned from the documents evaluated so far.
+ * <p>
+ * A document is cut into outline blocks at its numbered headings ("4. Risk Management"), and
+ * each block becomes a sparse TF-IDF vector over hashed word features. Blocks whose heading names
+ * exactly one section train that section's centroid; at evaluation every block goes to the
+ * section whose centroid is the most cosine-similar, if it is similar enough, which catches
+ * sections written under headings the keyword thresholds do not recognize.
+ * <p>
+ * Each document counts once per uploaded input: what it added to the document frequencies and
+ * centroids is kept, so learning a new upload of the same document first takes out the old one
+ * and deleting the document takes it out for good.
+ * After each change the model (idf weights and unit centroids, all in primitive arrays) is
+ * rebuilt and published atomically, so classification reads one snapshot without locking and
+ * allocates nothing: the block vector is counted in per-thread scratch arrays. The model lives in
+ * memory and is learned again after a restart; it only classifies once
+ * {@code app.section-classifier.min-documents} documents are in.
+ */
+@Service
+public class SectionClassifier implements MeterBinder {
+
+    /**
+     * Hashed word features; collisions merge rare words and cost little accuracy.
+     */
+    static final int FEATURES = 1 << 16;
+
+    private static final int SECTIONS = EvaluationContext.SECTIONS;
+    private static final int MIN_WORD_LENGTH = 3;
+    // Distinct words a block needs before it is learned from or classified
+    private static final int MIN_BLOCK_WORDS = 5;
+    private static final int MAX_HEADING_LENGTH = 120;
+    private static final int FNV_OFFSET = 0x811c9dc5;
+    private static final int FNV_PRIME = 0x01000193;
+
+    private final boolean enabled;
+    private final int minDocuments;
+    private final double minSimilarity;
+
+    // Training state, guarded by this
+    private final int[] documentFrequency = new int[FEATURES];
+    // Per section: sum of the length-normalized sublinear term frequencies of its blocks
+    private final float[][] centroidSums = new float[SECTIONS][];
+    private final int[] sectionBlocks = new int[SECTIONS];
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+
+    private volatile Model model = Model.EMPTY;
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    public SectionClassifier(@Value("${app.section-classifier.enabled:false}") boolean enabled,
+                             @Value("${app.section-classifier.min-documents:20}") int minDocuments,
+                             @Value("${app.section-classifier.min-similarity:0.3}") double minSimilarity) {
+        this.enabled = enabled;
+        this.minDocuments = minDocuments;
+        this.minSimilarity = minSimilarity;
+    }
+
+    /**
+     * Counts the context's outline blocks per section in {@link EvaluationContext#classifiedBlocks}.
+     * Does nothing while disabled or not trained on enough documents.
+     */
+    void classify(EvaluationContext context) {
+        Model current = model;
+        if (!enabled || !current.ready) {
+            return;
+        }
+        Scratch words = scratch.get();
+        for (int first = 0; first < context.lineCount(); ) {
+            int next = nextBlock(context, first);
+            countWords(context, first, next, words);
+            if (words.featureCount >= MIN_BLOCK_WORDS) {
+                int section = current.nearest(words, minSimilarity);
+                if (section >= 0) {
+                    context.classifiedBlocks[section]++;
+                }
+            }
+            first = next;
+        }
+    }
+
+    /**
+     * Whether {@link #learn} would change the model for this input of the document: false while
+     * disabled or once the same input has been learned.
+     */
+    synchronized boolean needsLearning(Long documentId, String inputVersion) {
+        Contribution learned = contributions.get(documentId);
+        return enabled && (learned == null || !learned.inputVersion().equals(inputVersion));
+    }
+
+    /**
+     * What the context's document would teach the model, taken while the context of its
+     * evaluation is still open so learning needs no second pass over the text. Null while
+     * disabled.
+     *
+     * @param titleTerms per section ordinal, the fixed term of the context holding the section title
+     */
+    Sample sample(EvaluationContext context, int[] titleTerms) {
+        return enabled ? sample(context, titleTerms, scratch.get()) : null;
+    }
+
+    /**
+     * Adds the sample's document to the idf statistics and its titled blocks to the centroids of
+     * their sections, replacing what an earlier input of the same document added, then publishes
+     * the rebuilt model. Learning the same input again changes nothing.
+     */
+    synchronized void learn(Long documentId, String inputVersion, Sample sample) {
+        if (sample == null || !needsLearning(documentId, inputVersion)) {
+            return;
+        }
+        Contribution previous = contributions.put(documentId, new Contribution(inputVersion, sample));
+        if (previous != null) {
+            apply(previous.sample(), -1);
+        }
+        apply(sample, 1);
+        model = buildModel();
+    }
+
+    /**
+     * Takes out everything the document taught, for when it is deleted.
+     */
+    public synchronized void forget(Long documentId) {
+        Contribution previous = contributions.remove(documentId);
+        if (previous != null) {
+            apply(previous.sample(), -1);
+            model = buildModel();
+        }
+    }
+
+    int documents() {
+        return model.documents;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("section.classifier.documents", this, SectionClassifier::documents)
+                .description("Evaluated documents the section classifier has learned from")
+                .register(registry);
+    }
+
+    /**
+     * First line of the block after the one starting at {@code first}, or the line count.
+     */
+    private static int nextBlock(EvaluationContext context, int first) {
+        int next = first + 1;
+        while (next < context.lineCount() && !isHeading(context, next)) {
+            next++;
+        }
+        return next;
+    }
+
+    private static boolean isHeading(EvaluationContext context, int line) {
+        return context.hasFlag(line, EvaluationContext.NUMBERED_TITLE)
+                && context.trimmedLength(line) <= MAX_HEADING_LENGTH;
+    }
+
+    /**
+     * The one section whose title the block's heading holds, or -1.
+     */
+    private static int label(EvaluationContext context, int first, int[] titleTerms) {
+        if (!isHeading(context, first)) {
+            return -1;
+        }
+        int section = -1;
+        for (int s = 0; s < SECTIONS; s++) {
+            if (context.lineHasTerm(first, titleTerms[s])) {
+                if (section >= 0) {
+                    return -1;
+                }
+                section = s;
+            }
+        }
+        return section;
+    }
+
+    /**
+     * Counts the hashed words of at least {@value #MIN_WORD_LENGTH} letters in lines
+     * {@code [first, next)}, case-insensitively.
+     */
+    private static void countWords(EvaluationContext context, int first, int next, Scratch words) {
+        words.clear();
+        int end = context.lineEnd(next - 1);
+        int hash = FNV_OFFSET;
+        int length = 0;
+        for (int i = context.lineStart(first); i <= end; i++) {
+            char c = i < end ? context.charAt(i) : ' ';
+            if (Character.isLetter(c)) {
+                hash = (hash ^ Character.toLowerCase(c)) * FNV_PRIME;
+                length++;
+            } else {
+                if (length >= MIN_WORD_LENGTH) {
+                    words.add((hash ^ hash >>> 16) & (FEATURES - 1));
+                }
+                hash = FNV_OFFSET;
+                length = 0;
+            }
+        }
+    }
+
+    /**
+     * The document's distinct features and the centroid weights of its titled blocks.
+     */
+    private static Sample sample(EvaluationContext context, int[] titleTerms, Scratch words) {
+        // Learning happens once per upload, so a fresh marker per document is cheap enough
+        boolean[] seen = new boolean[FEATURES];
+        int[] features = new int[256];
+        int featureCount = 0;
+        List<Integer> blockSections = new ArrayList<>();
+        List<int[]> blockFeatures = new ArrayList<>();
+        List<float[]> blockWeights = new ArrayList<>();
+        for (int first = 0; first < context.lineCount(); ) {
+            int next = nextBlock(context, first);
+            countWords(context, first, next, words);
+            for (int k = 0; k < words.featureCount; k++) {
+                int feature = words.features[k];
+                if (!seen[feature]) {
+                    seen[feature] = true;
+                    if (featureCount == features.length) {
+                        features = Arrays.copyOf(features, featureCount * 2);
+                    }
+                    features[featureCount++] = feature;
+                }
+            }
+            int section = label(context, first, titleTerms);
+            if (section >= 0 && words.featureCount >= MIN_BLOCK_WORDS) {
+                blockSections.add(section);
+                blockFeatures.add(Arrays.copyOf(words.features, words.featureCount));
+                blockWeights.add(centroidWeights(words));
+            }
+            first = next;
+        }
+        return new Sample(Arrays.copyOf(features, featureCount),
+                blockSections.stream().mapToInt(Integer::intValue).toArray(),
+                blockFeatures.toArray(int[][]::new), blockWeights.toArray(float[][]::new));
+    }
+
+    /**
+     * The block's length-normalized sublinear term frequencies, in the order of its features.
+     * Normalized without idf, which is applied when the model is built and keeps changing.
+     */
+    private static float[] centroidWeights(Scratch words) {
+        double norm = 0.0;
+        for (int k = 0; k < words.featureCount; k++) {
+            double tf = 1.0 + Math.log(words.counts[words.features[k]]);
+            norm += tf * tf;
+        }
+        norm = Math.sqrt(norm);
+        float[] weights = new float[words.featureCount];
+        for (int k = 0; k < words.featureCount; k++) {
+            weights[k] = (float) ((1.0 + Math.log(words.counts[words.features[k]])) / norm);
+        }
+        return weights;
+    }
+
+    /**
+     * Adds ({@code sign} 1) or takes out (-1) a document's sample.
+     */
+    private void apply(Sample sample, int sign) {
+        for (int feature : sample.features()) {
+            documentFrequency[feature] += sign;
+        }
+        for (int b = 0; b < sample.blockSections().length; b++) {
+            int section = sample.blockSections()[b];
+            if (centroidSums[section] == null) {
+                centroidSums[section] = new float[FEATURES];
+            }
+            float[] sums = centroidSums[section];
+            int[] features = sample.blockFeatures()[b];
+            float[] weights = sample.blockWeights()[b];
+            for (int k = 0; k < features.length; k++) {
+                sums[features[k]] += sign * weights[k];
+            }
+            sectionBlocks[section] += sign;
+            if (sectionBlocks[section] == 0) {
+                // Drops the rounding left over from subtracting
+                centroidSums[section] = null;
+            }
+        }
+    }
+
+    private Model buildModel() {
+        int documents = contributions.size();
+        float[] idf = new float[FEATURES];
+        int[] featureRow = new int[FEATURES];
+        int rows = 0;
+        for (int f = 0; f < FEATURES; f++) {
+            idf[f] = (float) (Math.log((1.0 + documents) / (1.0 + documentFrequency[f])) + 1.0);
+            featureRow[f] = -1;
+            for (float[] sums : centroidSums) {
+                if (sums != null && sums[f] != 0.0f) {
+                    featureRow[f] = rows++;
+                    break;
+                }
+            }
+        }
+
+        float[] weights = new float[rows * SECTIONS];
+        double[] norms = new double[SECTIONS];
+        for (int f = 0; f < FEATURES; f++) {
+            int row = featureRow[f];
+            if (row < 0) {
+                continue;
+            }
+            for (int s = 0; s < SECTIONS; s++) {
+                if (centroidSums[s] != null) {
+                    float weight = centroidSums[s][f] * idf[f];
+                    weights[row * SECTIONS + s] = weight;
+                    norms[s] += (double) weight * weight;
+                }
+            }
+        }
+        for (int i = 0; i < weights.length; i++) {
+            double norm = norms[i % SECTIONS];
+            if (norm > 0.0) {
+                weights[i] = (float) (weights[i] / Math.sqrt(norm));
+            }
+        }
+
+        boolean trained = Arrays.stream(sectionBlocks).anyMatch(blocks -> blocks > 0);
+        return new Model(documents >= minDocuments && trained, documents, idf, featureRow, weights);
+    }
+
+    /**
+     * What one document adds: its distinct features to the document frequencies, and per titled
+     * block the section and the weights added to its centroid.
+     */
+    record Sample(int[] features, int[] blockSections, int[][] blockFeatures, float[][] blockWeights) {}
+
+    /**
+     * The sample learned for a document, and the input it came from.
+     */
+    private record Contribution(String inputVersion, Sample sample) {}
+
+    /**
+     * Immutable snapshot: idf per feature, and per feature found in some centroid a row holding
+     * its weight in each unit-length section centroid.
+     */
+    private record Model(boolean ready, int documents, float[] idf, int[] featureRow, float[] weights) {
+
+        static final Model EMPTY = new Model(false, 0, new float[0], new int[0], new float[0]);
+
+        /**
+         * Section of the most similar centroid, or -1 if its cosine similarity is below {@code minSimilarity}.
+         */
+        int nearest(Scratch words, double minSimilarity) {
+            double[] dots = words.dots;
+            Arrays.fill(dots, 0.0);
+            double norm = 0.0;
+            for (int k = 0; k < words.featureCount; k++) {
+                int feature = words.features[k];
+                double weight = (1.0 + Math.log(words.counts[feature])) * idf[feature];
+                norm += weight * weight;
+                int row = featureRow[feature];
+                if (row >= 0) {
+                    int base = row * SECTIONS;
+                    for (int s = 0; s < SECTIONS; s++) {
+                        dots[s] += weight * weights[base + s];
+                    }
+                }
+            }
+            int best = 0;
+            for (int s = 1; s < SECTIONS; s++) {
+                if (dots[s] > dots[best]) {
+                    best = s;
+                }
+            }
+            return norm > 0.0 && dots[best] / Math.sqrt(norm) >= minSimilarity ? best : -1;
+        }
+    }
+
+    /**
+     * Per-thread term counts of one block: a dense count per feature plus the list of features
+     * counted, so clearing touches only those.
+     */
+    private static final class Scratch {
+        final int[] counts = new int[FEATURES];
+        int[] features = new int[256];
+        int featureCount;
+        final double[] dots = new double[SECTIONS];
+
+        void add(int feature) {
+            if (counts[feature]++ == 0) {
+                if (featureCount == features.length) {
+                    features = Arrays.copyOf(features, featureCount * 2);
+                }
+                features[featureCount++] = feature;
+            }
+        }
+
+        void clear() {
+            for (int k = 0; k < featureCount; k++) {
+                counts[features[k]] = 0;
+            }
+            featureCount = 0;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.team02.spmpevaluator.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Incremental parser for the batched section enrichment reply,
+ * {@code {"SECTION_ID": {"findings": "...", "recommendations": "..."}}}, fed one streamed
+ * text delta at a time. Findings and recommendations text is reported to the listener while it
+ * is still being generated, so callers can show feedback before the reply is complete.
+ * <p>
+ * Text before the first {@code '{'} (prose, markdown code fences) is ignored. The final reply
+ * should still be parsed with a full JSON parser; this class only drives early delivery.
+ * Not thread-safe: feed deltas from one thread.
+ */
+public class StreamingFindingsParser {
+
+    public static final String FINDINGS = "findings";
+    public static final String RECOMMENDATIONS = "recommendations";
+
+    private static final Set<String> STREAMED_FIELDS = Set.of(FINDINGS, RECOMMENDATIONS);
+
+    /**
+     * Receives field text as it is parsed.
+     */
+    public interface Listener {
+
+        /**
+         * Called with the text parsed so far each time a field grows, at most once per delta.
+         */
+        void onPartial(String section, String field, String textSoFar);
+
+        /**
+         * Called once when a field's closing quote has been read.
+         */
+        default void onFieldComplete(String section, String field, String text) {
+        }
+    }
+
+    private final Listener listener;
+    private final Map<String, Map<String, String>> completed = new LinkedHashMap<>();
+
+    private boolean started;
+    private boolean finished;
+    private int depth;
+    private boolean expectKey;
+    private boolean inString;
+    private boolean stringIsKey;
+    private boolean escape;
+    private int unicodeDigitsLeft;
+    private int unicodeValue;
+    private final StringBuilder current = new StringBuilder();
+
+    private String section;
+    private String field;
+    private boolean dirty;
+
+    public StreamingFindingsParser(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Consume the next chunk of the reply.
+     */
+    public void feed(CharSequence delta) {
+        for (int i = 0; i < delta.length() && !finished; i++) {
+            char c = delta.charAt(i);
+            if (!started) {
+                if (c == '{') {
+                    started = true;
+                    depth = 1;
+                    expectKey = true;
+                }
+                continue;
+            }
+            if (inString) {
+                readStringChar(c);
+            } else {
+                readStructureChar(c);
+            }
+        }
+        flushPartial();
+    }
+
+    /**
+     * Fields whose value has been fully read, by section id.
+     */
+    public Map<String, Map<String, String>> completedFields() {
+        return Collections.unmodifiableMap(completed);
+    }
+
+    /**
+     * Whether the outermost object has been closed.
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    private void readStructureChar(char c) {
+        switch (c) {
+            case '{' -> {
+                depth++;
+                expectKey = true;
+            }
+            case '}' -> {
+                depth--;
+                if (depth == 1) {
+                    section = null;
+                }
+                if (depth == 0) {
+                    finished = true;
+                }
+            }
+            case ',' -> expectKey = true;
+            case ':' -> expectKey = false;
+            case '"' -> {
+                inString = true;
+                stringIsKey = expectKey;
+                current.setLength(0);
+            }
+            default -> {
+                // Whitespace, numbers, literals and arrays carry nothing we stream
+            }
+        }
+    }
+
+    private void readStringChar(char c) {
+        if (unicodeDigitsLeft > 0) {
+            int digit = Character.digit(c, 16);
+            unicodeValue = (unicodeValue << 4) | Math.max(digit, 0);
+            if (--unicodeDigitsLeft == 0) {
+                append((char) unicodeValue);
+            }
+            return;
+        }
+        if (escape) {
+            escape = false;
+            switch (c) {
+                case 'n' -> append('\n');
+                case 't' -> append('\t');
+                case 'r' -> append('\r');
+                case 'b' -> append('\b');
+                case 'f' -> append('\f');
+                case 'u' -> {
+                    unicodeDigitsLeft = 4;
+                    unicodeValue = 0;
+                }
+                default -> append(c);
+            }
+            return;
+        }
+        if (c == '\\') {
+            escape = true;
+        } else if (c == '"') {
+            closeString();
+        } else {
+            append(c);
+        }
+    }
+
+    private void append(char c) {
+        current.append(c);
+        if (!stringIsKey && isStreamedField()) {
+            dirty = true;
+        }
+    }
+
+    private void closeString() {
+        inString = false;
+        String text = current.toString();
+        if (stringIsKey) {
+            if (depth == 1) {
+                section = text;
+            } else if (depth == 2) {
+                field = text.toLowerCase(Locale.ROOT);
+            }
+            return;
+        }
+        if (isStreamedField()) {
+            flushPartial();
+            completed.computeIfAbsent(section, key -> new LinkedHashMap<>()).put(field, text);
+            listener.onFieldComplete(section, field, text);
+        }
+        field = null;
+    }
+
+    private boolean isStreamedField() {
+        return depth == 2 && section != null && field != null && STREAMED_FIELDS.contains(field);
+    }
+
+    private void flushPartial() {
+        if (dirty) {
+            dirty = false;
+            listener.onPartial(section, field, current.toString());
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.team02.spmpevaluator.service;
+
+/**
+ * Published by {@link AssignmentService} when a student is assigned to or removed from a professor,
+ * so the student's cached professor (and with it the {@link ScoringPlan} used) can be dropped.
+ */
+public record StudentAssignmentChangedEvent(Long studentId) {
+}
@@ -91,6 +91,23 @@ public class SystemSettingService {
         return Integer.parseInt(value);
     }
 
+    /**
+     * Integer setting, or the default when the setting is missing or not a number.
+     */
+    @Transactional(readOnly = true)
+    public int getIntegerSetting(String key, int defaultValue) {
+        return settingRepository.findBySettingKey(key)
+                .map(SystemSetting::getSettingValue)
+                .map(value -> {
+                    try {
+                        return Integer.parseInt(value.trim());
+                    } catch (NumberFormatException e) {
+                        return defaultValue;
+                    }
+                })
+                .orElse(defaultValue);
+    }
+
     public String getStringSetting(String key) {
         return getSettingByKey(key).getSettingValue();
     }
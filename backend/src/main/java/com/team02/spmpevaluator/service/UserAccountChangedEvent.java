@@ -0,0 +1,8 @@
+package com.team02.spmpevaluator.service;
+
+/**
+ * Published by {@link UserService} whenever a change to a user account can affect authentication
+ * (status, password, role or deletion), so cached security state for that user can be dropped.
+ */
+public record UserAccountChangedEvent(Long userId) {
+}
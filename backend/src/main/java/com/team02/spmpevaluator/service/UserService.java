@@ -6,6 +6,7 @@ import com.team02.spmpevaluator.entity.Role;
 import com.team02.spmpevaluator.entity.User;
 import com.team02.spmpevaluator.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -34,6 +35,7 @@ public class UserService {
     private final StudentProfessorAssignmentRepository assignmentRepository;
     private final JavaMailSender mailSender;
     private final PasswordResetTokenRepository tokenRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${spring.mail.username}")
     private String fromEmail;
@@ -102,7 +104,9 @@ public class UserService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
         user.setFirstName(firstName);
         user.setLastName(lastName);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(id));
+        return saved;
     }
 
     /**
@@ -113,7 +117,9 @@ public class UserService {
             throw new IllegalArgumentException("User not found with id: " + user.getId());
         }
         user.setUpdatedAt(LocalDateTime.now());
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(user.getId()));
+        return saved;
     }
 
     /**
@@ -129,6 +135,7 @@ public class UserService {
 
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(userId));
     }
 
     /**
@@ -172,6 +179,7 @@ public class UserService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
         user.setEnabled(enabled);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(userId));
     }
 
     /**
@@ -197,6 +205,7 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(userId));
     }
 
     /**
@@ -228,6 +237,7 @@ public class UserService {
         
         // 6. Finally delete the user
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(id));
     }
 
     // ============= FORGOT PASSWORD FUNCTIONALITY =============
@@ -289,6 +299,7 @@ public class UserService {
         User user = resetToken.getUser();
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(user.getId()));
 
         // Delete the token so it can't be used again
         tokenRepository.delete(resetToken);
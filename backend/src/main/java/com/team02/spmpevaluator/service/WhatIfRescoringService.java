@@ -0,0 +1,273 @@
+package com.team02.spmpevaluator.service;
+
+import com.team02.spmpevaluator.dto.GradingCriteriaDTO;
+import com.team02.spmpevaluator.dto.SectionScoreRowDTO;
+import com.team02.spmpevaluator.dto.WhatIfRescoringDTO;
+import com.team02.spmpevaluator.entity.ComplianceScore;
+import com.team02.spmpevaluator.entity.GradingCriteria;
+import com.team02.spmpevaluator.entity.SectionAnalysis.IEEE1058Section;
+import com.team02.spmpevaluator.repository.ComplianceScoreRepository;
+import com.team02.spmpevaluator.repository.SectionAnalysisRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Previews candidate section weights against a professor's evaluated documents.
+ * <p>
+ * Stored section scores are loaded in one projection query into a score matrix, so rescoring
+ * a whole cohort is a single pass over primitive arrays with no re-parsing or AI calls. When
+ * committed, the candidate is saved as the professor's active grading criteria, the scores being
+ * replaced are archived in one batched insert, and the new overall scores and section weights are
+ * written back as batched updates guarded by the score version, all in one transaction. Scores
+ * re-evaluated in the meantime are left alone.
+ */
+@Service
+@Slf4j
+public class WhatIfRescoringService {
+
+    private static final IEEE1058Section[] SECTIONS = IEEE1058Section.values();
+    private static final int DISTRIBUTION_BUCKETS = 10;
+    private static final String HISTORY_SOURCE = "WHAT_IF_RESCORE";
+
+    private static final String UPDATE_SCORE_SQL =
+            "UPDATE compliance_scores SET overall_score = ?, is_compliant = ?, version = version + 1 " +
+            "WHERE id = ? AND version = ?";
+    private static final String UPDATE_SECTION_WEIGHT_SQL =
+            "UPDATE section_analyses SET section_weight = ? WHERE compliance_score_id = ? AND section_name = ?";
+
+    private final SectionAnalysisRepository sectionAnalysisRepository;
+    private final ComplianceScoreRepository complianceScoreRepository;
+    private final GradingCriteriaService gradingCriteriaService;
+    private final ComplianceHistoryService complianceHistoryService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate writeTransaction;
+
+    public WhatIfRescoringService(SectionAnalysisRepository sectionAnalysisRepository,
+                                  ComplianceScoreRepository complianceScoreRepository,
+                                  GradingCriteriaService gradingCriteriaService,
+                                  ComplianceHistoryService complianceHistoryService,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager) {
+        this.sectionAnalysisRepository = sectionAnalysisRepository;
+        this.complianceScoreRepository = complianceScoreRepository;
+        this.gradingCriteriaService = gradingCriteriaService;
+        this.complianceHistoryService = complianceHistoryService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Rescores every evaluated document of the professor's students with the candidate weights.
+     *
+     * @param professorId professor whose students' documents are rescored
+     * @param candidate   candidate weights (must sum to 100); to commit, a name, and the id when
+     *                    the professor's existing criteria should be updated rather than a new one created
+     * @param commit      save and activate the candidate and write the new scores back instead of
+     *                    only previewing them
+     */
+    public WhatIfRescoringDTO rescore(Long professorId, GradingCriteriaDTO candidate, boolean commit) {
+        GradingCriteria criteria = toCriteria(candidate);
+        List<Integer> weights = Arrays.asList(criteria.getOverviewWeight(), criteria.getReferencesWeight(),
+                criteria.getDefinitionsWeight(), criteria.getOrganizationWeight(),
+                criteria.getManagerialProcessWeight(), criteria.getTechnicalProcessWeight(),
+                criteria.getSupportingProcessWeight(), criteria.getAdditionalPlansWeight());
+        if (weights.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("All section weights are required");
+        }
+        if (weights.stream().anyMatch(weight -> weight < 0)) {
+            throw new IllegalArgumentException("Weight must be at least 0");
+        }
+        if (!criteria.isValidWeights()) {
+            throw new IllegalArgumentException("Section weights must sum to 100. Current total: " + criteria.getTotalWeight());
+        }
+        if (commit && (candidate.getName() == null || candidate.getName().isBlank())) {
+            throw new IllegalArgumentException("A name is required to save the candidate weights");
+        }
+        long started = System.nanoTime();
+
+        ScoreMatrix matrix = ScoreMatrix.of(sectionAnalysisRepository.findSectionScoresByProfessorId(professorId));
+        ScoringPlan plan = ScoringPlan.compile(criteria);
+        double[] newScores = plan.overallScores(matrix.sectionScores, matrix.rows);
+
+        WhatIfRescoringDTO result = summarize(matrix, newScores, plan);
+        if (commit && matrix.rows > 0) {
+            int updated = commit(professorId, candidate, matrix, newScores, plan, result);
+            result.setCommitted(true);
+            result.setUpdated(updated);
+            result.setSkippedStale(matrix.rows - updated);
+            log.info("Committed rescoring for professor {}: {} updated, {} skipped as stale",
+                    professorId, updated, matrix.rows - updated);
+        }
+
+        result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return result;
+    }
+
+    private WhatIfRescoringDTO summarize(ScoreMatrix matrix, double[] newScores, ScoringPlan plan) {
+        WhatIfRescoringDTO result = new WhatIfRescoringDTO();
+        List<WhatIfRescoringDTO.DocumentScore> documents = new ArrayList<>(matrix.rows);
+        int[] distribution = new int[DISTRIBUTION_BUCKETS];
+        int becameCompliant = 0;
+        int becameNonCompliant = 0;
+        double total = 0.0;
+
+        for (int row = 0; row < matrix.rows; row++) {
+            double score = newScores[row];
+            boolean compliant = plan.isCompliant(score);
+            if (compliant && !matrix.compliant[row]) {
+                becameCompliant++;
+            } else if (!compliant && matrix.compliant[row]) {
+                becameNonCompliant++;
+            }
+            distribution[Math.max(0, Math.min(DISTRIBUTION_BUCKETS - 1, (int) (score / 10)))]++;
+            total += score;
+            documents.add(new WhatIfRescoringDTO.DocumentScore(matrix.documentIds[row], matrix.fileNames[row],
+                    matrix.currentScores[row], score, matrix.compliant[row], compliant));
+        }
+
+        result.setDocumentsScored(matrix.rows);
+        result.setBecameCompliant(becameCompliant);
+        result.setBecameNonCompliant(becameNonCompliant);
+        result.setDistribution(distribution);
+        result.setDocuments(documents);
+        if (matrix.rows > 0) {
+            double[] sorted = newScores.clone();
+            Arrays.sort(sorted);
+            int middle = sorted.length / 2;
+            result.setAverageScore(total / matrix.rows);
+            result.setMedianScore(sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2);
+            result.setMinScore(sorted[0]);
+            result.setMaxScore(sorted[sorted.length - 1]);
+        }
+        return result;
+    }
+
+    /**
+     * Saves and activates the candidate criteria, archives the scores being replaced and writes the
+     * new scores, all in one transaction; returns how many scores were still current.
+     */
+    private int commit(Long professorId, GradingCriteriaDTO candidate, ScoreMatrix matrix, double[] newScores,
+                       ScoringPlan plan, WhatIfRescoringDTO result) {
+        Integer updated = writeTransaction.execute(status -> {
+            candidate.setActive(true);
+            GradingCriteriaDTO saved = candidate.getId() != null
+                    ? gradingCriteriaService.updateGradingCriteria(candidate.getId(), candidate, professorId)
+                    : gradingCriteriaService.createGradingCriteria(candidate, professorId);
+            result.setCriteriaId(saved.getId());
+
+            // Loaded before the update, so the entities still hold the scores being replaced
+            Map<Long, ComplianceScore> previous = complianceScoreRepository
+                    .findAllById(Arrays.stream(matrix.scoreIds).boxed().toList()).stream()
+                    .collect(Collectors.toMap(ComplianceScore::getId, Function.identity()));
+
+            List<Object[]> scoreUpdates = new ArrayList<>(matrix.rows);
+            for (int row = 0; row < matrix.rows; row++) {
+                scoreUpdates.add(new Object[]{newScores[row], plan.isCompliant(newScores[row]),
+                        matrix.scoreIds[row], matrix.versions[row]});
+            }
+            int[] counts = jdbcTemplate.batchUpdate(UPDATE_SCORE_SQL, scoreUpdates);
+
+            List<ComplianceScore> replaced = new ArrayList<>(matrix.rows);
+            List<Object[]> weightUpdates = new ArrayList<>();
+            for (int row = 0; row < matrix.rows; row++) {
+                // 0 means the version moved on; drivers may report success without a row count
+                if (counts[row] == 0) {
+                    continue;
+                }
+                replaced.add(previous.get(matrix.scoreIds[row]));
+                for (IEEE1058Section section : SECTIONS) {
+                    weightUpdates.add(new Object[]{plan.weightOf(section), matrix.scoreIds[row], section.name()});
+                }
+            }
+            if (!weightUpdates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_SECTION_WEIGHT_SQL, weightUpdates);
+            }
+            complianceHistoryService.archiveScores(replaced, HISTORY_SOURCE, professorId);
+            return replaced.size();
+        });
+        return updated == null ? 0 : updated;
+    }
+
+    private static GradingCriteria toCriteria(GradingCriteriaDTO dto) {
+        GradingCriteria criteria = new GradingCriteria();
+        criteria.setOverviewWeight(dto.getOverviewWeight());
+        criteria.setReferencesWeight(dto.getReferencesWeight());
+        criteria.setDefinitionsWeight(dto.getDefinitionsWeight());
+        criteria.setOrganizationWeight(dto.getOrganizationWeight());
+        criteria.setManagerialProcessWeight(dto.getManagerialProcessWeight());
+        criteria.setTechnicalProcessWeight(dto.getTechnicalProcessWeight());
+        criteria.setSupportingProcessWeight(dto.getSupportingProcessWeight());
+        criteria.setAdditionalPlansWeight(dto.getAdditionalPlansWeight());
+        return criteria;
+    }
+
+    /**
+     * Compact, row-per-evaluation view of the projection rows. Section scores are stored row-major
+     * with one column per section ordinal; sections without a stored score count as 0.
+     */
+    private static final class ScoreMatrix {
+        private final int rows;
+        private final long[] scoreIds;
+        private final Long[] versions;
+        private final Long[] documentIds;
+        private final String[] fileNames;
+        private final double[] currentScores;
+        private final boolean[] compliant;
+        private final double[] sectionScores;
+
+        private ScoreMatrix(int rows) {
+            this.rows = rows;
+            this.scoreIds = new long[rows];
+            this.versions = new Long[rows];
+            this.documentIds = new Long[rows];
+            this.fileNames = new String[rows];
+            this.currentScores = new double[rows];
+            this.compliant = new boolean[rows];
+            this.sectionScores = new double[rows * SECTIONS.length];
+        }
+
+        static ScoreMatrix of(List<SectionScoreRowDTO> sectionRows) {
+            int rows = 0;
+            Long previous = null;
+            for (SectionScoreRowDTO sectionRow : sectionRows) {
+                if (!sectionRow.getScoreId().equals(previous)) {
+                    rows++;
+                    previous = sectionRow.getScoreId();
+                }
+            }
+
+            ScoreMatrix matrix = new ScoreMatrix(rows);
+            int row = -1;
+            previous = null;
+            for (SectionScoreRowDTO sectionRow : sectionRows) {
+                if (!sectionRow.getScoreId().equals(previous)) {
+                    row++;
+                    previous = sectionRow.getScoreId();
+                    matrix.scoreIds[row] = sectionRow.getScoreId();
+                    matrix.versions[row] = sectionRow.getVersion();
+                    matrix.documentIds[row] = sectionRow.getDocumentId();
+                    matrix.fileNames[row] = sectionRow.getFileName();
+                    matrix.currentScores[row] = sectionRow.getOverallScore() == null ? 0.0 : sectionRow.getOverallScore();
+                    matrix.compliant[row] = sectionRow.isCompliant();
+                }
+                if (sectionRow.getSectionScore() != null) {
+                    matrix.sectionScores[row * SECTIONS.length + sectionRow.getSection().ordinal()] =
+                            sectionRow.getSectionScore();
+                }
+            }
+            return matrix;
+        }
+    }
+}
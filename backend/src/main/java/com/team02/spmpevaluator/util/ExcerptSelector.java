@@ -0,0 +1,290 @@
+package com.team02.spmpevaluator.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Selects the most relevant parts of a document for an AI prompt within a token budget.
+ * The document is split into paragraph chunks, each chunk is scored against a set of
+ * terms (section keywords, subclause keywords), and the best chunks are packed into the
+ * budget and returned in document order. Tokens are estimated at four characters each.
+ */
+public final class ExcerptSelector {
+
+    /** Approximate characters per token for English prose. */
+    public static final int CHARS_PER_TOKEN = 4;
+
+    /** Paragraphs longer than this are split at line or sentence boundaries. */
+    static final int MAX_CHUNK_CHARS = 800;
+
+    static final String GAP_MARKER = "\n...\n";
+
+    private ExcerptSelector() {
+    }
+
+    record Chunk(int index, int start, int end, double score) {}
+
+    /** A term with its word count, which weighs its hits. */
+    record Term(String text, int words) {
+
+        static Term of(String folded) {
+            return new Term(folded, folded.split("\\s+").length);
+        }
+    }
+
+    /**
+     * Estimate the token count of a piece of text.
+     */
+    public static int estimateTokens(CharSequence text) {
+        return text == null ? 0 : (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    /**
+     * Return the highest-scoring chunks of the document that fit into the token budget,
+     * in their original order. Documents that already fit are returned unchanged; if no
+     * chunk matches any term, the start of the document is used instead.
+     *
+     * @param document    full document text
+     * @param terms       keywords or phrases that mark relevant content
+     * @param tokenBudget maximum estimated tokens of the returned excerpt
+     */
+    public static String select(String document, Collection<String> terms, int tokenBudget) {
+        if (document == null || document.isBlank() || tokenBudget <= 0) {
+            return "";
+        }
+        if (estimateTokens(document) <= tokenBudget) {
+            return document.trim();
+        }
+        return selectChunks(document, FoldedText.of(document), terms, tokenBudget);
+    }
+
+    /**
+     * Same as {@link #select(String, Collection, int)} for a document that was already folded,
+     * so the excerpts of all sections of one document share a single folded copy.
+     *
+     * @param folded {@code FoldedText.of(document)}
+     */
+    public static String select(String document, FoldedText folded, Collection<String> terms, int tokenBudget) {
+        if (document == null || document.isBlank() || tokenBudget <= 0) {
+            return "";
+        }
+        if (estimateTokens(document) <= tokenBudget) {
+            return document.trim();
+        }
+        return selectChunks(document, folded, terms, tokenBudget);
+    }
+
+    private static String selectChunks(String document, FoldedText folded, Collection<String> terms,
+                                       int tokenBudget) {
+        List<Term> normalizedTerms = terms.stream()
+                .filter(term -> term != null && !term.isBlank())
+                .map(term -> FoldedText.fold(term).trim())
+                .distinct()
+                .map(Term::of)
+                .toList();
+
+        // Chunks stay offsets into the document until selected; scoring reads folded slices
+        List<Chunk> chunks = new ArrayList<>();
+        for (int[] span : chunkSpans(document)) {
+            chunks.add(new Chunk(chunks.size(), span[0], span[1],
+                    score(folded.subSequence(span[0], span[1]), normalizedTerms)));
+        }
+
+        List<Chunk> ranked = chunks.stream()
+                .filter(c -> c.score() > 0)
+                .sorted(Comparator.comparingDouble(Chunk::score).reversed()
+                        .thenComparingInt(Chunk::index))
+                .toList();
+        if (ranked.isEmpty()) {
+            // Nothing matched: keep the old behaviour of sending the beginning of the document
+            ranked = chunks;
+        }
+
+        int budgetChars = tokenBudget * CHARS_PER_TOKEN;
+        List<Chunk> selected = new ArrayList<>();
+        int used = 0;
+        for (Chunk candidate : ranked) {
+            int cost = candidate.end() - candidate.start() + (selected.isEmpty() ? 0 : GAP_MARKER.length());
+            if (used + cost <= budgetChars) {
+                selected.add(candidate);
+                used += cost;
+            }
+        }
+        if (selected.isEmpty()) {
+            // Even the best chunk is over budget: send as much of it as fits
+            Chunk best = ranked.get(0);
+            return truncateAtWord(document.substring(best.start(), best.end()), budgetChars);
+        }
+
+        selected.sort(Comparator.comparingInt(Chunk::index));
+        StringBuilder excerpt = new StringBuilder(used);
+        int previousIndex = -1;
+        for (Chunk c : selected) {
+            if (previousIndex >= 0) {
+                excerpt.append(c.index() == previousIndex + 1 ? "\n\n" : GAP_MARKER);
+            }
+            excerpt.append(document, c.start(), c.end());
+            previousIndex = c.index();
+        }
+        return excerpt.toString();
+    }
+
+    /**
+     * Split a document into paragraph chunks of at most {@link #MAX_CHUNK_CHARS} characters.
+     */
+    static List<String> chunk(String document) {
+        return chunkSpans(document).stream()
+                .map(span -> document.substring(span[0], span[1]))
+                .toList();
+    }
+
+    /**
+     * Chunk boundaries as {start, end} offsets: paragraphs are separated by blank lines (like
+     * {@code split("\\n\\s*\\n")}), trimmed, and split further when longer than
+     * {@link #MAX_CHUNK_CHARS}.
+     */
+    static List<int[]> chunkSpans(String document) {
+        List<int[]> spans = new ArrayList<>();
+        int length = document.length();
+        int paragraphStart = 0;
+        int i = 0;
+        while (i < length) {
+            if (document.charAt(i) == '\n') {
+                int separatorEnd = blankLinesEnd(document, i);
+                if (separatorEnd > 0) {
+                    addParagraph(document, paragraphStart, i, spans);
+                    paragraphStart = separatorEnd;
+                    i = separatorEnd;
+                    continue;
+                }
+            }
+            i++;
+        }
+        addParagraph(document, paragraphStart, length, spans);
+        return spans;
+    }
+
+    /**
+     * Score a chunk: each matching term adds its word count, with diminishing returns for
+     * repeats, so specific phrases outrank single generic words and keyword stuffing does
+     * not dominate. Chunks that open with a matching heading line get a bonus.
+     */
+    static double score(String chunk, List<String> normalizedTerms) {
+        return score(FoldedText.of(chunk), normalizedTerms.stream().map(Term::of).toList());
+    }
+
+    private static double score(FoldedText chunk, List<Term> terms) {
+        int lineEnd = chunk.indexOf('\n', 0);
+        FoldedText firstLine = lineEnd >= 0 ? chunk.subSequence(0, lineEnd) : chunk;
+        boolean shortFirstLine = firstLine.length() <= 80;
+
+        double score = 0;
+        for (Term term : terms) {
+            int occurrences = countOccurrences(chunk, term.text());
+            if (occurrences == 0) {
+                continue;
+            }
+            score += term.words() * (1 + Math.log(occurrences));
+            if (shortFirstLine && firstLine.contains(term.text())) {
+                score += term.words();
+            }
+        }
+        return score;
+    }
+
+    private static int countOccurrences(FoldedText text, String term) {
+        int count = 0;
+        int from = 0;
+        while ((from = text.indexOf(term, from)) >= 0) {
+            count++;
+            from += term.length();
+        }
+        return count;
+    }
+
+    /**
+     * End of the blank-line separator starting at the newline at {@code newline}: just past the
+     * last newline of the whitespace run that follows, or -1 if the run holds no other newline.
+     */
+    private static int blankLinesEnd(String document, int newline) {
+        int lastNewline = -1;
+        for (int j = newline + 1; j < document.length() && isRegexSpace(document.charAt(j)); j++) {
+            if (document.charAt(j) == '\n') {
+                lastNewline = j;
+            }
+        }
+        return lastNewline < 0 ? -1 : lastNewline + 1;
+    }
+
+    // The characters of the regex class \s
+    private static boolean isRegexSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    private static void addParagraph(String document, int start, int end, List<int[]> spans) {
+        // String.trim() semantics
+        while (start < end && document.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && document.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        while (end - start > MAX_CHUNK_CHARS) {
+            int cut = splitPoint(document, start, end);
+            int pieceEnd = cut;
+            while (pieceEnd > start && document.charAt(pieceEnd - 1) <= ' ') {
+                pieceEnd--;
+            }
+            spans.add(new int[]{start, pieceEnd});
+            start = cut;
+            while (start < end && document.charAt(start) <= ' ') {
+                start++;
+            }
+        }
+        if (start < end) {
+            spans.add(new int[]{start, end});
+        }
+    }
+
+    /**
+     * Where to cut the over-long chunk {@code [start, end)}: the last line break, else sentence end,
+     * else space within the first {@link #MAX_CHUNK_CHARS} characters.
+     */
+    private static int splitPoint(String document, int start, int end) {
+        int limit = start + MAX_CHUNK_CHARS;
+        int floor = start + MAX_CHUNK_CHARS / 2;
+        // Searches stop at the midpoint: an earlier cut is never taken, so looking further is wasted
+        int newline = lastIndexOf(document, '\n', limit, floor);
+        if (newline > floor) {
+            return newline;
+        }
+        int sentence = lastIndexOf(document, '.', Math.min(limit, end - 2), floor);
+        while (sentence > floor && document.charAt(sentence + 1) != ' ') {
+            sentence = lastIndexOf(document, '.', sentence - 1, floor);
+        }
+        if (sentence > floor) {
+            return sentence + 1;
+        }
+        int space = lastIndexOf(document, ' ', limit, start);
+        return space > start ? space : limit;
+    }
+
+    private static int lastIndexOf(String document, char c, int from, int floor) {
+        for (int i = from; i > floor; i--) {
+            if (document.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String truncateAtWord(String text, int maxChars) {
+        if (text.length() <= maxChars) {
+            return text;
+        }
+        int space = text.lastIndexOf(' ', maxChars);
+        return text.substring(0, space > maxChars / 2 ? space : maxChars).trim();
+    }
+}
@@ -0,0 +1,181 @@
+package com.team02.spmpevaluator.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lower-cased copy of a document, folded once when built and read through cheap slice views.
+ * <p>
+ * Folding is char by char with {@link Character#toLowerCase(char)}, exactly as
+ * {@link KeywordAutomaton} scans, so every offset lines up with the original text and a match
+ * found here can be cut out of the original for display. Text whose folded form is all Latin-1
+ * (almost every SPMP) is stored at one byte per character; anything else falls back to a char
+ * array. Slices share the storage, so cutting a document into sections or chunks copies nothing.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class FoldedText implements CharSequence {
+
+    private static final FoldedText EMPTY = new FoldedText(new byte[0], null, 0, 0);
+    // Chars copied out of the source per step while folding
+    private static final int FOLD_BLOCK = 8192;
+
+    // Exactly one of latin1 and utf16 is set
+    private final byte[] latin1;
+    private final char[] utf16;
+    private final int offset;
+    private final int length;
+
+    private FoldedText(byte[] latin1, char[] utf16, int offset, int length) {
+        this.latin1 = latin1;
+        this.utf16 = utf16;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Folds the text into a new compact copy.
+     */
+    public static FoldedText of(CharSequence text) {
+        int length = text.length();
+        if (length == 0) {
+            return EMPTY;
+        }
+        byte[] latin1 = new byte[length];
+        char[] block = new char[Math.min(length, FOLD_BLOCK)];
+        TextScanner scanner = TextScanner.get();
+        for (int blockStart = 0; blockStart < length; blockStart += block.length) {
+            int blockLength = Math.min(block.length, length - blockStart);
+            getChars(text, blockStart, blockStart + blockLength, block);
+            // ASCII runs are folded in bulk, anything else one char at a time
+            int i = 0;
+            while ((i = scanner.foldAscii(block, i, blockLength, latin1, blockStart + i)) < blockLength) {
+                char c = Character.toLowerCase(block[i]);
+                if (c > 0xFF) {
+                    return new FoldedText(null, widen(latin1, blockStart + i, text), 0, length);
+                }
+                latin1[blockStart + i] = (byte) c;
+                i++;
+            }
+        }
+        return new FoldedText(latin1, null, 0, length);
+    }
+
+    /**
+     * Folds a term the same way the text is folded, for use with {@link #indexOf(String, int)}.
+     */
+    public static String fold(String term) {
+        char[] chars = term.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        }
+        return at(index);
+    }
+
+    /**
+     * A view of part of this text; nothing is copied.
+     */
+    @Override
+    public FoldedText subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("begin " + start + ", end " + end + ", length " + length);
+        }
+        if (start == 0 && end == length) {
+            return this;
+        }
+        return new FoldedText(latin1, utf16, offset + start, end - start);
+    }
+
+    /**
+     * Whether the text is stored at one byte per character.
+     */
+    public boolean isLatin1() {
+        return latin1 != null;
+    }
+
+    public int indexOf(char c, int from) {
+        for (int i = Math.max(from, 0); i < length; i++) {
+            if (at(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Offset of the first occurrence of a folded term at or after {@code from}, or -1.
+     * The term must already be folded (see {@link #fold}).
+     */
+    public int indexOf(String term, int from) {
+        int termLength = term.length();
+        if (termLength == 0) {
+            return Math.min(Math.max(from, 0), length);
+        }
+        char first = term.charAt(0);
+        for (int i = Math.max(from, 0), last = length - termLength; i <= last; i++) {
+            if (at(i) == first && regionMatches(i, term)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(String term) {
+        return indexOf(term, 0) >= 0;
+    }
+
+    /**
+     * Copies the folded text out as a string.
+     */
+    @Override
+    public String toString() {
+        return latin1 != null
+                ? new String(latin1, offset, length, StandardCharsets.ISO_8859_1)
+                : new String(utf16, offset, length);
+    }
+
+    private char at(int index) {
+        return latin1 != null ? (char) (latin1[offset + index] & 0xFF) : utf16[offset + index];
+    }
+
+    private boolean regionMatches(int start, String term) {
+        for (int j = 1; j < term.length(); j++) {
+            if (at(start + j) != term.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void getChars(CharSequence text, int from, int to, char[] into) {
+        if (text instanceof String string) {
+            string.getChars(from, to, into, 0);
+        } else {
+            for (int i = from; i < to; i++) {
+                into[i - from] = text.charAt(i);
+            }
+        }
+    }
+
+    private static char[] widen(byte[] latin1, int folded, CharSequence text) {
+        char[] chars = new char[latin1.length];
+        for (int i = 0; i < folded; i++) {
+            chars[i] = (char) (latin1[i] & 0xFF);
+        }
+        for (int i = folded; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(text.charAt(i));
+        }
+        return chars;
+    }
+}
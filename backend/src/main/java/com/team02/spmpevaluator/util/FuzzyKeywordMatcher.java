@@ -0,0 +1,428 @@
+package com.team02.spmpevaluator.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Approximate keyword matcher for what exact matching misses: typos ("risk mangement"), words
+ * broken by a hyphen at the end of a line ("manage-\nment") and inflected forms ("scheduling").
+ * <p>
+ * The text is read once as a stream of words (runs of letters and digits, lower-cased char by
+ * char like {@link KeywordAutomaton}); a word ending in a hyphen at a line break is joined with its
+ * continuation. A keyword word matches a text word when it is within its edit budget of a prefix
+ * of the text word, so endings are free, as they are for substring matching. Keyword words of up
+ * to 4 characters must match exactly, up to 8 characters allow one edit and longer ones
+ * {@code maxEdits}. A keyword of several words matches consecutive text words that are separated
+ * by whitespace only.
+ * <p>
+ * The distinct keyword words share one trie. For a text word, its Levenshtein automaton is run
+ * over the trie one row per trie level, and a branch is cut as soon as every cell of its row is
+ * over budget. Results are kept per distinct text word, so a document costs one pass plus one
+ * trie walk per word of its vocabulary, never an edit distance per pair of text word and keyword.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class FuzzyKeywordMatcher {
+
+    /**
+     * Receives matches in text order.
+     */
+    @FunctionalInterface
+    public interface MatchListener {
+        /**
+         * @param keyword index of the keyword in the list the matcher was built from
+         * @param start   offset of the first character of the occurrence
+         * @param end     offset just past its last character
+         */
+        void onMatch(int keyword, int start, int end);
+    }
+
+    /**
+     * Largest supported edit budget; beyond it, words of nine characters match unrelated words.
+     */
+    public static final int MAX_EDITS = 2;
+
+    private static final int[] NO_WORDS = new int[0];
+
+    private final int maxEdits;
+    // Word ids of each keyword, and the keywords whose last word is a given word
+    private final int[][] keywordWords;
+    private final int[][] keywordsByLastWord;
+    private final int maxKeywordWords;
+    private final int[] wordEdits;
+    private final int maxWordLength;
+    // Trie of the keyword words: edges of node n are edgeChars/edgeTargets[edgeStart[n] .. edgeStart[n + 1])
+    private final int[] edgeStart;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    // Word ending at each node, or -1
+    private final int[] nodeWord;
+
+    private FuzzyKeywordMatcher(int maxEdits, int[][] keywordWords, int[][] keywordsByLastWord, int[] wordEdits,
+                                int maxWordLength, int[] edgeStart, char[] edgeChars, int[] edgeTargets,
+                                int[] nodeWord) {
+        this.maxEdits = maxEdits;
+        this.keywordWords = keywordWords;
+        this.keywordsByLastWord = keywordsByLastWord;
+        this.maxKeywordWords = Arrays.stream(keywordWords).mapToInt(words -> words.length).max().orElse(0);
+        this.wordEdits = wordEdits;
+        this.maxWordLength = maxWordLength;
+        this.edgeStart = edgeStart;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.nodeWord = nodeWord;
+    }
+
+    /**
+     * Builds the matcher. Keyword indexes follow the order of the list; keywords without letters
+     * or digits never match.
+     *
+     * @param maxEdits edit budget of long keyword words, 0 to {@link #MAX_EDITS}
+     * @throws IllegalArgumentException if the budget is out of range
+     */
+    public static FuzzyKeywordMatcher of(List<String> keywords, int maxEdits) {
+        if (maxEdits < 0 || maxEdits > MAX_EDITS) {
+            throw new IllegalArgumentException("Edit budget must be between 0 and " + MAX_EDITS + ": " + maxEdits);
+        }
+
+        Map<String, Integer> wordIds = new LinkedHashMap<>();
+        int[][] keywordWords = new int[keywords.size()][];
+        for (int k = 0; k < keywordWords.length; k++) {
+            String keyword = keywords.get(k) == null ? "" : FoldedText.fold(keywords.get(k));
+            keywordWords[k] = splitWords(keyword).stream()
+                    .mapToInt(word -> wordIds.computeIfAbsent(word, w -> wordIds.size()))
+                    .toArray();
+        }
+
+        String[] words = wordIds.keySet().toArray(String[]::new);
+        int[] wordEdits = new int[words.length];
+        int maxWordLength = 0;
+        for (int w = 0; w < words.length; w++) {
+            wordEdits[w] = editBudget(words[w].length(), maxEdits);
+            maxWordLength = Math.max(maxWordLength, words[w].length());
+        }
+
+        List<List<Integer>> byLastWord = new ArrayList<>();
+        for (int w = 0; w < words.length; w++) {
+            byLastWord.add(new ArrayList<>());
+        }
+        for (int k = 0; k < keywordWords.length; k++) {
+            if (keywordWords[k].length > 0) {
+                byLastWord.get(keywordWords[k][keywordWords[k].length - 1]).add(k);
+            }
+        }
+        int[][] keywordsByLastWord = byLastWord.stream()
+                .map(list -> list.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
+
+        // Trie with sorted child maps; only used while building
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        children.add(new TreeMap<>());
+        ends.add(-1);
+        for (int w = 0; w < words.length; w++) {
+            int node = 0;
+            for (int i = 0; i < words[w].length(); i++) {
+                Integer next = children.get(node).get(words[w].charAt(i));
+                if (next == null) {
+                    next = children.size();
+                    children.add(new TreeMap<>());
+                    ends.add(-1);
+                    children.get(node).put(words[w].charAt(i), next);
+                }
+                node = next;
+            }
+            ends.set(node, w);
+        }
+
+        int nodes = children.size();
+        int[] edgeStart = new int[nodes + 1];
+        for (int n = 0; n < nodes; n++) {
+            edgeStart[n + 1] = edgeStart[n] + children.get(n).size();
+        }
+        char[] edgeChars = new char[edgeStart[nodes]];
+        int[] edgeTargets = new int[edgeStart[nodes]];
+        for (int n = 0; n < nodes; n++) {
+            int e = edgeStart[n];
+            for (var edge : children.get(n).entrySet()) {
+                edgeChars[e] = edge.getKey();
+                edgeTargets[e++] = edge.getValue();
+            }
+        }
+        int[] nodeWord = ends.stream().mapToInt(Integer::intValue).toArray();
+
+        return new FuzzyKeywordMatcher(maxEdits, keywordWords, keywordsByLastWord, wordEdits, maxWordLength,
+                edgeStart, edgeChars, edgeTargets, nodeWord);
+    }
+
+    public int maxEdits() {
+        return maxEdits;
+    }
+
+    /**
+     * Reports every approximate keyword occurrence in the text, exact ones included.
+     */
+    public void scan(CharSequence text, MatchListener listener) {
+        if (maxKeywordWords > 0) {
+            new Scan(text, listener).run();
+        }
+    }
+
+    /**
+     * Edits allowed for a keyword word of the given length.
+     */
+    static int editBudget(int length, int maxEdits) {
+        if (length <= 4) {
+            return 0;
+        }
+        return length <= 8 ? Math.min(1, maxEdits) : maxEdits;
+    }
+
+    private static List<String> splitWords(String keyword) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= keyword.length(); i++) {
+            boolean wordChar = i < keyword.length() && Character.isLetterOrDigit(keyword.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(keyword.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * State of one pass over a text: the current word, the last few words for multi-word
+     * keywords, and the words already looked up.
+     */
+    private final class Scan {
+
+        private final CharSequence text;
+        private final MatchListener listener;
+
+        // Only a prefix of a text word can match, so longer words are cut here
+        private final char[] word = new char[maxWordLength + maxEdits];
+        private int wordLength;
+
+        // Edit distance rows, one per trie level, and the walk's position on each level
+        private final int[][] rows = new int[maxWordLength + 1][word.length + 1];
+        private final int[] walkNode = new int[maxWordLength + 1];
+        private final int[] walkEdge = new int[maxWordLength + 1];
+        private int[] found = new int[8];
+
+        // The last maxKeywordWords text words, by word count modulo maxKeywordWords
+        private final int[] recentStart = new int[maxKeywordWords];
+        private final int[] recentEnd = new int[maxKeywordWords];
+        private final int[][] recentWords = new int[maxKeywordWords][];
+        // Whether only whitespace separates the word from the one before it
+        private final boolean[] recentJoined = new boolean[maxKeywordWords];
+        private int wordCount;
+
+        // Open-addressing map from text word to the sorted ids of the keyword words it matches
+        private char[][] cacheKeys = new char[1024][];
+        private int[][] cacheValues = new int[1024][];
+        private int cacheSize;
+
+        Scan(CharSequence text, MatchListener listener) {
+            this.text = text;
+            this.listener = listener;
+        }
+
+        void run() {
+            int length = text.length();
+            boolean joined = false;
+            int i = 0;
+            while (i < length) {
+                char c = text.charAt(i);
+                if (!Character.isLetterOrDigit(c)) {
+                    joined &= Character.isWhitespace(c);
+                    i++;
+                    continue;
+                }
+                int start = i;
+                wordLength = 0;
+                while (true) {
+                    while (i < length && Character.isLetterOrDigit(c = text.charAt(i))) {
+                        if (wordLength < word.length) {
+                            word[wordLength++] = Character.toLowerCase(c);
+                        }
+                        i++;
+                    }
+                    int rest = hyphenatedContinuation(i);
+                    if (rest == i) {
+                        break;
+                    }
+                    i = rest;
+                }
+                onWord(start, i, joined);
+                joined = true;
+            }
+        }
+
+        /**
+         * Start of the rest of a word broken as "manage-\nment", or {@code end} if the word is not broken.
+         */
+        private int hyphenatedContinuation(int end) {
+            int length = text.length();
+            if (end >= length || (text.charAt(end) != '-' && text.charAt(end) != '\u00AD')) {
+                return end;
+            }
+            int i = skipBlanks(end + 1);
+            if (i >= length || text.charAt(i) != '\n') {
+                return end;
+            }
+            i = skipBlanks(i + 1);
+            return i < length && Character.isLowerCase(text.charAt(i)) ? i : end;
+        }
+
+        private int skipBlanks(int from) {
+            int i = from;
+            while (i < text.length() && (text.charAt(i) == ' ' || text.charAt(i) == '\t' || text.charAt(i) == '\r')) {
+                i++;
+            }
+            return i;
+        }
+
+        private void onWord(int start, int end, boolean joined) {
+            int slot = wordCount % maxKeywordWords;
+            recentStart[slot] = start;
+            recentEnd[slot] = end;
+            recentWords[slot] = lookup();
+            recentJoined[slot] = joined;
+            wordCount++;
+
+            for (int matched : recentWords[slot]) {
+                for (int keyword : keywordsByLastWord[matched]) {
+                    int words = keywordWords[keyword].length;
+                    if (endsHere(keyword, words)) {
+                        listener.onMatch(keyword, recentStart[(wordCount - words) % maxKeywordWords], end);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Whether the words before the current one match the keyword's other words, in order.
+         */
+        private boolean endsHere(int keyword, int words) {
+            if (words > wordCount) {
+                return false;
+            }
+            for (int m = 0; m < words - 1; m++) {
+                int slot = (wordCount - words + m) % maxKeywordWords;
+                int next = (slot + 1) % maxKeywordWords;
+                if (!recentJoined[next] || Arrays.binarySearch(recentWords[slot], keywordWords[keyword][m]) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int[] lookup() {
+            int hash = 0;
+            for (int i = 0; i < wordLength; i++) {
+                hash = 31 * hash + word[i];
+            }
+            int mask = cacheKeys.length - 1;
+            int slot = (hash ^ hash >>> 16) & mask;
+            while (cacheKeys[slot] != null) {
+                if (Arrays.equals(cacheKeys[slot], 0, cacheKeys[slot].length, word, 0, wordLength)) {
+                    return cacheValues[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            int[] matched = matchWords();
+            cacheKeys[slot] = Arrays.copyOf(word, wordLength);
+            cacheValues[slot] = matched;
+            if (++cacheSize * 2 > cacheKeys.length) {
+                growCache();
+            }
+            return matched;
+        }
+
+        /**
+         * Walks the trie depth first with one edit distance row per level: cell j of the row at
+         * a node is the distance between the node's prefix and the first j chars of the text word.
+         */
+        private int[] matchWords() {
+            int columns = wordLength;
+            int[] first = rows[0];
+            for (int j = 0; j <= columns; j++) {
+                first[j] = j;
+            }
+            int foundCount = 0;
+            int depth = 0;
+            walkNode[0] = 0;
+            walkEdge[0] = edgeStart[0];
+            while (depth >= 0) {
+                int node = walkNode[depth];
+                int e = walkEdge[depth];
+                if (e == edgeStart[node + 1]) {
+                    depth--;
+                    continue;
+                }
+                walkEdge[depth] = e + 1;
+
+                char c = edgeChars[e];
+                int[] previous = rows[depth];
+                int[] row = rows[depth + 1];
+                row[0] = depth + 1;
+                int best = row[0];
+                for (int j = 1; j <= columns; j++) {
+                    int cost = Math.min(previous[j] + 1, row[j - 1] + 1);
+                    row[j] = Math.min(cost, previous[j - 1] + (word[j - 1] == c ? 0 : 1));
+                    best = Math.min(best, row[j]);
+                }
+                if (best > maxEdits) {
+                    // Rows only grow deeper down, so nothing below can come back within budget
+                    continue;
+                }
+                int child = edgeTargets[e];
+                int matched = nodeWord[child];
+                if (matched >= 0 && best <= wordEdits[matched]) {
+                    if (foundCount == found.length) {
+                        found = Arrays.copyOf(found, foundCount * 2);
+                    }
+                    found[foundCount++] = matched;
+                }
+                depth++;
+                walkNode[depth] = child;
+                walkEdge[depth] = edgeStart[child];
+            }
+            if (foundCount == 0) {
+                return NO_WORDS;
+            }
+            int[] matched = Arrays.copyOf(found, foundCount);
+            Arrays.sort(matched);
+            return matched;
+        }
+
+        private void growCache() {
+            char[][] keys = cacheKeys;
+            int[][] values = cacheValues;
+            cacheKeys = new char[keys.length * 2][];
+            cacheValues = new int[keys.length * 2][];
+            int mask = cacheKeys.length - 1;
+            for (int k = 0; k < keys.length; k++) {
+                if (keys[k] == null) {
+                    continue;
+                }
+                int hash = 0;
+                for (char ch : keys[k]) {
+                    hash = 31 * hash + ch;
+                }
+                int slot = (hash ^ hash >>> 16) & mask;
+                while (cacheKeys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                cacheKeys[slot] = keys[k];
+                cacheValues[slot] = values[k];
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.team02.spmpevaluator.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Case-insensitive Aho-Corasick automaton over a fixed set of keywords.
+ * <p>
+ * One pass over the text reports every occurrence of every keyword, so matching a document
+ * against hundreds of keywords costs the same as reading it once instead of one
+ * {@code contains} scan per keyword. Matching is by substring, like {@link String#contains}:
+ * "risk" also matches inside "risks". Instances are immutable and safe to share between threads.
+ */
+public final class KeywordAutomaton {
+
+    /**
+     * Receives matches in text order.
+     */
+    @FunctionalInterface
+    public interface MatchListener {
+        /**
+         * @param keyword index of the keyword in the list the automaton was built from
+         * @param end     offset just past the last character of the occurrence
+         */
+        void onMatch(int keyword, int end);
+    }
+
+    private static final KeywordAutomaton EMPTY = of(List.of());
+
+    private final String[] keywords;
+    // Transitions of state s are edgeChars/edgeTargets[edgeStart[s] .. edgeStart[s + 1]), sorted by char
+    private final int[] edgeStart;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    private final int[] fail;
+    // Keywords ending in state s, including those reached through failure links
+    private final int[] outputStart;
+    private final int[] outputs;
+
+    private KeywordAutomaton(String[] keywords, int[] edgeStart, char[] edgeChars, int[] edgeTargets,
+                             int[] fail, int[] outputStart, int[] outputs) {
+        this.keywords = keywords;
+        this.edgeStart = edgeStart;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.fail = fail;
+        this.outputStart = outputStart;
+        this.outputs = outputs;
+    }
+
+    public static KeywordAutomaton empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds the automaton. Keyword indexes follow the iteration order of the collection;
+     * blank keywords never match.
+     */
+    public static KeywordAutomaton of(Collection<String> keywords) {
+        String[] folded = keywords.stream()
+                .map(keyword -> keyword == null ? "" : fold(keyword.trim()))
+                .toArray(String[]::new);
+
+        // Trie with sorted child maps; only used while building
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        children.add(new TreeMap<>());
+        ends.add(new ArrayList<>());
+        for (int k = 0; k < folded.length; k++) {
+            if (folded[k].isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < folded[k].length(); i++) {
+                Integer next = children.get(state).get(folded[k].charAt(i));
+                if (next == null) {
+                    next = children.size();
+                    children.add(new TreeMap<>());
+                    ends.add(new ArrayList<>());
+                    children.get(state).put(folded[k].charAt(i), next);
+                }
+                state = next;
+            }
+            ends.get(state).add(k);
+        }
+
+        int states = children.size();
+        int[] edgeStart = new int[states + 1];
+        for (int s = 0; s < states; s++) {
+            edgeStart[s + 1] = edgeStart[s] + children.get(s).size();
+        }
+        char[] edgeChars = new char[edgeStart[states]];
+        int[] edgeTargets = new int[edgeStart[states]];
+        for (int s = 0; s < states; s++) {
+            int e = edgeStart[s];
+            for (var edge : children.get(s).entrySet()) {
+                edgeChars[e] = edge.getKey();
+                edgeTargets[e++] = edge.getValue();
+            }
+        }
+
+        // Breadth-first, so a state's failure target always has its outputs complete
+        int[] fail = new int[states];
+        List<int[]> stateOutputs = new ArrayList<>(states);
+        for (int s = 0; s < states; s++) {
+            stateOutputs.add(null);
+        }
+        stateOutputs.set(0, new int[0]);
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int e = edgeStart[0]; e < edgeStart[1]; e++) {
+            queue.add(edgeTargets[e]);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int[] own = ends.get(state).stream().mapToInt(Integer::intValue).toArray();
+            int[] inherited = stateOutputs.get(fail[state]);
+            int[] merged = Arrays.copyOf(own, own.length + inherited.length);
+            System.arraycopy(inherited, 0, merged, own.length, inherited.length);
+            stateOutputs.set(state, merged);
+
+            for (int e = edgeStart[state]; e < edgeStart[state + 1]; e++) {
+                int child = edgeTargets[e];
+                int f = fail[state];
+                int target = step(edgeStart, edgeChars, edgeTargets, f, edgeChars[e]);
+                while (target < 0 && f != 0) {
+                    f = fail[f];
+                    target = step(edgeStart, edgeChars, edgeTargets, f, edgeChars[e]);
+                }
+                fail[child] = state == 0 || target < 0 ? 0 : target;
+                queue.add(child);
+            }
+        }
+
+        int[] outputStart = new int[states + 1];
+        for (int s = 0; s < states; s++) {
+            outputStart[s + 1] = outputStart[s] + stateOutputs.get(s).length;
+        }
+        int[] outputs = new int[outputStart[states]];
+        for (int s = 0; s < states; s++) {
+            System.arraycopy(stateOutputs.get(s), 0, outputs, outputStart[s], stateOutputs.get(s).length);
+        }
+
+        return new KeywordAutomaton(folded, edgeStart, edgeChars, edgeTargets, fail, outputStart, outputs);
+    }
+
+    /**
+     * Number of keywords, including blank ones that never match.
+     */
+    public int size() {
+        return keywords.length;
+    }
+
+    /**
+     * The keyword at an index, lower-cased.
+     */
+    public String keyword(int index) {
+        return keywords[index];
+    }
+
+    /**
+     * Reports every keyword occurrence in the text, ignoring case.
+     */
+    public void scan(CharSequence text, MatchListener listener) {
+        int state = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            int next = step(edgeStart, edgeChars, edgeTargets, state, c);
+            while (next < 0 && state != 0) {
+                state = fail[state];
+                next = step(edgeStart, edgeChars, edgeTargets, state, c);
+            }
+            state = next < 0 ? 0 : next;
+            for (int o = outputStart[state]; o < outputStart[state + 1]; o++) {
+                listener.onMatch(outputs[o], i + 1);
+            }
+        }
+    }
+
+    /**
+     * Which keywords occur at least once in the text, indexed like the keywords.
+     */
+    public boolean[] matchedKeywords(CharSequence text) {
+        boolean[] matched = new boolean[keywords.length];
+        scan(text, (keyword, end) -> matched[keyword] = true);
+        return matched;
+    }
+
+    /**
+     * Lower-cases char by char, exactly as the scan does, so match offsets map back onto the text.
+     */
+    static String fold(String keyword) {
+        char[] chars = keyword.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private static int step(int[] edgeStart, char[] edgeChars, int[] edgeTargets, int state, char c) {
+        int low = edgeStart[state];
+        int high = edgeStart[state + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char edge = edgeChars[mid];
+            if (edge < c) {
+                low = mid + 1;
+            } else if (edge > c) {
+                high = mid - 1;
+            } else {
+                return edgeTargets[mid];
+            }
+        }
+        return -1;
+    }
+}
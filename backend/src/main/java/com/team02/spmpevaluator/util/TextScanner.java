@@ -0,0 +1,122 @@
+package com.team02.spmpevaluator.util;
+
+/**
+ * Character scans the keyword phase repeats over every document: finding line breaks and
+ * folding ASCII case, over a {@code char[]} range.
+ * <p>
+ * {@link #get()} returns a SIMD implementation built on {@code jdk.incubator.vector}, which
+ * handles as many characters per instruction as the CPU's vector width allows, when the JVM runs
+ * with {@code --add-modules jdk.incubator.vector} and was built with the {@code vector} profile.
+ * Without either, or on hardware without usable vectors, it returns the plain scalar loops. Both
+ * give identical results.
+ */
+public abstract class TextScanner {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_SCANNER = "com.team02.spmpevaluator.util.VectorTextScanner";
+
+    private static final TextScanner SCALAR = new ScalarTextScanner();
+    private static final TextScanner PREFERRED = loadPreferred();
+
+    TextScanner() {
+    }
+
+    /**
+     * The fastest scanner this JVM supports.
+     */
+    public static TextScanner get() {
+        return PREFERRED;
+    }
+
+    /**
+     * The scalar scanner, regardless of vector support.
+     */
+    public static TextScanner scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * Whether this scanner uses the Vector API.
+     */
+    public abstract boolean isVectorized();
+
+    /**
+     * Offset of the first {@code c} in {@code text[from, to)}, or {@code to}.
+     */
+    public abstract int indexOf(char[] text, int from, int to, char c);
+
+    /**
+     * Offset of the first line terminator other than '\n' in {@code text[from, to)}, or {@code to}.
+     * These are the characters besides '\n' where regex {@code .} stops: '\r', U+0085, U+2028
+     * and U+2029.
+     */
+    public abstract int indexOfLineBreak(char[] text, int from, int to);
+
+    /**
+     * Lower-cases ASCII characters of {@code text[from, to)} into {@code folded}, starting at
+     * {@code offset}, and stops at the first character that is not ASCII.
+     *
+     * @return offset in {@code text} of the first non-ASCII character, or {@code to}
+     */
+    public abstract int foldAscii(char[] text, int from, int to, byte[] folded, int offset);
+
+    static boolean isLineBreak(char c) {
+        return c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private static TextScanner loadPreferred() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return SCALAR;
+        }
+        try {
+            // Loaded by name so this class never links against the incubator module when it is absent
+            TextScanner vector = (TextScanner) Class.forName(VECTOR_SCANNER).getDeclaredConstructor().newInstance();
+            return vector.isVectorized() ? vector : SCALAR;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return SCALAR;
+        }
+    }
+
+    /**
+     * One character at a time; also finishes the tails the vector loops leave over.
+     */
+    static final class ScalarTextScanner extends TextScanner {
+
+        @Override
+        public boolean isVectorized() {
+            return false;
+        }
+
+        @Override
+        public int indexOf(char[] text, int from, int to, char c) {
+            for (int i = from; i < to; i++) {
+                if (text[i] == c) {
+                    return i;
+                }
+            }
+            return to;
+        }
+
+        @Override
+        public int indexOfLineBreak(char[] text, int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (isLineBreak(text[i])) {
+                    return i;
+                }
+            }
+            return to;
+        }
+
+        @Override
+        public int foldAscii(char[] text, int from, int to, byte[] folded, int offset) {
+            for (int i = from; i < to; i++) {
+                char c = text[i];
+                if (c >= 0x80) {
+                    return i;
+                }
+                folded[offset + i - from] = (byte) (c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c);
+            }
+            return to;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.team02.spmpevaluator.util;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link TextScanner} on the incubating Vector API: chars are loaded as 16-bit lanes of the
+ * widest vector the CPU supports and compared all at once. Only {@link TextScanner#get()}
+ * instantiates this class, and only when {@code jdk.incubator.vector} is in the boot layer.
+ */
+final class VectorTextScanner extends TextScanner {
+
+    private static final VectorSpecies<Short> CHARS = ShortVector.SPECIES_PREFERRED;
+    // Same lane count as CHARS, for narrowing folded chars to bytes
+    private static final VectorSpecies<Byte> BYTES =
+            VectorSpecies.of(byte.class, VectorShape.forBitSize(CHARS.vectorBitSize() / 2));
+    // Below 8 lanes the API falls back to emulation that is slower than the scalar loop
+    private static final int MIN_LANES = 8;
+
+    private final TextScanner tail = TextScanner.scalar();
+
+    @Override
+    public boolean isVectorized() {
+        return CHARS.length() >= MIN_LANES;
+    }
+
+    @Override
+    public int indexOf(char[] text, int from, int to, char c) {
+        int i = from;
+        for (int bound = from + CHARS.loopBound(to - from); i < bound; i += CHARS.length()) {
+            VectorMask<Short> hits = ShortVector.fromCharArray(CHARS, text, i).eq((short) c);
+            if (hits.anyTrue()) {
+                return i + hits.firstTrue();
+            }
+        }
+        return tail.indexOf(text, i, to, c);
+    }
+
+    @Override
+    public int indexOfLineBreak(char[] text, int from, int to) {
+        int i = from;
+        for (int bound = from + CHARS.loopBound(to - from); i < bound; i += CHARS.length()) {
+            ShortVector chars = ShortVector.fromCharArray(CHARS, text, i);
+            VectorMask<Short> hits = chars.eq((short) '\r')
+                    .or(chars.eq((short) '\u0085'))
+                    .or(chars.eq((short) '\u2028'))
+                    .or(chars.eq((short) '\u2029'));
+            if (hits.anyTrue()) {
+                return i + hits.firstTrue();
+            }
+        }
+        return tail.indexOfLineBreak(text, i, to);
+    }
+
+    @Override
+    public int foldAscii(char[] text, int from, int to, byte[] folded, int offset) {
+        int i = from;
+        for (int bound = from + CHARS.loopBound(to - from); i < bound; i += CHARS.length()) {
+            ShortVector chars = ShortVector.fromCharArray(CHARS, text, i);
+            if (chars.compare(VectorOperators.UNSIGNED_GE, (short) 0x80).anyTrue()) {
+                // The scalar loop folds up to the non-ASCII char and reports where it is
+                break;
+            }
+            VectorMask<Short> upper = chars.compare(VectorOperators.GE, (short) 'A')
+                    .and(chars.compare(VectorOperators.LE, (short) 'Z'));
+            ByteVector bytes = (ByteVector) chars.add((short) ('a' - 'A'), upper)
+                    .convertShape(VectorOperators.S2B, BYTES, 0);
+            bytes.intoArray(folded, offset + i - from);
+        }
+        return tail.foldAscii(text, i, to, folded, offset + i - from);
+    }
+}
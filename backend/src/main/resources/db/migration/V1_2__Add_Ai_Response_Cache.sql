@@ -0,0 +1,16 @@
+-- Migration: Add persistent cache for AI section enrichment responses
+-- Module: AI enrichment performance
+
+CREATE TABLE IF NOT EXISTS ai_response_cache (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    cache_key VARCHAR(64) NOT NULL,
+    model VARCHAR(255) NOT NULL,
+    prompt_version VARCHAR(64) NOT NULL,
+    response LONGTEXT NOT NULL,
+    created_at DATETIME NOT NULL,
+    expires_at DATETIME NOT NULL,
+    CONSTRAINT uk_ai_cache_key UNIQUE (cache_key),
+    INDEX idx_ai_cache_expires (expires_at)
+);
+
+ALTER TABLE ai_response_cache COMMENT = 'AI responses keyed by hash of model, prompt template version and prompt content';
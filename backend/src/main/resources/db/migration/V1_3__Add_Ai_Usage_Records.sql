@@ -0,0 +1,23 @@
+-- Migration: Add AI usage ledger (one row per AI provider call)
+-- Module: AI enrichment performance
+
+CREATE TABLE IF NOT EXISTS ai_usage_records (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    model VARCHAR(255) NOT NULL,
+    operation VARCHAR(64) NOT NULL,
+    document_id BIGINT,
+    section VARCHAR(64),
+    prompt_tokens INT,
+    completion_tokens INT,
+    total_tokens INT,
+    cost DOUBLE,
+    latency_ms BIGINT NOT NULL,
+    outcome VARCHAR(20) NOT NULL,
+    http_status INT,
+    usage_date DATE NOT NULL,
+    created_at DATETIME NOT NULL,
+    INDEX idx_ai_usage_date (usage_date),
+    INDEX idx_ai_usage_document (document_id)
+);
+
+ALTER TABLE ai_usage_records COMMENT = 'AI call ledger: model, tokens, latency and outcome per call for quota sizing and latency tracking';
@@ -0,0 +1,5 @@
+-- Migration: Add optimistic lock version to compliance scores
+-- Module: Evaluation concurrency (a write based on a stale score is rejected instead of overwriting)
+
+ALTER TABLE compliance_scores
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
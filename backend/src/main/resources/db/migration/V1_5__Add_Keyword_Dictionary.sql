@@ -0,0 +1,16 @@
+-- Migration: Add versioned IEEE 1058 section keyword dictionary
+-- Module: Evaluation (keywords change without a redeploy; scores record the dictionary version they were computed with)
+
+CREATE TABLE IF NOT EXISTS keyword_dictionary_entries (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    section_name VARCHAR(50) NOT NULL,
+    keywords TEXT NOT NULL,
+    version BIGINT NOT NULL,
+    updated_by VARCHAR(255),
+    updated_at DATETIME NOT NULL,
+    UNIQUE KEY uk_keyword_dictionary_section (section_name)
+);
+
+ALTER TABLE compliance_scores
+    ADD COLUMN keyword_dictionary_version BIGINT,
+    ADD INDEX idx_compliance_scores_keyword_version (keyword_dictionary_version);
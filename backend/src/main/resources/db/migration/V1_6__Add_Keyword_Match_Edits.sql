@@ -0,0 +1,5 @@
+-- Migration: Record the keyword matching edit budget next to the dictionary version
+-- Module: Evaluation (changing app.keyword-matching.max-edits makes scores matched with another budget stale)
+
+ALTER TABLE compliance_scores
+    ADD COLUMN keyword_match_edits INT;
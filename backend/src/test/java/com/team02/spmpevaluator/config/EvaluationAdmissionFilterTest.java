@@ -0,0 +1,120 @@
+package com.team02.spmpevaluator.config;
+
+import com.team02.spmpevaluator.service.EvaluationAdmissionService;
+import com.team02.spmpevaluator.service.SystemSettingService;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for EvaluationAdmissionFilter.
+ */
+@DisplayName("EvaluationAdmissionFilter Tests")
+class EvaluationAdmissionFilterTest {
+
+    private EvaluationAdmissionService admissionService;
+    private EvaluationAdmissionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        SystemSettingService settingService = mock(SystemSettingService.class);
+        when(settingService.getIntegerSetting(anyString(), anyInt())).thenAnswer(invocation -> invocation.getArgument(1));
+        // One slot, no queue, a burst of one request per user
+        admissionService = new EvaluationAdmissionService(settingService, 1, 0, Duration.ofSeconds(1), 1, 1, 2,
+                Duration.ofSeconds(30));
+        filter = new EvaluationAdmissionFilter(admissionService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticate(String username, String role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, List.of(new SimpleGrantedAuthority("ROLE_" + role))));
+    }
+
+    @Test
+    @DisplayName("Should only guard evaluation POST requests")
+    void shouldNotFilter_OnlyEvaluationPosts() {
+        assertFalse(filter.shouldNotFilter(new MockHttpServletRequest("POST", "/api/documents/4/evaluate")));
+        assertFalse(filter.shouldNotFilter(new MockHttpServletRequest("POST", "/api/documents/4/re-evaluate")));
+        assertFalse(filter.shouldNotFilter(new MockHttpServletRequest("POST", "/api/parser/feedback/4/analyze")));
+        assertFalse(filter.shouldNotFilter(new MockHttpServletRequest("POST", "/api/parser/feedback/4/generate-mock")));
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/documents/4/evaluation-progress")));
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("POST", "/api/documents/upload")));
+    }
+
+    @Test
+    @DisplayName("Should run admitted requests and free the slot afterwards")
+    void doFilter_Admitted_RunsChainAndReleases() throws Exception {
+        authenticate("student1", "STUDENT");
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/documents/4/evaluate"), response, chain);
+
+        verify(chain).doFilter(any(), any());
+        assertEquals(200, response.getStatus());
+        assertEquals(0, admissionService.getActiveCount());
+    }
+
+    @Test
+    @DisplayName("Should answer 429 with Retry-After when the user is rate limited")
+    void doFilter_RateLimited_429() throws Exception {
+        authenticate("student1", "STUDENT");
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/documents/4/evaluate"),
+                new MockHttpServletResponse(), mock(FilterChain.class));
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/documents/4/re-evaluate"), response, chain);
+
+        verifyNoInteractions(chain);
+        assertEquals(429, response.getStatus());
+        assertEquals("60", response.getHeader("Retry-After"));
+    }
+
+    @Test
+    @DisplayName("Should answer 503 with Retry-After when no slot is free")
+    void doFilter_Overloaded_503() throws Exception {
+        authenticate("professor1", "PROFESSOR");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = mock(FilterChain.class);
+
+        try (EvaluationAdmissionService.Ticket running =
+                     admissionService.admit("professor2", EvaluationAdmissionService.Priority.BULK)) {
+            filter.doFilter(new MockHttpServletRequest("POST", "/api/documents/4/evaluate"), response, chain);
+        }
+
+        verifyNoInteractions(chain);
+        assertEquals(503, response.getStatus());
+        assertNotNull(response.getHeader("Retry-After"));
+    }
+
+    @Test
+    @DisplayName("Should pass unauthenticated requests through to security")
+    void doFilter_Unauthenticated_PassesThrough() throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/documents/4/evaluate"),
+                new MockHttpServletResponse(), chain);
+
+        verify(chain).doFilter(any(), any());
+    }
+}
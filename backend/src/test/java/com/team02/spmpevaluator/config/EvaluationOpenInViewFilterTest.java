@@ -0,0 +1,32 @@
+package com.team02.spmpevaluator.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EvaluationOpenInViewFilter.
+ */
+@DisplayName("EvaluationOpenInViewFilter Tests")
+class EvaluationOpenInViewFilterTest {
+
+    private final EvaluationOpenInViewFilter filter = new EvaluationOpenInViewFilter();
+
+    @Test
+    @DisplayName("Should skip open-in-view for evaluation endpoints")
+    void shouldNotFilter_EvaluationEndpoints() {
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("POST", "/api/documents/12/evaluate")));
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("POST", "/api/documents/12/re-evaluate")));
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("POST", "/api/parser/feedback/3/generate-mock")));
+    }
+
+    @Test
+    @DisplayName("Should keep open-in-view for other requests")
+    void shouldNotFilter_OtherRequests_Filtered() {
+        assertFalse(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/documents/12")));
+        assertFalse(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/documents/12/evaluate")));
+        assertFalse(filter.shouldNotFilter(new MockHttpServletRequest("POST", "/api/documents/12/override")));
+    }
+}
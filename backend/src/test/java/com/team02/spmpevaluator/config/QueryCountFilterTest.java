@@ -0,0 +1,80 @@
+package com.team02.spmpevaluator.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for QueryCountFilter.
+ */
+@DisplayName("QueryCountFilter Tests")
+class QueryCountFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private QueryCountFilter filter;
+    private QueryCountInspector inspector;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new QueryCountFilter(meterRegistry);
+        ReflectionTestUtils.setField(filter, "warnThreshold", 20);
+        inspector = new QueryCountInspector();
+    }
+
+    @Test
+    @DisplayName("Should record statement count tagged with URI pattern")
+    void doFilter_RecordsCountByUriPattern() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/documents/my-documents");
+        FilterChain chain = (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/documents/my-documents");
+            inspector.inspect("select 1");
+            inspector.inspect("select 2");
+        };
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        DistributionSummary summary = meterRegistry.find(QueryCountFilter.METRIC_NAME)
+                .tag("uri", "/api/documents/my-documents")
+                .tag("method", "GET")
+                .summary();
+        assertNotNull(summary);
+        assertEquals(1, summary.count());
+        assertEquals(2.0, summary.totalAmount());
+    }
+
+    @Test
+    @DisplayName("Should tag unmatched requests")
+    void doFilter_NoPattern_TagsUnmatched() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/unknown");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> { });
+
+        assertNotNull(meterRegistry.find(QueryCountFilter.METRIC_NAME).tag("uri", "UNMATCHED").summary());
+    }
+
+    @Test
+    @DisplayName("Should clear counter after request even when chain throws")
+    void doFilter_ChainThrows_ClearsCounter() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks/my");
+        FilterChain chain = (req, res) -> {
+            inspector.inspect("select 1");
+            throw new IllegalStateException("boom");
+        };
+
+        assertThrows(IllegalStateException.class,
+                () -> filter.doFilter(request, new MockHttpServletResponse(), chain));
+
+        inspector.inspect("select 2");
+        assertEquals(0, QueryCountInspector.current());
+    }
+}
@@ -0,0 +1,85 @@
+package com.team02.spmpevaluator.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for QueryCountInspector.
+ */
+@DisplayName("QueryCountInspector Tests")
+class QueryCountInspectorTest {
+
+    private final QueryCountInspector inspector = new QueryCountInspector();
+
+    @AfterEach
+    void tearDown() {
+        QueryCountInspector.stop();
+    }
+
+    @Test
+    @DisplayName("Should return SQL unchanged")
+    void inspect_ReturnsSqlUnchanged() {
+        String sql = "select * from users";
+
+        assertEquals(sql, inspector.inspect(sql));
+    }
+
+    @Test
+    @DisplayName("Should count statements after start")
+    void inspect_AfterStart_CountsStatements() {
+        QueryCountInspector.start();
+
+        inspector.inspect("select 1");
+        inspector.inspect("select 2");
+        inspector.inspect("select 3");
+
+        assertEquals(3, QueryCountInspector.current());
+        assertEquals(3, QueryCountInspector.stop());
+    }
+
+    @Test
+    @DisplayName("Should not count when not started")
+    void inspect_NotStarted_DoesNotCount() {
+        inspector.inspect("select 1");
+
+        assertEquals(0, QueryCountInspector.current());
+    }
+
+    @Test
+    @DisplayName("Should reset count on start")
+    void start_ResetsCount() {
+        QueryCountInspector.start();
+        inspector.inspect("select 1");
+
+        QueryCountInspector.start();
+
+        assertEquals(0, QueryCountInspector.current());
+    }
+
+    @Test
+    @DisplayName("Should stop counting after stop")
+    void stop_StopsCounting() {
+        QueryCountInspector.start();
+        inspector.inspect("select 1");
+        QueryCountInspector.stop();
+
+        inspector.inspect("select 2");
+
+        assertEquals(0, QueryCountInspector.current());
+    }
+
+    @Test
+    @DisplayName("Should keep counts separate per thread")
+    void inspect_OtherThread_NotCounted() throws InterruptedException {
+        QueryCountInspector.start();
+
+        Thread other = new Thread(() -> inspector.inspect("select 1"));
+        other.start();
+        other.join();
+
+        assertEquals(0, QueryCountInspector.current());
+    }
+}
@@ -0,0 +1,148 @@
+package com.team02.spmpevaluator.controller;
+
+import com.team02.spmpevaluator.dto.AiUsageRollupDTO;
+import com.team02.spmpevaluator.service.AiCircuitBreaker;
+import com.team02.spmpevaluator.service.AiModelRouter;
+import com.team02.spmpevaluator.service.AiUsageService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for AdminAiController.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class AdminAiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AiModelRouter modelRouter;
+
+    @MockBean
+    private AiUsageService usageService;
+
+    @Nested
+    @DisplayName("GET /api/admin/ai/models")
+    class GetModelStats {
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("Should return per-model routing statistics")
+        void getModelStats_Success() throws Exception {
+            when(modelRouter.getStats()).thenReturn(List.of(
+                    new AiModelRouter.ModelStats("model/a", AiCircuitBreaker.State.OPEN, 0, 0, 1.0, 3, 3, 3),
+                    new AiModelRouter.ModelStats("model/b", AiCircuitBreaker.State.CLOSED, 420.0, 900.0, 0.0, 12, 0, 12)));
+            when(modelRouter.candidates()).thenReturn(List.of("model/b"));
+
+            mockMvc.perform(get("/api/admin/ai/models"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.models", hasSize(2)))
+                    .andExpect(jsonPath("$.models[0].model").value("model/a"))
+                    .andExpect(jsonPath("$.models[0].state").value("OPEN"))
+                    .andExpect(jsonPath("$.models[1].p50Millis").value(420.0))
+                    .andExpect(jsonPath("$.models[1].requests").value(12))
+                    .andExpect(jsonPath("$.routingOrder[0]").value("model/b"))
+                    .andExpect(jsonPath("$.generatedAt").exists());
+
+            verify(modelRouter).getStats();
+        }
+
+        @Test
+        @WithMockUser(roles = "PROFESSOR")
+        @DisplayName("Should return 403 for non-admin users")
+        void getModelStats_Professor_Forbidden() throws Exception {
+            mockMvc.perform(get("/api/admin/ai/models"))
+                    .andExpect(status().isForbidden());
+
+            verifyNoInteractions(modelRouter);
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/admin/ai/usage")
+    class GetUsage {
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("Should return usage grouped by model for the requested range")
+        void getUsage_ByModel_Success() throws Exception {
+            LocalDate from = LocalDate.of(2025, 1, 1);
+            LocalDate to = LocalDate.of(2025, 1, 31);
+            when(usageService.rollup(AiUsageService.GroupBy.MODEL, from, to)).thenReturn(List.of(
+                    new AiUsageRollupDTO("model/a", 40L, 2L, 12000L, 3000L, 0.05, 850.0, 4100L)));
+
+            mockMvc.perform(get("/api/admin/ai/usage")
+                            .param("groupBy", "model")
+                            .param("from", "2025-01-01")
+                            .param("to", "2025-01-31"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.groupBy").value("model"))
+                    .andExpect(jsonPath("$.from").value("2025-01-01"))
+                    .andExpect(jsonPath("$.rows", hasSize(1)))
+                    .andExpect(jsonPath("$.rows[0].key").value("model/a"))
+                    .andExpect(jsonPath("$.rows[0].calls").value(40))
+                    .andExpect(jsonPath("$.rows[0].promptTokens").value(12000));
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("Should default to the last 30 days by day")
+        void getUsage_Defaults_LastThirtyDaysByDay() throws Exception {
+            LocalDate today = LocalDate.now();
+
+            mockMvc.perform(get("/api/admin/ai/usage"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.groupBy").value("day"));
+
+            verify(usageService).rollup(AiUsageService.GroupBy.DAY, today.minusDays(29), today);
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("Should reject unknown groupings and inverted ranges")
+        void getUsage_InvalidParameters_BadRequest() throws Exception {
+            mockMvc.perform(get("/api/admin/ai/usage").param("groupBy", "student"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/admin/ai/usage").param("from", "2025-02-01").param("to", "2025-01-01"))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(usageService);
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("Should list a document's AI calls")
+        void getDocumentUsage_Success() throws Exception {
+            when(usageService.getDocumentUsage(5L)).thenReturn(List.of());
+
+            mockMvc.perform(get("/api/admin/ai/usage/documents/5"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(0)));
+        }
+
+        @Test
+        @WithMockUser(roles = "STUDENT")
+        @DisplayName("Should return 403 for non-admin users")
+        void getUsage_Student_Forbidden() throws Exception {
+            mockMvc.perform(get("/api/admin/ai/usage"))
+                    .andExpect(status().isForbidden());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.team02.spmpevaluator.controller;
+
+import com.team02.spmpevaluator.entity.SectionAnalysis;
+import com.team02.spmpevaluator.service.KeywordDictionary;
+import com.team02.spmpevaluator.service.KeywordDictionaryService;
+import com.team02.spmpevaluator.service.KeywordResweepService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.EnumMap;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for AdminKeywordDictionaryController.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class AdminKeywordDictionaryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private KeywordDictionaryService dictionaryService;
+
+    @MockBean
+    private KeywordResweepService resweepService;
+
+    @BeforeEach
+    void setUp() {
+        when(resweepService.getStatus()).thenReturn(new KeywordResweepService.SweepStatus(2, 1, true, 40, 5, 30, 0, 1));
+    }
+
+    @Nested
+    @DisplayName("GET /api/admin/keyword-dictionary")
+    class GetDictionary {
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("Should return the keywords, version and sweep progress")
+        void getDictionary_Success() throws Exception {
+            when(dictionaryService.current()).thenReturn(KeywordDictionary.BUILT_IN);
+
+            mockMvc.perform(get("/api/admin/keyword-dictionary"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.version").value(0))
+                    .andExpect(jsonPath("$.sections.RISK_MANAGEMENT", hasItem("risk")))
+                    .andExpect(jsonPath("$.sweep.running").value(true))
+                    .andExpect(jsonPath("$.sweep.cursor").value(40));
+        }
+
+        @Test
+        @WithMockUser(roles = "PROFESSOR")
+        @DisplayName("Should return 403 for non-admin users")
+        void getDictionary_Professor_Forbidden() throws Exception {
+            mockMvc.perform(get("/api/admin/keyword-dictionary"))
+                    .andExpect(status().isForbidden());
+
+            verifyNoInteractions(dictionaryService);
+        }
+    }
+
+    @Nested
+    @DisplayName("PUT /api/admin/keyword-dictionary/sections/{section}")
+    class UpdateSection {
+
+        @Test
+        @WithMockUser(username = "admin", roles = "ADMIN")
+        @DisplayName("Should replace the section keywords")
+        void updateSection_Success() throws Exception {
+            EnumMap<SectionAnalysis.IEEE1058Section, List<String>> keywords =
+                    new EnumMap<>(SectionAnalysis.IEEE1058Section.class);
+            keywords.put(SectionAnalysis.IEEE1058Section.MASTER_SCHEDULE, List.of("sprint", "burndown"));
+            when(dictionaryService.updateKeywords(eq(SectionAnalysis.IEEE1058Section.MASTER_SCHEDULE),
+                    eq(List.of("Sprint", "burndown")), eq("admin")))
+                    .thenReturn(KeywordDictionary.of(1L, keywords));
+
+            mockMvc.perform(put("/api/admin/keyword-dictionary/sections/master_schedule")
+                            .with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"keywords\": [\"Sprint\", \"burndown\"]}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.version").value(1))
+                    .andExpect(jsonPath("$.sections.MASTER_SCHEDULE", contains("sprint", "burndown")));
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("Should return 400 for an unknown section")
+        void updateSection_UnknownSection_BadRequest() throws Exception {
+            mockMvc.perform(put("/api/admin/keyword-dictionary/sections/foreword")
+                            .with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"keywords\": [\"preface\"]}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Unknown section: foreword"));
+
+            verifyNoInteractions(dictionaryService);
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("Should return 400 for an empty keyword list")
+        void updateSection_NoKeywords_BadRequest() throws Exception {
+            when(dictionaryService.updateKeywords(any(), any(), any()))
+                    .thenThrow(new IllegalArgumentException("At least one keyword is required"));
+
+            mockMvc.perform(put("/api/admin/keyword-dictionary/sections/overview")
+                            .with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"keywords\": []}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("At least one keyword is required"));
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/admin/keyword-dictionary/sweep")
+    class StartSweep {
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("Should start a sweep to the current version")
+        void startSweep_Accepted() throws Exception {
+            when(dictionaryService.current())
+                    .thenReturn(KeywordDictionary.of(2L, KeywordDictionary.BUILT_IN.getKeywords()));
+
+            mockMvc.perform(post("/api/admin/keyword-dictionary/sweep").with(csrf()))
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.targetVersion").value(2));
+
+            verify(resweepService).requestSweep(2L);
+        }
+    }
+}
@@ -24,6 +24,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -281,6 +282,22 @@ class DocumentControllerTest {
                     .andExpect(status().isInternalServerError())
                     .andExpect(content().string(org.hamcrest.Matchers.containsString("Failed to process document")));
         }
+
+        @Test
+        @WithMockUser(username = "student")
+        @DisplayName("Should return conflict when the score was changed concurrently")
+        void evaluateDocument_StaleWrite() throws Exception {
+            when(documentService.getDocumentById(1L)).thenReturn(Optional.of(testDocument));
+            when(documentService.getDocumentContent(1L)).thenReturn("Document content");
+            when(evaluationService.evaluateDocument(eq(testDocument), anyString()))
+                    .thenThrow(new OptimisticLockingFailureException("stale compliance score"));
+
+            mockMvc.perform(post("/api/documents/1/evaluate"))
+                    .andExpect(status().isConflict())
+                    .andExpect(content().string(org.hamcrest.Matchers.containsString("Evaluation conflict")));
+
+            verify(documentService, never()).updateDocumentEvaluation(anyLong(), anyString(), anyBoolean());
+        }
     }
 
     @Nested
@@ -313,6 +330,51 @@ class DocumentControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /api/documents/{documentId}/evaluation-progress - Evaluation Progress Stream")
+    class EvaluationProgressTests {
+
+        @Test
+        @WithMockUser(username = "student")
+        @DisplayName("Should open an event stream for own document")
+        void streamEvaluationProgress_OwnDocument() throws Exception {
+            when(documentService.getDocumentById(1L)).thenReturn(Optional.of(testDocument));
+            when(userService.findByUsername("student")).thenReturn(Optional.of(studentUser));
+
+            mockMvc.perform(get("/api/documents/1/evaluation-progress"))
+                    .andExpect(request().asyncStarted())
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Type",
+                            org.hamcrest.Matchers.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE)));
+        }
+
+        @Test
+        @WithMockUser(username = "otherstudent")
+        @DisplayName("Should forbid streaming another student's document")
+        void streamEvaluationProgress_OtherStudentDocument() throws Exception {
+            User otherStudent = new User();
+            otherStudent.setId(3L);
+            otherStudent.setUsername("otherstudent");
+            otherStudent.setRole(Role.STUDENT);
+
+            when(documentService.getDocumentById(1L)).thenReturn(Optional.of(testDocument));
+            when(userService.findByUsername("otherstudent")).thenReturn(Optional.of(otherStudent));
+
+            mockMvc.perform(get("/api/documents/1/evaluation-progress"))
+                    .andExpect(status().isForbidden());
+        }
+
+        @Test
+        @WithMockUser(username = "student")
+        @DisplayName("Should return 404 for unknown document")
+        void streamEvaluationProgress_NotFound() throws Exception {
+            when(documentService.getDocumentById(999L)).thenReturn(Optional.empty());
+
+            mockMvc.perform(get("/api/documents/999/evaluation-progress"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/documents/{documentId} - Get Document")
     class GetDocumentTests {
@@ -0,0 +1,223 @@
+package com.team02.spmpevaluator.controller;
+
+import com.team02.spmpevaluator.entity.*;
+import com.team02.spmpevaluator.repository.SPMPDocumentRepository;
+import com.team02.spmpevaluator.repository.StudentProfessorAssignmentRepository;
+import com.team02.spmpevaluator.repository.TaskRepository;
+import com.team02.spmpevaluator.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query budget tests for the list endpoints. Each request runs through the full filter chain,
+ * so the count recorded by QueryCountFilter from QueryCountInspector covers the controller, the
+ * service and the lazy associations touched while serializing the response. Doubling the rows
+ * must not change the count.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:endpoint-query-budget;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@DisplayName("Endpoint Query Budget Tests")
+class EndpointQueryBudgetTest {
+
+    private static final String METRIC_NAME = "http.server.requests.sql";
+
+    // Stays below hibernate.default_batch_fetch_size so batched collections take one statement
+    private static final int ROWS = 4;
+
+    private static final int BUDGET = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SPMPDocumentRepository documentRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private StudentProfessorAssignmentRepository assignmentRepository;
+
+    private final List<User> users = new ArrayList<>();
+
+    private User admin;
+    private User student;
+    private User professor;
+
+    @BeforeEach
+    void setUp() {
+        admin = saveUser("budget-admin", Role.ADMIN);
+        student = saveUser("budget-student", Role.STUDENT);
+        professor = saveUser("budget-prof", Role.PROFESSOR);
+    }
+
+    @AfterEach
+    void tearDown() {
+        assignmentRepository.deleteAll();
+        taskRepository.deleteAll();
+        documentRepository.deleteAll();
+        userRepository.deleteAll(users);
+        users.clear();
+    }
+
+    @Nested
+    @DisplayName("Student Endpoints")
+    class StudentEndpoints {
+
+        @Test
+        @WithMockUser(username = "budget-student", roles = "STUDENT")
+        @DisplayName("My documents should not issue a query per document")
+        void myDocuments_WithinBudget() throws Exception {
+            assertRowIndependent(get("/api/documents/my-documents"), EndpointQueryBudgetTest.this::addDocuments);
+        }
+
+        @Test
+        @WithMockUser(username = "budget-student", roles = "STUDENT")
+        @DisplayName("My tasks should not issue a query per task")
+        void myTasks_WithinBudget() throws Exception {
+            assertRowIndependent(get("/api/tasks/my"), EndpointQueryBudgetTest.this::addTasks);
+        }
+
+        @Test
+        @WithMockUser(username = "budget-student", roles = "STUDENT")
+        @DisplayName("Student progress should not issue a query per document or task")
+        void studentProgress_WithinBudget() throws Exception {
+            assertRowIndependent(get("/api/reports/student-progress/{userId}", student.getId()), () -> {
+                addDocuments();
+                addTasks();
+            });
+        }
+    }
+
+    @Nested
+    @DisplayName("Assignment Endpoints")
+    class AssignmentEndpoints {
+
+        @Test
+        @WithMockUser(username = "budget-admin", roles = "ADMIN")
+        @DisplayName("Assignment listing should not issue a query per assignment")
+        void allAssignments_WithinBudget() throws Exception {
+            assertRowIndependent(get("/api/admin/assignments"), EndpointQueryBudgetTest.this::addAssignments);
+        }
+
+        @Test
+        @WithMockUser(username = "budget-admin", roles = "ADMIN")
+        @DisplayName("Professor's students should not issue a query per student")
+        void professorStudents_WithinBudget() throws Exception {
+            assertRowIndependent(get("/api/admin/assignments/professor/{professorId}", professor.getId()),
+                    EndpointQueryBudgetTest.this::addAssignments);
+        }
+    }
+
+    /**
+     * Run the request with ROWS and then 2 * ROWS rows; both must execute the same number of
+     * statements, and no more than BUDGET.
+     */
+    private void assertRowIndependent(RequestBuilder request, Runnable addRows) throws Exception {
+        addRows.run();
+        int first = statements(request);
+        addRows.run();
+        int second = statements(request);
+
+        assertEquals(first, second, "statement count grew with the number of rows");
+        assertTrue(first <= BUDGET, "executed " + first + " statements, budget is " + BUDGET);
+    }
+
+    private int statements(RequestBuilder request) throws Exception {
+        double before = recorded();
+        mockMvc.perform(request).andExpect(status().isOk());
+        return (int) (recorded() - before);
+    }
+
+    private double recorded() {
+        return meterRegistry.find(METRIC_NAME).summaries().stream()
+                .mapToDouble(DistributionSummary::totalAmount)
+                .sum();
+    }
+
+    private void addDocuments() {
+        for (int i = 0; i < ROWS; i++) {
+            SPMPDocument document = new SPMPDocument();
+            document.setFileName("doc" + i + ".pdf");
+            document.setFileUrl("/uploads/" + i + ".pdf");
+            document.setUploadedBy(student);
+            document.setEvaluated(true);
+
+            ComplianceScore score = new ComplianceScore();
+            score.setDocument(document);
+            score.setOverallScore(80.0);
+            score.setStructureScore(80.0);
+            score.setCompletenessScore(80.0);
+            document.setComplianceScore(score);
+
+            documentRepository.save(document);
+        }
+    }
+
+    private void addTasks() {
+        for (int i = 0; i < ROWS; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setDeadline(LocalDateTime.now().plusDays(i));
+            task.setAssignedTo(student);
+            task.setCreatedBy(saveUser("budget-creator" + users.size(), Role.PROFESSOR));
+            taskRepository.save(task);
+        }
+    }
+
+    private void addAssignments() {
+        for (int i = 0; i < ROWS; i++) {
+            StudentProfessorAssignment assignment = new StudentProfessorAssignment();
+            assignment.setStudent(saveUser("budget-assigned" + users.size(), Role.STUDENT));
+            assignment.setProfessor(professor);
+            assignment.setAssignedBy(admin);
+            assignmentRepository.save(assignment);
+        }
+    }
+
+    private User saveUser(String username, Role role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        user.setRole(role);
+        User saved = userRepository.save(user);
+        users.add(saved);
+        return saved;
+    }
+}
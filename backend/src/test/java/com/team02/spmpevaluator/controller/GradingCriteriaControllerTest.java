@@ -2,10 +2,12 @@ package com.team02.spmpevaluator.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.team02.spmpevaluator.dto.GradingCriteriaDTO;
+import com.team02.spmpevaluator.dto.WhatIfRescoringDTO;
 import com.team02.spmpevaluator.entity.Role;
 import com.team02.spmpevaluator.entity.User;
 import com.team02.spmpevaluator.service.GradingCriteriaService;
 import com.team02.spmpevaluator.service.UserService;
+import com.team02.spmpevaluator.service.WhatIfRescoringService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -43,6 +45,9 @@ class GradingCriteriaControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private WhatIfRescoringService whatIfRescoringService;
+
     private User professorUser;
     private User studentUser;
     private GradingCriteriaDTO testCriteriaDTO;
@@ -478,6 +483,75 @@ class GradingCriteriaControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("POST /api/grading-criteria/what-if - What-if Rescoring")
+    class WhatIfRescoringTests {
+
+        @Test
+        @WithMockUser(username = "professor", roles = { "PROFESSOR" })
+        @DisplayName("Should preview rescoring without committing by default")
+        void whatIfRescore_Preview() throws Exception {
+            WhatIfRescoringDTO result = new WhatIfRescoringDTO();
+            result.setDocumentsScored(3);
+            result.setBecameCompliant(1);
+            when(userService.findByUsername("professor")).thenReturn(Optional.of(professorUser));
+            when(whatIfRescoringService.rescore(eq(1L), any(GradingCriteriaDTO.class), eq(false))).thenReturn(result);
+
+            mockMvc.perform(post("/api/grading-criteria/what-if")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(testCriteriaDTO)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.documentsScored").value(3))
+                    .andExpect(jsonPath("$.becameCompliant").value(1))
+                    .andExpect(jsonPath("$.committed").value(false));
+        }
+
+        @Test
+        @WithMockUser(username = "professor", roles = { "PROFESSOR" })
+        @DisplayName("Should pass the commit flag to the service")
+        void whatIfRescore_Commit() throws Exception {
+            WhatIfRescoringDTO result = new WhatIfRescoringDTO();
+            result.setCommitted(true);
+            result.setUpdated(2);
+            when(userService.findByUsername("professor")).thenReturn(Optional.of(professorUser));
+            when(whatIfRescoringService.rescore(eq(1L), any(GradingCriteriaDTO.class), eq(true))).thenReturn(result);
+
+            mockMvc.perform(post("/api/grading-criteria/what-if")
+                    .param("commit", "true")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(testCriteriaDTO)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.committed").value(true))
+                    .andExpect(jsonPath("$.updated").value(2));
+        }
+
+        @Test
+        @WithMockUser(username = "professor", roles = { "PROFESSOR" })
+        @DisplayName("Should reject candidate weights that do not sum to 100")
+        void whatIfRescore_InvalidWeights() throws Exception {
+            when(userService.findByUsername("professor")).thenReturn(Optional.of(professorUser));
+            when(whatIfRescoringService.rescore(eq(1L), any(GradingCriteriaDTO.class), anyBoolean()))
+                    .thenThrow(new IllegalArgumentException("Section weights must sum to 100. Current total: 90"));
+
+            mockMvc.perform(post("/api/grading-criteria/what-if")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(testCriteriaDTO)))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @WithMockUser(username = "student", roles = { "STUDENT" })
+        @DisplayName("Should forbid students from rescoring")
+        void whatIfRescore_Student_Forbidden() throws Exception {
+            mockMvc.perform(post("/api/grading-criteria/what-if")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(testCriteriaDTO)))
+                    .andExpect(status().isForbidden());
+
+            verifyNoInteractions(whatIfRescoringService);
+        }
+    }
+
     @Nested
     @DisplayName("Validation Tests")
     class ValidationTests {
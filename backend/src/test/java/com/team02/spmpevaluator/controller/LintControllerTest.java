@@ -0,0 +1,107 @@
+package com.team02.spmpevaluator.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team02.spmpevaluator.dto.SectionLintDTO;
+import com.team02.spmpevaluator.dto.SectionLintRequest;
+import com.team02.spmpevaluator.entity.SectionAnalysis.IEEE1058Section;
+import com.team02.spmpevaluator.service.ComplianceEvaluationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for LintController.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class LintControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ComplianceEvaluationService evaluationService;
+
+    @Nested
+    @DisplayName("POST /api/lint/section")
+    class LintSection {
+
+        @Test
+        @WithMockUser(roles = "STUDENT")
+        @DisplayName("Should return coverage, missing subclauses and projected score")
+        void lintSection_Success() throws Exception {
+            when(evaluationService.lintSection(IEEE1058Section.RISK_MANAGEMENT, "Risk register and mitigation."))
+                    .thenReturn(new SectionLintDTO(IEEE1058Section.RISK_MANAGEMENT, true, 52.5, 28.6, 55.6,
+                            List.of("risk"), List.of("contingency"), List.of("6.3 Monitoring"),
+                            "findings", "recommendations", 3L, 120L));
+
+            mockMvc.perform(post("/api/lint/section")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new SectionLintRequest(
+                                    IEEE1058Section.RISK_MANAGEMENT, "Risk register and mitigation."))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.section").value("RISK_MANAGEMENT"))
+                    .andExpect(jsonPath("$.projectedScore").value(52.5))
+                    .andExpect(jsonPath("$.missingSubclauses[0]").value("6.3 Monitoring"))
+                    .andExpect(jsonPath("$.keywordDictionaryVersion").value(3));
+        }
+
+        @Test
+        @WithMockUser(roles = "STUDENT")
+        @DisplayName("Should return 400 without a section or text")
+        void lintSection_MissingFields_BadRequest() throws Exception {
+            mockMvc.perform(post("/api/lint/section")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"text\": \"Risk register\"}"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(post("/api/lint/section")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"section\": \"RISK_MANAGEMENT\", \"text\": \"  \"}"))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(evaluationService);
+        }
+
+        @Test
+        @WithMockUser(roles = "STUDENT")
+        @DisplayName("Should return 413 for text longer than a section")
+        void lintSection_TooLong() throws Exception {
+            mockMvc.perform(post("/api/lint/section")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new SectionLintRequest(
+                                    IEEE1058Section.OVERVIEW, "x".repeat(50_001)))))
+                    .andExpect(status().isPayloadTooLarge())
+                    .andExpect(jsonPath("$.status").value(413));
+
+            verify(evaluationService, never()).lintSection(any(), anyString());
+        }
+
+        @Test
+        @DisplayName("Should redirect to OAuth2 when not authenticated")
+        void lintSection_Anonymous() throws Exception {
+            mockMvc.perform(post("/api/lint/section")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"section\": \"OVERVIEW\", \"text\": \"Scope\"}"))
+                    .andExpect(status().is3xxRedirection());
+
+            verifyNoInteractions(evaluationService);
+        }
+    }
+}
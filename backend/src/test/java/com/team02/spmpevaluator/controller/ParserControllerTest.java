@@ -621,6 +621,52 @@ class ParserControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("POST /api/parser/feedback/{documentId}/analyze")
+    class AnalyzeDocument {
+
+        @Test
+        @WithMockUser(roles = "PROFESSOR")
+        @DisplayName("Should queue the analysis and return 202 with the pending entry")
+        void analyzeDocument_Accepted() throws Exception {
+            parserFeedback.setStatus(ParserFeedback.FeedbackStatus.PENDING);
+            when(documentRepository.findById(1L)).thenReturn(Optional.of(document));
+            when(parserConfigurationService.getDefaultConfiguration()).thenReturn(Optional.of(parserConfig));
+            when(parserFeedbackService.submitAnalysis(document, parserConfig)).thenReturn(parserFeedback);
+
+            mockMvc.perform(post("/api/parser/feedback/1/analyze")
+                    .with(csrf()))
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.id").value(1))
+                    .andExpect(jsonPath("$.status").value("PENDING"));
+
+            verify(parserFeedbackService, never()).generateMockFeedback(any(), any());
+        }
+
+        @Test
+        @WithMockUser(roles = "PROFESSOR")
+        @DisplayName("Should return 400 when document not found")
+        void analyzeDocument_DocumentNotFound() throws Exception {
+            when(documentRepository.findById(999L)).thenReturn(Optional.empty());
+
+            mockMvc.perform(post("/api/parser/feedback/999/analyze")
+                    .with(csrf()))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string(containsString("Failed to queue analysis")));
+        }
+
+        @Test
+        @WithMockUser(roles = "STUDENT")
+        @DisplayName("Should return 403 for STUDENT role")
+        void analyzeDocument_ForbiddenForStudent() throws Exception {
+            mockMvc.perform(post("/api/parser/feedback/1/analyze")
+                    .with(csrf()))
+                    .andExpect(status().isForbidden());
+
+            verifyNoInteractions(parserFeedbackService);
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/parser/feedback/document/{documentId}")
     class GetFeedbackByDocument {
@@ -0,0 +1,52 @@
+package com.team02.spmpevaluator.entity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AiResponseCacheEntry entity.
+ */
+@DisplayName("AiResponseCacheEntry Entity Tests")
+class AiResponseCacheEntryTest {
+
+    @Test
+    @DisplayName("Should create entity with all-args constructor")
+    void allArgsConstructor_CreatesPopulatedEntity() {
+        LocalDateTime now = LocalDateTime.now();
+
+        AiResponseCacheEntry entry = new AiResponseCacheEntry(1L, "abc", "model", "v1", "response", now, now.plusDays(1));
+
+        assertEquals(1L, entry.getId());
+        assertEquals("abc", entry.getCacheKey());
+        assertEquals("model", entry.getModel());
+        assertEquals("v1", entry.getPromptVersion());
+        assertEquals("response", entry.getResponse());
+        assertEquals(now, entry.getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("Should set createdAt on persist when missing")
+    void onCreate_SetsCreatedAt() {
+        AiResponseCacheEntry entry = new AiResponseCacheEntry();
+
+        entry.onCreate();
+
+        assertNotNull(entry.getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("Should report expiry based on expiresAt")
+    void isExpired_ComparesWithNow() {
+        AiResponseCacheEntry entry = new AiResponseCacheEntry();
+
+        entry.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        assertTrue(entry.isExpired());
+
+        entry.setExpiresAt(LocalDateTime.now().plusDays(1));
+        assertFalse(entry.isExpired());
+    }
+}
@@ -0,0 +1,53 @@
+package com.team02.spmpevaluator.entity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AiUsageRecord entity.
+ */
+@DisplayName("AiUsageRecord Entity Tests")
+class AiUsageRecordTest {
+
+    @Test
+    @DisplayName("Should create entity with all-args constructor")
+    void allArgsConstructor_CreatesPopulatedEntity() {
+        LocalDateTime now = LocalDateTime.now();
+
+        AiUsageRecord usage = new AiUsageRecord(1L, "model/a", "section-enrichment", 7L, "OVERVIEW",
+                100, 40, 140, 0.002, 850L, AiUsageRecord.Outcome.SUCCESS, 200, now.toLocalDate(), now);
+
+        assertEquals("model/a", usage.getModel());
+        assertEquals(7L, usage.getDocumentId());
+        assertEquals(140, usage.getTotalTokens());
+        assertEquals(850L, usage.getLatencyMs());
+        assertEquals(AiUsageRecord.Outcome.SUCCESS, usage.getOutcome());
+    }
+
+    @Test
+    @DisplayName("Should set createdAt and usage date on persist when missing")
+    void onCreate_SetsTimestamps() {
+        AiUsageRecord usage = new AiUsageRecord();
+
+        usage.onCreate();
+
+        assertNotNull(usage.getCreatedAt());
+        assertEquals(usage.getCreatedAt().toLocalDate(), usage.getUsageDate());
+    }
+
+    @Test
+    @DisplayName("Should keep an explicit usage date")
+    void onCreate_KeepsUsageDate() {
+        AiUsageRecord usage = new AiUsageRecord();
+        usage.setUsageDate(LocalDate.of(2025, 3, 1));
+
+        usage.onCreate();
+
+        assertEquals(LocalDate.of(2025, 3, 1), usage.getUsageDate());
+    }
+}
@@ -54,7 +54,7 @@ class ComplianceScoreTest {
             ComplianceScore entity = new ComplianceScore(
                     1L, document, 85.0, 90.0, 80.0, 11, 9,
                     true, "Good compliance", analyses, now,
-                    92.0, "Excellent work", reviewer, now);
+                    92.0, "Excellent work", reviewer, now, 2L, 1, 3L);
 
             assertEquals(1L, entity.getId());
             assertEquals(document, entity.getDocument());
@@ -71,6 +71,9 @@ class ComplianceScoreTest {
             assertEquals("Excellent work", entity.getProfessorNotes());
             assertEquals(reviewer, entity.getReviewedBy());
             assertEquals(now, entity.getReviewedAt());
+            assertEquals(2L, entity.getKeywordDictionaryVersion());
+            assertEquals(1, entity.getKeywordMatchEdits());
+            assertEquals(3L, entity.getVersion());
         }
     }
 
@@ -270,10 +273,10 @@ class ComplianceScoreTest {
             LocalDateTime now = LocalDateTime.now();
             ComplianceScore score1 = new ComplianceScore(
                     1L, document, 85.0, 90.0, 80.0, 11, 9,
-                    true, "summary", null, now, null, null, null, null);
+                    true, "summary", null, now, null, null, null, null, null, null, null);
             ComplianceScore score2 = new ComplianceScore(
                     1L, document, 85.0, 90.0, 80.0, 11, 9,
-                    true, "summary", null, now, null, null, null, null);
+                    true, "summary", null, now, null, null, null, null, null, null, null);
 
             assertEquals(score1, score2);
             assertEquals(score1.hashCode(), score2.hashCode());
@@ -0,0 +1,159 @@
+package com.team02.spmpevaluator.repository;
+
+import com.team02.spmpevaluator.config.QueryCountConfig;
+import com.team02.spmpevaluator.config.QueryCountInspector;
+import com.team02.spmpevaluator.entity.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query budget tests for the repository methods behind list endpoints
+ * (/api/documents/my-documents, /api/tasks/my, /api/reports/student-progress/{userId}
+ * and the assignment listings). Each listing, including the associations the controllers
+ * serialize, must stay within a fixed number of statements regardless of row count.
+ */
+@DataJpaTest
+@Import(QueryCountConfig.class)
+@TestPropertySource(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@DisplayName("Repository Query Budget Tests")
+class RepositoryQueryBudgetTest {
+
+    private static final int ROWS = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SPMPDocumentRepository documentRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private StudentProfessorAssignmentRepository assignmentRepository;
+
+    private User student;
+
+    @BeforeEach
+    void setUp() {
+        User admin = persistUser("admin", Role.ADMIN);
+        student = persistUser("student", Role.STUDENT);
+
+        for (int i = 0; i < ROWS; i++) {
+            User professor = persistUser("prof" + i, Role.PROFESSOR);
+
+            SPMPDocument document = new SPMPDocument();
+            document.setFileName("doc" + i + ".pdf");
+            document.setFileUrl("/uploads/" + i + ".pdf");
+            document.setUploadedBy(student);
+            entityManager.persist(document);
+
+            ComplianceScore score = new ComplianceScore();
+            score.setDocument(document);
+            score.setOverallScore(80.0);
+            score.setStructureScore(80.0);
+            score.setCompletenessScore(80.0);
+            entityManager.persist(score);
+
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setDeadline(LocalDateTime.now().plusDays(i));
+            task.setAssignedTo(student);
+            task.setCreatedBy(professor);
+            entityManager.persist(task);
+
+            StudentProfessorAssignment assignment = new StudentProfessorAssignment();
+            assignment.setStudent(persistUser("s" + i, Role.STUDENT));
+            assignment.setProfessor(professor);
+            assignment.setAssignedBy(admin);
+            entityManager.persist(assignment);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        QueryCountInspector.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        QueryCountInspector.stop();
+    }
+
+    @Test
+    @DisplayName("My documents should load uploader and score in one statement")
+    void findByUploadedBy_Id_WithinBudget() {
+        List<SPMPDocument> documents = documentRepository.findByUploadedBy_Id(student.getId());
+        documents.forEach(d -> {
+            d.getUploadedBy().getUsername();
+            d.getComplianceScore().getOverallScore();
+        });
+
+        assertEquals(ROWS, documents.size());
+        assertEquals(1, QueryCountInspector.current());
+    }
+
+    @Test
+    @DisplayName("All submissions should load uploader and score in one statement")
+    void findAllWithUploadedBy_WithinBudget() {
+        List<SPMPDocument> documents = documentRepository.findAllWithUploadedBy();
+        documents.forEach(d -> {
+            d.getUploadedBy().getUsername();
+            d.getComplianceScore().getOverallScore();
+        });
+
+        assertEquals(ROWS, documents.size());
+        assertEquals(1, QueryCountInspector.current());
+    }
+
+    @Test
+    @DisplayName("My tasks should load assignee and creator in one statement")
+    void findByAssignedTo_Id_WithinBudget() {
+        List<Task> tasks = taskRepository.findByAssignedTo_Id(student.getId());
+        tasks.forEach(t -> {
+            t.getAssignedTo().getUsername();
+            t.getCreatedBy().getUsername();
+        });
+
+        assertEquals(ROWS, tasks.size());
+        assertEquals(1, QueryCountInspector.current());
+    }
+
+    @Test
+    @DisplayName("Assignment listing should load all users in one statement")
+    void findAllAssignments_WithinBudget() {
+        List<StudentProfessorAssignment> assignments = assignmentRepository.findAll();
+        assignments.forEach(a -> {
+            a.getStudent().getUsername();
+            a.getProfessor().getUsername();
+            a.getAssignedBy().getUsername();
+        });
+
+        assertEquals(ROWS, assignments.size());
+        assertEquals(1, QueryCountInspector.current());
+    }
+
+    private User persistUser(String username, Role role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        user.setRole(role);
+        return entityManager.persist(user);
+    }
+}
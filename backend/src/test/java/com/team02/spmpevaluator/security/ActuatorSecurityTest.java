@@ -0,0 +1,59 @@
+package com.team02.spmpevaluator.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Access rules for the actuator endpoints.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("Actuator Security Tests")
+class ActuatorSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    @DisplayName("Should forbid metrics to non-admin users")
+    void metrics_NonAdmin_Forbidden() throws Exception {
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics/http.server.requests.sql"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should serve metrics to admins")
+    void metrics_Admin_Ok() throws Exception {
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    @DisplayName("Should leave health open to any authenticated user")
+    void health_NonAdmin_Allowed() throws Exception {
+        // Health may report DOWN (503) when a dependency such as mail is unreachable; only access matters here
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(result -> assertNotEquals(403, result.getResponse().getStatus()));
+    }
+
+    @Test
+    @DisplayName("Should redirect anonymous metrics requests to login")
+    void metrics_Anonymous_Redirect() throws Exception {
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().is3xxRedirection());
+    }
+}
@@ -10,10 +10,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import java.time.Duration;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,6 +31,9 @@ class CustomUserDetailsServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private UserDetailsCache userDetailsCache = new UserDetailsCache(100, Duration.ofMinutes(5));
+
     @InjectMocks
     private CustomUserDetailsService customUserDetailsService;
 
@@ -149,4 +154,45 @@ class CustomUserDetailsServiceTest {
                     .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN")));
         }
     }
+
+    @Nested
+    @DisplayName("Caching Tests")
+    class CachingTests {
+
+        @Test
+        @DisplayName("Should serve repeat lookups from cache")
+        void loadUserByUsername_RepeatLookup_HitsRepositoryOnce() {
+            when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+            UserDetails first = customUserDetailsService.loadUserByUsername("testuser");
+            UserDetails second = customUserDetailsService.loadUserByUsername("testuser");
+
+            assertSame(first, second);
+            verify(userRepository, times(1)).findByUsername("testuser");
+        }
+
+        @Test
+        @DisplayName("Should not cache disabled users")
+        void loadUserByUsername_DisabledUser_NotCached() {
+            testUser.setEnabled(false);
+            when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+            assertThrows(UsernameNotFoundException.class,
+                    () -> customUserDetailsService.loadUserByUsername("testuser"));
+
+            assertNull(userDetailsCache.getIfPresent("testuser"));
+        }
+
+        @Test
+        @DisplayName("Should reload from repository after invalidation")
+        void loadUserByUsername_AfterInvalidation_ReloadsFromRepository() {
+            when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+            customUserDetailsService.loadUserByUsername("testuser");
+            userDetailsCache.invalidateUser(1L);
+            customUserDetailsService.loadUserByUsername("testuser");
+
+            verify(userRepository, times(2)).findByUsername("testuser");
+        }
+    }
 }
@@ -259,4 +259,69 @@ class JwtUtilTest {
             }
         }
     }
+
+    @Nested
+    @DisplayName("Verified Token Cache Tests")
+    class VerifiedTokenCacheTests {
+
+        @Test
+        @DisplayName("Should cache claims once per token")
+        void extractUsername_RepeatedCalls_CachesSingleEntry() {
+            String token = jwtUtil.generateToken("testuser");
+
+            jwtUtil.extractUsername(token);
+            jwtUtil.validateToken(token, "testuser");
+            jwtUtil.extractExpiration(token);
+
+            assertEquals(1, jwtUtil.cachedTokenCount());
+        }
+
+        @Test
+        @DisplayName("Should not cache tokens that fail verification")
+        void validateToken_TamperedToken_NotCached() {
+            String token = jwtUtil.generateToken("testuser");
+            String tamperedToken = token.substring(0, token.length() - 5) + "xxxxx";
+
+            jwtUtil.validateToken(tamperedToken, "testuser");
+
+            assertEquals(0, jwtUtil.cachedTokenCount());
+        }
+
+        @Test
+        @DisplayName("Should reject cached token after signing key rotates")
+        void validateToken_AfterKeyRotation_RejectsOldToken() {
+            String token = jwtUtil.generateToken("testuser");
+            assertTrue(jwtUtil.validateToken(token, "testuser"));
+
+            ReflectionTestUtils.setField(jwtUtil, "secret", "rotatedSecretKey987654321zyxwvutsrqponmlkjihgfedcba");
+
+            assertFalse(jwtUtil.validateToken(token, "testuser"));
+            assertEquals(0, jwtUtil.cachedTokenCount());
+        }
+
+        @Test
+        @DisplayName("Should accept tokens signed with the rotated key")
+        void validateToken_NewTokenAfterRotation_ReturnsTrue() {
+            ReflectionTestUtils.setField(jwtUtil, "secret", "rotatedSecretKey987654321zyxwvutsrqponmlkjihgfedcba");
+
+            String token = jwtUtil.generateToken("testuser");
+
+            assertTrue(jwtUtil.validateToken(token, "testuser"));
+        }
+
+        @Test
+        @DisplayName("Should reject cached token once it has expired")
+        void validateToken_CachedTokenExpires_ReturnsFalse() throws InterruptedException {
+            JwtUtil shortExpirationJwtUtil = new JwtUtil();
+            ReflectionTestUtils.setField(shortExpirationJwtUtil, "secret", TEST_SECRET);
+            ReflectionTestUtils.setField(shortExpirationJwtUtil, "expirationTime", 1500L);
+
+            String token = shortExpirationJwtUtil.generateToken("testuser");
+            assertTrue(shortExpirationJwtUtil.validateToken(token, "testuser"));
+
+            Thread.sleep(2000);
+
+            assertFalse(shortExpirationJwtUtil.validateToken(token, "testuser"));
+        }
+    }
 }
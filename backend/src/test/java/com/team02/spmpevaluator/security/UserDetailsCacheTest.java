@@ -0,0 +1,131 @@
+package com.team02.spmpevaluator.security;
+
+import com.team02.spmpevaluator.entity.Role;
+import com.team02.spmpevaluator.entity.User;
+import com.team02.spmpevaluator.service.UserAccountChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for UserDetailsCache.
+ */
+@DisplayName("UserDetailsCache Tests")
+class UserDetailsCacheTest {
+
+    private UserDetailsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserDetailsCache(2, Duration.ofMinutes(5));
+    }
+
+    private CustomUserDetails details(Long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setRole(Role.STUDENT);
+        user.setEnabled(true);
+        return new CustomUserDetails(user);
+    }
+
+    @Nested
+    @DisplayName("Lookup Tests")
+    class LookupTests {
+
+        @Test
+        @DisplayName("Should return cached entry")
+        void getIfPresent_AfterPut_ReturnsEntry() {
+            CustomUserDetails details = details(1L, "alice");
+            cache.put("alice", details);
+
+            assertSame(details, cache.getIfPresent("alice"));
+        }
+
+        @Test
+        @DisplayName("Should return null for unknown username")
+        void getIfPresent_Unknown_ReturnsNull() {
+            assertNull(cache.getIfPresent("nobody"));
+        }
+
+        @Test
+        @DisplayName("Should stay within maximum size")
+        void put_BeyondMaxSize_EvictsEntries() {
+            cache.put("alice", details(1L, "alice"));
+            cache.put("bob", details(2L, "bob"));
+            cache.put("carol", details(3L, "carol"));
+
+            assertTrue(cache.size() <= 2);
+        }
+
+        @Test
+        @DisplayName("Should record hits and misses")
+        void stats_RecordsHitsAndMisses() {
+            cache.put("alice", details(1L, "alice"));
+
+            cache.getIfPresent("alice");
+            cache.getIfPresent("bob");
+
+            assertEquals(1, cache.stats().hitCount());
+            assertEquals(1, cache.stats().missCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Invalidation Tests")
+    class InvalidationTests {
+
+        @Test
+        @DisplayName("Should evict entry by user id")
+        void invalidateUser_RemovesMatchingEntry() {
+            cache.put("alice", details(1L, "alice"));
+            cache.put("bob", details(2L, "bob"));
+
+            cache.invalidateUser(1L);
+
+            assertNull(cache.getIfPresent("alice"));
+            assertNotNull(cache.getIfPresent("bob"));
+        }
+
+        @Test
+        @DisplayName("Should evict entry on account change event")
+        void onUserAccountChanged_EvictsUser() {
+            cache.put("alice", details(1L, "alice"));
+
+            cache.onUserAccountChanged(new UserAccountChangedEvent(1L));
+
+            assertNull(cache.getIfPresent("alice"));
+        }
+
+        @Test
+        @DisplayName("Should ignore null user id")
+        void invalidateUser_NullId_NoChange() {
+            cache.put("alice", details(1L, "alice"));
+
+            cache.invalidateUser(null);
+
+            assertNotNull(cache.getIfPresent("alice"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Metrics Tests")
+    class MetricsTests {
+
+        @Test
+        @DisplayName("Should export cache metrics")
+        void bindTo_RegistersCacheMetrics() {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+            cache.bindTo(registry);
+
+            assertNotNull(registry.find("cache.gets").tag("cache", "userDetails").meter());
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.team02.spmpevaluator.service;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AiCircuitBreaker.
+ * Uses a manual clock so open/half-open transitions can be driven deterministically.
+ */
+@DisplayName("AiCircuitBreaker Tests")
+class AiCircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(9);
+
+    private AtomicLong clock;
+    private AiCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(0);
+        breaker = new AiCircuitBreaker(3, Duration.ofSeconds(8), Duration.ofSeconds(30), 10, clock::get);
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+
+    @Nested
+    @DisplayName("Closed State Tests")
+    class ClosedStateTests {
+
+        @Test
+        @DisplayName("Should permit calls when closed")
+        void tryAcquire_Closed_ReturnsTrue() {
+            assertTrue(breaker.tryAcquire());
+            assertEquals(AiCircuitBreaker.State.CLOSED, breaker.getState());
+        }
+
+        @Test
+        @DisplayName("Should open after consecutive failures")
+        void onFailure_ReachesThreshold_Opens() {
+            breaker.onFailure(FAST);
+            breaker.onFailure(FAST);
+            assertEquals(AiCircuitBreaker.State.CLOSED, breaker.getState());
+
+            breaker.onFailure(FAST);
+
+            assertEquals(AiCircuitBreaker.State.OPEN, breaker.getState());
+        }
+
+        @Test
+        @DisplayName("Should reset failure count on success")
+        void onSuccess_ResetsConsecutiveFailures() {
+            breaker.onFailure(FAST);
+            breaker.onFailure(FAST);
+            breaker.onSuccess(FAST);
+            breaker.onFailure(FAST);
+            breaker.onFailure(FAST);
+
+            assertEquals(AiCircuitBreaker.State.CLOSED, breaker.getState());
+        }
+
+        @Test
+        @DisplayName("Should open when p95 latency exceeds threshold")
+        void onSuccess_SlowP95_Opens() {
+            for (int i = 0; i < 4; i++) {
+                breaker.onSuccess(SLOW);
+            }
+            assertEquals(AiCircuitBreaker.State.CLOSED, breaker.getState(), "needs minimum calls first");
+
+            breaker.onSuccess(SLOW);
+
+            assertEquals(AiCircuitBreaker.State.OPEN, breaker.getState());
+        }
+
+        @Test
+        @DisplayName("Should stay closed when only a few calls are slow")
+        void onSuccess_MostlyFast_StaysClosed() {
+            AiCircuitBreaker wide = new AiCircuitBreaker(3, Duration.ofSeconds(8), Duration.ofSeconds(30), 40, clock::get);
+            for (int i = 0; i < 40; i++) {
+                wide.onSuccess(i == 0 ? SLOW : FAST);
+            }
+
+            assertEquals(AiCircuitBreaker.State.CLOSED, wide.getState());
+        }
+    }
+
+    @Nested
+    @DisplayName("Open And Half-Open Tests")
+    class OpenStateTests {
+
+        @BeforeEach
+        void open() {
+            breaker.onFailure(FAST);
+            breaker.onFailure(FAST);
+            breaker.onFailure(FAST);
+        }
+
+        @Test
+        @DisplayName("Should reject calls while open")
+        void tryAcquire_Open_ReturnsFalse() {
+            assertFalse(breaker.tryAcquire());
+            assertFalse(breaker.isCallPermitted());
+            assertEquals(1, breaker.getRejectedCalls());
+        }
+
+        @Test
+        @DisplayName("Should allow a single probe after open duration")
+        void tryAcquire_AfterOpenDuration_AllowsOneProbe() {
+            advance(Duration.ofSeconds(31));
+
+            assertTrue(breaker.isCallPermitted());
+            assertTrue(breaker.tryAcquire());
+            assertEquals(AiCircuitBreaker.State.HALF_OPEN, breaker.getState());
+            assertFalse(breaker.tryAcquire(), "only one probe at a time");
+        }
+
+        @Test
+        @DisplayName("Should close when probe succeeds")
+        void onSuccess_HalfOpen_Closes() {
+            advance(Duration.ofSeconds(31));
+            breaker.tryAcquire();
+
+            breaker.onSuccess(FAST);
+
+            assertEquals(AiCircuitBreaker.State.CLOSED, breaker.getState());
+            assertTrue(breaker.tryAcquire());
+        }
+
+        @Test
+        @DisplayName("Should re-open when probe fails")
+        void onFailure_HalfOpen_Reopens() {
+            advance(Duration.ofSeconds(31));
+            breaker.tryAcquire();
+
+            breaker.onFailure(FAST);
+
+            assertEquals(AiCircuitBreaker.State.OPEN, breaker.getState());
+            assertFalse(breaker.tryAcquire());
+        }
+
+        @Test
+        @DisplayName("Should hand back the probe without closing when its outcome is ignored")
+        void onIgnored_HalfOpen_ReleasesProbe() {
+            advance(Duration.ofSeconds(31));
+            breaker.tryAcquire();
+
+            breaker.onIgnored();
+
+            assertEquals(AiCircuitBreaker.State.HALF_OPEN, breaker.getState());
+            assertTrue(breaker.tryAcquire(), "the next call may probe");
+        }
+    }
+
+    @Nested
+    @DisplayName("Metrics Tests")
+    class MetricsTests {
+
+        @Test
+        @DisplayName("Should export state gauge and rejection counter")
+        void bindTo_RegistersMeters() {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            breaker.bindTo(registry);
+
+            breaker.onFailure(FAST);
+            breaker.onFailure(FAST);
+            breaker.onFailure(FAST);
+            breaker.tryAcquire();
+
+            assertEquals(1.0, registry.get("ai.circuit.state").gauge().value());
+            assertEquals(1.0, registry.get("ai.circuit.rejected").counter().count());
+        }
+
+        @Test
+        @DisplayName("Should tag meters with the given tags")
+        void bindTo_Tags_AppliedToMeters() {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            breaker.bindTo(registry, Tags.of("model", "model/a"));
+
+            assertEquals(0.0, registry.get("ai.circuit.state").tag("model", "model/a").gauge().value());
+            assertNotNull(registry.get("ai.circuit.latency.p95").tag("model", "model/a").gauge());
+            assertNotNull(registry.get("ai.circuit.rejected").tag("model", "model/a").counter());
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.team02.spmpevaluator.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AiModelRouter.
+ */
+@DisplayName("AiModelRouter Tests")
+class AiModelRouterTest {
+
+    private static final long MS = 1_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+    private AiModelRouter router;
+
+    @BeforeEach
+    void setUp() {
+        router = routerFor("model/a", "model/b", "model/c");
+    }
+
+    private AiModelRouter routerFor(String... models) {
+        return new AiModelRouter(List.of(models), 3, Duration.ofSeconds(8), Duration.ofSeconds(30), 10,
+                Duration.ofMinutes(5), clock::get);
+    }
+
+    private void succeed(String model, long latencyMillis) {
+        assertTrue(router.tryAcquire(model));
+        router.onSuccess(model, latencyMillis * MS);
+    }
+
+    private void fail(String model, long latencyMillis) {
+        assertTrue(router.tryAcquire(model));
+        router.onFailure(model, latencyMillis * MS);
+    }
+
+    @Nested
+    @DisplayName("Routing Tests")
+    class RoutingTests {
+
+        @Test
+        @DisplayName("Should try unsampled models in pool order first")
+        void candidates_NoSamples_PoolOrder() {
+            assertEquals(List.of("model/a", "model/b", "model/c"), router.candidates());
+            assertEquals("model/a", router.primaryModel());
+        }
+
+        @Test
+        @DisplayName("Should rank sampled models by median latency")
+        void candidates_Sampled_FastestFirst() {
+            succeed("model/a", 900);
+            succeed("model/b", 100);
+            succeed("model/c", 400);
+
+            assertEquals(List.of("model/b", "model/c", "model/a"), router.candidates());
+        }
+
+        @Test
+        @DisplayName("Should probe a model that has not been tried yet before sampled ones")
+        void candidates_PartlySampled_UntriedFirst() {
+            succeed("model/a", 100);
+
+            assertEquals(List.of("model/b", "model/c", "model/a"), router.candidates());
+        }
+
+        @Test
+        @DisplayName("Should rank a fast but failing model below a slower reliable one")
+        void candidates_ErrorRate_Penalized() {
+            succeed("model/a", 100);
+            fail("model/a", 100);
+            fail("model/a", 100);
+            succeed("model/b", 200);
+            succeed("model/c", 250);
+
+            assertEquals(List.of("model/b", "model/c", "model/a"), router.candidates());
+        }
+
+        @Test
+        @DisplayName("Should skip models whose circuit is open")
+        void candidates_CircuitOpen_Excluded() {
+            for (int i = 0; i < 3; i++) {
+                fail("model/a", 50);
+            }
+
+            assertEquals(List.of("model/b", "model/c"), router.candidates());
+            assertFalse(router.tryAcquire("model/a"));
+            assertTrue(router.isAnyAvailable());
+        }
+
+        @Test
+        @DisplayName("Should report unavailable when every circuit is open")
+        void isAnyAvailable_AllOpen_False() {
+            for (String model : List.of("model/a", "model/b", "model/c")) {
+                for (int i = 0; i < 3; i++) {
+                    fail(model, 50);
+                }
+            }
+
+            assertFalse(router.isAnyAvailable());
+            assertTrue(router.candidates().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should re-probe a slow model once its samples are stale")
+        void candidates_StaleSamples_ReProbed() {
+            succeed("model/a", 900);
+            succeed("model/b", 100);
+            succeed("model/c", 200);
+            clock.addAndGet(Duration.ofMinutes(4).toNanos());
+            succeed("model/b", 100);
+            succeed("model/c", 200);
+            clock.addAndGet(Duration.ofMinutes(2).toNanos());
+
+            assertEquals("model/a", router.candidates().get(0));
+        }
+
+        @Test
+        @DisplayName("Should ignore unknown models")
+        void tryAcquire_UnknownModel_False() {
+            assertFalse(router.tryAcquire("model/unknown"));
+            router.onSuccess("model/unknown", MS);
+            assertEquals(3, router.getStats().size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Configuration Tests")
+    class ConfigurationTests {
+
+        @Test
+        @DisplayName("Should fall back to the single configured model when no pool is set")
+        void constructor_EmptyPool_UsesDefaultModel() {
+            AiModelRouter single = new AiModelRouter(List.of(), "model/default", 3, Duration.ofSeconds(8),
+                    Duration.ofSeconds(30), 10, Duration.ofMinutes(5));
+
+            assertEquals(List.of("model/default"), single.getModels());
+        }
+
+        @Test
+        @DisplayName("Should trim names and drop blanks and duplicates")
+        void constructor_MessyPool_Normalized() {
+            AiModelRouter messy = routerFor(" model/a ", "", "model/b", "model/a");
+
+            assertEquals(List.of("model/a", "model/b"), messy.getModels());
+        }
+
+        @Test
+        @DisplayName("Should reject a pool without models")
+        void constructor_NoModels_Throws() {
+            assertThrows(IllegalArgumentException.class, () -> routerFor(" "));
+        }
+    }
+
+    @Nested
+    @DisplayName("Statistics Tests")
+    class StatisticsTests {
+
+        @Test
+        @DisplayName("Should report percentiles, error rate and counts per model")
+        void getStats_AfterCalls_Reported() {
+            for (int i = 1; i <= 10; i++) {
+                succeed("model/a", i * 100L);
+            }
+            fail("model/b", 50);
+            succeed("model/b", 150);
+
+            AiModelRouter.ModelStats a = router.getStats().get(0);
+            AiModelRouter.ModelStats b = router.getStats().get(1);
+            AiModelRouter.ModelStats c = router.getStats().get(2);
+
+            assertEquals("model/a", a.model());
+            assertEquals(500.0, a.p50Millis());
+            assertEquals(1000.0, a.p95Millis());
+            assertEquals(0.0, a.errorRate());
+            assertEquals(10, a.requests());
+            assertEquals(0.5, b.errorRate());
+            assertEquals(1, b.failures());
+            assertEquals(0, c.samples());
+            assertEquals(AiCircuitBreaker.State.CLOSED, c.state());
+        }
+
+        @Test
+        @DisplayName("Should keep only the rolling window for percentiles but count all requests")
+        void getStats_WindowFull_Rolls() {
+            for (int i = 0; i < 10; i++) {
+                succeed("model/a", 1000);
+            }
+            for (int i = 0; i < 10; i++) {
+                succeed("model/a", 100);
+            }
+
+            AiModelRouter.ModelStats a = router.getStats().get(0);
+
+            assertEquals(100.0, a.p95Millis());
+            assertEquals(20, a.requests());
+            assertEquals(10, a.samples());
+        }
+
+        @Test
+        @DisplayName("Should register gauges tagged by model")
+        void bindTo_RegistersModelGauges() {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            router.bindTo(registry);
+            succeed("model/b", 250);
+
+            assertEquals(250.0, registry.get("ai.model.latency")
+                    .tag("model", "model/b").tag("quantile", "0.5").gauge().value());
+            assertEquals(0.0, registry.get("ai.model.error.rate").tag("model", "model/c").gauge().value());
+            assertEquals(3, registry.find("ai.circuit.state").gauges().size());
+        }
+
+        @Test
+        @DisplayName("Should count rejected calls per model")
+        void bindTo_RejectedCallsTaggedByModel() {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            router.bindTo(registry);
+            fail("model/a", 100);
+            fail("model/a", 100);
+            fail("model/a", 100);
+
+            assertFalse(router.tryAcquire("model/a"));
+
+            assertEquals(1.0, registry.get("ai.circuit.rejected").tag("model", "model/a").counter().count());
+            assertEquals(0.0, registry.get("ai.circuit.rejected").tag("model", "model/b").counter().count());
+            assertEquals(1.0, registry.get("ai.circuit.state").tag("model", "model/a").gauge().value());
+        }
+    }
+}
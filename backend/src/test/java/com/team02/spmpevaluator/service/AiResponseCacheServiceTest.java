@@ -0,0 +1,197 @@
+package com.team02.spmpevaluator.service;
+
+import com.team02.spmpevaluator.entity.AiResponseCacheEntry;
+import com.team02.spmpevaluator.repository.AiResponseCacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AiResponseCacheService.
+ * Tests memory/database tiering, TTL handling and hit/miss accounting.
+ */
+@ExtendWith(MockitoExtension.class)
+class AiResponseCacheServiceTest {
+
+    @Mock
+    private AiResponseCacheRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AiResponseCacheService cacheService;
+
+    @BeforeEach
+    void setUp() {
+        cacheService = new AiResponseCacheService(repository, transactionManager, 100, Duration.ofDays(30));
+    }
+
+    private AiResponseCacheEntry entry(String key, String response, LocalDateTime expiresAt) {
+        AiResponseCacheEntry entry = new AiResponseCacheEntry();
+        entry.setCacheKey(key);
+        entry.setModel("test/model");
+        entry.setPromptVersion("v1");
+        entry.setResponse(response);
+        entry.setExpiresAt(expiresAt);
+        return entry;
+    }
+
+    @Nested
+    @DisplayName("Cache Key Tests")
+    class CacheKeyTests {
+
+        @Test
+        @DisplayName("Should produce stable 64-char keys")
+        void cacheKey_SameInputs_SameKey() {
+            String key1 = AiResponseCacheService.cacheKey("model", "v1", "prompt");
+            String key2 = AiResponseCacheService.cacheKey("model", "v1", "prompt");
+
+            assertEquals(key1, key2);
+            assertEquals(64, key1.length());
+        }
+
+        @Test
+        @DisplayName("Should change key when model, version or prompt changes")
+        void cacheKey_DifferentInputs_DifferentKeys() {
+            String base = AiResponseCacheService.cacheKey("model", "v1", "prompt");
+
+            assertNotEquals(base, AiResponseCacheService.cacheKey("other", "v1", "prompt"));
+            assertNotEquals(base, AiResponseCacheService.cacheKey("model", "v2", "prompt"));
+            assertNotEquals(base, AiResponseCacheService.cacheKey("model", "v1", "prompt2"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Lookup Tests")
+    class LookupTests {
+
+        @Test
+        @DisplayName("Should count a miss when neither tier has the key")
+        void get_NotCached_ReturnsEmpty() {
+            when(repository.findByCacheKey("k")).thenReturn(Optional.empty());
+
+            assertTrue(cacheService.get("k").isEmpty());
+            assertEquals(1, cacheService.getMisses());
+        }
+
+        @Test
+        @DisplayName("Should serve from memory after put without touching the database")
+        void get_AfterPut_HitsMemory() {
+            when(repository.findByCacheKey("k")).thenReturn(Optional.empty());
+            cacheService.put("k", "test/model", "v1", "response");
+            clearInvocations(repository);
+
+            assertEquals(Optional.of("response"), cacheService.get("k"));
+            assertEquals(1, cacheService.getMemoryHits());
+            verifyNoInteractions(repository);
+        }
+
+        @Test
+        @DisplayName("Should load from database and promote to memory")
+        void get_DatabaseHit_PromotesToMemory() {
+            when(repository.findByCacheKey("k"))
+                    .thenReturn(Optional.of(entry("k", "stored", LocalDateTime.now().plusDays(1))));
+
+            assertEquals(Optional.of("stored"), cacheService.get("k"));
+            assertEquals(Optional.of("stored"), cacheService.get("k"));
+
+            assertEquals(1, cacheService.getDatabaseHits());
+            assertEquals(1, cacheService.getMemoryHits());
+            verify(repository, times(1)).findByCacheKey("k");
+        }
+
+        @Test
+        @DisplayName("Should treat expired database entries as misses and purge them")
+        void get_ExpiredEntry_MissAndPurge() {
+            when(repository.findByCacheKey("k"))
+                    .thenReturn(Optional.of(entry("k", "old", LocalDateTime.now().minusMinutes(1))));
+
+            assertTrue(cacheService.get("k").isEmpty());
+            assertEquals(1, cacheService.getMisses());
+            verify(repository).deleteExpired(any(LocalDateTime.class));
+        }
+
+        @Test
+        @DisplayName("Should treat database errors as misses")
+        void get_DatabaseError_ReturnsEmpty() {
+            when(repository.findByCacheKey("k")).thenThrow(new RuntimeException("db down"));
+
+            assertTrue(cacheService.get("k").isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Store Tests")
+    class StoreTests {
+
+        @Test
+        @DisplayName("Should persist new entry with TTL")
+        void put_NewKey_SavesEntry() {
+            when(repository.findByCacheKey("k")).thenReturn(Optional.empty());
+
+            cacheService.put("k", "test/model", "v1", "response");
+
+            ArgumentCaptor<AiResponseCacheEntry> captor = ArgumentCaptor.forClass(AiResponseCacheEntry.class);
+            verify(repository).save(captor.capture());
+            assertEquals("k", captor.getValue().getCacheKey());
+            assertEquals("response", captor.getValue().getResponse());
+            assertTrue(captor.getValue().getExpiresAt().isAfter(LocalDateTime.now().plusDays(29)));
+        }
+
+        @Test
+        @DisplayName("Should update existing entry instead of inserting a duplicate")
+        void put_ExistingKey_UpdatesEntry() {
+            AiResponseCacheEntry existing = entry("k", "old", LocalDateTime.now().minusDays(1));
+            existing.setId(5L);
+            when(repository.findByCacheKey("k")).thenReturn(Optional.of(existing));
+
+            cacheService.put("k", "test/model", "v1", "new");
+
+            verify(repository).save(existing);
+            assertEquals("new", existing.getResponse());
+            assertFalse(existing.isExpired());
+        }
+
+        @Test
+        @DisplayName("Should not fail when the database write fails")
+        void put_DatabaseError_DoesNotThrow() {
+            when(repository.findByCacheKey("k")).thenReturn(Optional.empty());
+            when(repository.save(any())).thenThrow(new RuntimeException("constraint violation"));
+
+            assertDoesNotThrow(() -> cacheService.put("k", "test/model", "v1", "response"));
+            assertEquals(Optional.of("response"), cacheService.get("k"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Metrics Tests")
+    class MetricsTests {
+
+        @Test
+        @DisplayName("Should export hit and miss counters")
+        void bindTo_ExportsCounters() {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            cacheService.bindTo(registry);
+            when(repository.findByCacheKey("k")).thenReturn(Optional.empty());
+
+            cacheService.get("k");
+
+            assertEquals(1.0, registry.get("ai.cache.requests").tag("result", "miss").functionCounter().count());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.team02.spmpevaluator.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AiUsageContext.
+ */
+@DisplayName("AiUsageContext Tests")
+class AiUsageContextTest {
+
+    @Test
+    @DisplayName("Should expose the attribution only inside the scope")
+    void open_ScopeClosed_Cleared() {
+        assertNull(AiUsageContext.current());
+
+        try (AiUsageContext.Scope ignored = AiUsageContext.open("section-enrichment", 5L, "RISK_MANAGEMENT")) {
+            assertEquals(new AiUsageContext.Attribution("section-enrichment", 5L, "RISK_MANAGEMENT"),
+                    AiUsageContext.current());
+        }
+
+        assertNull(AiUsageContext.current());
+    }
+
+    @Test
+    @DisplayName("Should restore the enclosing attribution when a nested scope closes")
+    void open_Nested_RestoresOuter() {
+        try (AiUsageContext.Scope outer = AiUsageContext.open("batch-enrichment", 5L, null)) {
+            try (AiUsageContext.Scope inner = AiUsageContext.open("section-enrichment", 5L, "OVERVIEW")) {
+                assertEquals("OVERVIEW", AiUsageContext.current().section());
+            }
+            assertEquals("batch-enrichment", AiUsageContext.current().operation());
+        }
+        assertNull(AiUsageContext.current());
+    }
+
+    @Test
+    @DisplayName("Should not leak to other threads")
+    void open_OtherThread_NotVisible() {
+        try (AiUsageContext.Scope ignored = AiUsageContext.open("parser-feedback", 1L, null)) {
+            assertNull(CompletableFuture.supplyAsync(AiUsageContext::current).join());
+        }
+    }
+}
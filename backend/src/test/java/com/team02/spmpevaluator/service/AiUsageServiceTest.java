@@ -0,0 +1,203 @@
+package com.team02.spmpevaluator.service;
+
+import com.team02.spmpevaluator.dto.AiUsageRollupDTO;
+import com.team02.spmpevaluator.entity.AiUsageRecord;
+import com.team02.spmpevaluator.repository.AiUsageRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AiUsageService.
+ * Tests queueing, batched ledger writes and rollup delegation.
+ */
+@ExtendWith(MockitoExtension.class)
+class AiUsageServiceTest {
+
+    @Mock
+    private AiUsageRecordRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AiUsageService usageService;
+
+    @BeforeEach
+    void setUp() {
+        usageService = new AiUsageService(repository, transactionManager, 5, 2, Duration.ofMinutes(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        usageService.stop();
+    }
+
+    private AiUsageRecord usage(String model) {
+        AiUsageRecord usage = new AiUsageRecord();
+        usage.setModel(model);
+        usage.setOperation("completion");
+        usage.setLatencyMs(120);
+        usage.setOutcome(AiUsageRecord.Outcome.SUCCESS);
+        return usage;
+    }
+
+    @Nested
+    @DisplayName("Recording Tests")
+    class RecordingTests {
+
+        @Test
+        @DisplayName("Should queue records without touching the database")
+        void record_QueuesOnly() {
+            usageService.record(usage("model/a"));
+
+            assertEquals(1, usageService.getPendingCount());
+            verifyNoInteractions(repository);
+        }
+
+        @Test
+        @DisplayName("Should stamp call time and usage date")
+        void record_SetsTimestamps() {
+            AiUsageRecord usage = usage("model/a");
+
+            usageService.record(usage);
+
+            assertNotNull(usage.getCreatedAt());
+            assertEquals(usage.getCreatedAt().toLocalDate(), usage.getUsageDate());
+        }
+
+        @Test
+        @DisplayName("Should drop and count records when the queue is full")
+        void record_QueueFull_Drops() {
+            for (int i = 0; i < 7; i++) {
+                usageService.record(usage("model/a"));
+            }
+
+            assertEquals(5, usageService.getPendingCount());
+            assertEquals(2, usageService.getDroppedCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Flush Tests")
+    class FlushTests {
+
+        @Test
+        @DisplayName("Should write queued records in batches")
+        @SuppressWarnings("unchecked")
+        void flush_WritesBatches() {
+            for (int i = 0; i < 5; i++) {
+                usageService.record(usage("model/" + i));
+            }
+            ArgumentCaptor<List<AiUsageRecord>> batches = ArgumentCaptor.forClass(List.class);
+
+            int written = usageService.flush();
+
+            assertEquals(5, written);
+            verify(repository, times(3)).saveAll(batches.capture());
+            assertEquals(List.of(2, 2, 1), batches.getAllValues().stream().map(List::size).toList());
+            assertEquals(0, usageService.getPendingCount());
+        }
+
+        @Test
+        @DisplayName("Should drop a batch that fails to save and continue")
+        void flush_SaveFails_CountsDropped() {
+            when(repository.saveAll(anyList()))
+                    .thenThrow(new RuntimeException("db down"))
+                    .thenReturn(List.of());
+            for (int i = 0; i < 4; i++) {
+                usageService.record(usage("model/a"));
+            }
+
+            int written = usageService.flush();
+
+            assertEquals(2, written);
+            assertEquals(2, usageService.getDroppedCount());
+        }
+
+        @Test
+        @DisplayName("Should flush in the background once a batch fills up")
+        void record_BatchFull_FlushesInBackground() {
+            usageService.start();
+
+            usageService.record(usage("model/a"));
+            usageService.record(usage("model/b"));
+
+            verify(repository, timeout(2000)).saveAll(anyList());
+        }
+
+        @Test
+        @DisplayName("Should write remaining records on shutdown")
+        void stop_FlushesRemaining() {
+            usageService.record(usage("model/a"));
+
+            usageService.stop();
+
+            verify(repository).saveAll(anyList());
+        }
+    }
+
+    @Nested
+    @DisplayName("Rollup Tests")
+    class RollupTests {
+
+        private final LocalDate from = LocalDate.of(2025, 1, 1);
+        private final LocalDate to = LocalDate.of(2025, 1, 31);
+
+        @Test
+        @DisplayName("Should delegate each grouping to its query")
+        void rollup_DelegatesByGrouping() {
+            List<AiUsageRollupDTO> rows = List.of(
+                    new AiUsageRollupDTO("model/a", 3L, 1L, 300L, 90L, 0.01, 850.0, 1200L));
+            when(repository.rollupByModel(from, to, AiUsageRecord.Outcome.SUCCESS)).thenReturn(rows);
+
+            assertEquals(rows, usageService.rollup(AiUsageService.GroupBy.MODEL, from, to));
+
+            usageService.rollup(AiUsageService.GroupBy.DAY, from, to);
+            usageService.rollup(AiUsageService.GroupBy.PROFESSOR, from, to);
+            verify(repository).rollupByDay(from, to, AiUsageRecord.Outcome.SUCCESS);
+            verify(repository).rollupByProfessor(from, to, AiUsageRecord.Outcome.SUCCESS);
+        }
+
+        @Test
+        @DisplayName("Should list a document's calls")
+        void getDocumentUsage_DelegatesToRepository() {
+            AiUsageRecord usage = usage("model/a");
+            usage.setDocumentId(9L);
+            usage.setCreatedAt(LocalDateTime.now());
+            when(repository.findByDocumentIdOrderByCreatedAtAsc(9L)).thenReturn(List.of(usage));
+
+            assertEquals(List.of(usage), usageService.getDocumentUsage(9L));
+        }
+    }
+
+    @Test
+    @DisplayName("Should expose pending and written counts as meters")
+    void bindTo_RegistersMeters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        usageService.bindTo(registry);
+        usageService.record(usage("model/a"));
+        usageService.record(usage("model/b"));
+        usageService.record(usage("model/c"));
+
+        assertEquals(3.0, registry.get("ai.usage.pending").gauge().value());
+        usageService.flush();
+        assertEquals(3.0, registry.get("ai.usage.records").tag("result", "written").functionCounter().count());
+    }
+}
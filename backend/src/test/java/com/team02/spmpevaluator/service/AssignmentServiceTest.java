@@ -14,6 +14,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -38,6 +39,9 @@ class AssignmentServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private AssignmentService assignmentService;
 
@@ -456,6 +460,19 @@ class AssignmentServiceTest {
             verify(assignmentRepository).deleteById(1L);
         }
 
+        @Test
+        @DisplayName("Should publish the removed student so cached assignments are dropped")
+        void removeAssignment_PublishesStudent() {
+            // Arrange
+            when(assignmentRepository.findById(1L)).thenReturn(Optional.of(testAssignment));
+
+            // Act
+            assignmentService.removeAssignment(1L);
+
+            // Assert
+            verify(eventPublisher).publishEvent(new StudentAssignmentChangedEvent(testStudent.getId()));
+        }
+
         @Test
         @DisplayName("Should call deleteById even for non-existent assignment")
         void removeAssignment_NonExistent() {
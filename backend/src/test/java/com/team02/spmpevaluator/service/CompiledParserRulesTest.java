@@ -0,0 +1,157 @@
+package com.team02.spmpevaluator.service;
+
+import com.team02.spmpevaluator.entity.ParserConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CompiledParserRules.
+ * Tests compilation of parser configurations and clause matching.
+ */
+class CompiledParserRulesTest {
+
+    private static final String MAPPINGS = """
+            [
+                {"clauseId": "1", "clauseName": "Overview", "weight": 10, "keywords": ["purpose", "scope", "objectives"]},
+                {"clauseId": "5.2", "clauseName": "Work Plan", "weight": 30, "keywords": ["schedule", "milestones"]},
+                {"clauseId": "7", "clauseName": "Risk Management", "weight": 60, "keywords": ["risk", "mitigation", "contingency"]}
+            ]
+            """;
+
+    private ParserConfiguration configuration;
+
+    @BeforeEach
+    void setUp() {
+        configuration = new ParserConfiguration();
+        configuration.setId(4L);
+        configuration.setUpdatedAt(LocalDateTime.of(2026, 3, 1, 9, 0));
+        configuration.setClauseMappings(MAPPINGS);
+        configuration.setCustomRules("""
+                [{"ruleId": "R1", "description": "Check completeness", "criteria": "All clauses", "severity": "high"}]
+                """);
+    }
+
+    @Nested
+    @DisplayName("Compile Tests")
+    class CompileTests {
+
+        @Test
+        @DisplayName("Should parse clauses and custom rules")
+        void compile_ParsesConfiguration() {
+            CompiledParserRules rules = CompiledParserRules.compile(configuration);
+
+            assertEquals(3, rules.getClauses().size());
+            assertEquals(new CompiledParserRules.Clause("5.2", "Work Plan", 30, List.of("schedule", "milestones")),
+                    rules.getClauses().get(1));
+            assertEquals("R1", rules.getRules().get(0).ruleId());
+            assertEquals("high", rules.getRules().get(0).severity());
+        }
+
+        @Test
+        @DisplayName("Should treat missing mappings as no clauses")
+        void compile_NullMappings_Empty() {
+            configuration.setClauseMappings(null);
+            configuration.setCustomRules(" ");
+
+            CompiledParserRules rules = CompiledParserRules.compile(configuration);
+
+            assertTrue(rules.getClauses().isEmpty());
+            assertTrue(rules.getRules().isEmpty());
+            assertEquals(0.0, rules.match("anything").weightedScore());
+        }
+
+        @Test
+        @DisplayName("Should reject mappings that are not a JSON array")
+        void compile_InvalidJson_Throws() {
+            configuration.setClauseMappings("[updated]");
+
+            IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                    () -> CompiledParserRules.compile(configuration));
+            assertTrue(error.getMessage().startsWith("Invalid clause mappings"));
+
+            configuration.setClauseMappings("{\"clauseId\": \"1\"}");
+            assertThrows(IllegalArgumentException.class, () -> CompiledParserRules.compile(configuration));
+        }
+
+        @Test
+        @DisplayName("Should know which configuration version it was compiled from")
+        void isCompiledFrom_ComparesIdAndUpdateTime() {
+            CompiledParserRules rules = CompiledParserRules.compile(configuration);
+
+            assertTrue(rules.isCompiledFrom(configuration));
+            configuration.setUpdatedAt(LocalDateTime.of(2026, 3, 2, 9, 0));
+            assertFalse(rules.isCompiledFrom(configuration));
+            assertFalse(rules.isCompiledFrom(null));
+        }
+    }
+
+    @Nested
+    @DisplayName("Match Tests")
+    class MatchTests {
+
+        @Test
+        @DisplayName("Should detect clauses by keyword coverage")
+        void match_KeywordCoverage() {
+            CompiledParserRules.MatchResult result = CompiledParserRules.compile(configuration)
+                    .match("The PURPOSE and scope are described. Risk is low.");
+
+            CompiledParserRules.ClauseMatch overview = result.clauses().get(0);
+            assertEquals(2, overview.matchedKeywords());
+            assertEquals(200.0 / 3, overview.coverage(), 0.0001);
+            assertTrue(overview.detected());
+            // One of three risk keywords is below the coverage bar
+            assertFalse(result.clauses().get(2).detected());
+            assertEquals(List.of("Overview"), result.detectedClauses());
+            assertEquals(List.of("Work Plan", "Risk Management"), result.missingClauses());
+        }
+
+        @Test
+        @DisplayName("Should detect a clause by its heading and one keyword")
+        void match_Heading() {
+            CompiledParserRules.MatchResult result = CompiledParserRules.compile(configuration)
+                    .match("Introduction\n5.2. Work Plan\nThe schedule is in the appendix.\n");
+
+            CompiledParserRules.ClauseMatch workPlan = result.clauses().get(1);
+            assertTrue(workPlan.headingFound());
+            assertTrue(workPlan.detected());
+            assertFalse(result.clauses().get(0).headingFound());
+        }
+
+        @Test
+        @DisplayName("Should not take a clause name inside a sentence as a heading")
+        void match_NameInSentence_NoHeading() {
+            CompiledParserRules.MatchResult result = CompiledParserRules.compile(configuration)
+                    .match("See the work plan for the schedule.");
+
+            assertFalse(result.clauses().get(1).headingFound());
+        }
+
+        @Test
+        @DisplayName("Should weight the score by clause weights")
+        void match_WeightedScore() {
+            CompiledParserRules.MatchResult result = CompiledParserRules.compile(configuration)
+                    .match("Risk Management:\nrisk mitigation and contingency.\nSchedule and milestones.");
+
+            // Work plan (30) and risk management (60) of a total weight of 100
+            assertEquals(90.0, result.weightedScore(), 0.0001);
+        }
+    }
+
+    @Test
+    @DisplayName("Should compile the built-in IEEE 1058 mappings")
+    void compile_BuiltInDefaults() {
+        CompiledParserRules rules = CompiledParserRules.compile(null, null,
+                ParserConfigurationService.DEFAULT_CLAUSE_MAPPINGS, ParserConfigurationService.DEFAULT_CUSTOM_RULES);
+
+        assertEquals(13, rules.getClauses().size());
+        assertEquals(3, rules.getRules().size());
+        assertNull(rules.getConfigurationId());
+    }
+}
@@ -1,6 +1,7 @@
 package com.team02.spmpevaluator.service;
 
 import com.team02.spmpevaluator.dto.ComplianceReportDTO;
+import com.team02.spmpevaluator.dto.SectionLintDTO;
 import com.team02.spmpevaluator.entity.*;
 import com.team02.spmpevaluator.repository.ComplianceScoreRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,12 +10,16 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -30,6 +35,27 @@ class ComplianceEvaluationServiceTest {
     @Mock
     private ComplianceScoreRepository complianceScoreRepository;
 
+    @Mock
+    private OpenRouterService openRouterService;
+
+    @Mock
+    private AiResponseCacheService aiResponseCache;
+
+    @Mock
+    private EvaluationProgressService progressService;
+
+    @Mock
+    private ScoringPlanService scoringPlanService;
+
+    @Mock
+    private KeywordDictionaryService keywordDictionaryService;
+
+    @Mock
+    private SectionClassifier sectionClassifier;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private ComplianceEvaluationService complianceEvaluationService;
 
@@ -71,6 +97,9 @@ class ComplianceEvaluationServiceTest {
         testComplianceScore.setSummary("Document meets IEEE 1058 compliance threshold");
         testComplianceScore.setEvaluatedAt(LocalDateTime.now());
         testComplianceScore.setSectionAnalyses(new ArrayList<>());
+
+        lenient().when(scoringPlanService.planFor(any())).thenReturn(ScoringPlan.DEFAULT);
+        lenient().when(keywordDictionaryService.current()).thenReturn(KeywordDictionary.BUILT_IN);
     }
 
     @Nested
@@ -273,6 +302,317 @@ class ComplianceEvaluationServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Scoring Plan Tests")
+    class ScoringPlanTests {
+
+        private final String content = """
+                1. Overview
+                This Software Project Management Plan provides the project summary, purpose, scope and objectives.
+                Deliverables, milestones and assumptions and constraints are described for the project.
+                """;
+
+        private ScoringPlan overviewHeavyPlan() {
+            GradingCriteria criteria = new GradingCriteria();
+            criteria.setId(7L);
+            criteria.setOverviewWeight(40);
+            criteria.setReferencesWeight(0);
+            criteria.setDefinitionsWeight(0);
+            criteria.setOrganizationWeight(10);
+            criteria.setManagerialProcessWeight(10);
+            criteria.setTechnicalProcessWeight(10);
+            criteria.setSupportingProcessWeight(20);
+            criteria.setAdditionalPlansWeight(10);
+            return ScoringPlan.compile(criteria);
+        }
+
+        @Test
+        @DisplayName("Should score with the weights of the student's professor")
+        void evaluateDocument_UsesProfessorPlan() {
+            ScoringPlan plan = overviewHeavyPlan();
+            when(scoringPlanService.planFor(testDocument)).thenReturn(plan);
+            when(complianceScoreRepository.findByDocument(testDocument)).thenReturn(Optional.empty());
+            when(complianceScoreRepository.save(any(ComplianceScore.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            ComplianceScore result = complianceEvaluationService.evaluateDocument(testDocument, content);
+
+            SectionAnalysis overview = result.getSectionAnalyses().stream()
+                    .filter(section -> section.getSectionName() == SectionAnalysis.IEEE1058Section.OVERVIEW)
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals(40, overview.getSectionWeight());
+            assertEquals(100, result.getSectionAnalyses().stream().mapToInt(SectionAnalysis::getSectionWeight).sum());
+        }
+
+        @Test
+        @DisplayName("Should weigh the same section scores with the plan's weights")
+        void computeEvaluation_OverallScoreUsesPlanWeights() {
+            ScoringPlan plan = overviewHeavyPlan();
+            EvaluationResult defaults = complianceEvaluationService.computeEvaluation(1L, content, ScoringPlan.DEFAULT);
+            EvaluationResult custom = complianceEvaluationService.computeEvaluation(1L, content, plan);
+
+            double[] sectionScores = custom.sections().stream()
+                    .mapToDouble(EvaluationResult.SectionResult::sectionScore)
+                    .toArray();
+            assertEquals(plan.overallScore(sectionScores), custom.overallScore(), 0.0001);
+            assertEquals(10, defaults.sections().get(SectionAnalysis.IEEE1058Section.OVERVIEW.ordinal()).sectionWeight());
+            assertEquals(40, custom.sections().get(SectionAnalysis.IEEE1058Section.OVERVIEW.ordinal()).sectionWeight());
+        }
+    }
+
+    @Nested
+    @DisplayName("Compute and Persist Phase Tests")
+    class ComputeAndPersistPhaseTests {
+
+        private final String content = """
+                1. Overview
+                This Software Project Management Plan provides the project summary, purpose, scope and objectives.
+                Deliverables, milestones and assumptions and constraints are described for the project.
+
+                4. Project Organization
+                The project team consists of developers, testers, and managers with defined roles and responsibilities.
+                Organizational structure, reporting lines and external interfaces are defined.
+                """;
+
+        @Test
+        @DisplayName("Should compute an evaluation without touching the database")
+        void computeEvaluation_NoDatabaseAccess() {
+            EvaluationResult result = complianceEvaluationService.computeEvaluation(1L, content);
+
+            assertEquals(SectionAnalysis.IEEE1058Section.values().length, result.sections().size());
+            assertEquals(result.sections().stream().filter(EvaluationResult.SectionResult::present).count(),
+                    result.sectionsFound());
+            verifyNoInteractions(complianceScoreRepository, transactionManager);
+            verify(sectionClassifier, never()).sample(any(), any());
+            verify(sectionClassifier, never()).learn(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should produce an immutable result")
+        void computeEvaluation_ResultIsImmutable() {
+            EvaluationResult result = complianceEvaluationService.computeEvaluation(1L, content);
+
+            assertThrows(UnsupportedOperationException.class, () -> result.sections().clear());
+        }
+
+        @Test
+        @DisplayName("Should record the keyword dictionary version and edit budget it detected sections with")
+        void computeEvaluation_RecordsDictionaryVersion() {
+            Map<SectionAnalysis.IEEE1058Section, Set<String>> keywords =
+                    new EnumMap<>(KeywordDictionary.BUILT_IN.getKeywords());
+            when(keywordDictionaryService.current()).thenReturn(KeywordDictionary.of(4L, keywords));
+            complianceEvaluationService.setKeywordMaxEdits(1);
+
+            EvaluationResult result = complianceEvaluationService.computeEvaluation(1L, content);
+
+            assertEquals(4L, result.keywordDictionaryVersion());
+            assertEquals(1, result.keywordMaxEdits());
+        }
+
+        @Test
+        @DisplayName("Should finish the AI calls before opening the write transaction")
+        void evaluateDocument_AiBeforeTransaction() {
+            when(openRouterService.isAvailable()).thenReturn(true);
+            when(openRouterService.getModel()).thenReturn("test/model");
+            when(aiResponseCache.get(anyString())).thenReturn(Optional.empty());
+            when(openRouterService.complete(anyString())).thenReturn("{}");
+            when(openRouterService.analyzeDocument(anyString())).thenReturn(Map.of());
+            when(complianceScoreRepository.findByDocument(testDocument)).thenReturn(Optional.empty());
+            when(complianceScoreRepository.save(any(ComplianceScore.class)))
+                    .thenAnswer(invocation -> invocation.getArgument(0));
+
+            complianceEvaluationService.evaluateDocument(testDocument, content);
+
+            InOrder order = inOrder(openRouterService, transactionManager, complianceScoreRepository);
+            order.verify(openRouterService).complete(anyString());
+            order.verify(transactionManager).getTransaction(any());
+            order.verify(complianceScoreRepository).findByDocument(testDocument);
+            order.verify(complianceScoreRepository).save(any(ComplianceScore.class));
+            order.verify(transactionManager).commit(any());
+            verify(transactionManager, times(1)).getTransaction(any());
+        }
+
+        @Test
+        @DisplayName("Should train the classifier on the uploaded input after the write commits")
+        void evaluateDocument_LearnsAfterCommit() {
+            when(complianceScoreRepository.findByDocument(testDocument)).thenReturn(Optional.empty());
+            when(complianceScoreRepository.save(any(ComplianceScore.class)))
+                    .thenAnswer(invocation -> invocation.getArgument(0));
+            String inputVersion = "/uploads/documents/test_spmp.pdf#50000";
+            when(sectionClassifier.needsLearning(1L, inputVersion)).thenReturn(true);
+            SectionClassifier.Sample sample =
+                    new SectionClassifier.Sample(new int[0], new int[0], new int[0][], new float[0][]);
+            when(sectionClassifier.sample(any(EvaluationContext.class), any(int[].class))).thenReturn(sample);
+
+            complianceEvaluationService.evaluateDocument(testDocument, content);
+
+            InOrder order = inOrder(transactionManager, sectionClassifier);
+            order.verify(sectionClassifier).sample(any(EvaluationContext.class), any(int[].class));
+            order.verify(transactionManager).commit(any());
+            order.verify(sectionClassifier).learn(eq(1L), eq(inputVersion), same(sample));
+        }
+
+        @Test
+        @DisplayName("Should not sample an input the classifier has already learned")
+        void evaluateDocument_AlreadyLearned_NotSampled() {
+            when(complianceScoreRepository.findByDocument(testDocument)).thenReturn(Optional.empty());
+            when(complianceScoreRepository.save(any(ComplianceScore.class)))
+                    .thenAnswer(invocation -> invocation.getArgument(0));
+
+            complianceEvaluationService.evaluateDocument(testDocument, content);
+
+            verify(sectionClassifier, never()).sample(any(), any());
+            verify(sectionClassifier, never()).learn(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should not train the classifier when the write fails")
+        void evaluateDocument_SaveFails_NotLearned() {
+            when(complianceScoreRepository.findByDocument(testDocument)).thenReturn(Optional.empty());
+            when(complianceScoreRepository.save(any(ComplianceScore.class))).thenThrow(new RuntimeException("db down"));
+
+            assertThrows(RuntimeException.class,
+                    () -> complianceEvaluationService.evaluateDocument(testDocument, content));
+
+            verify(sectionClassifier, never()).learn(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should replace existing section analyses when persisting")
+        void persistEvaluation_ReplacesSections() {
+            SectionAnalysis stale = new SectionAnalysis();
+            stale.setSectionName(SectionAnalysis.IEEE1058Section.OVERVIEW);
+            testComplianceScore.getSectionAnalyses().add(stale);
+            when(complianceScoreRepository.findByDocument(testDocument)).thenReturn(Optional.of(testComplianceScore));
+            when(complianceScoreRepository.save(any(ComplianceScore.class)))
+                    .thenAnswer(invocation -> invocation.getArgument(0));
+            EvaluationResult result = new EvaluationResult(72.5, 80.0, 50.0, 1, 12, false, "summary",
+                    List.of(new EvaluationResult.SectionResult(SectionAnalysis.IEEE1058Section.RISK_MANAGEMENT,
+                            true, 72.5, "findings", "recommendations", null, 60.0, "MEDIUM", "snippet", "", 10)),
+                    3L, 1);
+
+            ComplianceScore saved = complianceEvaluationService.persistEvaluation(testDocument, result);
+
+            assertSame(testComplianceScore, saved);
+            assertEquals(72.5, saved.getOverallScore());
+            assertEquals(3L, saved.getKeywordDictionaryVersion());
+            assertEquals(1, saved.getKeywordMatchEdits());
+            assertEquals(1, saved.getSectionAnalyses().size());
+            SectionAnalysis analysis = saved.getSectionAnalyses().get(0);
+            assertEquals(SectionAnalysis.IEEE1058Section.RISK_MANAGEMENT, analysis.getSectionName());
+            assertSame(saved, analysis.getComplianceScore());
+            assertEquals("MEDIUM", analysis.getSeverity());
+        }
+
+        @Test
+        @DisplayName("Should roll back and propagate when the write fails")
+        void persistEvaluation_SaveFails_RollsBack() {
+            when(complianceScoreRepository.findByDocument(testDocument)).thenReturn(Optional.empty());
+            when(complianceScoreRepository.save(any(ComplianceScore.class))).thenThrow(new RuntimeException("db down"));
+            EvaluationResult result = new EvaluationResult(0, 0, 0, 0, 12, false, "summary", List.of(), 0L, 0);
+
+            assertThrows(RuntimeException.class,
+                    () -> complianceEvaluationService.persistEvaluation(testDocument, result));
+            verify(transactionManager).rollback(any());
+            verify(transactionManager, never()).commit(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Keyword Phase Tests")
+    class KeywordPhaseTests {
+
+        private final String content = """
+                Delivery Cadence
+                Sprints, burndown and velocity are tracked every two weeks by the whole team.
+                """;
+
+        @Test
+        @DisplayName("Should detect sections with the given dictionary")
+        void computeKeywordEvaluation_UsesDictionary() {
+            Map<SectionAnalysis.IEEE1058Section, Set<String>> keywords =
+                    new EnumMap<>(KeywordDictionary.BUILT_IN.getKeywords());
+            keywords.put(SectionAnalysis.IEEE1058Section.MASTER_SCHEDULE, Set.of("sprints", "burndown", "velocity"));
+            KeywordDictionary dictionary = KeywordDictionary.of(2L, keywords);
+
+            EvaluationResult builtIn = complianceEvaluationService.computeKeywordEvaluation(content,
+                    ScoringPlan.DEFAULT, KeywordDictionary.BUILT_IN);
+            EvaluationResult changed = complianceEvaluationService.computeKeywordEvaluation(content,
+                    ScoringPlan.DEFAULT, dictionary);
+
+            int schedule = SectionAnalysis.IEEE1058Section.MASTER_SCHEDULE.ordinal();
+            assertFalse(builtIn.sections().get(schedule).present());
+            assertTrue(changed.sections().get(schedule).present());
+            assertTrue(changed.overallScore() > builtIn.overallScore());
+            assertEquals(2L, changed.keywordDictionaryVersion());
+        }
+
+        @Test
+        @DisplayName("Should not call the AI or the database")
+        void computeKeywordEvaluation_NoAiCalls() {
+            complianceEvaluationService.computeKeywordEvaluation(content, ScoringPlan.DEFAULT, KeywordDictionary.BUILT_IN);
+
+            verifyNoInteractions(openRouterService, aiResponseCache, complianceScoreRepository, transactionManager);
+        }
+
+        @Test
+        @DisplayName("Should reject a keyword edit budget out of range")
+        void setKeywordMaxEdits_OutOfRange() {
+            assertThrows(IllegalArgumentException.class, () -> complianceEvaluationService.setKeywordMaxEdits(-1));
+            assertThrows(IllegalArgumentException.class, () -> complianceEvaluationService.setKeywordMaxEdits(3));
+
+            complianceEvaluationService.setKeywordMaxEdits(2);
+            assertEquals(2, complianceEvaluationService.getKeywordMaxEdits());
+        }
+    }
+
+    @Nested
+    @DisplayName("Section Lint Tests")
+    class SectionLintTests {
+
+        @Test
+        @DisplayName("Should report coverage and a projected score for a section draft")
+        void lintSection_CoveredDraft() {
+            String draft = """
+                    6. Risk Management
+                    Each risk in the risk register gets a probability, an impact rating and a mitigation
+                    plan. Contingency actions are assigned to owners and reviewed at every sprint.
+                    """;
+
+            SectionLintDTO lint = complianceEvaluationService.lintSection(
+                    SectionAnalysis.IEEE1058Section.RISK_MANAGEMENT, draft);
+
+            assertTrue(lint.isPresent());
+            assertTrue(lint.getProjectedScore() > 0.0);
+            assertTrue(lint.getMatchedKeywords().containsAll(List.of("risk", "risk management")));
+            assertTrue(Collections.disjoint(lint.getMatchedKeywords(), lint.getMissingKeywords()));
+            assertEquals(KeywordDictionary.BUILT_IN.keywordsFor(SectionAnalysis.IEEE1058Section.RISK_MANAGEMENT).size(),
+                    lint.getMatchedKeywords().size() + lint.getMissingKeywords().size());
+            assertEquals(0L, lint.getKeywordDictionaryVersion());
+        }
+
+        @Test
+        @DisplayName("Should list every subclause as missing for a draft on another topic")
+        void lintSection_UnrelatedDraft() {
+            SectionLintDTO lint = complianceEvaluationService.lintSection(
+                    SectionAnalysis.IEEE1058Section.GLOSSARY_APPENDIX, "The team meets on Mondays.");
+
+            assertFalse(lint.isPresent());
+            assertEquals(0.0, lint.getProjectedScore());
+            assertEquals(List.of("12.1 Glossary", "12.2 References", "12.3 Appendices"), lint.getMissingSubclauses());
+        }
+
+        @Test
+        @DisplayName("Should store nothing, call no AI and not train the classifier")
+        void lintSection_Stateless() {
+            complianceEvaluationService.lintSection(SectionAnalysis.IEEE1058Section.OVERVIEW, "Project overview and scope.");
+
+            verifyNoInteractions(openRouterService, aiResponseCache, complianceScoreRepository, transactionManager,
+                    progressService);
+            verify(sectionClassifier, never()).learn(any(), any(), any());
+        }
+    }
+
     @Nested
     @DisplayName("Convert to DTO Tests")
     class ConvertToDTOTests {
@@ -609,4 +949,274 @@ class ComplianceEvaluationServiceTest {
             assertEquals(12, result.getTotalSectionsRequired());
         }
     }
+
+    @Nested
+    @DisplayName("AI Enrichment Cache Tests")
+    class AiEnrichmentCacheTests {
+
+        private final String content = """
+                1. Overview
+                This Software Project Management Plan provides the project summary, purpose, scope and objectives.
+                Deliverables, milestones and assumptions and constraints are described for the project.
+
+                4. Project Organization
+                The project team consists of developers, testers, and managers with defined roles and responsibilities.
+                Organizational structure, reporting lines and external interfaces are defined.
+                """;
+
+        @BeforeEach
+        void setUpAi() {
+            ReflectionTestUtils.setField(complianceEvaluationService, "batchedEnrichment", false);
+            when(openRouterService.isAvailable()).thenReturn(true);
+            when(openRouterService.getModel()).thenReturn("test/model");
+            when(complianceScoreRepository.findByDocument(testDocument)).thenReturn(Optional.empty());
+            when(complianceScoreRepository.save(any(ComplianceScore.class)))
+                    .thenAnswer(invocation -> invocation.getArgument(0));
+        }
+
+        @Test
+        @DisplayName("Should use cached AI response without calling the model")
+        void evaluateDocument_CacheHit_SkipsAiCall() {
+            when(aiResponseCache.get(anyString()))
+                    .thenReturn(Optional.of("FINDINGS: cached findings\nRECOMMENDATIONS: cached recommendations"));
+
+            ComplianceScore result = complianceEvaluationService.evaluateDocument(testDocument, content);
+
+            assertTrue(result.getSectionAnalyses().stream()
+                    .anyMatch(a -> "cached findings".equals(a.getFindings())
+                            && "cached recommendations".equals(a.getRecommendations())));
+            verify(openRouterService, never()).analyzeDocument(anyString());
+        }
+
+        @Test
+        @DisplayName("Should cache genuine AI responses on a miss")
+        void evaluateDocument_CacheMiss_StoresAiResponse() {
+            when(aiResponseCache.get(anyString())).thenReturn(Optional.empty());
+            when(openRouterService.analyzeDocument(anyString()))
+                    .thenReturn(Map.of("summary", "FINDINGS: ai findings\nRECOMMENDATIONS: ai recommendations"));
+            when(openRouterService.getAnsweringModel()).thenReturn("test/model");
+
+            complianceEvaluationService.evaluateDocument(testDocument, content);
+
+            verify(aiResponseCache, atLeastOnce()).put(anyString(), eq("test/model"),
+                    eq(ComplianceEvaluationService.ENRICHMENT_PROMPT_VERSION),
+                    eq("FINDINGS: ai findings\nRECOMMENDATIONS: ai recommendations"));
+        }
+
+        @Test
+        @DisplayName("Should not cache an answer from a failover model under the preferred model")
+        void evaluateDocument_FailoverAnswer_NotCached() {
+            when(aiResponseCache.get(anyString())).thenReturn(Optional.empty());
+            when(openRouterService.analyzeDocument(anyString()))
+                    .thenReturn(Map.of("summary", "FINDINGS: ai findings\nRECOMMENDATIONS: ai recommendations"));
+            when(openRouterService.getAnsweringModel()).thenReturn("fallback/model");
+
+            ComplianceScore result = complianceEvaluationService.evaluateDocument(testDocument, content);
+
+            assertTrue(result.getSectionAnalyses().stream().anyMatch(a -> "ai findings".equals(a.getFindings())));
+            verify(aiResponseCache, never()).put(anyString(), anyString(), anyString(), anyString());
+        }
+
+        @Test
+        @DisplayName("Should not cache fallback responses")
+        void evaluateDocument_FallbackResponse_NotCached() {
+            when(aiResponseCache.get(anyString())).thenReturn(Optional.empty());
+            when(openRouterService.analyzeDocument(anyString()))
+                    .thenReturn(Map.of("summary", "Document shows partial IEEE 1058 compliance."));
+
+            complianceEvaluationService.evaluateDocument(testDocument, content);
+
+            verify(aiResponseCache, never()).put(anyString(), anyString(), anyString(), anyString());
+        }
+    }
+
+    @Nested
+    @DisplayName("Batched AI Enrichment Tests")
+    class BatchedAiEnrichmentTests {
+
+        private final String content = """
+                1. Overview
+                This Software Project Management Plan provides the project summary, purpose, scope and objectives.
+                Deliverables, milestones and assumptions and constraints are described for the project.
+
+                4. Project Organization
+                The project team consists of developers, testers, and managers with defined roles and responsibilities.
+                Organizational structure, reporting lines and external interfaces are defined.
+                """;
+
+        @BeforeEach
+        void setUpAi() {
+            when(openRouterService.isAvailable()).thenReturn(true);
+            when(openRouterService.getModel()).thenReturn("test/model");
+            when(aiResponseCache.get(anyString())).thenReturn(Optional.empty());
+            when(complianceScoreRepository.findByDocument(testDocument)).thenReturn(Optional.empty());
+            when(complianceScoreRepository.save(any(ComplianceScore.class)))
+                    .thenAnswer(invocation -> invocation.getArgument(0));
+        }
+
+        private SectionAnalysis analysisFor(ComplianceScore score, SectionAnalysis.IEEE1058Section section) {
+            return score.getSectionAnalyses().stream()
+                    .filter(a -> a.getSectionName() == section)
+                    .findFirst()
+                    .orElseThrow();
+        }
+
+        @Test
+        @DisplayName("Should enrich all present sections with a single AI call")
+        void evaluateDocument_BatchResponse_OneAiCall() {
+            when(openRouterService.complete(anyString())).thenReturn("""
+                    ```json
+                    {"OVERVIEW": {"findings": "overview ok", "recommendations": "add dates"},
+                     "ORGANIZATION": {"findings": "roles clear", "recommendations": "add chart"}}
+                    ```""");
+
+            ComplianceScore result = complianceEvaluationService.evaluateDocument(testDocument, content);
+
+            assertEquals("overview ok", analysisFor(result, SectionAnalysis.IEEE1058Section.OVERVIEW).getFindings());
+            assertEquals("add chart",
+                    analysisFor(result, SectionAnalysis.IEEE1058Section.ORGANIZATION).getRecommendations());
+            verify(openRouterService, times(1)).complete(anyString());
+            // Only sections the batch did not answer go out individually
+            verify(openRouterService, times((int) result.getSectionAnalyses().stream()
+                    .filter(SectionAnalysis::isPresent).count() - 2)).analyzeDocument(anyString());
+        }
+
+        @Test
+        @DisplayName("Should include every present section in the batched prompt")
+        void evaluateDocument_BatchPrompt_ListsPresentSections() {
+            when(openRouterService.complete(anyString())).thenReturn("{}");
+            when(openRouterService.analyzeDocument(anyString())).thenReturn(Map.of());
+
+            complianceEvaluationService.evaluateDocument(testDocument, content);
+
+            ArgumentCaptor<String> prompt = ArgumentCaptor.forClass(String.class);
+            verify(openRouterService).complete(prompt.capture());
+            assertTrue(prompt.getValue().contains("### OVERVIEW"));
+            assertTrue(prompt.getValue().contains("### ORGANIZATION"));
+        }
+
+        @Test
+        @DisplayName("Should fall back to per-section calls when the batch cannot be parsed")
+        void evaluateDocument_UnparseableBatch_FallsBackPerSection() {
+            when(openRouterService.complete(anyString())).thenReturn("Sorry, I cannot help with that.");
+            when(openRouterService.analyzeDocument(anyString()))
+                    .thenReturn(Map.of("summary", "FINDINGS: single findings\nRECOMMENDATIONS: single recommendations"));
+
+            ComplianceScore result = complianceEvaluationService.evaluateDocument(testDocument, content);
+
+            assertEquals("single findings",
+                    analysisFor(result, SectionAnalysis.IEEE1058Section.OVERVIEW).getFindings());
+            verify(openRouterService, atLeast(2)).analyzeDocument(anyString());
+            verify(aiResponseCache, never()).put(anyString(), anyString(),
+                    eq(ComplianceEvaluationService.BATCH_ENRICHMENT_PROMPT_VERSION), anyString());
+        }
+
+        @Test
+        @DisplayName("Should fall back per section only for sections missing from the batch")
+        void evaluateDocument_PartialBatch_FallsBackForMissingSections() {
+            when(openRouterService.complete(anyString()))
+                    .thenReturn("{\"OVERVIEW\": {\"findings\": \"overview ok\", \"recommendations\": \"add dates\"}}");
+            when(openRouterService.analyzeDocument(anyString()))
+                    .thenReturn(Map.of("summary", "FINDINGS: single findings\nRECOMMENDATIONS: single recommendations"));
+
+            ComplianceScore result = complianceEvaluationService.evaluateDocument(testDocument, content);
+
+            assertEquals("overview ok", analysisFor(result, SectionAnalysis.IEEE1058Section.OVERVIEW).getFindings());
+            verify(openRouterService, times((int) result.getSectionAnalyses().stream()
+                    .filter(SectionAnalysis::isPresent).count() - 1)).analyzeDocument(anyString());
+        }
+
+        @Test
+        @DisplayName("Should attribute batch and fallback AI calls to the document and section")
+        void evaluateDocument_AiCalls_AttributedForUsageLedger() {
+            List<AiUsageContext.Attribution> batchCalls = new ArrayList<>();
+            List<AiUsageContext.Attribution> sectionCalls = new ArrayList<>();
+            when(openRouterService.complete(anyString())).thenAnswer(invocation -> {
+                batchCalls.add(AiUsageContext.current());
+                return "{\"OVERVIEW\": {\"findings\": \"overview ok\", \"recommendations\": \"add dates\"}}";
+            });
+            when(openRouterService.analyzeDocument(anyString())).thenAnswer(invocation -> {
+                sectionCalls.add(AiUsageContext.current());
+                return Map.of("summary", "FINDINGS: single findings\nRECOMMENDATIONS: single recommendations");
+            });
+
+            complianceEvaluationService.evaluateDocument(testDocument, content);
+
+            assertEquals(List.of(new AiUsageContext.Attribution("batch-enrichment", 1L, null)), batchCalls);
+            assertFalse(sectionCalls.isEmpty());
+            assertTrue(sectionCalls.stream().allMatch(a -> "section-enrichment".equals(a.operation())
+                    && a.documentId() == 1L && a.section() != null && !"OVERVIEW".equals(a.section())));
+            assertNull(AiUsageContext.current());
+        }
+
+        @Test
+        @DisplayName("Should fall back to per-section calls when the batch call fails")
+        void evaluateDocument_BatchCallFails_FallsBackPerSection() {
+            when(openRouterService.complete(anyString())).thenThrow(new RuntimeException("AI service unavailable"));
+            when(openRouterService.analyzeDocument(anyString()))
+                    .thenReturn(Map.of("summary", "FINDINGS: single findings\nRECOMMENDATIONS: single recommendations"));
+
+            ComplianceScore result = complianceEvaluationService.evaluateDocument(testDocument, content);
+
+            assertEquals("single recommendations",
+                    analysisFor(result, SectionAnalysis.IEEE1058Section.ORGANIZATION).getRecommendations());
+        }
+
+        @Test
+        @DisplayName("Should cache a parsed batch response under the batch prompt version")
+        void evaluateDocument_ParsedBatch_Cached() {
+            String reply = "{\"OVERVIEW\": {\"findings\": \"a\", \"recommendations\": \"b\"},"
+                    + " \"ORGANIZATION\": {\"findings\": \"c\", \"recommendations\": \"d\"}}";
+            when(openRouterService.complete(anyString())).thenReturn(reply);
+            when(openRouterService.getAnsweringModel()).thenReturn("test/model");
+
+            complianceEvaluationService.evaluateDocument(testDocument, content);
+
+            verify(aiResponseCache).put(anyString(), eq("test/model"),
+                    eq(ComplianceEvaluationService.BATCH_ENRICHMENT_PROMPT_VERSION), eq(reply));
+        }
+
+        @Test
+        @DisplayName("Should stream the batch and publish findings while they arrive when someone is watching")
+        void evaluateDocument_Subscribers_StreamsProgress() {
+            String first = "{\"OVERVIEW\": {\"findings\": \"over";
+            String second = "view ok\", \"recommendations\": \"add dates\"}}";
+            when(progressService.hasSubscribers(1L)).thenReturn(true);
+            when(openRouterService.completeStreaming(anyString(), any())).thenAnswer(invocation -> {
+                Consumer<String> onDelta = invocation.getArgument(1);
+                onDelta.accept(first);
+                onDelta.accept(second);
+                return first + second;
+            });
+
+            ComplianceScore result = complianceEvaluationService.evaluateDocument(testDocument, content);
+
+            assertEquals("overview ok", analysisFor(result, SectionAnalysis.IEEE1058Section.OVERVIEW).getFindings());
+            verify(progressService).publish(1L, EvaluationProgressService.EVENT_SECTION,
+                    new EvaluationProgressService.SectionProgress("OVERVIEW", "findings", "over", false));
+            verify(progressService).publish(1L, EvaluationProgressService.EVENT_SECTION,
+                    new EvaluationProgressService.SectionProgress("OVERVIEW", "recommendations", "add dates", true));
+            verify(openRouterService, never()).complete(anyString());
+        }
+
+        @Test
+        @DisplayName("Should not stream when nobody is watching")
+        void evaluateDocument_NoSubscribers_DoesNotStream() {
+            when(openRouterService.complete(anyString())).thenReturn("{}");
+
+            complianceEvaluationService.evaluateDocument(testDocument, content);
+
+            verify(openRouterService, never()).completeStreaming(anyString(), any());
+        }
+
+        @Test
+        @DisplayName("Should signal completion on the progress channel")
+        void evaluateDocument_Completes_PublishesCompletion() {
+            when(openRouterService.complete(anyString())).thenReturn("{}");
+
+            complianceEvaluationService.evaluateDocument(testDocument, content);
+
+            verify(progressService).complete(eq(1L), anyMap());
+        }
+    }
 }
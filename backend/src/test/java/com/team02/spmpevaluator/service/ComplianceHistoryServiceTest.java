@@ -8,9 +8,11 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -31,6 +33,12 @@ class ComplianceHistoryServiceTest {
     @Mock
     private ComplianceScoreHistoryRepository historyRepository;
 
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Captor
+    private ArgumentCaptor<List<Object[]>> insertCaptor;
+
     @InjectMocks
     private ComplianceHistoryService complianceHistoryService;
 
@@ -240,6 +248,50 @@ class ComplianceHistoryServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Archive Scores Tests")
+    class ArchiveScoresTests {
+
+        @Test
+        @DisplayName("Should number versions from one grouped count and insert in one batch")
+        void archiveScores_GroupedCountAndBatchInsert() {
+            SPMPDocument otherDocument = new SPMPDocument();
+            otherDocument.setId(2L);
+            ComplianceScore otherScore = new ComplianceScore();
+            otherScore.setId(2L);
+            otherScore.setDocument(otherDocument);
+            otherScore.setOverallScore(60.0);
+            otherScore.setStructureScore(50.0);
+            otherScore.setCompletenessScore(70.0);
+            when(historyRepository.countByDocumentIds(List.of(1L, 2L)))
+                    .thenReturn(Collections.singletonList(new Object[]{1L, 3L}));
+
+            complianceHistoryService.archiveScores(List.of(testComplianceScore, otherScore), "WHAT_IF_RESCORE", 2L);
+
+            verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO compliance_score_history"), insertCaptor.capture());
+            List<Object[]> inserts = insertCaptor.getValue();
+            assertEquals(2, inserts.size());
+            assertEquals(1L, inserts.get(0)[0]);
+            assertEquals(85.0, inserts.get(0)[1]);
+            assertEquals(true, inserts.get(0)[6]);
+            assertEquals(2L, inserts.get(0)[12]);
+            assertEquals(4, inserts.get(0)[13]); // After 3 earlier versions
+            assertEquals("WHAT_IF_RESCORE", inserts.get(0)[14]);
+            assertEquals(2L, inserts.get(1)[0]);
+            assertEquals(1, inserts.get(1)[13]); // First version
+            verify(historyRepository, never()).countByDocumentId(any());
+            verify(historyRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should not query or insert when there is nothing to archive")
+        void archiveScores_Empty() {
+            complianceHistoryService.archiveScores(List.of(), "WHAT_IF_RESCORE", 2L);
+
+            verifyNoInteractions(historyRepository, jdbcTemplate);
+        }
+    }
+
     @Nested
     @DisplayName("Get History for Document Tests")
     class GetHistoryForDocumentTests {
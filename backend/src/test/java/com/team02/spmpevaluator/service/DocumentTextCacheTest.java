@@ -0,0 +1,72 @@
+package com.team02.spmpevaluator.service;
+
+import com.team02.spmpevaluator.entity.SPMPDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DocumentTextCache.
+ */
+class DocumentTextCacheTest {
+
+    private DocumentTextCache cache;
+    private SPMPDocument document;
+
+    @BeforeEach
+    void setUp() {
+        cache = new DocumentTextCache(1_000, Duration.ofMinutes(5));
+        document = new SPMPDocument();
+        document.setId(1L);
+        document.setFileUrl("/uploads/documents/a_plan.pdf");
+        document.setFileSize(2048L);
+    }
+
+    @Test
+    @DisplayName("Should return text cached for the same stored file")
+    void get_SameFile_ReturnsText() {
+        cache.put(document, "extracted text");
+
+        assertEquals(Optional.of("extracted text"), cache.get(document));
+    }
+
+    @Test
+    @DisplayName("Should not return text of a replaced file")
+    void get_ReplacedFile_Empty() {
+        cache.put(document, "old text");
+        document.setFileUrl("/uploads/documents/b_plan.pdf");
+
+        assertEquals(Optional.empty(), cache.get(document));
+    }
+
+    @Test
+    @DisplayName("Should forget evicted documents")
+    void evict_RemovesText() {
+        cache.put(document, "extracted text");
+        cache.evict(1L);
+
+        assertEquals(Optional.empty(), cache.get(document));
+    }
+
+    @Test
+    @DisplayName("Should not keep texts beyond the character budget")
+    void put_OverBudget_NotKept() {
+        cache.put(document, "x".repeat(2_000));
+
+        assertEquals(Optional.empty(), cache.get(document));
+    }
+
+    @Test
+    @DisplayName("Should ignore unsaved documents")
+    void put_NoId_Ignored() {
+        SPMPDocument unsaved = new SPMPDocument();
+        cache.put(unsaved, "text");
+
+        assertEquals(Optional.empty(), cache.get(unsaved));
+    }
+}
@@ -0,0 +1,260 @@
+package com.team02.spmpevaluator.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for EvaluationAdmissionService.
+ * Tests per-user rate limiting, the global concurrency limit, fair queueing and load shedding.
+ */
+@ExtendWith(MockitoExtension.class)
+class EvaluationAdmissionServiceTest {
+
+    @Mock
+    private SystemSettingService settingService;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(settingService.getIntegerSetting(anyString(), anyInt()))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+    }
+
+    private EvaluationAdmissionService service(int maxConcurrent, int queueCapacity, Duration queueTimeout,
+                                               int userBurst, int userRefillPerMinute) {
+        return new EvaluationAdmissionService(settingService,
+                new EvaluationAdmissionService.Limits(maxConcurrent, queueCapacity, queueTimeout, userBurst,
+                        userRefillPerMinute, 2),
+                Duration.ofSeconds(30), clock::get);
+    }
+
+    private void awaitQueued(EvaluationAdmissionService service, EvaluationAdmissionService.Priority priority,
+                             int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (service.getQueuedCount(priority) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, service.getQueuedCount(priority));
+    }
+
+    @Nested
+    @DisplayName("Rate Limit Tests")
+    class RateLimitTests {
+
+        @Test
+        @DisplayName("Should reject a user once the burst is used up")
+        void admit_BurstExhausted_RateLimited() throws Exception {
+            EvaluationAdmissionService service = service(10, 10, Duration.ofSeconds(1), 2, 6);
+
+            service.admit("student1", EvaluationAdmissionService.Priority.INTERACTIVE).close();
+            service.admit("student1", EvaluationAdmissionService.Priority.INTERACTIVE).close();
+            EvaluationAdmissionService.Ticket third =
+                    service.admit("student1", EvaluationAdmissionService.Priority.INTERACTIVE);
+
+            assertFalse(third.isAdmitted());
+            assertEquals(EvaluationAdmissionService.Rejection.RATE_LIMITED, third.getRejection());
+            // 6 per minute: one token every 10 seconds
+            assertEquals(10, third.getRetryAfterSeconds());
+            assertEquals(1, service.getRejectedCount(EvaluationAdmissionService.Rejection.RATE_LIMITED));
+        }
+
+        @Test
+        @DisplayName("Should keep buckets separate per user")
+        void admit_OtherUser_NotLimited() throws Exception {
+            EvaluationAdmissionService service = service(10, 10, Duration.ofSeconds(1), 1, 1);
+            service.admit("student1", EvaluationAdmissionService.Priority.INTERACTIVE).close();
+
+            try (EvaluationAdmissionService.Ticket ticket =
+                         service.admit("student2", EvaluationAdmissionService.Priority.INTERACTIVE)) {
+                assertTrue(ticket.isAdmitted());
+            }
+        }
+
+        @Test
+        @DisplayName("Should refill tokens over time")
+        void admit_AfterRefill_Admitted() throws Exception {
+            EvaluationAdmissionService service = service(10, 10, Duration.ofSeconds(1), 1, 6);
+            service.admit("student1", EvaluationAdmissionService.Priority.INTERACTIVE).close();
+            assertFalse(service.admit("student1", EvaluationAdmissionService.Priority.INTERACTIVE).isAdmitted());
+
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+            assertTrue(service.admit("student1", EvaluationAdmissionService.Priority.INTERACTIVE).isAdmitted());
+        }
+    }
+
+    @Nested
+    @DisplayName("Concurrency Limit Tests")
+    class ConcurrencyLimitTests {
+
+        @Test
+        @DisplayName("Should shed requests when the queue is full")
+        void admit_QueueFull_Rejected() throws Exception {
+            EvaluationAdmissionService service = service(1, 0, Duration.ofSeconds(1), 10, 10);
+
+            try (EvaluationAdmissionService.Ticket running =
+                         service.admit("prof", EvaluationAdmissionService.Priority.BULK)) {
+                EvaluationAdmissionService.Ticket shed =
+                        service.admit("student1", EvaluationAdmissionService.Priority.INTERACTIVE);
+
+                assertTrue(running.isAdmitted());
+                assertEquals(EvaluationAdmissionService.Rejection.QUEUE_FULL, shed.getRejection());
+                assertTrue(shed.getRetryAfterSeconds() >= 1);
+            }
+            assertEquals(0, service.getActiveCount());
+        }
+
+        @Test
+        @DisplayName("Should give up after the queue timeout")
+        void admit_QueueTimeout_Rejected() throws Exception {
+            EvaluationAdmissionService service = service(1, 5, Duration.ofMillis(50), 10, 10);
+
+            try (EvaluationAdmissionService.Ticket running =
+                         service.admit("prof", EvaluationAdmissionService.Priority.BULK)) {
+                EvaluationAdmissionService.Ticket waited =
+                        service.admit("student1", EvaluationAdmissionService.Priority.INTERACTIVE);
+
+                assertEquals(EvaluationAdmissionService.Rejection.QUEUE_TIMEOUT, waited.getRejection());
+                assertEquals(0, service.getQueuedCount(EvaluationAdmissionService.Priority.INTERACTIVE));
+            }
+        }
+
+        @Test
+        @DisplayName("Should release the slot only once")
+        void close_Twice_ReleasesOnce() throws Exception {
+            EvaluationAdmissionService service = service(2, 5, Duration.ofSeconds(1), 10, 10);
+            EvaluationAdmissionService.Ticket first = service.admit("a", EvaluationAdmissionService.Priority.BULK);
+            EvaluationAdmissionService.Ticket second = service.admit("b", EvaluationAdmissionService.Priority.BULK);
+
+            first.close();
+            first.close();
+
+            assertEquals(1, service.getActiveCount());
+            second.close();
+            assertEquals(0, service.getActiveCount());
+        }
+
+        @Test
+        @DisplayName("Should hand freed slots to interactive and bulk waiters by weight")
+        void release_WeightedRoundRobin() throws Exception {
+            EvaluationAdmissionService service = service(1, 10, Duration.ofSeconds(5), 10, 10);
+            EvaluationAdmissionService.Ticket running = service.admit("prof", EvaluationAdmissionService.Priority.BULK);
+            List<String> order = Collections.synchronizedList(new ArrayList<>());
+            ExecutorService callers = Executors.newCachedThreadPool();
+            try {
+                String[][] requests = {{"b1", "BULK"}, {"i1", "INTERACTIVE"}, {"b2", "BULK"}, {"i2", "INTERACTIVE"},
+                        {"i3", "INTERACTIVE"}};
+                int bulk = 0;
+                int interactive = 0;
+                for (String[] request : requests) {
+                    EvaluationAdmissionService.Priority priority = EvaluationAdmissionService.Priority.valueOf(request[1]);
+                    callers.submit(() -> {
+                        try (EvaluationAdmissionService.Ticket ticket = service.admit(request[0], priority)) {
+                            order.add(request[0]);
+                        }
+                        return null;
+                    });
+                    if (priority == EvaluationAdmissionService.Priority.BULK) {
+                        awaitQueued(service, priority, ++bulk);
+                    } else {
+                        awaitQueued(service, priority, ++interactive);
+                    }
+                }
+
+                running.close();
+                callers.shutdown();
+                assertTrue(callers.awaitTermination(5, TimeUnit.SECONDS));
+            } finally {
+                callers.shutdownNow();
+            }
+
+            // Two interactive requests per bulk request while both queues have waiters
+            assertEquals(List.of("i1", "i2", "b1", "i3", "b2"), order);
+            assertEquals(0, service.getActiveCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Settings Tests")
+    class SettingsTests {
+
+        @Test
+        @DisplayName("Should apply limits from system settings")
+        void getLimits_FromSettings() {
+            when(settingService.getIntegerSetting(eq(EvaluationAdmissionService.SETTING_MAX_CONCURRENT), anyInt()))
+                    .thenReturn(8);
+            when(settingService.getIntegerSetting(eq(EvaluationAdmissionService.SETTING_QUEUE_TIMEOUT_SECONDS), anyInt()))
+                    .thenReturn(12);
+            EvaluationAdmissionService service = service(4, 20, Duration.ofSeconds(30), 10, 2);
+
+            EvaluationAdmissionService.Limits limits = service.getLimits();
+
+            assertEquals(8, limits.maxConcurrent());
+            assertEquals(Duration.ofSeconds(12), limits.queueTimeout());
+            assertEquals(20, limits.queueCapacity());
+        }
+
+        @Test
+        @DisplayName("Should re-read settings only after the refresh interval")
+        void getLimits_CachedUntilRefresh() {
+            EvaluationAdmissionService service = service(4, 20, Duration.ofSeconds(30), 10, 2);
+            service.getLimits();
+            service.getLimits();
+            verify(settingService, times(1))
+                    .getIntegerSetting(eq(EvaluationAdmissionService.SETTING_MAX_CONCURRENT), anyInt());
+
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(31));
+            service.getLimits();
+
+            verify(settingService, times(2))
+                    .getIntegerSetting(eq(EvaluationAdmissionService.SETTING_MAX_CONCURRENT), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should fall back to defaults when settings cannot be read")
+        void getLimits_SettingsUnavailable_Defaults() {
+            when(settingService.getIntegerSetting(anyString(), anyInt())).thenThrow(new RuntimeException("db down"));
+            EvaluationAdmissionService service = service(4, 20, Duration.ofSeconds(30), 10, 2);
+
+            assertEquals(4, service.getLimits().maxConcurrent());
+        }
+    }
+
+    @Test
+    @DisplayName("Should expose admission meters")
+    void bindTo_RegistersMeters() throws Exception {
+        EvaluationAdmissionService service = service(2, 5, Duration.ofSeconds(1), 1, 1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        service.bindTo(registry);
+
+        EvaluationAdmissionService.Ticket ticket = service.admit("a", EvaluationAdmissionService.Priority.BULK);
+        service.admit("a", EvaluationAdmissionService.Priority.BULK);
+
+        assertEquals(1.0, registry.get("evaluation.admission.active").gauge().value());
+        assertEquals(1.0, registry.get("evaluation.admission.requests").tag("result", "admitted")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("evaluation.admission.requests").tag("result", "rate_limited")
+                .functionCounter().count());
+        ticket.close();
+    }
+}
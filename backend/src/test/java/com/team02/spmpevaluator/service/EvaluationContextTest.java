@@ -0,0 +1,173 @@
+package com.team02.spmpevaluator.service;
+
+import com.team02.spmpevaluator.entity.SectionAnalysis.IEEE1058Section;
+import com.team02.spmpevaluator.util.KeywordAutomaton;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EvaluationContext.
+ * Tests the line index, line classes and keyword positions the keyword phase relies on.
+ */
+class EvaluationContextTest {
+
+    private static final KeywordAutomaton TERMS = KeywordAutomaton.of(List.of("risk management", "glossary", "contents"));
+    private static final int RISK_MANAGEMENT = 0;
+    private static final int CONTENTS = 2;
+
+    private static KeywordDictionary dictionary() {
+        Map<IEEE1058Section, List<String>> keywords = new EnumMap<>(IEEE1058Section.class);
+        keywords.put(IEEE1058Section.RISK_MANAGEMENT, List.of("risk", "mitigation"));
+        keywords.put(IEEE1058Section.MASTER_SCHEDULE, List.of("gantt"));
+        return KeywordDictionary.of(1L, keywords);
+    }
+
+    @Nested
+    @DisplayName("Line Index Tests")
+    class LineIndexTests {
+
+        @Test
+        @DisplayName("Should split lines like String.split and keep carriage returns")
+        void open_SplitsLikeString() {
+            String text = "first\r\n\n  third  \n\n\n";
+
+            try (EvaluationContext context = EvaluationContext.open(text, dictionary(), TERMS)) {
+                String[] lines = text.split("\n");
+                assertEquals(lines.length, context.lineCount());
+                for (int line = 0; line < lines.length; line++) {
+                    assertEquals(lines[line].length(), context.lineLength(line));
+                    assertEquals(lines[line].trim().length(), context.trimmedLength(line));
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Should classify lines exactly like the heading and list patterns")
+        void open_ClassifiesLikePatterns() {
+            List<String> lines = List.of("1. Introduction", "5.3.7 Risk management", "2.3. Budget", "12 Glossary",
+                    "3.Schedule", "4.  lower case", "1 ", "• bullet", "  - dash", "*star", "  10. item", "10.x",
+                    "Capitalized line", "Capital\rline", "lower line", "", "   ", "1.2\tTabbed", "7 Risk more");
+
+            try (EvaluationContext context = EvaluationContext.open(String.join("\n", lines), dictionary(), TERMS)) {
+                for (int line = 0; line < lines.size(); line++) {
+                    String raw = lines.get(line);
+                    String trimmed = raw.trim();
+                    assertEquals(trimmed.matches("^\\d+(\\.\\d+)*\\s+.*"),
+                            context.hasFlag(line, EvaluationContext.NUMBERED_HEADING), raw);
+                    assertEquals(trimmed.matches("^\\d+\\.?\\s+[A-Z].*"),
+                            context.hasFlag(line, EvaluationContext.NUMBERED_TITLE), raw);
+                    assertEquals(raw.matches("^[A-Z].*"), context.hasFlag(line, EvaluationContext.CAPITALIZED), raw);
+                    assertEquals(raw.matches("^\\s*[•\\-\\*].*") || raw.matches("^\\s*\\d+\\..*"),
+                            context.hasFlag(line, EvaluationContext.LIST_ITEM), raw);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Should cut snippets from the trimmed line")
+        void snippet_TrimsAndTruncates() {
+            String text = "  Risk register  \n" + "x".repeat(300);
+
+            try (EvaluationContext context = EvaluationContext.open(text, dictionary(), TERMS)) {
+                assertEquals("Risk register", context.snippet(0));
+                assertEquals("x".repeat(240) + "...", context.snippet(1));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Match Tests")
+    class MatchTests {
+
+        @Test
+        @DisplayName("Should count distinct keywords per section and note the lines holding them")
+        void open_IndexesKeywords() {
+            String text = "Overview\nRISK and Mitigation\nmore risk\nGantt";
+
+            try (EvaluationContext context = EvaluationContext.open(text, dictionary(), TERMS)) {
+                int risk = IEEE1058Section.RISK_MANAGEMENT.ordinal();
+                int schedule = IEEE1058Section.MASTER_SCHEDULE.ordinal();
+                assertEquals(2, context.matchedKeywords[risk]);
+                assertEquals(1, context.matchedKeywords[schedule]);
+                assertEquals(1, context.firstKeywordLine[risk]);
+                assertFalse(context.lineHasKeyword(0, risk));
+                assertTrue(context.lineHasKeyword(2, risk));
+                // "risk" is a heading keyword, "gantt" is one too; both have at least 4 characters
+                assertTrue(context.lineHasHeadingKeyword(2, risk));
+                assertTrue(context.lineHasHeadingKeyword(3, schedule));
+            }
+        }
+
+        @Test
+        @DisplayName("Should count keywords found with an edit budget toward their section")
+        void open_FuzzyKeywords() {
+            String text = "Overview\nrsik log\nmitigaton plan\nGant chart";
+            int risk = IEEE1058Section.RISK_MANAGEMENT.ordinal();
+
+            try (EvaluationContext exact = EvaluationContext.open(text, dictionary(), TERMS)) {
+                assertEquals(0, exact.matchedKeywords[risk]);
+            }
+            try (EvaluationContext context = EvaluationContext.open(text, dictionary(), TERMS, 1)) {
+                // "risk" is too short to allow an edit, "mitigation" and "gantt" are not
+                assertEquals(1, context.matchedKeywords[risk]);
+                assertEquals(2, context.firstKeywordLine[risk]);
+                assertTrue(context.lineHasHeadingKeyword(2, risk));
+                assertEquals(3, context.firstKeywordLine[IEEE1058Section.MASTER_SCHEDULE.ordinal()]);
+            }
+        }
+
+        @Test
+        @DisplayName("Should find fixed terms per line but not across line breaks")
+        void open_IndexesTerms() {
+            String text = "Table of Contents\nRisk\nmanagement\n6. Risk Management";
+
+            try (EvaluationContext context = EvaluationContext.open(text, dictionary(), TERMS)) {
+                assertTrue(context.termFound(CONTENTS));
+                assertEquals(0, context.termFirstLine(CONTENTS));
+                assertEquals(3, context.termFirstLine(RISK_MANAGEMENT));
+                assertFalse(context.lineHasTerm(1, RISK_MANAGEMENT));
+                assertTrue(context.lineHasTerm(3, RISK_MANAGEMENT));
+                assertEquals(2, context.countLineTerms(3, new int[]{RISK_MANAGEMENT, RISK_MANAGEMENT}));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Reuse Tests")
+    class ReuseTests {
+
+        @Test
+        @DisplayName("Should reuse the thread's context and reset it for the next document")
+        void open_ReusesContext() {
+            EvaluationContext first;
+            try (EvaluationContext context = EvaluationContext.open("risk\n".repeat(1000), dictionary(), TERMS)) {
+                first = context;
+                assertEquals(1000, context.lineCount());
+            }
+
+            try (EvaluationContext context = EvaluationContext.open("gantt", dictionary(), TERMS)) {
+                assertSame(first, context);
+                assertEquals(1, context.lineCount());
+                assertEquals(0, context.matchedKeywords[IEEE1058Section.RISK_MANAGEMENT.ordinal()]);
+                assertEquals(-1, context.firstKeywordLine[IEEE1058Section.RISK_MANAGEMENT.ordinal()]);
+            }
+        }
+
+        @Test
+        @DisplayName("Should not hand out a context that is still open")
+        void open_Nested_FreshContext() {
+            try (EvaluationContext outer = EvaluationContext.open("risk", dictionary(), TERMS);
+                 EvaluationContext inner = EvaluationContext.open("gantt", dictionary(), TERMS)) {
+                assertNotSame(outer, inner);
+                assertEquals(1, outer.matchedKeywords[IEEE1058Section.RISK_MANAGEMENT.ordinal()]);
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.team02.spmpevaluator.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EvaluationProgressService.
+ * Tests subscription bookkeeping and completion ordering relative to transactions.
+ */
+class EvaluationProgressServiceTest {
+
+    private EvaluationProgressService progressService;
+
+    @BeforeEach
+    void setUp() {
+        progressService = new EvaluationProgressService(Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Nested
+    @DisplayName("Subscription Tests")
+    class SubscriptionTests {
+
+        @Test
+        @DisplayName("Should track subscribers per document")
+        void subscribe_TracksDocument() {
+            SseEmitter emitter = progressService.subscribe(1L);
+
+            assertNotNull(emitter);
+            assertTrue(progressService.hasSubscribers(1L));
+            assertFalse(progressService.hasSubscribers(2L));
+            assertFalse(progressService.hasSubscribers(null));
+        }
+
+        @Test
+        @DisplayName("Should ignore events for documents nobody watches")
+        void publish_NoSubscribers_NoOp() {
+            assertDoesNotThrow(() -> progressService.publish(5L, EvaluationProgressService.EVENT_SECTION,
+                    new EvaluationProgressService.SectionProgress("OVERVIEW", "findings", "text", false)));
+        }
+
+        @Test
+        @DisplayName("Should accept events for watched documents")
+        void publish_WithSubscriber_KeepsSubscription() {
+            progressService.subscribe(1L);
+
+            progressService.publish(1L, EvaluationProgressService.EVENT_SECTION,
+                    new EvaluationProgressService.SectionProgress("OVERVIEW", "findings", "text", false));
+
+            assertTrue(progressService.hasSubscribers(1L));
+        }
+    }
+
+    @Nested
+    @DisplayName("Completion Tests")
+    class CompletionTests {
+
+        @Test
+        @DisplayName("Should close streams immediately outside a transaction")
+        void complete_NoTransaction_ClosesStreams() {
+            progressService.subscribe(1L);
+            progressService.subscribe(1L);
+
+            progressService.complete(1L, Map.of("overallScore", 90.0));
+
+            assertFalse(progressService.hasSubscribers(1L));
+        }
+
+        @Test
+        @DisplayName("Should wait for commit before closing streams")
+        void complete_InTransaction_DeferredUntilCommit() {
+            progressService.subscribe(1L);
+            TransactionSynchronizationManager.initSynchronization();
+
+            progressService.complete(1L, Map.of("overallScore", 90.0));
+
+            assertTrue(progressService.hasSubscribers(1L));
+            for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+            assertFalse(progressService.hasSubscribers(1L));
+        }
+
+        @Test
+        @DisplayName("Should close streams after a rollback as well")
+        void complete_RolledBack_ClosesStreams() {
+            progressService.subscribe(1L);
+            TransactionSynchronizationManager.initSynchronization();
+
+            progressService.complete(1L, Map.of());
+            for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+
+            assertFalse(progressService.hasSubscribers(1L));
+        }
+
+        @Test
+        @DisplayName("Should close streams on failure")
+        void fail_ClosesStreams() {
+            progressService.subscribe(1L);
+
+            progressService.fail(1L, null);
+
+            assertFalse(progressService.hasSubscribers(1L));
+        }
+
+        @Test
+        @DisplayName("Should only close the affected document's streams")
+        void complete_OtherDocumentsUnaffected() {
+            progressService.subscribe(1L);
+            progressService.subscribe(2L);
+
+            progressService.complete(1L, Map.of());
+
+            assertTrue(progressService.hasSubscribers(2L));
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.team02.spmpevaluator.service;
+
+import com.team02.spmpevaluator.entity.ComplianceScore;
+import com.team02.spmpevaluator.entity.SPMPDocument;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EvaluationSingleFlight.
+ * Tests that concurrent evaluations of the same document input share one computation.
+ */
+class EvaluationSingleFlightTest {
+
+    private EvaluationSingleFlight singleFlight;
+    private ExecutorService executor;
+    private SPMPDocument document;
+
+    @BeforeEach
+    void setUp() {
+        singleFlight = new EvaluationSingleFlight();
+        executor = Executors.newFixedThreadPool(4);
+        document = document(1L, "/uploads/a.pdf", 1024L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static SPMPDocument document(Long id, String fileUrl, Long fileSize) {
+        SPMPDocument document = new SPMPDocument();
+        document.setId(id);
+        document.setFileUrl(fileUrl);
+        document.setFileSize(fileSize);
+        return document;
+    }
+
+    private void awaitJoined(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (singleFlight.getJoinedCount() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, singleFlight.getJoinedCount());
+    }
+
+    @Nested
+    @DisplayName("Deduplication Tests")
+    class DeduplicationTests {
+
+        @Test
+        @DisplayName("Should run one evaluation for concurrent requests and share its result")
+        void evaluate_Concurrent_SharesResult() throws Exception {
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger runs = new AtomicInteger();
+            ComplianceScore score = new ComplianceScore();
+            EvaluationSingleFlight.EvaluationTask task = () -> {
+                runs.incrementAndGet();
+                try {
+                    release.await(2, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return score;
+            };
+
+            Future<ComplianceScore> leader = executor.submit(() -> singleFlight.evaluate(document, task));
+            while (!singleFlight.isInFlight(1L)) {
+                Thread.sleep(5);
+            }
+            Future<ComplianceScore> first = executor.submit(() -> singleFlight.evaluate(document, task));
+            Future<ComplianceScore> second = executor.submit(() -> singleFlight.evaluate(document, task));
+            awaitJoined(2);
+            release.countDown();
+
+            assertSame(score, leader.get(2, TimeUnit.SECONDS));
+            assertSame(score, first.get(2, TimeUnit.SECONDS));
+            assertSame(score, second.get(2, TimeUnit.SECONDS));
+            assertEquals(1, runs.get());
+            assertFalse(singleFlight.isInFlight(1L));
+        }
+
+        @Test
+        @DisplayName("Should run again once the previous evaluation has finished")
+        void evaluate_Sequential_RunsEachTime() throws Exception {
+            AtomicInteger runs = new AtomicInteger();
+
+            singleFlight.evaluate(document, () -> {
+                runs.incrementAndGet();
+                return new ComplianceScore();
+            });
+            singleFlight.evaluate(document, () -> {
+                runs.incrementAndGet();
+                return new ComplianceScore();
+            });
+
+            assertEquals(2, runs.get());
+            assertEquals(0, singleFlight.getJoinedCount());
+        }
+
+        @Test
+        @DisplayName("Should not merge evaluations of a replaced document")
+        void evaluate_DifferentInputVersion_RunsSeparately() throws Exception {
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger runs = new AtomicInteger();
+            EvaluationSingleFlight.EvaluationTask task = () -> {
+                runs.incrementAndGet();
+                try {
+                    release.await(2, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new ComplianceScore();
+            };
+
+            Future<ComplianceScore> original = executor.submit(() -> singleFlight.evaluate(document, task));
+            while (!singleFlight.isInFlight(1L)) {
+                Thread.sleep(5);
+            }
+            SPMPDocument replaced = document(1L, "/uploads/b.pdf", 2048L);
+            Future<ComplianceScore> replacement = executor.submit(() -> singleFlight.evaluate(replaced, task));
+            while (runs.get() < 2) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            assertNotSame(original.get(2, TimeUnit.SECONDS), replacement.get(2, TimeUnit.SECONDS));
+            assertEquals(0, singleFlight.getJoinedCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Failure Tests")
+    class FailureTests {
+
+        @Test
+        @DisplayName("Should pass the leader's failure to joined requests")
+        void evaluate_LeaderFails_JoinedRequestsFail() throws Exception {
+            CountDownLatch release = new CountDownLatch(1);
+            EvaluationSingleFlight.EvaluationTask task = () -> {
+                try {
+                    release.await(2, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IOException("Failed to read document");
+            };
+
+            Future<ComplianceScore> leader = executor.submit(() -> singleFlight.evaluate(document, task));
+            while (!singleFlight.isInFlight(1L)) {
+                Thread.sleep(5);
+            }
+            Future<ComplianceScore> joined = executor.submit(() -> singleFlight.evaluate(document, task));
+            awaitJoined(1);
+            release.countDown();
+
+            ExecutionException leaderError = assertThrows(ExecutionException.class,
+                    () -> leader.get(2, TimeUnit.SECONDS));
+            ExecutionException joinedError = assertThrows(ExecutionException.class,
+                    () -> joined.get(2, TimeUnit.SECONDS));
+            assertInstanceOf(IOException.class, leaderError.getCause());
+            assertInstanceOf(IOException.class, joinedError.getCause());
+            assertEquals("Failed to read document", joinedError.getCause().getMessage());
+        }
+
+        @Test
+        @DisplayName("Should allow a new evaluation after a failure")
+        void evaluate_AfterFailure_RunsAgain() throws Exception {
+            assertThrows(IllegalStateException.class, () -> singleFlight.evaluate(document, () -> {
+                throw new IllegalStateException("AI unavailable");
+            }));
+
+            ComplianceScore score = new ComplianceScore();
+            assertSame(score, singleFlight.evaluate(document, () -> score));
+            assertFalse(singleFlight.isInFlight(1L));
+        }
+    }
+
+    @Test
+    @DisplayName("Should count led and joined requests")
+    void bindTo_RegistersMeters() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        singleFlight.bindTo(registry);
+
+        singleFlight.evaluate(document, ComplianceScore::new);
+
+        assertEquals(0.0, registry.get("evaluation.singleflight.active").gauge().value());
+        assertEquals(1.0, registry.get("evaluation.singleflight.requests").tag("result", "led")
+                .functionCounter().count());
+        assertEquals(0.0, registry.get("evaluation.singleflight.requests").tag("result", "joined")
+                .functionCounter().count());
+    }
+}
@@ -14,6 +14,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -38,6 +39,9 @@ class GradingCriteriaServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private GradingCriteriaService gradingCriteriaService;
 
@@ -190,6 +194,7 @@ class GradingCriteriaServiceTest {
             // Assert
             assertNotNull(result);
             verify(gradingCriteriaRepository).save(any(GradingCriteria.class));
+            verify(eventPublisher).publishEvent(new GradingCriteriaChangedEvent(1L));
         }
 
         @Test
@@ -447,6 +452,7 @@ class GradingCriteriaServiceTest {
             ArgumentCaptor<GradingCriteria> captor = ArgumentCaptor.forClass(GradingCriteria.class);
             verify(gradingCriteriaRepository).save(captor.capture());
             assertTrue(captor.getValue().isActive());
+            verify(eventPublisher).publishEvent(new GradingCriteriaChangedEvent(1L));
         }
 
         @Test
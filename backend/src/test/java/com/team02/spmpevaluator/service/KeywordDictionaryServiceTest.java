@@ -0,0 +1,200 @@
+package com.team02.spmpevaluator.service;
+
+import com.team02.spmpevaluator.entity.KeywordDictionaryEntry;
+import com.team02.spmpevaluator.entity.SectionAnalysis.IEEE1058Section;
+import com.team02.spmpevaluator.repository.KeywordDictionaryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for KeywordDictionaryService.
+ * Tests loading, versioned updates and hot-swapping of the keyword dictionary.
+ */
+@ExtendWith(MockitoExtension.class)
+class KeywordDictionaryServiceTest {
+
+    @Mock
+    private KeywordDictionaryRepository repository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private KeywordDictionaryService dictionaryService;
+
+    @BeforeEach
+    void setUp() {
+        dictionaryService = new KeywordDictionaryService(repository, eventPublisher);
+    }
+
+    private static KeywordDictionaryEntry entry(IEEE1058Section section, String keywords, long version) {
+        KeywordDictionaryEntry entry = new KeywordDictionaryEntry();
+        entry.setSectionName(section);
+        entry.setKeywords(keywords);
+        entry.setVersion(version);
+        return entry;
+    }
+
+    @Nested
+    @DisplayName("Loading Tests")
+    class LoadingTests {
+
+        @Test
+        @DisplayName("Should use the built-in keywords while nothing is stored")
+        void current_EmptyStore_BuiltIn() {
+            when(repository.findAll()).thenReturn(List.of());
+
+            assertSame(KeywordDictionary.BUILT_IN, dictionaryService.current());
+            assertSame(KeywordDictionary.BUILT_IN, dictionaryService.current());
+            verify(repository, times(1)).findAll();
+        }
+
+        @Test
+        @DisplayName("Should compile stored keywords and keep built-in ones for missing sections")
+        void current_StoredEntries_Compiled() {
+            when(repository.findAll()).thenReturn(List.of(
+                    entry(IEEE1058Section.RISK_MANAGEMENT, "[\"risk\", \"hazard\"]", 4L),
+                    entry(IEEE1058Section.OVERVIEW, "[\"overview\"]", 2L)));
+
+            KeywordDictionary dictionary = dictionaryService.current();
+
+            assertEquals(4L, dictionary.getVersion());
+            assertEquals(Set.of("risk", "hazard"), dictionary.keywordsFor(IEEE1058Section.RISK_MANAGEMENT));
+            assertEquals(KeywordDictionary.BUILT_IN.keywordsFor(IEEE1058Section.GLOSSARY_APPENDIX),
+                    dictionary.keywordsFor(IEEE1058Section.GLOSSARY_APPENDIX));
+        }
+
+        @Test
+        @DisplayName("Should keep the previous dictionary when the store cannot be read")
+        void reload_InvalidJson_KeepsPrevious() {
+            when(repository.findAll()).thenReturn(List.of(entry(IEEE1058Section.OVERVIEW, "[\"overview\"]", 1L)));
+            KeywordDictionary before = dictionaryService.current();
+
+            when(repository.findAll()).thenReturn(List.of(entry(IEEE1058Section.OVERVIEW, "[oops", 2L)));
+
+            assertSame(before, dictionaryService.reload());
+        }
+    }
+
+    @Nested
+    @DisplayName("Update Tests")
+    class UpdateTests {
+
+        @Test
+        @SuppressWarnings("unchecked")
+        @DisplayName("Should store every section on the first change and publish version 1")
+        void updateKeywords_FirstChange_StoresAllSections() {
+            when(repository.findAllForUpdate()).thenReturn(List.of());
+
+            KeywordDictionary updated = dictionaryService.updateKeywords(IEEE1058Section.MASTER_SCHEDULE,
+                    List.of("Sprint", "burndown"), "admin");
+
+            ArgumentCaptor<List<KeywordDictionaryEntry>> saved = ArgumentCaptor.forClass(List.class);
+            verify(repository).saveAll(saved.capture());
+            assertEquals(IEEE1058Section.values().length, saved.getValue().size());
+            assertTrue(saved.getValue().stream().allMatch(entry -> entry.getVersion() == 1L));
+            assertEquals(1L, updated.getVersion());
+            assertEquals(Set.of("sprint", "burndown"), updated.keywordsFor(IEEE1058Section.MASTER_SCHEDULE));
+            verify(eventPublisher).publishEvent(new KeywordDictionaryChangedEvent(1L));
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        @DisplayName("Should only rewrite the changed section afterwards")
+        void updateKeywords_LaterChange_BumpsVersion() {
+            List<KeywordDictionaryEntry> stored = new ArrayList<>();
+            for (IEEE1058Section section : IEEE1058Section.values()) {
+                stored.add(entry(section, "[\"" + section.name().toLowerCase() + "\"]", 3L));
+            }
+            when(repository.findAllForUpdate()).thenReturn(stored);
+
+            KeywordDictionary updated = dictionaryService.updateKeywords(IEEE1058Section.OVERVIEW,
+                    List.of("summary"), "admin");
+
+            ArgumentCaptor<List<KeywordDictionaryEntry>> saved = ArgumentCaptor.forClass(List.class);
+            verify(repository).saveAll(saved.capture());
+            assertEquals(1, saved.getValue().size());
+            assertEquals("[\"summary\"]", saved.getValue().get(0).getKeywords());
+            assertEquals("admin", saved.getValue().get(0).getUpdatedBy());
+            assertEquals(4L, updated.getVersion());
+            verify(eventPublisher).publishEvent(new KeywordDictionaryChangedEvent(4L));
+        }
+
+        @Test
+        @DisplayName("Should not bump the version when the keywords are unchanged")
+        void updateKeywords_Unchanged_NoEvent() {
+            when(repository.findAllForUpdate()).thenReturn(List.of());
+            List<String> same = List.copyOf(KeywordDictionary.BUILT_IN.keywordsFor(IEEE1058Section.RISK_MANAGEMENT));
+
+            KeywordDictionary result = dictionaryService.updateKeywords(IEEE1058Section.RISK_MANAGEMENT, same, "admin");
+
+            assertEquals(0L, result.getVersion());
+            verify(repository, never()).saveAll(any());
+            verifyNoInteractions(eventPublisher);
+        }
+
+        @Test
+        @DisplayName("Should reject an empty keyword list")
+        void updateKeywords_Empty_Throws() {
+            IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                    () -> dictionaryService.updateKeywords(IEEE1058Section.OVERVIEW, List.of(" "), "admin"));
+
+            assertEquals("At least one keyword is required", error.getMessage());
+            verifyNoInteractions(repository, eventPublisher);
+        }
+    }
+
+    @Nested
+    @DisplayName("Change Event Tests")
+    class ChangeEventTests {
+
+        @Test
+        @DisplayName("Should swap in the stored dictionary after a change commits")
+        void onChange_NewerVersion_Reloads() {
+            when(repository.findAll()).thenReturn(List.of());
+            dictionaryService.current();
+
+            when(repository.findAll()).thenReturn(List.of(entry(IEEE1058Section.OVERVIEW, "[\"summary\"]", 1L)));
+            dictionaryService.onKeywordDictionaryChanged(new KeywordDictionaryChangedEvent(1L));
+
+            assertEquals(1L, dictionaryService.current().getVersion());
+            assertEquals(Set.of("summary"), dictionaryService.current().keywordsFor(IEEE1058Section.OVERVIEW));
+        }
+
+        @Test
+        @DisplayName("Should ignore events for a version already loaded")
+        void onChange_SameVersion_NoReload() {
+            when(repository.findAll()).thenReturn(List.of(entry(IEEE1058Section.OVERVIEW, "[\"summary\"]", 2L)));
+            dictionaryService.current();
+
+            dictionaryService.onKeywordDictionaryChanged(new KeywordDictionaryChangedEvent(2L));
+
+            verify(repository, times(1)).findAll();
+        }
+    }
+
+    @Test
+    @DisplayName("Should report the dictionary version")
+    void bindTo_RegistersMeters() {
+        when(repository.findAll()).thenReturn(List.of(entry(IEEE1058Section.OVERVIEW, "[\"summary\"]", 5L)));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        dictionaryService.bindTo(registry);
+
+        assertEquals(5.0, registry.get("keyword.dictionary.version").gauge().value());
+    }
+}
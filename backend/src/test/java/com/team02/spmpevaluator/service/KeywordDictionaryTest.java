@@ -0,0 +1,87 @@
+package com.team02.spmpevaluator.service;
+
+import com.team02.spmpevaluator.entity.SectionAnalysis.IEEE1058Section;
+import com.team02.spmpevaluator.util.IEEE1058StandardConstants;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for KeywordDictionary.
+ */
+class KeywordDictionaryTest {
+
+    @Nested
+    @DisplayName("Compile Tests")
+    class CompileTests {
+
+        @Test
+        @DisplayName("Should start from the built-in IEEE 1058 keywords at version 0")
+        void builtIn_UsesConstants() {
+            assertEquals(0L, KeywordDictionary.BUILT_IN.getVersion());
+            assertEquals(IEEE1058StandardConstants.RISK_MANAGEMENT_KEYWORDS,
+                    KeywordDictionary.BUILT_IN.keywordsFor(IEEE1058Section.RISK_MANAGEMENT));
+            assertEquals(IEEE1058Section.values().length, KeywordDictionary.BUILT_IN.getKeywords().size());
+        }
+
+        @Test
+        @DisplayName("Should trim, lower-case and de-duplicate keywords and drop blanks")
+        void of_NormalizesKeywords() {
+            Map<IEEE1058Section, List<String>> keywords = new EnumMap<>(IEEE1058Section.class);
+            keywords.put(IEEE1058Section.OVERVIEW, Arrays.asList(" Scope ", "scope", "", null, "Purpose"));
+
+            KeywordDictionary dictionary = KeywordDictionary.of(3L, keywords);
+
+            assertEquals(List.of("scope", "purpose"), List.copyOf(dictionary.keywordsFor(IEEE1058Section.OVERVIEW)));
+            assertTrue(dictionary.keywordsFor(IEEE1058Section.GLOSSARY_APPENDIX).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should not expose mutable keyword sets")
+        void keywordsFor_Unmodifiable() {
+            assertThrows(UnsupportedOperationException.class,
+                    () -> KeywordDictionary.BUILT_IN.keywordsFor(IEEE1058Section.OVERVIEW).add("extra"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Match Tests")
+    class MatchTests {
+
+        @Test
+        @DisplayName("Should count distinct matched keywords per section in one pass")
+        void matchedKeywordCounts_PerSection() {
+            Map<IEEE1058Section, List<String>> keywords = new EnumMap<>(IEEE1058Section.class);
+            keywords.put(IEEE1058Section.RISK_MANAGEMENT, List.of("risk", "mitigation", "contingency"));
+            keywords.put(IEEE1058Section.BUDGET_RESOURCE, List.of("budget", "risk"));
+            KeywordDictionary dictionary = KeywordDictionary.of(1L, keywords);
+
+            int[] counts = dictionary.matchedKeywordCounts("Risks and their mitigation. Risk again.");
+
+            assertEquals(2, counts[IEEE1058Section.RISK_MANAGEMENT.ordinal()]);
+            assertEquals(1, counts[IEEE1058Section.BUDGET_RESOURCE.ordinal()]);
+            assertEquals(0, counts[IEEE1058Section.OVERVIEW.ordinal()]);
+        }
+
+        @Test
+        @DisplayName("Should agree with a contains check for the built-in keywords")
+        void matchedKeywordCounts_AgreesWithContains() {
+            String text = "1. project overview\nscope and objectives. the master schedule lists milestones; "
+                    + "risk assessment, budget and cost estimation, ccb and change control, glossary.";
+
+            int[] counts = KeywordDictionary.BUILT_IN.matchedKeywordCounts(text);
+
+            for (IEEE1058Section section : IEEE1058Section.values()) {
+                long expected = KeywordDictionary.BUILT_IN.keywordsFor(section).stream().filter(text::contains).count();
+                assertEquals(expected, counts[section.ordinal()], section.name());
+            }
+        }
+    }
+}
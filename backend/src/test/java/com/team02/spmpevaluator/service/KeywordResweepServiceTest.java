@@ -0,0 +1,351 @@
+package com.team02.spmpevaluator.service;
+
+import com.team02.spmpevaluator.dto.KeywordSweepRowDTO;
+import com.team02.spmpevaluator.entity.SectionAnalysis.IEEE1058Section;
+import com.team02.spmpevaluator.repository.ComplianceScoreRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for KeywordResweepService.
+ * Tests the cursor walk, version-guarded batch writes and throttling of keyword re-sweeps.
+ */
+@ExtendWith(MockitoExtension.class)
+class KeywordResweepServiceTest {
+
+    @Mock
+    private KeywordDictionaryService dictionaryService;
+
+    @Mock
+    private ComplianceEvaluationService evaluationService;
+
+    @Mock
+    private ComplianceScoreRepository complianceScoreRepository;
+
+    @Mock
+    private SPMPDocumentService documentService;
+
+    @Mock
+    private ScoringPlanService scoringPlanService;
+
+    @Mock
+    private EvaluationAdmissionService admissionService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private KeywordResweepService resweepService;
+    private KeywordDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        // Run sweeps on the calling thread without pauses
+        resweepService = new KeywordResweepService(dictionaryService, evaluationService, complianceScoreRepository,
+                documentService, scoringPlanService, admissionService, jdbcTemplate, transactionManager,
+                2, Duration.ZERO, Duration.ZERO, Runnable::run);
+        dictionary = dictionary(2L);
+        lenient().when(dictionaryService.current()).thenReturn(dictionary);
+        lenient().when(scoringPlanService.planForStudent(any())).thenReturn(ScoringPlan.DEFAULT);
+    }
+
+    private static KeywordDictionary dictionary(long version) {
+        return KeywordDictionary.of(version, new EnumMap<>(KeywordDictionary.BUILT_IN.getKeywords()));
+    }
+
+    private static EvaluationResult result(double overallScore, int sectionsFound) {
+        List<EvaluationResult.SectionResult> sections = Arrays.stream(IEEE1058Section.values())
+                .map(section -> new EvaluationResult.SectionResult(section, section == IEEE1058Section.RISK_MANAGEMENT,
+                        section == IEEE1058Section.RISK_MANAGEMENT ? 80.0 : 0.0, "findings " + section,
+                        "recommendations", null, 50.0, "MEDIUM", null, "", 10))
+                .toList();
+        return new EvaluationResult(overallScore, 0.0, 50.0, sectionsFound, sections.size(), false, "summary",
+                sections, 2L, 1);
+    }
+
+    /**
+     * Stored section rows identical to the result's sections.
+     */
+    private static List<KeywordResweepService.StoredSection> stored(long scoreId, EvaluationResult result) {
+        return result.sections().stream()
+                .map(section -> new KeywordResweepService.StoredSection(scoreId, section.section().name(),
+                        section.present(), section.sectionScore(), section.coverage(), section.missingSubclauses()))
+                .toList();
+    }
+
+    private void givenStoredSections(List<KeywordResweepService.StoredSection> sections) {
+        when(jdbcTemplate.query(startsWith("SELECT"),
+                ArgumentMatchers.<RowMapper<KeywordResweepService.StoredSection>>any(), any(Object[].class)))
+                .thenReturn(sections);
+    }
+
+    private void stubBatches(List<KeywordSweepRowDTO> first) {
+        when(complianceScoreRepository.findKeywordSweepBatch(anyLong(), anyLong(), anyInt(), any(Pageable.class)))
+                .thenReturn(first)
+                .thenReturn(List.of());
+    }
+
+    @Nested
+    @DisplayName("Sweep Tests")
+    class SweepTests {
+
+        @Test
+        @DisplayName("Should only stamp scores the new dictionary does not change")
+        @SuppressWarnings("unchecked")
+        void sweep_UnchangedScore_Stamped() throws IOException {
+            stubBatches(List.of(new KeywordSweepRowDTO(10L, 3L, 100L, 7L, 72.0, 1)));
+            givenStoredSections(stored(10L, result(72.0, 1)));
+            when(documentService.getDocumentContent(100L)).thenReturn("risk text");
+            when(evaluationService.computeKeywordEvaluation("risk text", ScoringPlan.DEFAULT, dictionary))
+                    .thenReturn(result(72.0, 1));
+            when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+
+            resweepService.requestSweep(2L);
+
+            ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+            ArgumentCaptor<List<Object[]>> stamps = ArgumentCaptor.forClass(List.class);
+            verify(jdbcTemplate, times(1)).batchUpdate(sql.capture(), stamps.capture());
+            assertTrue(sql.getValue().startsWith("UPDATE compliance_scores SET keyword_dictionary_version"));
+            // Dictionary version and edit budget the score was matched with, guarded by its version
+            assertArrayEquals(new Object[]{2L, 1, 10L, 3L}, stamps.getValue().get(0));
+            KeywordResweepService.SweepStatus status = resweepService.getStatus();
+            assertEquals(1, status.unchanged());
+            assertEquals(2L, status.completedVersion());
+            assertFalse(status.running());
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        @DisplayName("Should write changed scores and skip scores re-evaluated meanwhile")
+        void sweep_ChangedScores_VersionGuarded() throws IOException {
+            stubBatches(List.of(new KeywordSweepRowDTO(10L, 3L, 100L, 7L, 60.0, 0),
+                    new KeywordSweepRowDTO(11L, 1L, 101L, 8L, 65.0, 0)));
+            when(documentService.getDocumentContent(anyLong())).thenReturn("risk text");
+            when(evaluationService.computeKeywordEvaluation(anyString(), any(), eq(dictionary)))
+                    .thenReturn(result(72.0, 1));
+            when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 0});
+
+            resweepService.requestSweep(2L);
+
+            ArgumentCaptor<List<Object[]>> sectionUpdates = ArgumentCaptor.forClass(List.class);
+            verify(jdbcTemplate).batchUpdate(startsWith("UPDATE section_analyses"), sectionUpdates.capture());
+            // Only the score that was still current, one row per section
+            assertEquals(IEEE1058Section.values().length, sectionUpdates.getValue().size());
+            Object[] risk = sectionUpdates.getValue().get(IEEE1058Section.RISK_MANAGEMENT.ordinal());
+            assertEquals(true, risk[0]);
+            assertEquals("findings RISK_MANAGEMENT", risk[7]);
+            assertEquals(10L, risk[9]);
+            // Absent before and after: AI findings are kept
+            assertNull(sectionUpdates.getValue().get(IEEE1058Section.OVERVIEW.ordinal())[7]);
+
+            KeywordResweepService.SweepStatus status = resweepService.getStatus();
+            assertEquals(1, status.updated());
+            assertEquals(1, status.skipped());
+            assertEquals(11L, status.cursor());
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        @DisplayName("Should rewrite only the sections that changed when the overall score did not")
+        void sweep_SectionChanged_WritesThatSection() throws IOException {
+            stubBatches(List.of(new KeywordSweepRowDTO(10L, 3L, 100L, 7L, 72.0, 1)));
+            EvaluationResult result = result(72.0, 1);
+            givenStoredSections(stored(10L, result).stream()
+                    .map(section -> section.section().equals(IEEE1058Section.OVERVIEW.name())
+                            ? new KeywordResweepService.StoredSection(10L, section.section(), false, 0.0, 40.0,
+                                    "1.1 Purpose")
+                            : section)
+                    .toList());
+            when(documentService.getDocumentContent(100L)).thenReturn("risk text");
+            when(evaluationService.computeKeywordEvaluation(anyString(), any(), any())).thenReturn(result);
+            when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+
+            resweepService.requestSweep(2L);
+
+            verify(jdbcTemplate).batchUpdate(startsWith("UPDATE compliance_scores SET overall_score"), anyList());
+            ArgumentCaptor<List<Object[]>> sectionUpdates = ArgumentCaptor.forClass(List.class);
+            verify(jdbcTemplate).batchUpdate(startsWith("UPDATE section_analyses"), sectionUpdates.capture());
+            assertEquals(1, sectionUpdates.getValue().size());
+            Object[] overview = sectionUpdates.getValue().get(0);
+            assertEquals(IEEE1058Section.OVERVIEW.name(), overview[10]);
+            assertEquals(50.0, overview[2]);
+            assertEquals("", overview[5]);
+            // Still absent: AI findings are kept
+            assertNull(overview[7]);
+            assertEquals(1, resweepService.getStatus().updated());
+            assertEquals(0, resweepService.getStatus().unchanged());
+        }
+
+        @Test
+        @DisplayName("Should count unreadable documents as failed and continue")
+        void sweep_UnreadableDocument_Continues() throws IOException {
+            stubBatches(List.of(new KeywordSweepRowDTO(10L, 3L, 100L, 7L, 72.0, 1),
+                    new KeywordSweepRowDTO(11L, 1L, 101L, 8L, 72.0, 1)));
+            givenStoredSections(stored(11L, result(72.0, 1)));
+            when(documentService.getDocumentContent(100L)).thenThrow(new IOException("missing file"));
+            when(documentService.getDocumentContent(101L)).thenReturn("risk text");
+            when(evaluationService.computeKeywordEvaluation(anyString(), any(), any())).thenReturn(result(72.0, 1));
+            when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+
+            resweepService.requestSweep(2L);
+
+            assertEquals(1, resweepService.getStatus().failed());
+            assertEquals(1, resweepService.getStatus().unchanged());
+        }
+
+        @Test
+        @DisplayName("Should page through scores with a cursor")
+        void sweep_UsesCursor() throws IOException {
+            when(complianceScoreRepository.findKeywordSweepBatch(anyLong(), anyLong(), anyInt(), any(Pageable.class)))
+                    .thenReturn(List.of(new KeywordSweepRowDTO(10L, 3L, 100L, 7L, 72.0, 1)))
+                    .thenReturn(List.of(new KeywordSweepRowDTO(15L, 3L, 105L, 7L, 72.0, 1)))
+                    .thenReturn(List.of());
+            when(documentService.getDocumentContent(anyLong())).thenReturn("risk text");
+            when(evaluationService.computeKeywordEvaluation(anyString(), any(), any())).thenReturn(result(72.0, 1));
+            when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+
+            resweepService.requestSweep(2L);
+
+            verify(complianceScoreRepository).findKeywordSweepBatch(eq(0L), eq(2L), anyInt(), any(Pageable.class));
+            verify(complianceScoreRepository).findKeywordSweepBatch(eq(10L), eq(2L), anyInt(), any(Pageable.class));
+            verify(complianceScoreRepository).findKeywordSweepBatch(eq(15L), eq(2L), anyInt(), any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("Should pick up scores matched with another edit budget")
+        void sweep_CurrentEditBudget() {
+            when(evaluationService.getKeywordMaxEdits()).thenReturn(1);
+            when(complianceScoreRepository.findKeywordSweepBatch(anyLong(), anyLong(), anyInt(), any(Pageable.class)))
+                    .thenReturn(List.of());
+
+            resweepService.requestSweep(2L);
+
+            verify(complianceScoreRepository).findKeywordSweepBatch(eq(0L), eq(2L), eq(1), any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("Should restart with the newer dictionary when it changes during a sweep")
+        void sweep_NewerVersion_Restarts() throws IOException {
+            KeywordDictionary newer = dictionary(3L);
+            when(dictionaryService.reload()).thenReturn(newer);
+            when(complianceScoreRepository.findKeywordSweepBatch(anyLong(), eq(2L), anyInt(), any(Pageable.class)))
+                    .thenReturn(List.of(new KeywordSweepRowDTO(10L, 3L, 100L, 7L, 72.0, 1)));
+            when(complianceScoreRepository.findKeywordSweepBatch(anyLong(), eq(3L), anyInt(), any(Pageable.class)))
+                    .thenReturn(List.of());
+            when(documentService.getDocumentContent(anyLong())).thenAnswer(invocation -> {
+                resweepService.requestSweep(3L);
+                return "risk text";
+            });
+            when(evaluationService.computeKeywordEvaluation(anyString(), any(), any())).thenReturn(result(72.0, 1));
+            when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+
+            resweepService.requestSweep(2L);
+
+            verify(complianceScoreRepository).findKeywordSweepBatch(eq(0L), eq(3L), anyInt(), any(Pageable.class));
+            assertEquals(3L, resweepService.getStatus().completedVersion());
+        }
+    }
+
+    @Nested
+    @DisplayName("Throttling Tests")
+    class ThrottlingTests {
+
+        @Test
+        @DisplayName("Should wait until no evaluation is running or queued")
+        void sweep_WaitsForIdle() {
+            when(admissionService.getActiveCount()).thenReturn(1, 0);
+            when(admissionService.getQueuedCount(EvaluationAdmissionService.Priority.INTERACTIVE)).thenReturn(1, 0);
+            when(complianceScoreRepository.findKeywordSweepBatch(anyLong(), anyLong(), anyInt(), any(Pageable.class)))
+                    .thenReturn(List.of());
+
+            resweepService.requestSweep(2L);
+
+            verify(admissionService, times(3)).getActiveCount();
+            assertEquals(2L, resweepService.getStatus().completedVersion());
+        }
+
+        @Test
+        @DisplayName("Should start a sweep for each committed dictionary change")
+        void onChange_StartsSweep() {
+            when(complianceScoreRepository.findKeywordSweepBatch(anyLong(), anyLong(), anyInt(), any(Pageable.class)))
+                    .thenReturn(List.of());
+
+            resweepService.onKeywordDictionaryChanged(new KeywordDictionaryChangedEvent(2L));
+
+            assertEquals(2L, resweepService.getStatus().targetVersion());
+            assertEquals(2L, resweepService.getStatus().completedVersion());
+        }
+    }
+
+    @Nested
+    @DisplayName("Startup Tests")
+    class StartupTests {
+
+        @Test
+        @DisplayName("Should sweep the current dictionary when scores are stale at startup")
+        void sweepStaleScores_Stale_StartsSweep() {
+            when(evaluationService.getKeywordMaxEdits()).thenReturn(1);
+            when(complianceScoreRepository.existsKeywordStale(2L, 1)).thenReturn(true);
+            when(complianceScoreRepository.findKeywordSweepBatch(anyLong(), anyLong(), anyInt(), any(Pageable.class)))
+                    .thenReturn(List.of());
+
+            resweepService.sweepStaleScores();
+
+            verify(complianceScoreRepository).findKeywordSweepBatch(eq(0L), eq(2L), eq(1), any(Pageable.class));
+            assertEquals(2L, resweepService.getStatus().completedVersion());
+        }
+
+        @Test
+        @DisplayName("Should not sweep when every score is current")
+        void sweepStaleScores_Current_NoSweep() {
+            when(complianceScoreRepository.existsKeywordStale(2L, 0)).thenReturn(false);
+
+            resweepService.sweepStaleScores();
+
+            verify(complianceScoreRepository, never())
+                    .findKeywordSweepBatch(anyLong(), anyLong(), anyInt(), any(Pageable.class));
+            assertFalse(resweepService.getStatus().running());
+        }
+    }
+
+    @Test
+    @DisplayName("Should count processed scores by result")
+    void bindTo_RegistersMeters() throws IOException {
+        stubBatches(List.of(new KeywordSweepRowDTO(10L, 3L, 100L, 7L, 72.0, 1)));
+        givenStoredSections(stored(10L, result(72.0, 1)));
+        when(documentService.getDocumentContent(100L)).thenReturn("risk text");
+        when(evaluationService.computeKeywordEvaluation(anyString(), any(), any())).thenReturn(result(72.0, 1));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        resweepService.bindTo(registry);
+
+        resweepService.requestSweep(2L);
+
+        assertEquals(1.0, registry.get("keyword.sweep.scores").tag("result", "unchanged").functionCounter().count());
+        assertEquals(0.0, registry.get("keyword.sweep.running").gauge().value());
+    }
+}
@@ -0,0 +1,273 @@
+package com.team02.spmpevaluator.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for OpenRouterHttpClient against a local stub server.
+ * Verifies per-host concurrency limits and connection reuse without network access.
+ */
+@DisplayName("OpenRouterHttpClient Tests")
+class OpenRouterHttpClientTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String url;
+
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private volatile long handlerDelayMillis = 0;
+    private volatile int responseStatus = 200;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v1/chat/completions", exchange -> {
+            int now = concurrent.incrementAndGet();
+            maxConcurrent.accumulateAndGet(now, Math::max);
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            try {
+                exchange.getRequestBody().readAllBytes();
+                if (handlerDelayMillis > 0) {
+                    Thread.sleep(handlerDelayMillis);
+                }
+                byte[] body = ("{\"auth\":\"" + exchange.getRequestHeaders().getFirst("Authorization") + "\"}")
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(responseStatus, body.length);
+                exchange.getResponseBody().write(body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                concurrent.decrementAndGet();
+                exchange.close();
+            }
+        });
+        serverExecutor = Executors.newFixedThreadPool(16);
+        server.setExecutor(serverExecutor);
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/v1/chat/completions";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private OpenRouterHttpClient client(int maxConnectionsPerHost) {
+        return new OpenRouterHttpClient(maxConnectionsPerHost, Duration.ofSeconds(5), Duration.ofSeconds(5));
+    }
+
+    @Nested
+    @DisplayName("Request Tests")
+    class RequestTests {
+
+        @Test
+        @DisplayName("Should send headers and return response body")
+        void postJson_ReturnsResponseBody() {
+            HttpResponse<String> response = client(2).postJson(url, Map.of("Authorization", "Bearer key"), "{}");
+
+            assertEquals(200, response.statusCode());
+            assertEquals("{\"auth\":\"Bearer key\"}", response.body());
+        }
+
+        @Test
+        @DisplayName("Should hand each line of a successful stream to the consumer")
+        void postJsonStreamAsync_Success_ForwardsLines() {
+            List<String> lines = new ArrayList<>();
+            OpenRouterHttpClient httpClient = client(1);
+
+            HttpResponse<String> response = httpClient
+                    .postJsonStreamAsync(url, Map.of("Authorization", "Bearer key"), "{}", lines::add).join();
+
+            assertEquals(200, response.statusCode());
+            assertEquals(List.of("{\"auth\":\"Bearer key\"}"), lines);
+            assertEquals(0, httpClient.inFlight(url));
+        }
+
+        @Test
+        @DisplayName("Should return error bodies without forwarding lines")
+        void postJsonStreamAsync_Error_ReturnsBody() {
+            responseStatus = 503;
+            List<String> lines = new ArrayList<>();
+
+            HttpResponse<String> response = client(1).postJsonStreamAsync(url, Map.of(), "{}", lines::add).join();
+
+            assertEquals(503, response.statusCode());
+            assertTrue(response.body().contains("auth"));
+            assertTrue(lines.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should return non-200 responses without failing")
+        void postJsonAsync_ErrorStatus_CompletesNormally() {
+            responseStatus = 503;
+
+            HttpResponse<String> response = client(2).postJsonAsync(url, Map.of(), "{}").join();
+
+            assertEquals(503, response.statusCode());
+        }
+
+        @Test
+        @DisplayName("Should fail with RuntimeException when host is unreachable")
+        void postJson_Unreachable_ThrowsRuntimeException() {
+            server.stop(0);
+
+            assertThrows(RuntimeException.class, () -> client(2).postJson(url, Map.of(), "{}"));
+        }
+
+        @Test
+        @DisplayName("Should reject non-positive connection limit")
+        void constructor_InvalidLimit_Throws() {
+            assertThrows(IllegalArgumentException.class, () -> client(0));
+        }
+    }
+
+    @Nested
+    @DisplayName("Connection Pooling Tests")
+    class ConnectionPoolingTests {
+
+        @Test
+        @DisplayName("Should reuse one keep-alive connection for sequential requests")
+        void postJson_Sequential_ReusesConnection() {
+            OpenRouterHttpClient client = client(4);
+
+            for (int i = 0; i < 5; i++) {
+                client.postJson(url, Map.of(), "{}");
+            }
+
+            assertEquals(1, clientPorts.size());
+        }
+
+        @Test
+        @DisplayName("Should cap concurrent requests per host")
+        void postJsonAsync_Burst_RespectsPerHostLimit() {
+            handlerDelayMillis = 100;
+            OpenRouterHttpClient client = client(3);
+
+            List<CompletableFuture<HttpResponse<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                futures.add(client.postJsonAsync(url, Map.of(), "{}"));
+            }
+            assertEquals(3, client.inFlight(url));
+            assertEquals(9, client.queued(url));
+
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+            assertTrue(futures.stream().allMatch(f -> f.join().statusCode() == 200));
+            assertTrue(maxConcurrent.get() <= 3, "max concurrent was " + maxConcurrent.get());
+            assertTrue(clientPorts.size() <= 3, "opened " + clientPorts.size() + " connections");
+            assertEquals(0, client.inFlight(url));
+        }
+
+        @Test
+        @DisplayName("Should release slot when request fails")
+        void postJsonAsync_Failure_ReleasesSlot() {
+            OpenRouterHttpClient client = client(1);
+            server.stop(0);
+
+            assertThrows(Exception.class, () -> client.postJsonAsync(url, Map.of(), "{}").join());
+
+            assertEquals(0, client.inFlight(url));
+        }
+
+        @Test
+        @DisplayName("Should count time spent queued against the request timeout")
+        void postJsonAsync_Queued_FailsAtDeadline() {
+            handlerDelayMillis = 3000;
+            OpenRouterHttpClient client = new OpenRouterHttpClient(1, Duration.ofSeconds(5), Duration.ofMillis(300));
+
+            long start = System.nanoTime();
+            CompletableFuture<HttpResponse<String>> running = client.postJsonAsync(url, Map.of(), "{}");
+            CompletableFuture<HttpResponse<String>> queued = client.postJsonAsync(url, Map.of(), "{}");
+
+            assertThrows(Exception.class, running::join);
+            assertThrows(Exception.class, queued::join);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(elapsedMillis < 1500, "queued request failed after " + elapsedMillis + " ms");
+            assertEquals(0, client.queued(url));
+        }
+
+        @Test
+        @DisplayName("Should free the slot of a cancelled request for the next one")
+        void postJsonAsync_Cancelled_ReleasesSlot() {
+            handlerDelayMillis = 2000;
+            OpenRouterHttpClient client = client(1);
+
+            CompletableFuture<HttpResponse<String>> running = client.postJsonAsync(url, Map.of(), "{}");
+            CompletableFuture<HttpResponse<String>> queued = client.postJsonAsync(url, Map.of(), "{}");
+            assertEquals(1, client.queued(url));
+
+            queued.cancel(true);
+            assertEquals(0, client.queued(url));
+            assertEquals(1, client.inFlight(url));
+
+            running.cancel(true);
+            assertEquals(0, client.inFlight(url));
+        }
+    }
+
+    @Nested
+    @DisplayName("Host Limiter Tests")
+    class HostLimiterTests {
+
+        @Test
+        @DisplayName("Should fail a waiter that gets no permit within the timeout")
+        void acquire_Timeout_FailsAndLeavesQueue() {
+            OpenRouterHttpClient.HostLimiter limiter = new OpenRouterHttpClient.HostLimiter(1);
+            assertTrue(limiter.acquire(Duration.ofSeconds(5)).isDone());
+
+            CompletableFuture<Void> waiter = limiter.acquire(Duration.ofMillis(50));
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(TimeoutException.class, e.getCause());
+            assertEquals(0, limiter.queued());
+            assertEquals(1, limiter.inFlight());
+
+            limiter.release();
+            assertEquals(0, limiter.inFlight());
+        }
+
+        @Test
+        @DisplayName("Should hand a released permit past cancelled waiters")
+        void release_SkipsCancelledWaiters() {
+            OpenRouterHttpClient.HostLimiter limiter = new OpenRouterHttpClient.HostLimiter(1);
+            limiter.acquire(Duration.ofSeconds(5));
+            CompletableFuture<Void> cancelled = limiter.acquire(Duration.ofSeconds(5));
+            CompletableFuture<Void> next = limiter.acquire(Duration.ofSeconds(5));
+
+            cancelled.cancel(false);
+            limiter.release();
+
+            assertTrue(next.isDone());
+            assertFalse(next.isCompletedExceptionally());
+            assertEquals(1, limiter.inFlight());
+            assertEquals(0, limiter.queued());
+        }
+    }
+}
@@ -1,17 +1,32 @@
 package com.team02.spmpevaluator.service;
 
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import com.team02.spmpevaluator.entity.AiUsageRecord;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 /**
  * Unit tests for OpenRouterService.
@@ -20,6 +35,8 @@ import static org.junit.jupiter.api.Assertions.*;
 @ExtendWith(MockitoExtension.class)
 class OpenRouterServiceTest {
 
+    private static final Pattern MODEL_FIELD = Pattern.compile("\"model\"\\s*:\\s*\"([^\"]+)\"");
+
     private OpenRouterService openRouterService;
 
     @BeforeEach
@@ -479,4 +496,439 @@ class OpenRouterServiceTest {
             }
         }
     }
+
+    @Test
+    @DisplayName("Should reject raw completion when API key is missing")
+    void complete_NoApiKey_Throws() {
+        ReflectionTestUtils.setField(openRouterService, "apiKey", "");
+
+        assertThrows(IllegalStateException.class, () -> openRouterService.complete("prompt"));
+    }
+
+    @Test
+    @DisplayName("Should extract text deltas from stream events only")
+    void extractStreamDelta_IgnoresNonContentLines() {
+        assertEquals("hi", openRouterService.extractStreamDelta("data: {\"choices\":[{\"delta\":{\"content\":\"hi\"}}]}"));
+        assertNull(openRouterService.extractStreamDelta(": keep-alive"));
+        assertNull(openRouterService.extractStreamDelta("data: [DONE]"));
+        assertNull(openRouterService.extractStreamDelta("data: {not json"));
+        assertNull(openRouterService.extractStreamDelta(""));
+    }
+
+    @Nested
+    @DisplayName("Stub Server Tests")
+    class StubServerTests {
+
+        private HttpServer server;
+        private AiModelRouter router;
+        private AiUsageService usageService;
+        private volatile String usageBlock = null;
+        private final AtomicInteger requests = new AtomicInteger();
+        private volatile int failFirst = 0;
+        private volatile int failStatus = 503;
+        private volatile long firstDelayMillis = 0;
+        private volatile int status = 200;
+        private volatile String content = "{\\\"complianceScore\\\": 91, \\\"summary\\\": \\\"Looks good\\\"}";
+        private volatile String streamBody = null;
+        private volatile String failingModel = null;
+        private volatile String slowModel = null;
+        private volatile long slowModelDelayMillis = 0;
+        private final Map<String, AtomicInteger> requestsByModel = new ConcurrentHashMap<>();
+
+        @BeforeEach
+        void startServer() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/chat", exchange -> {
+                String requestBody = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                Matcher modelMatcher = MODEL_FIELD.matcher(requestBody);
+                String model = modelMatcher.find() ? modelMatcher.group(1) : "";
+                requestsByModel.computeIfAbsent(model, m -> new AtomicInteger()).incrementAndGet();
+                int n = requests.incrementAndGet();
+                int responseStatus = n <= failFirst || model.equals(failingModel) ? failStatus : status;
+                long delayMillis = (n == 1 ? firstDelayMillis : 0) + (model.equals(slowModel) ? slowModelDelayMillis : 0);
+                if (delayMillis > 0) {
+                    try {
+                        Thread.sleep(delayMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                byte[] body = (streamBody != null && responseStatus == 200
+                        ? streamBody
+                        : "{\"choices\":[{\"message\":{\"content\":\"" + content + "\"}}]"
+                                + (usageBlock != null ? ",\"usage\":" + usageBlock : "") + "}")
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(responseStatus, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+            });
+            server.setExecutor(Executors.newFixedThreadPool(4));
+            server.start();
+            useModels("test/model");
+        }
+
+        private void useModels(String... models) {
+            router = new AiModelRouter(List.of(models), 3, Duration.ofSeconds(8), Duration.ofSeconds(30), 20,
+                    Duration.ofMinutes(5), System::nanoTime);
+            usageService = mock(AiUsageService.class);
+            openRouterService = new OpenRouterService(
+                    new OpenRouterHttpClient(8, Duration.ofSeconds(5), Duration.ofSeconds(5)), router, usageService);
+            ReflectionTestUtils.setField(openRouterService, "retryBaseDelay", Duration.ofMillis(10));
+            ReflectionTestUtils.setField(openRouterService, "apiKey", "sk-test-key");
+            ReflectionTestUtils.setField(openRouterService, "apiUrl",
+                    "http://127.0.0.1:" + server.getAddress().getPort() + "/chat");
+        }
+
+        private int requestsTo(String model) {
+            AtomicInteger count = requestsByModel.get(model);
+            return count != null ? count.get() : 0;
+        }
+
+        @AfterEach
+        void stopServer() {
+            server.stop(0);
+        }
+
+        @Test
+        @DisplayName("Should parse analysis returned by the API")
+        void analyzeDocument_StubResponse_ReturnsParsedAnalysis() {
+            Map<String, Object> result = openRouterService.analyzeDocument("SPMP content");
+
+            assertEquals(91, result.get("complianceScore"));
+            assertEquals("Looks good", result.get("summary"));
+        }
+
+        @Test
+        @DisplayName("Should parse analysis asynchronously")
+        void analyzeDocumentAsync_StubResponse_ReturnsParsedAnalysis() {
+            Map<String, Object> result = openRouterService.analyzeDocumentAsync("SPMP content").join();
+
+            assertEquals(91, result.get("complianceScore"));
+        }
+
+        @Test
+        @DisplayName("Should fall back to mock analysis on HTTP error")
+        void analyzeDocumentAsync_ServerError_ReturnsMockAnalysis() {
+            status = 500;
+
+            Map<String, Object> result = openRouterService.analyzeDocumentAsync("SPMP content").join();
+
+            assertEquals(65.0, result.get("complianceScore"));
+        }
+
+        @Test
+        @DisplayName("Should return raw completion text without parsing")
+        void complete_StubResponse_ReturnsRawContent() {
+            content = "FINDINGS: ok";
+
+            assertEquals("FINDINGS: ok", openRouterService.complete("prompt"));
+            assertEquals(1, requests.get());
+        }
+
+        @Test
+        @DisplayName("Should throw instead of returning mock data when completion fails")
+        void complete_ServerError_Throws() {
+            failFirst = 10;
+            failStatus = 400;
+
+            assertThrows(RuntimeException.class, () -> openRouterService.complete("prompt"));
+        }
+
+        @Test
+        @DisplayName("Should forward streamed deltas in order and return the full text")
+        void completeStreaming_EventStream_ForwardsDeltas() {
+            streamBody = ": OPENROUTER PROCESSING\n\n"
+                    + "data: {\"choices\":[{\"delta\":{\"content\":\"FINDINGS: \"}}]}\n\n"
+                    + "data: {\"choices\":[{\"delta\":{\"content\":\"solid plan\"}}]}\n\n"
+                    + "data: {\"choices\":[{\"delta\":{}}]}\n\n"
+                    + "data: [DONE]\n\n";
+            List<String> deltas = new ArrayList<>();
+
+            String full = openRouterService.completeStreaming("prompt", deltas::add);
+
+            assertEquals(List.of("FINDINGS: ", "solid plan"), deltas);
+            assertEquals("FINDINGS: solid plan", full);
+        }
+
+        @Test
+        @DisplayName("Should fail streaming on HTTP error without forwarding anything")
+        void completeStreaming_ServerError_Throws() {
+            failFirst = 1;
+            failStatus = 503;
+            streamBody = "data: {\"choices\":[{\"delta\":{\"content\":\"x\"}}]}\n\n";
+            List<String> deltas = new ArrayList<>();
+
+            assertThrows(RuntimeException.class, () -> openRouterService.completeStreaming("prompt", deltas::add));
+            assertTrue(deltas.isEmpty());
+            assertEquals(1, requests.get());
+        }
+
+        @Test
+        @DisplayName("Should return section feedback text asynchronously")
+        void generateSectionFeedbackAsync_StubResponse_ReturnsContent() {
+            content = "Add milestones";
+
+            String feedback = openRouterService.generateSectionFeedbackAsync("Schedule", "content").join();
+
+            assertEquals("Add milestones", feedback);
+        }
+    
+        @Test
+        @DisplayName("Should retry transient failures and succeed")
+        void generateSectionFeedbackAsync_TransientFailure_Retries() {
+            failFirst = 1;
+            content = "Recovered";
+
+            String feedback = openRouterService.generateSectionFeedbackAsync("Schedule", "content").join();
+
+            assertEquals("Recovered", feedback);
+            assertEquals(2, requests.get());
+        }
+
+        @Test
+        @DisplayName("Should not retry client errors")
+        void generateSectionFeedbackAsync_ClientError_DoesNotRetry() {
+            failFirst = 10;
+            failStatus = 400;
+
+            openRouterService.generateSectionFeedbackAsync("Schedule", "content").join();
+
+            assertEquals(1, requests.get());
+        }
+
+        @Test
+        @DisplayName("Should fail fast without calling the API once the circuit is open")
+        void analyzeDocument_CircuitOpen_FailsFast() {
+            status = 503;
+            openRouterService.analyzeDocument("SPMP content");
+            assertFalse(openRouterService.isAvailable());
+            int before = requests.get();
+
+            Map<String, Object> result = openRouterService.analyzeDocument("SPMP content");
+
+            assertEquals(65.0, result.get("complianceScore"));
+            assertEquals(before, requests.get());
+        }
+
+        @Test
+        @DisplayName("Should return hedged response when primary is slow")
+        void generateSectionFeedbackAsync_SlowPrimary_HedgeWins() {
+            firstDelayMillis = 2000;
+            content = "Hedged";
+            ReflectionTestUtils.setField(openRouterService, "hedgingEnabled", true);
+            ReflectionTestUtils.setField(openRouterService, "hedgeDelay", Duration.ofMillis(100));
+
+            long start = System.currentTimeMillis();
+            String feedback = openRouterService.generateSectionFeedbackAsync("Schedule", "content").join();
+
+            assertEquals("Hedged", feedback);
+            assertEquals(2, requests.get());
+            assertTrue(System.currentTimeMillis() - start < 1500);
+        }
+
+        @Test
+        @DisplayName("Should record both hedged requests and cancel the slow one")
+        void generateSectionFeedbackAsync_SlowPrimary_BothRecorded() {
+            firstDelayMillis = 2000;
+            ReflectionTestUtils.setField(openRouterService, "hedgingEnabled", true);
+            ReflectionTestUtils.setField(openRouterService, "hedgeDelay", Duration.ofMillis(100));
+
+            openRouterService.generateSectionFeedbackAsync("Schedule", "content").join();
+
+            ArgumentCaptor<AiUsageRecord> captor = ArgumentCaptor.forClass(AiUsageRecord.class);
+            verify(usageService, timeout(1000).times(2)).record(captor.capture());
+            assertEquals(List.of(AiUsageRecord.Outcome.SUCCESS, AiUsageRecord.Outcome.CANCELLED),
+                    captor.getAllValues().stream().map(AiUsageRecord::getOutcome).toList());
+            assertTrue(captor.getAllValues().stream().allMatch(u -> "section-feedback".equals(u.getOperation())));
+        }
+
+        @Test
+        @DisplayName("Should send the request to the selected model")
+        void complete_SingleModel_SendsConfiguredModel() {
+            openRouterService.complete("prompt");
+
+            assertEquals(1, requestsTo("test/model"));
+            assertEquals("test/model", openRouterService.getModel());
+        }
+
+        @Test
+        @DisplayName("Should fail over to the next model within the same request")
+        void complete_FailingModel_FailsOverToNext() {
+            useModels("model/broken", "model/healthy");
+            failingModel = "model/broken";
+            content = "From healthy";
+
+            long start = System.currentTimeMillis();
+            String reply = openRouterService.complete("prompt");
+
+            assertEquals("From healthy", reply);
+            assertEquals(1, requestsTo("model/broken"));
+            assertEquals(1, requestsTo("model/healthy"));
+            assertTrue(System.currentTimeMillis() - start < 1000, "failover should not wait for a backoff");
+        }
+
+        @Test
+        @DisplayName("Should not fail over on client errors")
+        void complete_ClientError_DoesNotFailOver() {
+            useModels("model/a", "model/b");
+            failingModel = "model/a";
+            failStatus = 400;
+
+            assertThrows(RuntimeException.class, () -> openRouterService.complete("prompt"));
+            assertEquals(0, requestsTo("model/b"));
+        }
+
+        @Test
+        @DisplayName("Should not count client errors against the model's circuit")
+        void complete_ClientErrors_DoNotOpenCircuit() {
+            failStatus = 400;
+            failFirst = 10;
+
+            for (int i = 0; i < 5; i++) {
+                assertThrows(RuntimeException.class, () -> openRouterService.complete("prompt"));
+            }
+
+            assertEquals(5, requests.get());
+            assertEquals(AiCircuitBreaker.State.CLOSED, router.getStats().get(0).state());
+            assertEquals(0, router.getStats().get(0).failures());
+            assertTrue(openRouterService.isAvailable());
+        }
+
+        @Test
+        @DisplayName("Should report the model that answered after a failover")
+        void complete_Failover_ReportsAnsweringModel() {
+            useModels("model/broken", "model/healthy");
+            failingModel = "model/broken";
+
+            openRouterService.complete("prompt");
+
+            assertEquals("model/broken", openRouterService.getModel());
+            assertEquals("model/healthy", openRouterService.getAnsweringModel());
+
+            failingModel = "model/healthy";
+            status = 400;
+            assertThrows(RuntimeException.class, () -> openRouterService.complete("prompt"));
+            assertNull(openRouterService.getAnsweringModel());
+        }
+
+        @Test
+        @DisplayName("Should route to the faster model once both have been sampled")
+        void complete_SlowModel_RoutesToFasterModel() {
+            useModels("model/slow", "model/fast");
+            slowModel = "model/slow";
+            slowModelDelayMillis = 300;
+
+            // The first two calls probe each model once, the rest go to the faster one
+            for (int i = 0; i < 5; i++) {
+                openRouterService.complete("prompt");
+            }
+
+            assertEquals(1, requestsTo("model/slow"));
+            assertEquals(4, requestsTo("model/fast"));
+            assertEquals(List.of("model/fast", "model/slow"), router.candidates());
+        }
+
+        @Test
+        @DisplayName("Should stay available while one model's circuit is open")
+        void complete_OneCircuitOpen_StillAvailable() {
+            useModels("model/broken", "model/healthy");
+            for (int i = 0; i < 3; i++) {
+                assertTrue(router.tryAcquire("model/broken"));
+                router.onFailure("model/broken", 1_000_000);
+            }
+
+            assertTrue(openRouterService.isAvailable());
+            assertEquals(List.of("model/healthy"), router.candidates());
+            openRouterService.complete("prompt");
+            assertEquals(0, requestsTo("model/broken"));
+            assertEquals(1, requestsTo("model/healthy"));
+        }
+
+        @Test
+        @DisplayName("Should record token usage and attribution for each call")
+        void complete_UsageBlock_RecordedInLedger() {
+            usageBlock = "{\"prompt_tokens\":120,\"completion_tokens\":30,\"total_tokens\":150,\"cost\":0.0012}";
+
+            try (AiUsageContext.Scope ignored = AiUsageContext.open("section-enrichment", 42L, "RISK_MANAGEMENT")) {
+                openRouterService.complete("prompt");
+            }
+
+            ArgumentCaptor<AiUsageRecord> captor = ArgumentCaptor.forClass(AiUsageRecord.class);
+            verify(usageService).record(captor.capture());
+            AiUsageRecord usage = captor.getValue();
+            assertEquals("test/model", usage.getModel());
+            assertEquals("section-enrichment", usage.getOperation());
+            assertEquals(42L, usage.getDocumentId());
+            assertEquals("RISK_MANAGEMENT", usage.getSection());
+            assertEquals(120, usage.getPromptTokens());
+            assertEquals(30, usage.getCompletionTokens());
+            assertEquals(150, usage.getTotalTokens());
+            assertEquals(0.0012, usage.getCost());
+            assertEquals(AiUsageRecord.Outcome.SUCCESS, usage.getOutcome());
+            assertEquals(200, usage.getHttpStatus());
+        }
+
+        @Test
+        @DisplayName("Should record every attempt, including failed ones, under the method's operation")
+        void generateSectionFeedbackAsync_FailoverAttempts_AllRecorded() {
+            useModels("model/broken", "model/healthy");
+            failingModel = "model/broken";
+
+            openRouterService.generateSectionFeedbackAsync("Schedule", "content").join();
+
+            ArgumentCaptor<AiUsageRecord> captor = ArgumentCaptor.forClass(AiUsageRecord.class);
+            verify(usageService, times(2)).record(captor.capture());
+            assertEquals(List.of("model/broken", "model/healthy"),
+                    captor.getAllValues().stream().map(AiUsageRecord::getModel).toList());
+            assertEquals(AiUsageRecord.Outcome.HTTP_ERROR, captor.getAllValues().get(0).getOutcome());
+            assertEquals(503, captor.getAllValues().get(0).getHttpStatus());
+            assertTrue(captor.getAllValues().stream().allMatch(u -> "section-feedback".equals(u.getOperation())
+                    && u.getDocumentId() == null));
+        }
+
+        @Test
+        @DisplayName("Should record usage reported in the final stream event")
+        void completeStreaming_UsageEvent_Recorded() {
+            streamBody = "data: {\"choices\":[{\"delta\":{\"content\":\"ok\"}}]}\n\n"
+                    + "data: {\"choices\":[{\"delta\":{}}],\"usage\":{\"prompt_tokens\":7,\"completion_tokens\":2,\"total_tokens\":9}}\n\n"
+                    + "data: [DONE]\n\n";
+
+            openRouterService.completeStreaming("prompt", delta -> { });
+
+            ArgumentCaptor<AiUsageRecord> captor = ArgumentCaptor.forClass(AiUsageRecord.class);
+            verify(usageService).record(captor.capture());
+            assertEquals("completion-stream", captor.getValue().getOperation());
+            assertEquals(9, captor.getValue().getTotalTokens());
+        }
+
+        @Test
+        @DisplayName("Should start the stream on the next model when one rejects it")
+        void completeStreaming_FailingModel_FailsOverBeforeStreaming() {
+            useModels("model/broken", "model/healthy");
+            failingModel = "model/broken";
+            streamBody = "data: {\"choices\":[{\"delta\":{\"content\":\"ok\"}}]}\n\n";
+            List<String> deltas = new ArrayList<>();
+
+            String full = openRouterService.completeStreaming("prompt", deltas::add);
+
+            assertEquals("ok", full);
+            assertEquals(List.of("ok"), deltas);
+            assertEquals(1, requestsTo("model/healthy"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Retry Delay Tests")
+    class RetryDelayTests {
+
+        @Test
+        @DisplayName("Should keep jittered backoff within the cap")
+        void retryDelayMillis_NoRetryAfter_WithinCap() {
+            for (int attempt = 0; attempt < 5; attempt++) {
+                long delay = openRouterService.retryDelayMillis(null, attempt);
+
+                assertTrue(delay >= 0 && delay <= Math.min(5000, 500L << attempt));
+            }
+        }
+    }
 }
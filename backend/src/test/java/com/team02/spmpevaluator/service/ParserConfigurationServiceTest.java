@@ -12,6 +12,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -32,6 +33,9 @@ class ParserConfigurationServiceTest {
     @Mock
     private ParserConfigurationRepository parserConfigurationRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ParserConfigurationService parserConfigurationService;
 
@@ -304,6 +308,7 @@ class ParserConfigurationServiceTest {
 
             // Assert
             verify(parserConfigurationRepository).deleteById(1L);
+            verify(eventPublisher).publishEvent(new ParserConfigurationChangedEvent(1L));
         }
 
         @Test
@@ -453,4 +458,65 @@ class ParserConfigurationServiceTest {
             assertTrue(result.getCustomRules().contains("clause completeness"));
         }
     }
+
+    @Nested
+    @DisplayName("Change Event Tests")
+    class ChangeEventTests {
+
+        @Test
+        @DisplayName("Should publish a change event when a configuration is updated")
+        void updateConfiguration_PublishesEvent() {
+            // Arrange
+            when(parserConfigurationRepository.findById(1L)).thenReturn(Optional.of(testConfig));
+            when(parserConfigurationRepository.save(any(ParserConfiguration.class))).thenReturn(testConfig);
+
+            // Act
+            parserConfigurationService.updateConfiguration(1L, testConfig);
+
+            // Assert
+            verify(eventPublisher).publishEvent(new ParserConfigurationChangedEvent(1L));
+        }
+
+        @Test
+        @DisplayName("Should publish a change event when a configuration becomes the default")
+        void setAsDefault_PublishesEvent() {
+            // Arrange
+            when(parserConfigurationRepository.findById(1L)).thenReturn(Optional.of(testConfig));
+            when(parserConfigurationRepository.findByIsDefaultTrue()).thenReturn(Optional.empty());
+            when(parserConfigurationRepository.save(any(ParserConfiguration.class))).thenAnswer(i -> i.getArgument(0));
+
+            // Act
+            parserConfigurationService.setAsDefault(1L);
+
+            // Assert
+            verify(eventPublisher).publishEvent(new ParserConfigurationChangedEvent(1L));
+        }
+
+        @Test
+        @DisplayName("Should not publish a change event for a new non-default configuration")
+        void createConfiguration_NonDefault_NoEvent() {
+            // Arrange
+            when(parserConfigurationRepository.save(any(ParserConfiguration.class))).thenReturn(testConfig);
+
+            // Act
+            parserConfigurationService.createConfiguration(testConfig, testUser);
+
+            // Assert
+            verifyNoInteractions(eventPublisher);
+        }
+
+        @Test
+        @DisplayName("Should not publish a change event when the default already exists")
+        void createDefaultConfiguration_Existing_NoEvent() {
+            // Arrange
+            testConfig.setIsDefault(true);
+            when(parserConfigurationRepository.findByIsDefaultTrue()).thenReturn(Optional.of(testConfig));
+
+            // Act
+            parserConfigurationService.createDefaultConfiguration(testUser);
+
+            // Assert
+            verifyNoInteractions(eventPublisher);
+        }
+    }
 }
@@ -4,6 +4,7 @@ import com.team02.spmpevaluator.entity.ParserConfiguration;
 import com.team02.spmpevaluator.entity.ParserFeedback;
 import com.team02.spmpevaluator.entity.SPMPDocument;
 import com.team02.spmpevaluator.entity.User;
+import com.team02.spmpevaluator.repository.ParserConfigurationRepository;
 import com.team02.spmpevaluator.repository.ParserFeedbackRepository;
 import com.team02.spmpevaluator.util.DocumentParser;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,7 +13,6 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -22,6 +22,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -43,7 +45,9 @@ class ParserFeedbackServiceTest {
     @Mock
     private DocumentParser documentParser;
 
-    @InjectMocks
+    @Mock
+    private ParserConfigurationRepository parserConfigurationRepository;
+
     private ParserFeedbackService parserFeedbackService;
 
     private User testUser;
@@ -53,6 +57,10 @@ class ParserFeedbackServiceTest {
 
     @BeforeEach
     void setUp() {
+        // Run queued analyses inline so their outcome can be asserted directly
+        parserFeedbackService = new ParserFeedbackService(parserFeedbackRepository, openRouterService,
+                documentParser, new ParserRuleEngine(parserConfigurationRepository), Runnable::run);
+
         // Setup test user
         testUser = new User();
         testUser.setId(1L);
@@ -206,6 +214,60 @@ class ParserFeedbackServiceTest {
             assertEquals(50.0, result.getComplianceScore());
         }
 
+        @Test
+        @DisplayName("Should report clauses from the configured rules on AI failure")
+        void analyzeDocumentWithAI_FallbackUsesConfiguredClauses() throws Exception {
+            // Arrange
+            testConfig.setClauseMappings("""
+                    [
+                        {"clauseId": "1", "clauseName": "Overview", "weight": 10, "keywords": ["purpose", "scope"]},
+                        {"clauseId": "7", "clauseName": "Risk Management", "weight": 10, "keywords": ["risk", "mitigation"]}
+                    ]
+                    """);
+            when(documentParser.extractTextFromFile(testDocument.getFileUrl()))
+                    .thenReturn("1. Overview\nThe purpose and scope of the project.");
+            when(openRouterService.analyzeDocument(any())).thenThrow(new RuntimeException("AI service unavailable"));
+            when(parserFeedbackRepository.save(any(ParserFeedback.class))).thenAnswer(i -> i.getArgument(0));
+
+            // Act
+            ParserFeedback result = parserFeedbackService.analyzeDocumentWithAI(testDocument, testConfig);
+
+            // Assert
+            assertEquals("[{\"clauseId\":\"1\",\"clauseName\":\"Overview\",\"score\":100,\"found\":true}]",
+                    result.getDetectedClauses());
+            assertEquals("[{\"clauseId\":\"7\",\"clauseName\":\"Risk Management\",\"severity\":\"high\","
+                    + "\"reason\":\"No heading and 0 of 2 keywords found\"}]", result.getMissingClauses());
+        }
+
+        @Test
+        @DisplayName("Should report clauses from the configured rules alongside the AI score")
+        void analyzeDocumentWithAI_ConfiguredClausesOverrideAi() throws Exception {
+            // Arrange
+            testConfig.setClauseMappings("""
+                    [
+                        {"clauseId": "1", "clauseName": "Overview", "weight": 10, "keywords": ["purpose", "scope"]},
+                        {"clauseId": "7", "clauseName": "Risk Management", "weight": 10, "keywords": ["risk", "mitigation"]}
+                    ]
+                    """);
+            when(documentParser.extractTextFromFile(testDocument.getFileUrl()))
+                    .thenReturn("Risk Management\nEach risk is listed.");
+            when(openRouterService.analyzeDocument(any())).thenReturn(Map.of(
+                    "complianceScore", 72.0,
+                    "detectedClauses", List.of(Map.of("clauseId", "1", "clauseName", "Overview")),
+                    "missingClauses", List.of()));
+            when(parserFeedbackRepository.save(any(ParserFeedback.class))).thenAnswer(i -> i.getArgument(0));
+
+            // Act
+            ParserFeedback result = parserFeedbackService.analyzeDocumentWithAI(testDocument, testConfig);
+
+            // Assert
+            assertEquals(72.0, result.getComplianceScore());
+            assertEquals("[{\"clauseId\":\"7\",\"clauseName\":\"Risk Management\",\"score\":50,\"found\":true}]",
+                    result.getDetectedClauses());
+            assertEquals("[{\"clauseId\":\"1\",\"clauseName\":\"Overview\",\"severity\":\"high\","
+                    + "\"reason\":\"No heading and 0 of 2 keywords found\"}]", result.getMissingClauses());
+        }
+
         @Test
         @DisplayName("Should use mock version when AI not configured")
         void analyzeDocumentWithAI_MockVersion() throws Exception {
@@ -223,6 +285,150 @@ class ParserFeedbackServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Submit Analysis Tests")
+    class SubmitAnalysisTests {
+
+        private final List<ParserFeedback.FeedbackStatus> savedStatuses = new CopyOnWriteArrayList<>();
+        private final List<ParserFeedback> saved = new CopyOnWriteArrayList<>();
+
+        private void stubSaveWithId() {
+            when(parserFeedbackRepository.save(any(ParserFeedback.class))).thenAnswer(i -> {
+                ParserFeedback feedback = i.getArgument(0);
+                feedback.setId(7L);
+                savedStatuses.add(feedback.getStatus());
+                saved.add(feedback);
+                return feedback;
+            });
+        }
+
+        private void stubFindSaved() {
+            when(parserFeedbackRepository.findById(7L)).thenAnswer(i -> Optional.of(saved.get(saved.size() - 1)));
+        }
+
+        @Test
+        @DisplayName("Should save a pending entry and move it through to completed")
+        void submitAnalysis_TracksStatus() throws Exception {
+            // Arrange
+            stubSaveWithId();
+            stubFindSaved();
+            when(documentParser.extractTextFromFile(testDocument.getFileUrl())).thenReturn("Content");
+            when(openRouterService.analyzeDocument("Content")).thenReturn(Map.of("complianceScore", 88.0));
+            when(openRouterService.isConfigured()).thenReturn(true);
+
+            // Act
+            ParserFeedback result = parserFeedbackService.submitAnalysis(testDocument, testConfig);
+
+            // Assert
+            assertEquals(7L, result.getId());
+            assertEquals(List.of(ParserFeedback.FeedbackStatus.PENDING, ParserFeedback.FeedbackStatus.IN_PROGRESS,
+                    ParserFeedback.FeedbackStatus.COMPLETED), savedStatuses);
+            assertEquals(88.0, result.getComplianceScore());
+        }
+
+        @Test
+        @DisplayName("Should not save while the AI call is running")
+        void submitAnalysis_NoSaveDuringAiCall() throws Exception {
+            // Arrange
+            stubSaveWithId();
+            stubFindSaved();
+            when(documentParser.extractTextFromFile(any())).thenReturn("Content");
+            when(openRouterService.analyzeDocument(any())).thenAnswer(i -> {
+                assertEquals(2, savedStatuses.size());
+                return Map.of("complianceScore", 70.0);
+            });
+
+            // Act
+            parserFeedbackService.submitAnalysis(testDocument, testConfig);
+
+            // Assert
+            assertEquals(3, savedStatuses.size());
+        }
+
+        @Test
+        @DisplayName("Should mark the entry failed when the analysis queue is full")
+        void submitAnalysis_QueueFull_Failed() {
+            // Arrange
+            parserFeedbackService = new ParserFeedbackService(parserFeedbackRepository, openRouterService,
+                    documentParser, new ParserRuleEngine(parserConfigurationRepository), task -> {
+                        throw new RejectedExecutionException("full");
+                    });
+            stubSaveWithId();
+
+            // Act
+            ParserFeedback result = parserFeedbackService.submitAnalysis(testDocument, testConfig);
+
+            // Assert
+            assertEquals(ParserFeedback.FeedbackStatus.FAILED, result.getStatus());
+            assertTrue(result.getErrorMessage().contains("queue is full"));
+            verifyNoInteractions(openRouterService);
+        }
+
+        @Test
+        @DisplayName("Should mark the entry failed when the result cannot be saved")
+        void submitAnalysis_SaveFails_Failed() throws Exception {
+            // Arrange
+            when(parserFeedbackRepository.save(any(ParserFeedback.class))).thenAnswer(i -> {
+                ParserFeedback feedback = i.getArgument(0);
+                if (feedback.getStatus() == ParserFeedback.FeedbackStatus.COMPLETED) {
+                    throw new IllegalStateException("connection lost");
+                }
+                feedback.setId(7L);
+                savedStatuses.add(feedback.getStatus());
+                saved.add(feedback);
+                return feedback;
+            });
+            stubFindSaved();
+            when(documentParser.extractTextFromFile(any())).thenReturn("Content");
+            when(openRouterService.analyzeDocument(any())).thenReturn(Map.of("complianceScore", 70.0));
+
+            // Act
+            parserFeedbackService.submitAnalysis(testDocument, testConfig);
+
+            // Assert
+            assertEquals(List.of(ParserFeedback.FeedbackStatus.PENDING, ParserFeedback.FeedbackStatus.IN_PROGRESS,
+                    ParserFeedback.FeedbackStatus.FAILED), savedStatuses);
+            assertTrue(saved.get(saved.size() - 1).getErrorMessage().contains("connection lost"));
+        }
+
+        @Test
+        @DisplayName("Should skip the analysis when the entry was deleted while queued")
+        void submitAnalysis_DeletedWhileQueued_Skipped() {
+            // Arrange
+            when(parserFeedbackRepository.save(any(ParserFeedback.class))).thenAnswer(i -> {
+                ParserFeedback saved = i.getArgument(0);
+                saved.setId(8L);
+                return saved;
+            });
+            when(parserFeedbackRepository.findById(8L)).thenReturn(Optional.empty());
+
+            // Act
+            parserFeedbackService.submitAnalysis(testDocument, testConfig);
+
+            // Assert
+            verify(parserFeedbackRepository, times(1)).save(any(ParserFeedback.class));
+            verifyNoInteractions(documentParser, openRouterService);
+        }
+
+        @Test
+        @DisplayName("Should fail analyses interrupted by a restart")
+        void failInterruptedAnalyses_MarksFailed() {
+            // Arrange
+            testFeedback.setStatus(ParserFeedback.FeedbackStatus.IN_PROGRESS);
+            when(parserFeedbackRepository.findByStatus(ParserFeedback.FeedbackStatus.PENDING))
+                    .thenReturn(Collections.emptyList());
+            when(parserFeedbackRepository.findByStatus(ParserFeedback.FeedbackStatus.IN_PROGRESS))
+                    .thenReturn(List.of(testFeedback));
+
+            // Act
+            parserFeedbackService.failInterruptedAnalyses();
+
+            // Assert
+            assertEquals(ParserFeedback.FeedbackStatus.FAILED, testFeedback.getStatus());
+            verify(parserFeedbackRepository).save(testFeedback);
+        }
+    }
+
     @Nested
     @DisplayName("Get Feedback Tests")
     class GetFeedbackTests {
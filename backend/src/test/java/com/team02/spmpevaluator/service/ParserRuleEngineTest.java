@@ -0,0 +1,234 @@
+package com.team02.spmpevaluator.service;
+
+import com.team02.spmpevaluator.entity.ParserConfiguration;
+import com.team02.spmpevaluator.repository.ParserConfigurationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ParserRuleEngine.
+ * Tests loading, hot-swapping and reuse of the compiled default rules.
+ */
+@ExtendWith(MockitoExtension.class)
+class ParserRuleEngineTest {
+
+    @Mock
+    private ParserConfigurationRepository parserConfigurationRepository;
+
+    private ParserRuleEngine ruleEngine;
+    private ParserConfiguration defaultConfig;
+
+    @BeforeEach
+    void setUp() {
+        ruleEngine = new ParserRuleEngine(parserConfigurationRepository);
+
+        defaultConfig = new ParserConfiguration();
+        defaultConfig.setId(1L);
+        defaultConfig.setIsDefault(true);
+        defaultConfig.setUpdatedAt(LocalDateTime.of(2026, 3, 1, 9, 0));
+        defaultConfig.setClauseMappings("""
+                [{"clauseId": "7", "clauseName": "Risk Management", "weight": 10, "keywords": ["risk"]}]
+                """);
+    }
+
+    @Nested
+    @DisplayName("Loading Tests")
+    class LoadingTests {
+
+        @Test
+        @DisplayName("Should compile the default configuration once and reuse it")
+        void current_CompilesOnce() {
+            when(parserConfigurationRepository.findByIsDefaultTrue()).thenReturn(Optional.of(defaultConfig));
+
+            CompiledParserRules first = ruleEngine.current();
+            CompiledParserRules second = ruleEngine.current();
+
+            assertSame(first, second);
+            assertEquals(1L, first.getConfigurationId());
+            assertEquals(1, ruleEngine.getCompilationCount());
+            verify(parserConfigurationRepository, times(1)).findByIsDefaultTrue();
+        }
+
+        @Test
+        @DisplayName("Should use the built-in rules without a default configuration")
+        void current_NoDefault_BuiltIn() {
+            when(parserConfigurationRepository.findByIsDefaultTrue()).thenReturn(Optional.empty());
+
+            CompiledParserRules rules = ruleEngine.current();
+
+            assertNull(rules.getConfigurationId());
+            assertEquals(13, rules.getClauses().size());
+            assertEquals(0, ruleEngine.getCompilationCount());
+        }
+
+        @Test
+        @DisplayName("Should fall back to the built-in rules when the default cannot be compiled")
+        void current_InvalidDefault_BuiltIn() {
+            defaultConfig.setClauseMappings("not json");
+            when(parserConfigurationRepository.findByIsDefaultTrue()).thenReturn(Optional.of(defaultConfig));
+
+            assertNull(ruleEngine.current().getConfigurationId());
+        }
+    }
+
+    @Nested
+    @DisplayName("Hot Swap Tests")
+    class HotSwapTests {
+
+        @Test
+        @DisplayName("Should swap in new rules when the default configuration changed")
+        void onChange_DefaultUpdated_Recompiles() {
+            when(parserConfigurationRepository.findByIsDefaultTrue()).thenReturn(Optional.of(defaultConfig));
+            CompiledParserRules before = ruleEngine.current();
+
+            ParserConfiguration updated = new ParserConfiguration();
+            updated.setId(1L);
+            updated.setUpdatedAt(LocalDateTime.of(2026, 3, 2, 9, 0));
+            updated.setClauseMappings("""
+                    [{"clauseId": "8", "clauseName": "Additional Plans", "weight": 5, "keywords": ["appendix"]}]
+                    """);
+            when(parserConfigurationRepository.findByIsDefaultTrue()).thenReturn(Optional.of(updated));
+            ruleEngine.onParserConfigurationChanged(new ParserConfigurationChangedEvent(1L));
+
+            CompiledParserRules after = ruleEngine.current();
+            assertNotSame(before, after);
+            assertEquals("Additional Plans", after.getClauses().get(0).clauseName());
+            assertEquals(2, ruleEngine.getCompilationCount());
+        }
+
+        @Test
+        @DisplayName("Should keep the compiled rules when a non-default configuration changed")
+        void onChange_OtherConfiguration_KeepsRules() {
+            when(parserConfigurationRepository.findByIsDefaultTrue()).thenReturn(Optional.of(defaultConfig));
+            CompiledParserRules before = ruleEngine.current();
+
+            ruleEngine.onParserConfigurationChanged(new ParserConfigurationChangedEvent(2L));
+
+            assertSame(before, ruleEngine.current());
+            assertEquals(1, ruleEngine.getCompilationCount());
+        }
+
+        @Test
+        @DisplayName("Should keep the previous rules when the new default cannot be compiled")
+        void onChange_InvalidUpdate_KeepsPrevious() {
+            when(parserConfigurationRepository.findByIsDefaultTrue()).thenReturn(Optional.of(defaultConfig));
+            CompiledParserRules before = ruleEngine.current();
+
+            ParserConfiguration broken = new ParserConfiguration();
+            broken.setId(1L);
+            broken.setUpdatedAt(LocalDateTime.of(2026, 3, 2, 9, 0));
+            broken.setClauseMappings("[oops");
+            when(parserConfigurationRepository.findByIsDefaultTrue()).thenReturn(Optional.of(broken));
+            ruleEngine.onParserConfigurationChanged(new ParserConfigurationChangedEvent(1L));
+
+            assertSame(before, ruleEngine.current());
+        }
+    }
+
+    @Nested
+    @DisplayName("Rules For Configuration Tests")
+    class RulesForTests {
+
+        @Test
+        @DisplayName("Should serve the default configuration from the compiled rules")
+        void rulesFor_Default_NoCompile() {
+            when(parserConfigurationRepository.findByIsDefaultTrue()).thenReturn(Optional.of(defaultConfig));
+
+            CompiledParserRules rules = ruleEngine.rulesFor(defaultConfig);
+
+            assertSame(ruleEngine.current(), rules);
+            assertEquals(1, ruleEngine.getCompilationCount());
+        }
+
+        @Test
+        @DisplayName("Should compile other configurations for the call")
+        void rulesFor_Other_Compiles() {
+            when(parserConfigurationRepository.findByIsDefaultTrue()).thenReturn(Optional.of(defaultConfig));
+            ParserConfiguration other = new ParserConfiguration();
+            other.setId(2L);
+            other.setClauseMappings("""
+                    [{"clauseId": "3", "clauseName": "Definitions", "weight": 5, "keywords": ["glossary"]}]
+                    """);
+
+            CompiledParserRules rules = ruleEngine.rulesFor(other);
+
+            assertEquals(2L, rules.getConfigurationId());
+            assertEquals("Definitions", rules.getClauses().get(0).clauseName());
+        }
+
+        @Test
+        @DisplayName("Should compile another configuration once per update")
+        void rulesFor_Other_Cached() {
+            when(parserConfigurationRepository.findByIsDefaultTrue()).thenReturn(Optional.of(defaultConfig));
+            ParserConfiguration other = new ParserConfiguration();
+            other.setId(2L);
+            other.setUpdatedAt(LocalDateTime.of(2026, 3, 2, 9, 0));
+            other.setClauseMappings("""
+                    [{"clauseId": "3", "clauseName": "Definitions", "weight": 5, "keywords": ["glossary"]}]
+                    """);
+
+            CompiledParserRules first = ruleEngine.rulesFor(other);
+            assertSame(first, ruleEngine.rulesFor(other));
+            assertEquals(2, ruleEngine.getCompilationCount());
+
+            other.setUpdatedAt(LocalDateTime.of(2026, 3, 3, 9, 0));
+            CompiledParserRules updated = ruleEngine.rulesFor(other);
+
+            assertNotSame(first, updated);
+            assertSame(updated, ruleEngine.rulesFor(other));
+            assertEquals(3, ruleEngine.getCompilationCount());
+        }
+
+        @Test
+        @DisplayName("Should drop a cached configuration when it changes")
+        void rulesFor_Changed_Evicted() {
+            when(parserConfigurationRepository.findByIsDefaultTrue()).thenReturn(Optional.of(defaultConfig));
+            ParserConfiguration other = new ParserConfiguration();
+            other.setId(2L);
+            other.setClauseMappings("""
+                    [{"clauseId": "3", "clauseName": "Definitions", "weight": 5, "keywords": ["glossary"]}]
+                    """);
+            CompiledParserRules first = ruleEngine.rulesFor(other);
+
+            ruleEngine.onParserConfigurationChanged(new ParserConfigurationChangedEvent(2L));
+
+            assertNotSame(first, ruleEngine.rulesFor(other));
+            assertEquals(3, ruleEngine.getCompilationCount());
+        }
+
+        @Test
+        @DisplayName("Should fall back to the default rules for an invalid configuration")
+        void rulesFor_Invalid_Default() {
+            when(parserConfigurationRepository.findByIsDefaultTrue()).thenReturn(Optional.of(defaultConfig));
+            ParserConfiguration other = new ParserConfiguration();
+            other.setId(2L);
+            other.setClauseMappings("[updated]");
+
+            assertSame(ruleEngine.current(), ruleEngine.rulesFor(other));
+        }
+    }
+
+    @Test
+    @DisplayName("Should count compilations")
+    void bindTo_RegistersMeters() {
+        when(parserConfigurationRepository.findByIsDefaultTrue()).thenReturn(Optional.of(defaultConfig));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ruleEngine.bindTo(registry);
+
+        ruleEngine.current();
+
+        assertEquals(1.0, registry.get("parser.rules.compilations").functionCounter().count());
+    }
+}
@@ -56,6 +56,12 @@ class SPMPDocumentServiceTest {
     @Mock
     private ComplianceScoreHistoryRepository historyRepository;
 
+    @Mock
+    private DocumentTextCache textCache;
+
+    @Mock
+    private SectionClassifier sectionClassifier;
+
     @InjectMocks
     private SPMPDocumentService documentService;
 
@@ -305,6 +311,19 @@ class SPMPDocumentServiceTest {
 
             assertEquals("Extracted PDF content", content);
             verify(documentParser).extractTextFromFile(testDocument.getFileUrl());
+            verify(textCache).put(testDocument, "Extracted PDF content");
+        }
+
+        @Test
+        @DisplayName("Should return cached text without parsing the file")
+        void getDocumentContent_Cached_SkipsParsing() throws IOException {
+            when(repository.findByIdWithUploadedBy(1L)).thenReturn(Optional.of(testDocument));
+            when(textCache.get(testDocument)).thenReturn(Optional.of("Cached content"));
+
+            String content = documentService.getDocumentContent(1L);
+
+            assertEquals("Cached content", content);
+            verifyNoInteractions(documentParser);
         }
 
         @Test
@@ -336,7 +355,7 @@ class SPMPDocumentServiceTest {
         @Test
         @DisplayName("Should return all submissions without filters")
         void getAllSubmissions_NoFilters_ReturnsAll() {
-            when(repository.findAll()).thenReturn(Arrays.asList(testDocument));
+            when(repository.findAllWithUploadedBy()).thenReturn(Arrays.asList(testDocument));
 
             List<SPMPDocument> result = documentService.getAllSubmissions(null, null);
 
@@ -352,7 +371,7 @@ class SPMPDocumentServiceTest {
             pendingDoc.setUploadedBy(testUser);
             pendingDoc.setEvaluated(false);
 
-            when(repository.findAll()).thenReturn(Arrays.asList(testDocument, pendingDoc));
+            when(repository.findAllWithUploadedBy()).thenReturn(Arrays.asList(testDocument, pendingDoc));
 
             List<SPMPDocument> result = documentService.getAllSubmissions("evaluated", null);
 
@@ -369,7 +388,7 @@ class SPMPDocumentServiceTest {
             evaluatedDoc.setUploadedBy(testUser);
             evaluatedDoc.setEvaluated(true);
 
-            when(repository.findAll()).thenReturn(Arrays.asList(testDocument, evaluatedDoc));
+            when(repository.findAllWithUploadedBy()).thenReturn(Arrays.asList(testDocument, evaluatedDoc));
 
             List<SPMPDocument> result = documentService.getAllSubmissions("pending", null);
 
@@ -386,7 +405,7 @@ class SPMPDocumentServiceTest {
             otherUser.setId(999L);
             otherUserDoc.setUploadedBy(otherUser);
 
-            when(repository.findAll()).thenReturn(Arrays.asList(testDocument, otherUserDoc));
+            when(repository.findAllWithUploadedBy()).thenReturn(Arrays.asList(testDocument, otherUserDoc));
 
             List<SPMPDocument> result = documentService.getAllSubmissions(null, 1L);
 
@@ -493,6 +512,17 @@ class SPMPDocumentServiceTest {
 
             verify(historyRepository).deleteByDocumentId(1L);
         }
+
+        @Test
+        @DisplayName("Should drop the document's cached text and what the classifier learned from it")
+        void deleteDocument_ExistingDocument_ForgetsDocument() throws IOException {
+            when(repository.findById(1L)).thenReturn(Optional.of(testDocument));
+
+            documentService.deleteDocument(1L, 1L);
+
+            verify(textCache).evict(1L);
+            verify(sectionClassifier).forget(1L);
+        }
     }
 
     @Nested
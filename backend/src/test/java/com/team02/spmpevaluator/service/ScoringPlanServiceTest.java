@@ -0,0 +1,172 @@
+package com.team02.spmpevaluator.service;
+
+import com.team02.spmpevaluator.entity.GradingCriteria;
+import com.team02.spmpevaluator.entity.SPMPDocument;
+import com.team02.spmpevaluator.entity.SectionAnalysis.IEEE1058Section;
+import com.team02.spmpevaluator.entity.User;
+import com.team02.spmpevaluator.repository.GradingCriteriaRepository;
+import com.team02.spmpevaluator.repository.StudentProfessorAssignmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ScoringPlanService.
+ * Tests plan resolution through the student's professor, caching and eviction on change.
+ */
+@ExtendWith(MockitoExtension.class)
+class ScoringPlanServiceTest {
+
+    @Mock
+    private StudentProfessorAssignmentRepository assignmentRepository;
+
+    @Mock
+    private GradingCriteriaRepository gradingCriteriaRepository;
+
+    private ScoringPlanService service;
+    private User student;
+    private User professor;
+    private GradingCriteria criteria;
+
+    @BeforeEach
+    void setUp() {
+        service = new ScoringPlanService(assignmentRepository, gradingCriteriaRepository, 100, Duration.ofMinutes(10));
+
+        student = new User();
+        student.setId(1L);
+        professor = new User();
+        professor.setId(2L);
+
+        criteria = new GradingCriteria();
+        criteria.setId(5L);
+        criteria.setOverviewWeight(30);
+        criteria.setReferencesWeight(0);
+        criteria.setDefinitionsWeight(0);
+        criteria.setOrganizationWeight(15);
+        criteria.setManagerialProcessWeight(20);
+        criteria.setTechnicalProcessWeight(10);
+        criteria.setSupportingProcessWeight(15);
+        criteria.setAdditionalPlansWeight(10);
+    }
+
+    private SPMPDocument documentOf(User uploader) {
+        SPMPDocument document = new SPMPDocument();
+        document.setId(10L);
+        document.setUploadedBy(uploader);
+        return document;
+    }
+
+    @Nested
+    @DisplayName("Resolve Plan Tests")
+    class ResolvePlanTests {
+
+        @Test
+        @DisplayName("Should use the active criteria of the student's professor")
+        void planFor_ProfessorCriteria() {
+            when(assignmentRepository.findProfessorByStudentId(1L)).thenReturn(Optional.of(professor));
+            when(gradingCriteriaRepository.findActiveCriteriaByProfessorId(2L)).thenReturn(Optional.of(criteria));
+
+            ScoringPlan plan = service.planFor(documentOf(student));
+
+            assertEquals(5L, plan.getCriteriaId());
+            assertEquals(30, plan.weightOf(IEEE1058Section.OVERVIEW));
+        }
+
+        @Test
+        @DisplayName("Should use the default plan for an unassigned student")
+        void planFor_Unassigned_Default() {
+            when(assignmentRepository.findProfessorByStudentId(1L)).thenReturn(Optional.empty());
+
+            assertSame(ScoringPlan.DEFAULT, service.planFor(documentOf(student)));
+            verifyNoInteractions(gradingCriteriaRepository);
+        }
+
+        @Test
+        @DisplayName("Should use the default plan when the professor has no active criteria")
+        void planFor_NoActiveCriteria_Default() {
+            when(assignmentRepository.findProfessorByStudentId(1L)).thenReturn(Optional.of(professor));
+            when(gradingCriteriaRepository.findActiveCriteriaByProfessorId(2L)).thenReturn(Optional.empty());
+
+            assertSame(ScoringPlan.DEFAULT, service.planFor(documentOf(student)));
+        }
+
+        @Test
+        @DisplayName("Should use the default plan for a document without uploader")
+        void planFor_NoUploader_Default() {
+            assertSame(ScoringPlan.DEFAULT, service.planFor(documentOf(null)));
+            verifyNoInteractions(assignmentRepository, gradingCriteriaRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Caching Tests")
+    class CachingTests {
+
+        @Test
+        @DisplayName("Should run no queries for repeat evaluations")
+        void planFor_Cached_NoQueries() {
+            when(assignmentRepository.findProfessorByStudentId(1L)).thenReturn(Optional.of(professor));
+            when(gradingCriteriaRepository.findActiveCriteriaByProfessorId(2L)).thenReturn(Optional.of(criteria));
+
+            ScoringPlan first = service.planFor(documentOf(student));
+            ScoringPlan second = service.planFor(documentOf(student));
+
+            assertSame(first, second);
+            verify(assignmentRepository, times(1)).findProfessorByStudentId(1L);
+            verify(gradingCriteriaRepository, times(1)).findActiveCriteriaByProfessorId(2L);
+        }
+
+        @Test
+        @DisplayName("Should recompile the plan after the professor's criteria change")
+        void onGradingCriteriaChanged_Recompiles() {
+            when(assignmentRepository.findProfessorByStudentId(1L)).thenReturn(Optional.of(professor));
+            when(gradingCriteriaRepository.findActiveCriteriaByProfessorId(2L)).thenReturn(Optional.of(criteria));
+            service.planFor(documentOf(student));
+
+            criteria.setOverviewWeight(20);
+            criteria.setTechnicalProcessWeight(20);
+            service.onGradingCriteriaChanged(new GradingCriteriaChangedEvent(2L));
+
+            assertEquals(20, service.planFor(documentOf(student)).weightOf(IEEE1058Section.OVERVIEW));
+            verify(gradingCriteriaRepository, times(2)).findActiveCriteriaByProfessorId(2L);
+            verify(assignmentRepository, times(1)).findProfessorByStudentId(1L);
+        }
+
+        @Test
+        @DisplayName("Should look up the professor again after the student's assignment changes")
+        void onStudentAssignmentChanged_ReloadsProfessor() {
+            when(assignmentRepository.findProfessorByStudentId(1L)).thenReturn(Optional.empty());
+            assertSame(ScoringPlan.DEFAULT, service.planForStudent(1L));
+
+            when(assignmentRepository.findProfessorByStudentId(1L)).thenReturn(Optional.of(professor));
+            when(gradingCriteriaRepository.findActiveCriteriaByProfessorId(2L)).thenReturn(Optional.of(criteria));
+            service.onStudentAssignmentChanged(new StudentAssignmentChangedEvent(1L));
+
+            assertEquals(5L, service.planForStudent(1L).getCriteriaId());
+        }
+
+        @Test
+        @DisplayName("Should drop students of a deleted professor")
+        void onUserAccountChanged_DropsStudentsOfUser() {
+            when(assignmentRepository.findProfessorByStudentId(1L))
+                    .thenReturn(Optional.of(professor))
+                    .thenReturn(Optional.empty());
+            when(gradingCriteriaRepository.findActiveCriteriaByProfessorId(2L)).thenReturn(Optional.of(criteria));
+            service.planForStudent(1L);
+
+            service.onUserAccountChanged(new UserAccountChangedEvent(2L));
+
+            assertSame(ScoringPlan.DEFAULT, service.planForStudent(1L));
+        }
+    }
+}
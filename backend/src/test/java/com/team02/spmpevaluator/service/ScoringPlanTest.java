@@ -0,0 +1,141 @@
+package com.team02.spmpevaluator.service;
+
+import com.team02.spmpevaluator.entity.GradingCriteria;
+import com.team02.spmpevaluator.entity.SectionAnalysis.IEEE1058Section;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ScoringPlan.
+ * Tests the default IEEE 1058 weights and compilation of professor grading criteria.
+ */
+class ScoringPlanTest {
+
+    private static GradingCriteria criteria(int overview, int references, int definitions, int organization,
+                                            int managerial, int technical, int supporting, int additional) {
+        GradingCriteria criteria = new GradingCriteria();
+        criteria.setId(3L);
+        criteria.setUpdatedAt(LocalDateTime.of(2026, 1, 15, 10, 0));
+        criteria.setOverviewWeight(overview);
+        criteria.setReferencesWeight(references);
+        criteria.setDefinitionsWeight(definitions);
+        criteria.setOrganizationWeight(organization);
+        criteria.setManagerialProcessWeight(managerial);
+        criteria.setTechnicalProcessWeight(technical);
+        criteria.setSupportingProcessWeight(supporting);
+        criteria.setAdditionalPlansWeight(additional);
+        return criteria;
+    }
+
+    @Nested
+    @DisplayName("Default Plan Tests")
+    class DefaultPlanTests {
+
+        @Test
+        @DisplayName("Should use the built-in IEEE 1058 section weights")
+        void defaultPlan_Weights() {
+            assertTrue(ScoringPlan.DEFAULT.isDefault());
+            assertEquals(10, ScoringPlan.DEFAULT.weightOf(IEEE1058Section.OVERVIEW));
+            assertEquals(12, ScoringPlan.DEFAULT.weightOf(IEEE1058Section.ORGANIZATION));
+            assertEquals(5, ScoringPlan.DEFAULT.weightOf(IEEE1058Section.GLOSSARY_APPENDIX));
+            assertEquals(100, Arrays.stream(ScoringPlan.DEFAULT.getWeights()).sum());
+        }
+
+        @Test
+        @DisplayName("Should use the 80% compliance threshold")
+        void defaultPlan_Threshold() {
+            assertTrue(ScoringPlan.DEFAULT.isCompliant(80.0));
+            assertFalse(ScoringPlan.DEFAULT.isCompliant(79.9));
+        }
+    }
+
+    @Nested
+    @DisplayName("Compile Tests")
+    class CompileTests {
+
+        @Test
+        @DisplayName("Should spread each category over its sections and keep the total at 100")
+        void compile_DistributesCategoryWeights() {
+            ScoringPlan plan = ScoringPlan.compile(criteria(10, 5, 5, 15, 20, 20, 15, 10));
+
+            assertFalse(plan.isDefault());
+            assertEquals(3L, plan.getCriteriaId());
+            assertEquals(LocalDateTime.of(2026, 1, 15, 10, 0), plan.getCriteriaVersion());
+            assertEquals(10, plan.weightOf(IEEE1058Section.OVERVIEW));
+            // References and definitions both map to the glossary/appendix section
+            assertEquals(10, plan.weightOf(IEEE1058Section.GLOSSARY_APPENDIX));
+            // Organization 15 split 12:8 between project and staff organization
+            assertEquals(9, plan.weightOf(IEEE1058Section.ORGANIZATION));
+            assertEquals(6, plan.weightOf(IEEE1058Section.STAFF_ORGANIZATION));
+            assertEquals(20, plan.weightOf(IEEE1058Section.STANDARDS_PRACTICES));
+            assertEquals(10, plan.weightOf(IEEE1058Section.RISK_MANAGEMENT));
+            assertEquals(100, Arrays.stream(plan.getWeights()).sum());
+        }
+
+        @Test
+        @DisplayName("Should round fractional shares without losing weight")
+        void compile_RoundsToTotal() {
+            ScoringPlan plan = ScoringPlan.compile(criteria(11, 3, 3, 13, 17, 19, 23, 11));
+
+            assertEquals(100, Arrays.stream(plan.getWeights()).sum());
+            // Supporting 23 over documentation 8, reviews 7, problem resolution 5, change management 5
+            int supporting = plan.weightOf(IEEE1058Section.DOCUMENTATION_PLAN)
+                    + plan.weightOf(IEEE1058Section.REVIEWS_AUDITS)
+                    + plan.weightOf(IEEE1058Section.PROBLEM_RESOLUTION)
+                    + plan.weightOf(IEEE1058Section.CHANGE_MANAGEMENT);
+            assertTrue(supporting >= 22 && supporting <= 24);
+        }
+
+        @Test
+        @DisplayName("Should fall back to the default plan when weights do not sum to 100")
+        void compile_InvalidWeights_Default() {
+            assertSame(ScoringPlan.DEFAULT, ScoringPlan.compile(criteria(50, 5, 5, 15, 20, 20, 15, 10)));
+        }
+
+        @Test
+        @DisplayName("Should not expose the internal weight array")
+        void getWeights_ReturnsCopy() {
+            ScoringPlan plan = ScoringPlan.compile(criteria(10, 5, 5, 15, 20, 20, 15, 10));
+
+            plan.getWeights()[IEEE1058Section.OVERVIEW.ordinal()] = 99;
+
+            assertEquals(10, plan.weightOf(IEEE1058Section.OVERVIEW));
+        }
+    }
+
+    @Test
+    @DisplayName("Should compute the weighted overall score from section scores")
+    void overallScore_WeightedSum() {
+        double[] scores = new double[IEEE1058Section.values().length];
+        Arrays.fill(scores, 50.0);
+        scores[IEEE1058Section.OVERVIEW.ordinal()] = 100.0;
+
+        // 90 weight at 50% plus overview's 10 at 100%
+        assertEquals(55.0, ScoringPlan.DEFAULT.overallScore(scores), 0.0001);
+    }
+
+    @Test
+    @DisplayName("Should score every row of a section score matrix like overallScore")
+    void overallScores_MatchesPerRowScore() {
+        int sections = IEEE1058Section.values().length;
+        double[] matrix = new double[sections * 3];
+        for (int i = 0; i < matrix.length; i++) {
+            matrix[i] = (i * 37) % 101;
+        }
+        ScoringPlan plan = ScoringPlan.compile(criteria(40, 0, 0, 10, 10, 10, 20, 10));
+
+        double[] scores = plan.overallScores(matrix, 3);
+
+        assertEquals(3, scores.length);
+        for (int row = 0; row < 3; row++) {
+            double[] sectionScores = Arrays.copyOfRange(matrix, row * sections, (row + 1) * sections);
+            assertEquals(plan.overallScore(sectionScores), scores[row], 0.0001);
+        }
+    }
+}
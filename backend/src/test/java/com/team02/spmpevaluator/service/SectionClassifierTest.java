@@ -0,0 +1,207 @@
+package com.team02.spmpevaluator.service;
+
+import com.team02.spmpevaluator.entity.SectionAnalysis.IEEE1058Section;
+import com.team02.spmpevaluator.util.KeywordAutomaton;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SectionClassifier.
+ * Trains on generated plans whose sections each have their own vocabulary, with section titles
+ * as the only fixed terms.
+ */
+@DisplayName("SectionClassifier Tests")
+class SectionClassifierTest {
+
+    private static final IEEE1058Section[] SECTIONS = IEEE1058Section.values();
+    private static final KeywordAutomaton TITLES = KeywordAutomaton.of(
+            Arrays.stream(SECTIONS).map(section -> section.getDisplayName().toLowerCase()).toList());
+    private static final int[] TITLE_TERMS = Arrays.stream(SECTIONS).mapToInt(Enum::ordinal).toArray();
+
+    private static final Map<IEEE1058Section, List<String>> VOCABULARY = Map.of(
+            IEEE1058Section.RISK_MANAGEMENT, List.of("threat", "probability", "impact", "contingency",
+                    "exposure", "likelihood", "trigger"),
+            IEEE1058Section.MASTER_SCHEDULE, List.of("milestone", "timeline", "deadline", "duration",
+                    "sprint", "calendar", "phase"),
+            IEEE1058Section.BUDGET_RESOURCE, List.of("cost", "dollars", "estimate", "hardware", "licenses",
+                    "expenses", "funding"));
+    private static final List<String> FILLER = List.of("the", "team", "will", "each", "with", "project", "plan");
+
+    private static String paragraph(IEEE1058Section section, Random random) {
+        StringBuilder text = new StringBuilder();
+        List<String> words = VOCABULARY.get(section);
+        for (int w = 0; w < 40; w++) {
+            text.append(random.nextBoolean()
+                    ? words.get(random.nextInt(words.size()))
+                    : FILLER.get(random.nextInt(FILLER.size())));
+            text.append(w % 12 == 11 ? "\n" : " ");
+        }
+        return text.append('\n').toString();
+    }
+
+    private static String titledPlan(Random random) {
+        StringBuilder text = new StringBuilder("Software Project Management Plan\n");
+        int number = 1;
+        for (IEEE1058Section section : VOCABULARY.keySet()) {
+            text.append(number++).append(". ").append(section.getDisplayName()).append('\n');
+            text.append(paragraph(section, random));
+        }
+        return text.toString();
+    }
+
+    private static SectionClassifier trained(int minDocuments, int documents) {
+        SectionClassifier classifier = new SectionClassifier(true, minDocuments, 0.3);
+        Random random = new Random(1058);
+        for (int i = 0; i < documents; i++) {
+            learn(classifier, (long) i, "v1", titledPlan(random));
+        }
+        return classifier;
+    }
+
+    private static void learn(SectionClassifier classifier, Long documentId, String inputVersion, String text) {
+        try (EvaluationContext context = EvaluationContext.open(text, KeywordDictionary.BUILT_IN, TITLES)) {
+            classifier.learn(documentId, inputVersion, classifier.sample(context, TITLE_TERMS));
+        }
+    }
+
+    private static int[] classify(SectionClassifier classifier, String text) {
+        try (EvaluationContext context = EvaluationContext.open(text, KeywordDictionary.BUILT_IN, TITLES)) {
+            classifier.classify(context);
+            return context.classifiedBlocks.clone();
+        }
+    }
+
+    @Nested
+    @DisplayName("Classification Tests")
+    class ClassificationTests {
+
+        @Test
+        @DisplayName("Should assign blocks under unrecognized headings by their vocabulary")
+        void classify_UntitledBlocks() {
+            SectionClassifier classifier = trained(5, 10);
+            Random random = new Random(7);
+            String text = "1. Things That Could Go Wrong\n" + paragraph(IEEE1058Section.RISK_MANAGEMENT, random)
+                    + "2. When We Ship\n" + paragraph(IEEE1058Section.MASTER_SCHEDULE, random);
+
+            int[] blocks = classify(classifier, text);
+
+            assertEquals(1, blocks[IEEE1058Section.RISK_MANAGEMENT.ordinal()]);
+            assertEquals(1, blocks[IEEE1058Section.MASTER_SCHEDULE.ordinal()]);
+            assertEquals(2, Arrays.stream(blocks).sum());
+        }
+
+        @Test
+        @DisplayName("Should leave blocks unlike every section and short blocks unassigned")
+        void classify_DissimilarAndShortBlocks() {
+            SectionClassifier classifier = trained(5, 10);
+            String text = "1. Acknowledgements\nwe thank our families friends mentors and reviewers warmly\n"
+                    + "2. Notes\nthreat impact\n";
+
+            assertEquals(0, Arrays.stream(classify(classifier, text)).sum());
+        }
+
+        @Test
+        @DisplayName("Should not classify before enough documents are learned")
+        void classify_NotReady() {
+            SectionClassifier classifier = trained(20, 10);
+            String text = "1. Things That Could Go Wrong\n" + paragraph(IEEE1058Section.RISK_MANAGEMENT, new Random(7));
+
+            assertEquals(10, classifier.documents());
+            assertEquals(0, Arrays.stream(classify(classifier, text)).sum());
+        }
+    }
+
+    @Nested
+    @DisplayName("Learning Tests")
+    class LearningTests {
+
+        @Test
+        @DisplayName("Should learn nothing while disabled")
+        void learn_Disabled() {
+            SectionClassifier classifier = new SectionClassifier(false, 1, 0.3);
+
+            learn(classifier, 1L, "v1", titledPlan(new Random(1)));
+
+            assertEquals(0, classifier.documents());
+            assertFalse(classifier.needsLearning(1L, "v1"));
+        }
+
+        @Test
+        @DisplayName("Should learn each input of a document once")
+        void learn_SameInputOnce() {
+            SectionClassifier classifier = new SectionClassifier(true, 1, 0.3);
+            String plan = titledPlan(new Random(1));
+            String text = "1. Things That Could Go Wrong\n" + paragraph(IEEE1058Section.RISK_MANAGEMENT, new Random(7));
+
+            learn(classifier, 1L, "v1", plan);
+            int[] once = classify(classifier, text);
+            learn(classifier, 1L, "v1", plan);
+
+            assertFalse(classifier.needsLearning(1L, "v1"));
+            assertTrue(classifier.needsLearning(1L, "v2"));
+            assertEquals(1, classifier.documents());
+            assertArrayEquals(once, classify(classifier, text));
+        }
+
+        @Test
+        @DisplayName("Should replace what an earlier input of the document taught")
+        void learn_NewInput_ReplacesPrevious() {
+            SectionClassifier classifier = new SectionClassifier(true, 1, 0.3);
+            Random random = new Random(1);
+            String text = "1. Things That Could Go Wrong\n" + paragraph(IEEE1058Section.RISK_MANAGEMENT, new Random(7));
+
+            learn(classifier, 1L, "v1", "1. Risk Management\n" + paragraph(IEEE1058Section.RISK_MANAGEMENT, random));
+            assertEquals(1, classify(classifier, text)[IEEE1058Section.RISK_MANAGEMENT.ordinal()]);
+
+            learn(classifier, 1L, "v2", "1. Master Schedule\n" + paragraph(IEEE1058Section.MASTER_SCHEDULE, random));
+
+            assertEquals(1, classifier.documents());
+            assertEquals(0, classify(classifier, text)[IEEE1058Section.RISK_MANAGEMENT.ordinal()]);
+        }
+
+        @Test
+        @DisplayName("Should take out what a deleted document taught")
+        void forget_RemovesDocument() {
+            SectionClassifier classifier = new SectionClassifier(true, 1, 0.3);
+            Random random = new Random(1);
+            String text = "1. Things That Could Go Wrong\n" + paragraph(IEEE1058Section.RISK_MANAGEMENT, new Random(7));
+
+            learn(classifier, 1L, "v1", "1. Risk Management\n" + paragraph(IEEE1058Section.RISK_MANAGEMENT, random));
+            learn(classifier, 2L, "v1", "1. Master Schedule\n" + paragraph(IEEE1058Section.MASTER_SCHEDULE, random));
+            classifier.forget(1L);
+            classifier.forget(3L);
+
+            assertEquals(1, classifier.documents());
+            assertTrue(classifier.needsLearning(1L, "v1"));
+            assertEquals(0, classify(classifier, text)[IEEE1058Section.RISK_MANAGEMENT.ordinal()]);
+        }
+
+        @Test
+        @DisplayName("Should keep classifying consistently while other threads learn")
+        void learn_ConcurrentWithClassify() throws InterruptedException {
+            SectionClassifier classifier = trained(1, 5);
+            String text = "1. Things That Could Go Wrong\n" + paragraph(IEEE1058Section.RISK_MANAGEMENT, new Random(7));
+            Thread learner = new Thread(() -> {
+                Random random = new Random(3);
+                for (int i = 0; i < 50; i++) {
+                    learn(classifier, 100L + i, "v1", titledPlan(random));
+                }
+            });
+
+            learner.start();
+            for (int i = 0; i < 200; i++) {
+                assertEquals(1, classify(classifier, text)[IEEE1058Section.RISK_MANAGEMENT.ordinal()]);
+            }
+            learner.join();
+            assertEquals(55, classifier.documents());
+        }
+    }
+}
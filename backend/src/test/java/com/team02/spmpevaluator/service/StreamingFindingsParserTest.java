@@ -0,0 +1,105 @@
+package com.team02.spmpevaluator.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StreamingFindingsParser.
+ */
+@DisplayName("StreamingFindingsParser Tests")
+class StreamingFindingsParserTest {
+
+    private final List<String> partials = new ArrayList<>();
+    private final List<String> completions = new ArrayList<>();
+    private StreamingFindingsParser parser;
+
+    @BeforeEach
+    void setUp() {
+        parser = new StreamingFindingsParser(new StreamingFindingsParser.Listener() {
+            @Override
+            public void onPartial(String section, String field, String textSoFar) {
+                partials.add(section + "." + field + "=" + textSoFar);
+            }
+
+            @Override
+            public void onFieldComplete(String section, String field, String text) {
+                completions.add(section + "." + field + "=" + text);
+            }
+        });
+    }
+
+    private void feedInPieces(String reply, int pieceLength) {
+        for (int i = 0; i < reply.length(); i += pieceLength) {
+            parser.feed(reply.substring(i, Math.min(reply.length(), i + pieceLength)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should report partial text before a field is complete")
+    void feed_SplitValue_ReportsPartialText() {
+        parser.feed("{\"OVERVIEW\": {\"findings\": \"Scope is");
+
+        assertEquals(List.of("OVERVIEW.findings=Scope is"), partials);
+        assertTrue(completions.isEmpty());
+
+        parser.feed(" clear\"");
+
+        assertEquals("OVERVIEW.findings=Scope is clear", partials.get(partials.size() - 1));
+        assertEquals(List.of("OVERVIEW.findings=Scope is clear"), completions);
+    }
+
+    @Test
+    @DisplayName("Should parse every section regardless of chunk boundaries")
+    void feed_SmallPieces_CompletesAllFields() {
+        String reply = "{\"OVERVIEW\": {\"findings\": \"a\", \"recommendations\": \"b\"},"
+                + " \"RISK_MANAGEMENT\": {\"findings\": \"c\", \"recommendations\": \"d\"}}";
+
+        feedInPieces(reply, 3);
+
+        assertEquals(Map.of("findings", "a", "recommendations", "b"), parser.completedFields().get("OVERVIEW"));
+        assertEquals(Map.of("findings", "c", "recommendations", "d"), parser.completedFields().get("RISK_MANAGEMENT"));
+        assertTrue(parser.isFinished());
+    }
+
+    @Test
+    @DisplayName("Should skip code fences before the JSON object")
+    void feed_CodeFence_Ignored() {
+        feedInPieces("```json\n{\"OVERVIEW\": {\"findings\": \"ok\", \"recommendations\": \"more\"}}\n```", 5);
+
+        assertEquals("ok", parser.completedFields().get("OVERVIEW").get("findings"));
+    }
+
+    @Test
+    @DisplayName("Should decode escapes including split unicode escapes")
+    void feed_Escapes_Decoded() {
+        parser.feed("{\"OVERVIEW\": {\"findings\": \"say \\\"hi\\\"\\nnext \\u0");
+        parser.feed("0e9\", \"recommendations\": \"x\"}}");
+
+        assertEquals("say \"hi\"\nnext \u00e9", parser.completedFields().get("OVERVIEW").get("findings"));
+    }
+
+    @Test
+    @DisplayName("Should ignore fields other than findings and recommendations")
+    void feed_OtherFields_NotReported() {
+        parser.feed("{\"OVERVIEW\": {\"score\": 5, \"note\": \"skip\", \"findings\": \"keep\"}}");
+
+        assertEquals(List.of("OVERVIEW.findings=keep"), completions);
+        assertEquals(Map.of("findings", "keep"), parser.completedFields().get("OVERVIEW"));
+    }
+
+    @Test
+    @DisplayName("Should stop at the end of the outer object")
+    void feed_TrailingText_Ignored() {
+        parser.feed("{\"OVERVIEW\": {\"findings\": \"a\"}} {\"EXTRA\": {\"findings\": \"b\"}}");
+
+        assertTrue(parser.isFinished());
+        assertNull(parser.completedFields().get("EXTRA"));
+    }
+}
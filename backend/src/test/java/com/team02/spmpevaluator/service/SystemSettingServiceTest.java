@@ -233,6 +233,32 @@ class SystemSettingServiceTest {
 
             assertThrows(NumberFormatException.class, () -> systemSettingService.getIntegerSetting("MAX_FILE_SIZE"));
         }
+
+        @Test
+        @DisplayName("Should return the default when the setting is missing")
+        void getIntegerSettingWithDefault_Missing_ReturnsDefault() {
+            when(settingRepository.findBySettingKey("EVALUATION_MAX_CONCURRENT")).thenReturn(Optional.empty());
+
+            assertEquals(4, systemSettingService.getIntegerSetting("EVALUATION_MAX_CONCURRENT", 4));
+        }
+
+        @Test
+        @DisplayName("Should return the default for a non-integer value")
+        void getIntegerSettingWithDefault_NonInteger_ReturnsDefault() {
+            testSetting.setSettingValue("many");
+            when(settingRepository.findBySettingKey("EVALUATION_MAX_CONCURRENT")).thenReturn(Optional.of(testSetting));
+
+            assertEquals(4, systemSettingService.getIntegerSetting("EVALUATION_MAX_CONCURRENT", 4));
+        }
+
+        @Test
+        @DisplayName("Should return the stored value when present")
+        void getIntegerSettingWithDefault_Present_ReturnsValue() {
+            testSetting.setSettingValue(" 8 ");
+            when(settingRepository.findBySettingKey("EVALUATION_MAX_CONCURRENT")).thenReturn(Optional.of(testSetting));
+
+            assertEquals(8, systemSettingService.getIntegerSetting("EVALUATION_MAX_CONCURRENT", 4));
+        }
     }
 
     @Nested
@@ -12,6 +12,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -59,6 +60,9 @@ class UserServiceTest {
     @Mock
     private PasswordResetTokenRepository tokenRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserService userService;
 
@@ -283,6 +287,7 @@ class UserServiceTest {
             // Assert
             assertNotNull(result);
             verify(userRepository).save(any(User.class));
+            verify(eventPublisher).publishEvent(new UserAccountChangedEvent(1L));
         }
 
         @Test
@@ -295,6 +300,7 @@ class UserServiceTest {
             assertThrows(
                     IllegalArgumentException.class,
                     () -> userService.updateUser(999L, "Updated", "Name"));
+            verify(eventPublisher, never()).publishEvent(any(Object.class));
         }
 
         @Test
@@ -372,6 +378,7 @@ class UserServiceTest {
 
             // Assert
             verify(userRepository).save(any(User.class));
+            verify(eventPublisher).publishEvent(new UserAccountChangedEvent(1L));
         }
     }
 
@@ -390,6 +397,7 @@ class UserServiceTest {
 
             // Assert
             verify(userRepository).save(argThat(user -> !user.isEnabled()));
+            verify(eventPublisher).publishEvent(new UserAccountChangedEvent(1L));
         }
 
         @Test
@@ -404,6 +412,7 @@ class UserServiceTest {
 
             // Assert
             verify(userRepository).save(argThat(User::isEnabled));
+            verify(eventPublisher).publishEvent(new UserAccountChangedEvent(1L));
         }
 
         @Test
@@ -417,6 +426,32 @@ class UserServiceTest {
 
             // Assert
             verify(userRepository).save(argThat(user -> !user.isEnabled()));
+            verify(eventPublisher).publishEvent(new UserAccountChangedEvent(1L));
+        }
+
+        @Test
+        @DisplayName("Should publish account change event when user is deleted")
+        void deleteUser_PublishesAccountChangedEvent() {
+            // Arrange
+            when(userRepository.existsById(1L)).thenReturn(true);
+
+            // Act
+            userService.deleteUser(1L);
+
+            // Assert
+            verify(userRepository).deleteById(1L);
+            verify(eventPublisher).publishEvent(new UserAccountChangedEvent(1L));
+        }
+
+        @Test
+        @DisplayName("Should not publish event when user to delete does not exist")
+        void deleteUser_NotFound_DoesNotPublishEvent() {
+            // Arrange
+            when(userRepository.existsById(99L)).thenReturn(false);
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> userService.deleteUser(99L));
+            verify(eventPublisher, never()).publishEvent(any(Object.class));
         }
     }
 
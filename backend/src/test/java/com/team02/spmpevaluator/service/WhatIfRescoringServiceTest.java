@@ -0,0 +1,295 @@
+package com.team02.spmpevaluator.service;
+
+import com.team02.spmpevaluator.dto.GradingCriteriaDTO;
+import com.team02.spmpevaluator.dto.SectionScoreRowDTO;
+import com.team02.spmpevaluator.dto.WhatIfRescoringDTO;
+import com.team02.spmpevaluator.entity.ComplianceScore;
+import com.team02.spmpevaluator.entity.SectionAnalysis.IEEE1058Section;
+import com.team02.spmpevaluator.repository.ComplianceScoreRepository;
+import com.team02.spmpevaluator.repository.SectionAnalysisRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for WhatIfRescoringService.
+ * Tests cohort rescoring from stored section scores and the version-guarded commit.
+ */
+@ExtendWith(MockitoExtension.class)
+class WhatIfRescoringServiceTest {
+
+    @Mock
+    private SectionAnalysisRepository sectionAnalysisRepository;
+
+    @Mock
+    private ComplianceScoreRepository complianceScoreRepository;
+
+    @Mock
+    private GradingCriteriaService gradingCriteriaService;
+
+    @Mock
+    private ComplianceHistoryService complianceHistoryService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Captor
+    private ArgumentCaptor<List<Object[]>> batchCaptor;
+
+    private WhatIfRescoringService rescoringService;
+    private GradingCriteriaDTO overviewHeavy;
+
+    @BeforeEach
+    void setUp() {
+        rescoringService = new WhatIfRescoringService(sectionAnalysisRepository, complianceScoreRepository,
+                gradingCriteriaService, complianceHistoryService, jdbcTemplate, transactionManager);
+        overviewHeavy = new GradingCriteriaDTO();
+        overviewHeavy.setName("Overview heavy");
+        overviewHeavy.setOverviewWeight(40);
+        overviewHeavy.setReferencesWeight(0);
+        overviewHeavy.setDefinitionsWeight(0);
+        overviewHeavy.setOrganizationWeight(10);
+        overviewHeavy.setManagerialProcessWeight(10);
+        overviewHeavy.setTechnicalProcessWeight(10);
+        overviewHeavy.setSupportingProcessWeight(20);
+        overviewHeavy.setAdditionalPlansWeight(10);
+    }
+
+    /**
+     * Section rows for one evaluation: 100 for the overview, {@code otherSections} everywhere else.
+     */
+    private static List<SectionScoreRowDTO> evaluation(long scoreId, double overallScore, boolean compliant,
+                                                       double otherSections) {
+        List<SectionScoreRowDTO> rows = new ArrayList<>();
+        for (IEEE1058Section section : IEEE1058Section.values()) {
+            double sectionScore = section == IEEE1058Section.OVERVIEW ? 100.0 : otherSections;
+            rows.add(new SectionScoreRowDTO(scoreId, 0L, scoreId * 10, "spmp-" + scoreId + ".pdf",
+                    overallScore, compliant, section, sectionScore));
+        }
+        return rows;
+    }
+
+    private void givenCohort() {
+        List<SectionScoreRowDTO> rows = new ArrayList<>();
+        // Overview weight 40 gives 40 + 0.6 * other sections
+        rows.addAll(evaluation(1L, 85.0, true, 60.0));   // 76: becomes non-compliant
+        rows.addAll(evaluation(2L, 70.0, false, 75.0));  // 85: becomes compliant
+        rows.addAll(evaluation(3L, 72.0, false, 80.0));  // 88: becomes compliant
+        when(sectionAnalysisRepository.findSectionScoresByProfessorId(1L)).thenReturn(rows);
+    }
+
+    private void givenCommittable() {
+        givenCohort();
+        GradingCriteriaDTO saved = new GradingCriteriaDTO();
+        saved.setId(9L);
+        lenient().when(gradingCriteriaService.createGradingCriteria(any(GradingCriteriaDTO.class), eq(1L)))
+                .thenReturn(saved);
+        lenient().when(gradingCriteriaService.updateGradingCriteria(eq(9L), any(GradingCriteriaDTO.class), eq(1L)))
+                .thenReturn(saved);
+        List<ComplianceScore> scores = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            ComplianceScore score = new ComplianceScore();
+            score.setId(id);
+            scores.add(score);
+        }
+        when(complianceScoreRepository.findAllById(List.of(1L, 2L, 3L))).thenReturn(scores);
+        lenient().when(jdbcTemplate.batchUpdate(startsWith("UPDATE compliance_scores"), ArgumentMatchers.<Object[]>anyList()))
+                .thenReturn(new int[]{1, 0, 1});
+    }
+
+    @Nested
+    @DisplayName("Preview Tests")
+    class PreviewTests {
+
+        @Test
+        @DisplayName("Should rescore every evaluation and count compliance flips")
+        void rescore_CountsFlips() {
+            givenCohort();
+
+            WhatIfRescoringDTO result = rescoringService.rescore(1L, overviewHeavy, false);
+
+            assertEquals(3, result.getDocumentsScored());
+            assertEquals(2, result.getBecameCompliant());
+            assertEquals(1, result.getBecameNonCompliant());
+            assertEquals(76.0, result.getDocuments().get(0).getNewScore(), 0.0001);
+            assertFalse(result.getDocuments().get(0).isCompliant());
+            assertEquals(85.0, result.getDocuments().get(0).getCurrentScore(), 0.0001);
+            assertEquals(20L, result.getDocuments().get(1).getDocumentId());
+        }
+
+        @Test
+        @DisplayName("Should summarize the new score distribution")
+        void rescore_Distribution() {
+            givenCohort();
+
+            WhatIfRescoringDTO result = rescoringService.rescore(1L, overviewHeavy, false);
+
+            assertEquals(83.0, result.getAverageScore(), 0.0001);
+            assertEquals(85.0, result.getMedianScore(), 0.0001);
+            assertEquals(76.0, result.getMinScore(), 0.0001);
+            assertEquals(88.0, result.getMaxScore(), 0.0001);
+            assertArrayEquals(new int[]{0, 0, 0, 0, 0, 0, 0, 1, 2, 0}, result.getDistribution());
+        }
+
+        @Test
+        @DisplayName("Should not write anything when previewing")
+        void rescore_Preview_NoWrites() {
+            givenCohort();
+
+            WhatIfRescoringDTO result = rescoringService.rescore(1L, overviewHeavy, false);
+
+            assertFalse(result.isCommitted());
+            verifyNoInteractions(jdbcTemplate, transactionManager, gradingCriteriaService, complianceHistoryService);
+        }
+
+        @Test
+        @DisplayName("Should return an empty result for a professor without evaluated documents")
+        void rescore_EmptyCohort() {
+            when(sectionAnalysisRepository.findSectionScoresByProfessorId(1L)).thenReturn(List.of());
+
+            WhatIfRescoringDTO result = rescoringService.rescore(1L, overviewHeavy, true);
+
+            assertEquals(0, result.getDocumentsScored());
+            assertTrue(result.getDocuments().isEmpty());
+            assertFalse(result.isCommitted());
+            verifyNoInteractions(jdbcTemplate);
+        }
+    }
+
+    @Nested
+    @DisplayName("Commit Tests")
+    class CommitTests {
+
+        @Test
+        @DisplayName("Should batch score updates guarded by version and skip stale scores")
+        void rescore_Commit_SkipsStale() {
+            givenCommittable();
+
+            WhatIfRescoringDTO result = rescoringService.rescore(1L, overviewHeavy, true);
+
+            assertTrue(result.isCommitted());
+            assertEquals(2, result.getUpdated());
+            assertEquals(1, result.getSkippedStale());
+
+            verify(jdbcTemplate).batchUpdate(startsWith("UPDATE compliance_scores"), batchCaptor.capture());
+            Object[] first = batchCaptor.getValue().get(0);
+            assertEquals(76.0, (Double) first[0], 0.0001);
+            assertEquals(false, first[1]);
+            assertEquals(1L, first[2]);
+            assertEquals(0L, first[3]);
+
+            // Section weights are only rewritten for the two scores that were still current
+            verify(jdbcTemplate).batchUpdate(startsWith("UPDATE section_analyses"), batchCaptor.capture());
+            assertEquals(2 * IEEE1058Section.values().length, batchCaptor.getValue().size());
+            assertTrue(batchCaptor.getValue().stream().noneMatch(args -> args[1].equals(2L)));
+        }
+
+        @Test
+        @DisplayName("Should save the candidate as the active criteria before writing scores")
+        void rescore_Commit_ActivatesCriteria() {
+            givenCommittable();
+
+            WhatIfRescoringDTO result = rescoringService.rescore(1L, overviewHeavy, true);
+
+            assertEquals(9L, result.getCriteriaId());
+            ArgumentCaptor<GradingCriteriaDTO> criteria = ArgumentCaptor.forClass(GradingCriteriaDTO.class);
+            InOrder order = inOrder(gradingCriteriaService, jdbcTemplate);
+            order.verify(gradingCriteriaService).createGradingCriteria(criteria.capture(), eq(1L));
+            order.verify(jdbcTemplate).batchUpdate(startsWith("UPDATE compliance_scores"), ArgumentMatchers.<Object[]>anyList());
+            assertTrue(criteria.getValue().isActive());
+            assertEquals(40, criteria.getValue().getOverviewWeight());
+            verify(gradingCriteriaService, never()).updateGradingCriteria(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should update and activate the professor's existing criteria when an id is given")
+        void rescore_Commit_UpdatesExistingCriteria() {
+            givenCommittable();
+            overviewHeavy.setId(9L);
+
+            rescoringService.rescore(1L, overviewHeavy, true);
+
+            verify(gradingCriteriaService).updateGradingCriteria(eq(9L), argThat(GradingCriteriaDTO::isActive), eq(1L));
+            verify(gradingCriteriaService, never()).createGradingCriteria(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should archive only the scores that were replaced")
+        void rescore_Commit_ArchivesReplacedScores() {
+            givenCommittable();
+
+            rescoringService.rescore(1L, overviewHeavy, true);
+
+            verify(complianceHistoryService).archiveScores(argThat(archived ->
+                    archived.stream().map(ComplianceScore::getId).toList().equals(List.of(1L, 3L))),
+                    eq("WHAT_IF_RESCORE"), eq(1L));
+            verify(complianceHistoryService, never()).archiveScore(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should require a name to commit")
+        void rescore_Commit_NameRequired() {
+            overviewHeavy.setName(" ");
+
+            IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                    () -> rescoringService.rescore(1L, overviewHeavy, true));
+
+            assertEquals("A name is required to save the candidate weights", error.getMessage());
+            verifyNoInteractions(sectionAnalysisRepository, gradingCriteriaService, jdbcTemplate);
+        }
+    }
+
+    @Nested
+    @DisplayName("Validation Tests")
+    class ValidationTests {
+
+        @Test
+        @DisplayName("Should reject weights that do not sum to 100")
+        void rescore_InvalidTotal() {
+            overviewHeavy.setOverviewWeight(50);
+
+            IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                    () -> rescoringService.rescore(1L, overviewHeavy, false));
+
+            assertEquals("Section weights must sum to 100. Current total: 110", error.getMessage());
+            verifyNoInteractions(sectionAnalysisRepository);
+        }
+
+        @Test
+        @DisplayName("Should reject negative weights")
+        void rescore_NegativeWeight() {
+            overviewHeavy.setOverviewWeight(50);
+            overviewHeavy.setDefinitionsWeight(-10);
+
+            assertThrows(IllegalArgumentException.class, () -> rescoringService.rescore(1L, overviewHeavy, false));
+        }
+
+        @Test
+        @DisplayName("Should reject missing weights")
+        void rescore_MissingWeight() {
+            overviewHeavy.setReferencesWeight(null);
+
+            assertThrows(IllegalArgumentException.class, () -> rescoringService.rescore(1L, overviewHeavy, false));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.team02.spmpevaluator.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ExcerptSelector.
+ */
+@DisplayName("ExcerptSelector Tests")
+class ExcerptSelectorTest {
+
+    private static String filler(String word, int paragraphs) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < paragraphs; i++) {
+            sb.append(word).append(" paragraph ").append(i).append(" with general text about the course project. ")
+                    .append("It repeats some words to take up space in the document body.\n\n");
+        }
+        return sb.toString();
+    }
+
+    @Nested
+    @DisplayName("Selection Tests")
+    class SelectionTests {
+
+        @Test
+        @DisplayName("Should return small documents unchanged")
+        void select_FitsBudget_ReturnsDocument() {
+            String document = "1. Overview\nThe purpose of this project is to build an evaluator.";
+
+            assertEquals(document, ExcerptSelector.select(document, Set.of("risk"), 1000));
+        }
+
+        @Test
+        @DisplayName("Should pick matching chunks from deep in the document over the title page")
+        void select_RelevantChunkLate_SelectsIt() {
+            String document = "Title Page\nUniversity Course Submission\n\n"
+                    + filler("Intro", 20)
+                    + "5. Risk Management\nRisk assessment identifies each risk and its risk mitigation strategy.\n\n"
+                    + filler("Outro", 20);
+
+            String excerpt = ExcerptSelector.select(document, Set.of("risk management", "risk", "risk mitigation"), 60);
+
+            assertTrue(excerpt.contains("Risk assessment identifies"));
+            assertFalse(excerpt.contains("Title Page"));
+        }
+
+        @Test
+        @DisplayName("Should stay within the token budget")
+        void select_ManyMatches_RespectsBudget() {
+            String document = filler("Schedule milestones", 50);
+
+            String excerpt = ExcerptSelector.select(document, Set.of("milestones", "schedule"), 100);
+
+            assertTrue(ExcerptSelector.estimateTokens(excerpt) <= 100);
+            assertFalse(excerpt.isBlank());
+        }
+
+        @Test
+        @DisplayName("Should return selected chunks in document order with gap markers")
+        void select_NonAdjacentChunks_DocumentOrder() {
+            String document = "Budget estimate for the project.\n\n"
+                    + filler("Intro", 30)
+                    + "Risk register and risk mitigation.\n\n"
+                    + filler("Outro", 30);
+
+            String excerpt = ExcerptSelector.select(document, Set.of("budget", "risk"), 80);
+
+            assertTrue(excerpt.indexOf("Budget estimate") < excerpt.indexOf("Risk register"));
+            assertTrue(excerpt.contains(ExcerptSelector.GAP_MARKER));
+        }
+
+        @Test
+        @DisplayName("Should fall back to the start of the document when nothing matches")
+        void select_NoMatches_UsesDocumentStart() {
+            String document = filler("Intro", 40);
+
+            String excerpt = ExcerptSelector.select(document, Set.of("glossary"), 50);
+
+            assertTrue(excerpt.startsWith("Intro paragraph 0"));
+        }
+
+        @Test
+        @DisplayName("Should truncate a single oversized chunk to the budget")
+        void select_ChunkLargerThanBudget_Truncates() {
+            String document = "risk ".repeat(150) + "\n\n" + filler("Intro", 10);
+
+            String excerpt = ExcerptSelector.select(document, Set.of("risk"), 20);
+
+            assertTrue(excerpt.length() <= 20 * ExcerptSelector.CHARS_PER_TOKEN);
+            assertTrue(excerpt.startsWith("risk"));
+        }
+
+        @Test
+        @DisplayName("Should return empty string for blank input or zero budget")
+        void select_BlankOrZeroBudget_ReturnsEmpty() {
+            assertEquals("", ExcerptSelector.select(null, Set.of("risk"), 100));
+            assertEquals("", ExcerptSelector.select("   ", Set.of("risk"), 100));
+            assertEquals("", ExcerptSelector.select("risk plan", Set.of("risk"), 0));
+        }
+
+        @Test
+        @DisplayName("Should pick the same excerpts from a shared folded copy")
+        void select_PreFolded_SameExcerpts() {
+            String document = "Budget Estimate for the project.\n\n"
+                    + filler("Intro", 30)
+                    + "RISK register and Risk Mitigation.\n\n"
+                    + filler("Outro", 30);
+            FoldedText folded = FoldedText.of(document);
+
+            for (Set<String> terms : List.of(Set.of("budget"), Set.of("Risk Mitigation", "risk"), Set.of("glossary"))) {
+                assertEquals(ExcerptSelector.select(document, terms, 80),
+                        ExcerptSelector.select(document, folded, terms, 80));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Chunking and Scoring Tests")
+    class ChunkingAndScoringTests {
+
+        @Test
+        @DisplayName("Should split on blank lines and cap chunk size")
+        void chunk_LongParagraph_SplitsUnderLimit() {
+            String document = "Short paragraph.\n\n" + "word ".repeat(500);
+
+            List<String> chunks = ExcerptSelector.chunk(document);
+
+            assertEquals("Short paragraph.", chunks.get(0));
+            assertTrue(chunks.size() > 2);
+            assertTrue(chunks.stream().allMatch(c -> c.length() <= ExcerptSelector.MAX_CHUNK_CHARS));
+        }
+
+        @Test
+        @DisplayName("Should rank specific phrases above single words")
+        void score_PhraseMatch_OutranksWordMatch() {
+            double phrase = ExcerptSelector.score("The risk management plan.", List.of("risk management", "risk"));
+            double word = ExcerptSelector.score("A risk exists.", List.of("risk management", "risk"));
+
+            assertTrue(phrase > word);
+        }
+
+        @Test
+        @DisplayName("Should dampen repeated keywords")
+        void score_RepeatedKeyword_Diminishing() {
+            double once = ExcerptSelector.score("body risk text", List.of("risk"));
+            double tenTimes = ExcerptSelector.score("body " + "risk ".repeat(10), List.of("risk"));
+
+            assertTrue(tenTimes < once * 10);
+        }
+
+        @Test
+        @DisplayName("Should give heading matches a bonus")
+        void score_HeadingMatch_Bonus() {
+            double heading = ExcerptSelector.score("Risk\nbody text", List.of("risk"));
+            double body = ExcerptSelector.score("Introduction\nbody text risk", List.of("risk"));
+
+            assertTrue(heading > body);
+        }
+
+        @Test
+        @DisplayName("Should estimate four characters per token")
+        void estimateTokens_RoundsUp() {
+            assertEquals(0, ExcerptSelector.estimateTokens(""));
+            assertEquals(1, ExcerptSelector.estimateTokens("abc"));
+            assertEquals(2, ExcerptSelector.estimateTokens("abcde"));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.team02.spmpevaluator.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FoldedText.
+ */
+@DisplayName("FoldedText Tests")
+class FoldedTextTest {
+
+    @Nested
+    @DisplayName("Folding Tests")
+    class FoldingTests {
+
+        @Test
+        @DisplayName("Should lower-case Latin-1 text into the compact form")
+        void of_Latin1_FoldsCompactly() {
+            FoldedText text = FoldedText.of("Risk MANAGEMENT \u00c6R\u00d8");
+
+            assertTrue(text.isLatin1());
+            assertEquals("risk management \u00e6r\u00f8", text.toString());
+        }
+
+        @Test
+        @DisplayName("Should fall back to chars for text outside Latin-1 and keep every offset")
+        void of_Wide_KeepsOffsets() {
+            String original = "Plan \u0130 \u03a3igma \u2014 Risk";
+            FoldedText text = FoldedText.of(original);
+
+            assertFalse(text.isLatin1());
+            assertEquals(original.length(), text.length());
+            assertEquals(original.indexOf("Risk"), text.indexOf("risk", 0));
+            assertEquals('\u03c3', text.charAt(original.indexOf('\u03a3')));
+        }
+
+        @Test
+        @DisplayName("Should fold terms the same way as the text")
+        void fold_MatchesText() {
+            String term = FoldedText.fold("Work Breakdown Structure");
+
+            assertEquals("work breakdown structure", term);
+            assertTrue(FoldedText.of("The WORK BREAKDOWN STRUCTURE lists tasks").contains(term));
+        }
+    }
+
+    @Nested
+    @DisplayName("Slice Tests")
+    class SliceTests {
+
+        @Test
+        @DisplayName("Should search within a slice only")
+        void subSequence_SearchesInsideSlice() {
+            FoldedText text = FoldedText.of("risk one\nBudget two\nrisk three");
+            FoldedText middle = text.subSequence(9, 19);
+
+            assertEquals("budget two", middle.toString());
+            assertEquals(-1, middle.indexOf("risk", 0));
+            assertEquals(7, middle.indexOf("two", 0));
+            assertEquals(-1, middle.indexOf('\n', 0));
+            assertEquals("two", middle.subSequence(7, 10).toString());
+        }
+
+        @Test
+        @DisplayName("Should find repeated terms from a start offset")
+        void indexOf_FromOffset() {
+            FoldedText text = FoldedText.of("Risk risk RISK");
+
+            assertEquals(0, text.indexOf("risk", 0));
+            assertEquals(5, text.indexOf("risk", 1));
+            assertEquals(10, text.indexOf("risk", 6));
+            assertEquals(-1, text.indexOf("risk", 11));
+        }
+
+        @Test
+        @DisplayName("Should reject out of range slices")
+        void subSequence_OutOfRange_Throws() {
+            FoldedText text = FoldedText.of("risk");
+
+            assertThrows(IndexOutOfBoundsException.class, () -> text.subSequence(2, 5));
+            assertThrows(IndexOutOfBoundsException.class, () -> text.subSequence(3, 2));
+            assertThrows(IndexOutOfBoundsException.class, () -> text.charAt(4));
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.team02.spmpevaluator.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FuzzyKeywordMatcher.
+ */
+@DisplayName("FuzzyKeywordMatcher Tests")
+class FuzzyKeywordMatcherTest {
+
+    private static final List<String> KEYWORDS = List.of("risk management", "schedule", "milestone", "wbs",
+            "work breakdown structure");
+
+    private static List<String> matches(FuzzyKeywordMatcher matcher, List<String> keywords, String text) {
+        List<String> found = new ArrayList<>();
+        matcher.scan(text, (keyword, start, end) -> found.add(keywords.get(keyword) + "@" + start + "-" + end));
+        return found;
+    }
+
+    private static List<String> matches(String text) {
+        return matches(FuzzyKeywordMatcher.of(KEYWORDS, 2), KEYWORDS, text);
+    }
+
+    // Smallest edit distance between the keyword and any prefix of the word
+    private static int prefixDistance(String keyword, String word) {
+        int[] previous = new int[word.length() + 1];
+        int[] row = new int[word.length() + 1];
+        for (int j = 0; j <= word.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= keyword.length(); i++) {
+            row[0] = i;
+            for (int j = 1; j <= word.length(); j++) {
+                int substitution = previous[j - 1] + (keyword.charAt(i - 1) == word.charAt(j - 1) ? 0 : 1);
+                row[j] = Math.min(substitution, Math.min(previous[j], row[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = row;
+            row = swap;
+        }
+        int best = Integer.MAX_VALUE;
+        for (int distance : previous) {
+            best = Math.min(best, distance);
+        }
+        return best;
+    }
+
+    @Nested
+    @DisplayName("Matching Tests")
+    class MatchingTests {
+
+        @Test
+        @DisplayName("Should match exact occurrences with their start and end")
+        void scan_Exact() {
+            assertEquals(List.of("risk management@4-19", "wbs@24-27"), matches("The Risk Management and WBS."));
+        }
+
+        @Test
+        @DisplayName("Should match typos within the budget of each word")
+        void scan_Typos() {
+            assertEquals(List.of("risk management@0-14"), matches("risk mangement"));
+            assertEquals(List.of("milestone@0-9"), matches("milsetone"));
+            assertEquals(List.of(), matches("rsik management"));
+        }
+
+        @Test
+        @DisplayName("Should match inflected forms through free word endings")
+        void scan_Inflections() {
+            assertEquals(List.of("schedule@0-10"), matches("scheduling"));
+            assertEquals(List.of("milestone@4-14"), matches("Key milestones"));
+        }
+
+        @Test
+        @DisplayName("Should join words hyphenated at a line break")
+        void scan_HyphenatedLineBreak() {
+            assertEquals(List.of("risk management@0-19"), matches("Risk manage-\n  ment plan"));
+            assertEquals(List.of("schedule@0-11"), matches("sched\u00AD\r\nule"));
+            assertEquals(List.of(), matches("risk manage-\nMent"));
+        }
+
+        @Test
+        @DisplayName("Should match short words exactly")
+        void scan_ShortWordsExact() {
+            assertEquals(List.of(), matches("wbx"));
+            assertEquals(List.of(), matches("rusk management"));
+        }
+
+        @Test
+        @DisplayName("Should only join words separated by whitespace")
+        void scan_PhraseSeparators() {
+            assertEquals(List.of("work breakdown structure@0-25"), matches("work\n breakdown\tstructure"));
+            assertEquals(List.of(), matches("work breakdown. Structure"));
+            assertEquals(List.of(), matches("risk, management"));
+        }
+
+        @Test
+        @DisplayName("Should agree with a direct edit distance for single words")
+        void scan_MatchesDirectDistance() {
+            List<String> keywords = List.of("baseline", "deliverable", "estimation", "quality", "resource");
+            FuzzyKeywordMatcher matcher = FuzzyKeywordMatcher.of(keywords, 2);
+            Random random = new Random(1058);
+            for (int round = 0; round < 5000; round++) {
+                String keyword = keywords.get(random.nextInt(keywords.size()));
+                StringBuilder word = new StringBuilder(keyword);
+                for (int edit = random.nextInt(4); edit > 0 && !word.isEmpty(); edit--) {
+                    int at = random.nextInt(word.length());
+                    char c = (char) ('a' + random.nextInt(26));
+                    switch (random.nextInt(3)) {
+                        case 0 -> word.setCharAt(at, c);
+                        case 1 -> word.insert(at, c);
+                        default -> word.deleteCharAt(at);
+                    }
+                }
+
+                List<String> expected = new ArrayList<>();
+                for (String candidate : keywords) {
+                    int budget = FuzzyKeywordMatcher.editBudget(candidate.length(), 2);
+                    if (!word.isEmpty() && prefixDistance(candidate, word.toString()) <= budget) {
+                        expected.add(candidate + "@0-" + word.length());
+                    }
+                }
+                assertEquals(expected, matches(matcher, keywords, word.toString()), word.toString());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Construction Tests")
+    class ConstructionTests {
+
+        @Test
+        @DisplayName("Should match nothing but exact words with no edit budget")
+        void of_NoEdits() {
+            FuzzyKeywordMatcher matcher = FuzzyKeywordMatcher.of(KEYWORDS, 0);
+
+            assertEquals(List.of(), matches(matcher, KEYWORDS, "risk mangement"));
+            assertEquals(List.of("schedule@0-9"), matches(matcher, KEYWORDS, "schedules."));
+        }
+
+        @Test
+        @DisplayName("Should reject edit budgets out of range")
+        void of_InvalidBudget() {
+            assertThrows(IllegalArgumentException.class, () -> FuzzyKeywordMatcher.of(KEYWORDS, -1));
+            assertThrows(IllegalArgumentException.class,
+                    () -> FuzzyKeywordMatcher.of(KEYWORDS, FuzzyKeywordMatcher.MAX_EDITS + 1));
+        }
+
+        @Test
+        @DisplayName("Should ignore keywords without letters or digits")
+        void of_BlankKeywords() {
+            List<String> keywords = List.of("--", "plan");
+
+            assertEquals(List.of("plan@0-4"), matches(FuzzyKeywordMatcher.of(keywords, 1), keywords, "plan"));
+            assertEquals(List.of(), matches(FuzzyKeywordMatcher.of(List.of("--"), 1), List.of("--"), "plan -- x"));
+        }
+    }
+}
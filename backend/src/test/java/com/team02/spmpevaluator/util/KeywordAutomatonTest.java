@@ -0,0 +1,98 @@
+package com.team02.spmpevaluator.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for KeywordAutomaton.
+ */
+@DisplayName("KeywordAutomaton Tests")
+class KeywordAutomatonTest {
+
+    private static List<String> matches(KeywordAutomaton automaton, String text) {
+        List<String> found = new ArrayList<>();
+        automaton.scan(text, (keyword, end) -> found.add(automaton.keyword(keyword) + "@" + end));
+        return found;
+    }
+
+    @Nested
+    @DisplayName("Matching Tests")
+    class MatchingTests {
+
+        @Test
+        @DisplayName("Should report every occurrence with its end offset")
+        void scan_ReportsOccurrences() {
+            KeywordAutomaton automaton = KeywordAutomaton.of(List.of("risk", "plan"));
+
+            assertEquals(List.of("risk@4", "plan@9", "risk@18"), matches(automaton, "risk plan and risk"));
+        }
+
+        @Test
+        @DisplayName("Should ignore case in both keywords and text")
+        void scan_IgnoresCase() {
+            KeywordAutomaton automaton = KeywordAutomaton.of(List.of("Work Plan"));
+
+            assertArrayEquals(new boolean[]{true}, automaton.matchedKeywords("5.2 WORK PLAN"));
+            assertEquals("work plan", automaton.keyword(0));
+        }
+
+        @Test
+        @DisplayName("Should report overlapping and nested keywords")
+        void scan_OverlappingKeywords() {
+            KeywordAutomaton automaton = KeywordAutomaton.of(List.of("he", "she", "his", "hers"));
+
+            assertEquals(List.of("she@4", "he@4", "hers@6"), matches(automaton, "ushers"));
+        }
+
+        @Test
+        @DisplayName("Should match inside longer words like String.contains")
+        void scan_SubstringSemantics() {
+            KeywordAutomaton automaton = KeywordAutomaton.of(List.of("risk"));
+
+            assertArrayEquals(new boolean[]{true}, automaton.matchedKeywords("Risks were assessed"));
+        }
+
+        @Test
+        @DisplayName("Should keep keyword indexes for duplicates and never match blanks")
+        void matchedKeywords_DuplicatesAndBlanks() {
+            KeywordAutomaton automaton = KeywordAutomaton.of(Arrays.asList("budget", " ", "budget", null));
+
+            assertEquals(4, automaton.size());
+            assertArrayEquals(new boolean[]{true, false, true, false}, automaton.matchedKeywords("the budget"));
+        }
+
+        @Test
+        @DisplayName("Should match nothing when empty")
+        void empty_MatchesNothing() {
+            assertEquals(0, KeywordAutomaton.empty().size());
+            assertTrue(matches(KeywordAutomaton.empty(), "anything").isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Should agree with String.contains on random text")
+    void matchedKeywords_AgreesWithContains() {
+        List<String> keywords = List.of("ab", "abc", "bca", "cab", "aa", "b", "cc", "abca", "bb");
+        KeywordAutomaton automaton = KeywordAutomaton.of(keywords);
+        Random random = new Random(42);
+
+        for (int round = 0; round < 200; round++) {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < 30; i++) {
+                text.append((char) ('a' + random.nextInt(3)));
+            }
+            boolean[] matched = automaton.matchedKeywords(text);
+            for (int k = 0; k < keywords.size(); k++) {
+                assertEquals(text.toString().contains(keywords.get(k)), matched[k], keywords.get(k) + " in " + text);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.team02.spmpevaluator.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TextScanner.
+ * The scalar scanner is checked against hand-picked cases, the preferred one (vectorized when the
+ * tests run with the vector module) against the scalar one on random text.
+ */
+@DisplayName("TextScanner Tests")
+class TextScannerTest {
+
+    private static final TextScanner SCALAR = TextScanner.scalar();
+
+    private static char[] randomText(Random random, int length) {
+        char[] alphabet = "aZ 9.-\n\r\t\u0085\u2028\u2029\u00c9\u0130\u2022Mx".toCharArray();
+        char[] text = new char[length];
+        for (int i = 0; i < length; i++) {
+            // Mostly plain letters, so the vector loops see long runs without hits
+            text[i] = random.nextInt(20) == 0
+                    ? alphabet[random.nextInt(alphabet.length)]
+                    : (char) ('a' + random.nextInt(26));
+        }
+        return text;
+    }
+
+    @Nested
+    @DisplayName("Scalar Tests")
+    class ScalarTests {
+
+        @Test
+        @DisplayName("Should find a char inside the range or return its end")
+        void indexOf_FindsInRange() {
+            char[] text = "one\ntwo\nthree".toCharArray();
+
+            assertEquals(3, SCALAR.indexOf(text, 0, text.length, '\n'));
+            assertEquals(7, SCALAR.indexOf(text, 4, text.length, '\n'));
+            assertEquals(text.length, SCALAR.indexOf(text, 8, text.length, '\n'));
+            assertEquals(5, SCALAR.indexOf(text, 4, 5, '\n'));
+        }
+
+        @Test
+        @DisplayName("Should find every line terminator except newline")
+        void indexOfLineBreak_FindsOtherTerminators() {
+            for (char terminator : new char[]{'\r', '\u0085', '\u2028', '\u2029'}) {
+                char[] text = ("ab\n" + terminator + "c").toCharArray();
+                assertEquals(3, SCALAR.indexOfLineBreak(text, 0, text.length));
+            }
+            char[] plain = "no breaks\nhere".toCharArray();
+            assertEquals(plain.length, SCALAR.indexOfLineBreak(plain, 0, plain.length));
+        }
+
+        @Test
+        @DisplayName("Should fold ASCII into bytes and stop at the first other char")
+        void foldAscii_StopsAtNonAscii() {
+            char[] text = "Risk PLAN \u00c9tude".toCharArray();
+            byte[] folded = new byte[text.length];
+
+            int stop = SCALAR.foldAscii(text, 0, text.length, folded, 0);
+
+            assertEquals(10, stop);
+            assertEquals("risk plan ", new String(folded, 0, stop, StandardCharsets.ISO_8859_1));
+        }
+    }
+
+    @Nested
+    @DisplayName("Preferred Scanner Tests")
+    class PreferredTests {
+
+        private final TextScanner preferred = TextScanner.get();
+
+        @Test
+        @DisplayName("Should agree with the scalar scanner on random text and ranges")
+        void get_MatchesScalar() {
+            Random random = new Random(1058);
+            for (int round = 0; round < 2000; round++) {
+                char[] text = randomText(random, random.nextInt(300));
+                int from = text.length == 0 ? 0 : random.nextInt(text.length);
+                int to = from + random.nextInt(text.length - from + 1);
+
+                assertEquals(SCALAR.indexOf(text, from, to, '\n'), preferred.indexOf(text, from, to, '\n'));
+                assertEquals(SCALAR.indexOfLineBreak(text, from, to), preferred.indexOfLineBreak(text, from, to));
+
+                byte[] expected = new byte[text.length];
+                byte[] actual = new byte[text.length];
+                int stop = SCALAR.foldAscii(text, from, to, expected, 0);
+                assertEquals(stop, preferred.foldAscii(text, from, to, actual, 0));
+                assertArrayEquals(expected, actual);
+            }
+        }
+
+        @Test
+        @DisplayName("Should fold like Character.toLowerCase through FoldedText")
+        void foldedText_MatchesCharacterFolding() {
+            String text = "Project PLAN: Risk \u00c9valuation, \u0130stanbul Office ".repeat(50);
+
+            FoldedText folded = FoldedText.of(text);
+
+            for (int i = 0; i < text.length(); i++) {
+                assertEquals(Character.toLowerCase(text.charAt(i)), folded.charAt(i));
+            }
+        }
+    }
+}